@@ -0,0 +1,9 @@
+DELETE FROM wiki_chat_messages m
+USING wiki_chat_messages d
+WHERE m.session_id = d.session_id
+  AND m.role = d.role
+  AND m.created_at = d.created_at
+  AND m.id > d.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_wiki_chat_messages_session_role_created_at
+    ON wiki_chat_messages (session_id, role, created_at);
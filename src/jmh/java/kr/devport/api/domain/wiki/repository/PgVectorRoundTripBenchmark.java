@@ -0,0 +1,111 @@
+package kr.devport.api.domain.wiki.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round-trip comparison of the two pgvector binding paths against a live Postgres with the vector extension.
+ * {@link #float4ArrayBoundOnce} is the production path: pgjdbc encodes the float[] parameter as real[], which
+ * the statement casts to vector once. Connection settings come from the same DB_* environment variables as application.yml.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PgVectorRoundTripBenchmark {
+
+    private static final int DIMENSIONS = 1536;
+
+    private static final String TEXT_SQL = "SELECT cast(? AS vector) <=> cast(? AS vector)";
+
+    private static final String BINARY_SQL = """
+            WITH query_embedding AS MATERIALIZED (
+                SELECT cast(cast(? AS real[]) AS vector) AS embedding
+            )
+            SELECT (SELECT embedding FROM query_embedding) <=> (SELECT embedding FROM query_embedding)
+            """;
+
+    private Connection connection;
+    private PreparedStatement textStatement;
+    private PreparedStatement binaryStatement;
+    private float[] embedding;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = "jdbc:postgresql://%s:%s/%s".formatted(
+                env("DB_HOST", "localhost"),
+                env("DB_PORT", "5432"),
+                env("DB_NAME", "devportdb")
+        );
+        connection = DriverManager.getConnection(
+                url,
+                env("DB_USERNAME", "devport_user"),
+                env("DB_PASSWORD", "devport_password")
+        );
+        textStatement = connection.prepareStatement(TEXT_SQL);
+        binaryStatement = connection.prepareStatement(BINARY_SQL);
+
+        SplittableRandom random = new SplittableRandom(42);
+        embedding = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            embedding[i] = (float) (random.nextDouble() * 2 - 1);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public double textLiteralBoundTwice() throws SQLException {
+        String literal = toVectorLiteral(embedding);
+        textStatement.setString(1, literal);
+        textStatement.setString(2, literal);
+        return readDistance(textStatement);
+    }
+
+    @Benchmark
+    public double float4ArrayBoundOnce() throws SQLException {
+        binaryStatement.setObject(1, embedding);
+        return readDistance(binaryStatement);
+    }
+
+    private double readDistance(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getDouble(1);
+        }
+    }
+
+    private static String toVectorLiteral(float[] vector) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(vector[i]);
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
@@ -0,0 +1,74 @@
+package kr.devport.api.domain.wiki.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-turn question analysis cost: the former path (five FAQ regexes in both chat and retrieval,
+ * the meta-history regex, and two token splits) versus one {@link WikiQuestionIntents#analyze} pass.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WikiQuestionIntentsBenchmark {
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^a-z0-9가-힣]+");
+    private static final Pattern META_HISTORY = Pattern.compile(
+            "이전|예전|방금|아까|요약|정리|다시|뭐라고|말했|물어봤|before|previous|summary|summarize|earlier|what did",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern[] FAQ_PATTERNS = {
+            Pattern.compile("문제.*해결|해결.*문제|왜 만들|어떤.*목적|what.*problem|solve|why.*built", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("아키텍처|구조|설계|architecture|design|어떻게.*동작|동작.*원리|how.*work|내부.*구조", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("시작하려면|어떻게.*시작|설치|install|setup|getting.?started|사용.*방법|how.*use|how.*start", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("최근.*변경|변경.*사항|changelog|release|업데이트|최근.*업|새로운|recent.*change|what.*new", Pattern.CASE_INSENSITIVE),
+            Pattern.compile("주요.*기능|기능.*무엇|특징|feature|capabilities|what.*can|뭘.*할|어떤.*기능", Pattern.CASE_INSENSITIVE)
+    };
+
+    @Param({
+            "JWT 토큰 만료 시간은 어디에서 설정해?",
+            "이 프로젝트의 주요 기능이 뭐야?",
+            "How does the request pipeline work when the cache misses?"
+    })
+    private String question;
+
+    @Benchmark
+    public void regexPath(Blackhole blackhole) {
+        blackhole.consume(detectFaq(question));
+        blackhole.consume(detectFaq(question));
+        blackhole.consume(META_HISTORY.matcher(question).find());
+        blackhole.consume(tokenize(question));
+        blackhole.consume(tokenize(question));
+    }
+
+    @Benchmark
+    public WikiQuestionIntents.Analysis automatonPath() {
+        return WikiQuestionIntents.analyze(question);
+    }
+
+    private static int detectFaq(String text) {
+        for (int i = 0; i < FAQ_PATTERNS.length; i++) {
+            if (FAQ_PATTERNS[i].matcher(text).find()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Set<String> tokenize(String text) {
+        return TOKEN_SPLIT.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> token.length() >= 2)
+                .collect(LinkedHashSet::new, Set::add, Set::addAll);
+    }
+}
@@ -4,6 +4,7 @@ import org.slf4j.MDC;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 public final class LoggingContext {
 
@@ -40,4 +41,25 @@ public final class LoggingContext {
             }
         };
     }
+
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> delegate) {
+        Map<String, String> capturedContext = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previousContext = MDC.getCopyOfContextMap();
+            try {
+                if (capturedContext != null) {
+                    MDC.setContextMap(capturedContext);
+                } else {
+                    MDC.clear();
+                }
+                return delegate.get();
+            } finally {
+                if (previousContext != null) {
+                    MDC.setContextMap(previousContext);
+                } else {
+                    MDC.clear();
+                }
+            }
+        };
+    }
 }
@@ -0,0 +1,104 @@
+package kr.devport.api.domain.common.webhook;
+
+import kr.devport.api.domain.common.cache.CacheScope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Fans crawler job completions out to every node over Redis pub/sub.
+ * The webhook reaches a single node, but the in-heap caches that listen for {@link CrawlerJobCompletedEvent}
+ * live on every node. The receiving node publishes the event to a Redis channel, and every other node
+ * republishes it locally as a remote event; a node ignores its own messages. A failed publish is logged and
+ * leaves the other nodes on their cache TTLs.
+ */
+@Slf4j
+@Component
+public class CrawlerJobBroadcaster implements MessageListener {
+
+    static final String CHANNEL = "devport:crawler:job-completed";
+    private static final String NODE_ID_KEY = "nodeId";
+    private static final String JOB_ID_KEY = "jobId";
+    private static final String SCOPE_KEY = "scope";
+    private static final String PROJECT_EXTERNAL_IDS_KEY = "projectExternalIds";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CrawlerJobBroadcaster(
+            RedisTemplate<String, Object> redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.crawler.broadcast.enabled:true}") boolean enabled
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        if (enabled) {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        }
+    }
+
+    @EventListener
+    public void onCrawlerJobCompleted(CrawlerJobCompletedEvent event) {
+        if (!enabled || event.remote()) {
+            return;
+        }
+        Map<String, Object> payload = new HashMap<>();
+        payload.put(NODE_ID_KEY, nodeId);
+        payload.put(JOB_ID_KEY, event.jobId());
+        payload.put(SCOPE_KEY, event.scope().name());
+        payload.put(PROJECT_EXTERNAL_IDS_KEY, new ArrayList<>(event.projectExternalIds()));
+        try {
+            redisTemplate.convertAndSend(CHANNEL, payload);
+        } catch (Exception e) {
+            log.warn("crawler-broadcast: publishing jobId={} to other nodes failed: {}", event.jobId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object body;
+        try {
+            body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+        } catch (Exception e) {
+            log.warn("crawler-broadcast: ignoring unreadable message: {}", e.getMessage());
+            return;
+        }
+        if (!(body instanceof Map<?, ?> payload) || nodeId.equals(payload.get(NODE_ID_KEY))) {
+            return;
+        }
+        String jobId = String.valueOf(payload.get(JOB_ID_KEY));
+        Set<String> projectExternalIds = new LinkedHashSet<>();
+        if (payload.get(PROJECT_EXTERNAL_IDS_KEY) instanceof List<?> ids) {
+            ids.forEach(id -> projectExternalIds.add(String.valueOf(id)));
+        }
+        log.info("crawler-broadcast: received jobId={} projects={} from another node", jobId, projectExternalIds.size());
+        eventPublisher.publishEvent(new CrawlerJobCompletedEvent(jobId, scope(payload.get(SCOPE_KEY)), projectExternalIds, true));
+    }
+
+    private static CacheScope scope(Object value) {
+        try {
+            return CacheScope.valueOf(String.valueOf(value));
+        } catch (IllegalArgumentException e) {
+            return CacheScope.UNKNOWN;
+        }
+    }
+}
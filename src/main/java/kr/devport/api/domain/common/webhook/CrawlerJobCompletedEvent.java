@@ -0,0 +1,27 @@
+package kr.devport.api.domain.common.webhook;
+
+import kr.devport.api.domain.common.cache.CacheScope;
+
+import java.util.Set;
+
+/**
+ * Published after a crawler job-completed webhook has been processed.
+ * Lets domain-local in-heap caches rebuild without coupling the webhook to each domain.
+ * The node that received the webhook publishes it locally and {@link CrawlerJobBroadcaster} republishes it
+ * on every other node with {@code remote} set, so once-per-cluster work can skip those copies.
+ *
+ * @param jobId Crawler job identifier
+ * @param scope Effective cache scope of the job
+ * @param projectExternalIds Projects named in freshness signals (empty when the job did not name any)
+ * @param remote Whether the webhook was received by another node
+ */
+public record CrawlerJobCompletedEvent(String jobId, CacheScope scope, Set<String> projectExternalIds, boolean remote) {
+
+    public CrawlerJobCompletedEvent {
+        projectExternalIds = projectExternalIds == null ? Set.of() : Set.copyOf(projectExternalIds);
+    }
+
+    public CrawlerJobCompletedEvent(String jobId, CacheScope scope, Set<String> projectExternalIds) {
+        this(jobId, scope, projectExternalIds, false);
+    }
+}
@@ -6,6 +6,7 @@ import kr.devport.api.domain.common.webhook.dto.CrawlerJobCompletedRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Mac;
@@ -14,6 +15,9 @@ import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Handles crawler webhook events and delegates to cache invalidation.
@@ -25,8 +29,10 @@ import java.util.HexFormat;
 public class CrawlerWebhookService {
     
     private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String PROJECT_EXTERNAL_ID_KEY = "projectExternalId";
     
     private final CacheInvalidationService cacheInvalidationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Value("${app.crawler.webhook-secret:}")
     private String webhookSecret;
@@ -92,5 +98,23 @@ public class CrawlerWebhookService {
                 scope, request.getJobId(), e);
             // Don't throw - webhook should still return 202 for retry safety
         }
+        
+        try {
+            eventPublisher.publishEvent(new CrawlerJobCompletedEvent(
+                request.getJobId(), scope, extractProjectExternalIds(request)));
+        } catch (Exception e) {
+            log.error("Failed to publish crawler job completion event for jobId={}", request.getJobId(), e);
+        }
+    }
+    
+    private Set<String> extractProjectExternalIds(CrawlerJobCompletedRequest request) {
+        Set<String> projectExternalIds = new LinkedHashSet<>();
+        for (Map<String, Object> signal : request.getFreshnessSignalsOrEmpty()) {
+            Object projectExternalId = signal == null ? null : signal.get(PROJECT_EXTERNAL_ID_KEY);
+            if (projectExternalId != null && !String.valueOf(projectExternalId).isBlank()) {
+                projectExternalIds.add(String.valueOf(projectExternalId));
+            }
+        }
+        return projectExternalIds;
     }
 }
@@ -0,0 +1,28 @@
+package kr.devport.api.domain.wiki.controller;
+
+import kr.devport.api.domain.wiki.dto.response.WikiAnonTrafficOffenderResponse;
+import kr.devport.api.domain.wiki.service.WikiAnonTrafficShield;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/wiki/admin/traffic")
+@RequiredArgsConstructor
+public class WikiAdminTrafficController {
+
+    private final WikiAnonTrafficShield anonTrafficShield;
+
+    /**
+     * Top anonymous chat clients by recent request estimate. The sketch is per node, so each node reports
+     * the traffic it has seen.
+     */
+    @GetMapping("/anonymous/top")
+    public ResponseEntity<List<WikiAnonTrafficOffenderResponse>> topAnonymousOffenders() {
+        return ResponseEntity.ok(anonTrafficShield.topOffenders());
+    }
+}
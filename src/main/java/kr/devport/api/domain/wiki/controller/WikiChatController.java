@@ -1,6 +1,5 @@
 package kr.devport.api.domain.wiki.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -11,6 +10,7 @@ import kr.devport.api.domain.wiki.dto.response.WikiChatResponse;
 import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
 import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
 import kr.devport.api.domain.wiki.service.WikiChatApplicationService;
+import kr.devport.api.domain.wiki.service.WikiStreamCancellation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -36,9 +36,9 @@ import java.util.concurrent.Executors;
 public class WikiChatController {
 
     private static final long STREAM_TIMEOUT_MILLIS = 120_000L;
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private final WikiChatApplicationService chatApplicationService;
+    private final WikiSseTokenCoalescer tokenCoalescer;
     private final ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     @PostMapping("/{projectExternalId}/chat")
@@ -116,17 +116,21 @@ public class WikiChatController {
         final String clientIp = extractClientIp(userDetails, httpRequest);
 
         SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
-        emitter.onTimeout(emitter::complete);
+        WikiStreamCancellation cancellation = cancelOnDisconnect(emitter);
 
         streamExecutor.execute(LoggingContext.wrap(() -> {
             try {
-                WikiChatResult result = chatApplicationService.streamProject(
-                        projectExternalId,
-                        request,
-                        userId,
-                        clientIp,
-                        token -> sendToken(emitter, token)
-                );
+                WikiChatResult result;
+                try (WikiSseTokenCoalescer.TokenSink tokens = tokenCoalescer.open(emitter, "project")) {
+                    result = chatApplicationService.streamProject(
+                            projectExternalId,
+                            request,
+                            userId,
+                            clientIp,
+                            tokens,
+                            cancellation
+                    );
+                }
                 emitter.send(SseEmitter.event()
                         .name("done")
                         .data(
@@ -141,6 +145,10 @@ public class WikiChatController {
                         ));
                 emitter.complete();
             } catch (Exception ex) {
+                if (cancellation.isCancelled()) {
+                    log.debug("Wiki chat stream cancelled by the client: {}", ex.getMessage());
+                    return;
+                }
                 handleStreamFailure(emitter, ex);
             }
         }));
@@ -148,6 +156,20 @@ public class WikiChatController {
         return emitter;
     }
 
+    /**
+     * Cancels the upstream model stream once the emitter completes, fails, or times out.
+     */
+    private WikiStreamCancellation cancelOnDisconnect(SseEmitter emitter) {
+        WikiStreamCancellation cancellation = new WikiStreamCancellation();
+        emitter.onCompletion(cancellation::cancel);
+        emitter.onError(error -> cancellation.cancel());
+        emitter.onTimeout(() -> {
+            cancellation.cancel();
+            emitter.complete();
+        });
+        return cancellation;
+    }
+
     private Long extractUserId(CustomUserDetails userDetails) {
         return userDetails != null ? userDetails.getId() : null;
     }
@@ -164,17 +186,6 @@ public class WikiChatController {
         return request.getRemoteAddr();
     }
 
-    private void sendToken(SseEmitter emitter, String token) {
-        try {
-            if (token != null) {
-                String jsonToken = OBJECT_MAPPER.writeValueAsString(token);
-                emitter.send(SseEmitter.event().name("token").data(jsonToken, MediaType.APPLICATION_JSON));
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to send streaming token", e);
-        }
-    }
-
     private record StreamDonePayload(
             String sessionId,
             boolean isClarification,
@@ -1,6 +1,5 @@
 package kr.devport.api.domain.wiki.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -10,6 +9,7 @@ import kr.devport.api.domain.wiki.dto.request.WikiGlobalChatRequest;
 import kr.devport.api.domain.wiki.dto.response.WikiGlobalChatResponse;
 import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
 import kr.devport.api.domain.wiki.service.WikiChatApplicationService;
+import kr.devport.api.domain.wiki.service.WikiStreamCancellation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
@@ -35,9 +35,9 @@ public class WikiGlobalChatController {
 
     private static final long STREAM_TIMEOUT_MILLIS = 120_000L;
     private static final String STREAM_ERROR_MESSAGE = "처리 중 오류가 발생했습니다.";
-    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
     private final WikiChatApplicationService chatApplicationService;
+    private final WikiSseTokenCoalescer tokenCoalescer;
     private final ExecutorService streamExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
     @PostMapping
@@ -63,21 +63,29 @@ public class WikiGlobalChatController {
         final String clientIp = extractClientIp(userDetails, httpRequest);
 
         SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
-        emitter.onTimeout(emitter::complete);
+        WikiStreamCancellation cancellation = cancelOnDisconnect(emitter);
 
         streamExecutor.execute(LoggingContext.wrap(() -> {
             try {
-                WikiGlobalChatResponse response = chatApplicationService.streamGlobal(
-                        request,
-                        userId,
-                        clientIp,
-                        token -> sendToken(emitter, token)
-                );
+                WikiGlobalChatResponse response;
+                try (WikiSseTokenCoalescer.TokenSink tokens = tokenCoalescer.open(emitter, "global")) {
+                    response = chatApplicationService.streamGlobal(
+                            request,
+                            userId,
+                            clientIp,
+                            tokens,
+                            cancellation
+                    );
+                }
                 emitter.send(SseEmitter.event()
                         .name("done")
                         .data(response, MediaType.APPLICATION_JSON));
                 emitter.complete();
             } catch (Exception ex) {
+                if (cancellation.isCancelled()) {
+                    log.debug("Wiki global chat stream cancelled by the client: {}", ex.getMessage());
+                    return;
+                }
                 handleStreamFailure(emitter, ex);
             }
         }));
@@ -90,6 +98,20 @@ public class WikiGlobalChatController {
         streamExecutor.close();
     }
 
+    /**
+     * Cancels the upstream model stream once the emitter completes, fails, or times out.
+     */
+    private WikiStreamCancellation cancelOnDisconnect(SseEmitter emitter) {
+        WikiStreamCancellation cancellation = new WikiStreamCancellation();
+        emitter.onCompletion(cancellation::cancel);
+        emitter.onError(error -> cancellation.cancel());
+        emitter.onTimeout(() -> {
+            cancellation.cancel();
+            emitter.complete();
+        });
+        return cancellation;
+    }
+
     private Long extractUserId(CustomUserDetails userDetails) {
         return userDetails != null ? userDetails.getId() : null;
     }
@@ -106,17 +128,6 @@ public class WikiGlobalChatController {
         return request.getRemoteAddr();
     }
 
-    private void sendToken(SseEmitter emitter, String token) {
-        try {
-            if (token != null) {
-                String jsonToken = OBJECT_MAPPER.writeValueAsString(token);
-                emitter.send(SseEmitter.event().name("token").data(jsonToken, MediaType.APPLICATION_JSON));
-            }
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to send streaming token", e);
-        }
-    }
-
     private void handleStreamFailure(SseEmitter emitter, Exception ex) {
         log.error("Wiki global chat stream failed", ex);
         try {
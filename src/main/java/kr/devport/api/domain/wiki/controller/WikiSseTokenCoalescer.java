@@ -0,0 +1,244 @@
+package kr.devport.api.domain.wiki.controller;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Batches streamed chat tokens into fewer SSE {@code token} frames.
+ * The first token is written immediately to keep time-to-first-token low; later tokens are buffered until
+ * the time window elapses or the buffer reaches the byte limit. Frames are encoded once to UTF-8 bytes
+ * in the same {@code event:token} / JSON-string {@code data:} shape as before, so clients only see
+ * longer token strings.
+ */
+@Slf4j
+@Component
+public class WikiSseTokenCoalescer {
+
+    private static final byte[] FRAME_PREFIX = "event:token\ndata:".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] FRAME_SUFFIX = "\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final MeterRegistry meterRegistry;
+    private final long windowNanos;
+    private final int maxBytes;
+    private final ScheduledExecutorService flushScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "wiki-sse-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WikiSseTokenCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.chat.stream.coalesce-window:40ms}") Duration window,
+            @Value("${app.wiki.chat.stream.coalesce-max-bytes:1024}") int maxBytes
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.windowNanos = window.toNanos();
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Opens a token sink for one streamed answer.
+     *
+     * @param emitter Emitter of the SSE response
+     * @param endpoint Logical stream name used as the metric tag (e.g. project, global)
+     * @return Sink to pass as the token consumer; close it before sending the final event
+     */
+    public TokenSink open(SseEmitter emitter, String endpoint) {
+        return new TokenSink(emitter, endpoint);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushScheduler.shutdownNow();
+    }
+
+    /**
+     * Encodes a string as a JSON string literal, escaping the same characters as Jackson's default writer.
+     */
+    static String toJsonString(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 16).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                case '\b' -> json.append("\\b");
+                case '\f' -> json.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * Per-answer token buffer. Tokens arrive on the streaming thread; the scheduler flushes a buffer whose
+     * window has elapsed without new tokens. Write failures are rethrown to the streaming thread so a
+     * closed connection still aborts the stream.
+     */
+    public final class TokenSink implements Consumer<String>, AutoCloseable {
+
+        private final SseEmitter emitter;
+        private final DistributionSummary framesPerAnswer;
+        private final DistributionSummary bytesPerFrame;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final StringBuilder buffer = new StringBuilder();
+        private int bufferedBytes;
+        private long bufferStartedAt;
+        private int frames;
+        private boolean closed;
+        private ScheduledFuture<?> scheduledFlush;
+        private IllegalStateException failure;
+
+        private TokenSink(SseEmitter emitter, String endpoint) {
+            this.emitter = emitter;
+            this.framesPerAnswer = DistributionSummary.builder("wiki.chat.stream.frames")
+                    .description("SSE token frames written per streamed answer")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+            this.bytesPerFrame = DistributionSummary.builder("wiki.chat.stream.frame.bytes")
+                    .description("Encoded size of SSE token frames")
+                    .baseUnit("bytes")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public void accept(String token) {
+            if (token == null || token.isEmpty()) {
+                return;
+            }
+            lock.lock();
+            try {
+                throwIfFailed();
+                if (closed) {
+                    return;
+                }
+                if (buffer.isEmpty()) {
+                    bufferStartedAt = System.nanoTime();
+                }
+                buffer.append(token);
+                bufferedBytes += utf8Length(token);
+                if (frames == 0 || bufferedBytes >= maxBytes || System.nanoTime() - bufferStartedAt >= windowNanos) {
+                    flush();
+                } else if (scheduledFlush == null) {
+                    // The write may block on a slow client, so it runs on its own virtual thread rather than the timer thread.
+                    scheduledFlush = flushScheduler.schedule(
+                            () -> Thread.startVirtualThread(this::flushScheduled), windowNanos, TimeUnit.NANOSECONDS);
+                }
+                throwIfFailed();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Writes any buffered tokens and records the frame count. Safe to call more than once.
+         */
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                flush();
+                if (frames > 0) {
+                    framesPerAnswer.record(frames);
+                }
+                throwIfFailed();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void flushScheduled() {
+            lock.lock();
+            try {
+                scheduledFlush = null;
+                if (!closed) {
+                    flush();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void flush() {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (buffer.isEmpty() || failure != null) {
+                return;
+            }
+            byte[] data = toJsonString(buffer.toString()).getBytes(StandardCharsets.UTF_8);
+            byte[] frame = new byte[FRAME_PREFIX.length + data.length + FRAME_SUFFIX.length];
+            System.arraycopy(FRAME_PREFIX, 0, frame, 0, FRAME_PREFIX.length);
+            System.arraycopy(data, 0, frame, FRAME_PREFIX.length, data.length);
+            System.arraycopy(FRAME_SUFFIX, 0, frame, FRAME_PREFIX.length + data.length, FRAME_SUFFIX.length);
+            buffer.setLength(0);
+            bufferedBytes = 0;
+            try {
+                emitter.send(Set.of(new ResponseBodyEmitter.DataWithMediaType(frame, MediaType.APPLICATION_OCTET_STREAM)));
+                frames++;
+                bytesPerFrame.record(frame.length);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("wiki-sse: token frame write failed: {}", e.getMessage());
+                failure = new IllegalStateException("Failed to send streaming token", e);
+            }
+        }
+
+        private void throwIfFailed() {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        private static int utf8Length(String token) {
+            int bytes = 0;
+            for (int i = 0; i < token.length(); i++) {
+                char c = token.charAt(i);
+                if (c < 0x80) {
+                    bytes++;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c)) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package kr.devport.api.domain.wiki.dto.internal;
+
+import kr.devport.api.domain.wiki.enums.WikiChatSessionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One answered chat turn waiting to be written to the database.
+ * {@code askedAt} becomes the message timestamp, so ordering does not depend on when the turn is written.
+ */
+public record WikiChatPendingTurn(
+        String sessionExternalId,
+        Long userId,
+        String projectExternalId,
+        WikiChatSessionType sessionType,
+        String question,
+        String answer,
+        boolean isClarification,
+        LocalDateTime askedAt
+) {
+}
@@ -0,0 +1,35 @@
+package kr.devport.api.domain.wiki.dto.internal;
+
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
+
+import java.util.List;
+
+/**
+ * @param known False when the history could not be loaded; the turn is then answered without context and
+ *              must not take any first-turn-only path, since it may well be a follow-up
+ */
+public record WikiChatSessionHistory(
+        List<ChatTurn> previousTurns,
+        boolean sessionReset,
+        boolean known
+) {
+
+    public WikiChatSessionHistory(List<ChatTurn> previousTurns, boolean sessionReset) {
+        this(previousTurns, sessionReset, true);
+    }
+
+    public static WikiChatSessionHistory empty() {
+        return new WikiChatSessionHistory(List.of(), false);
+    }
+
+    public static WikiChatSessionHistory unknown() {
+        return new WikiChatSessionHistory(List.of(), false, false);
+    }
+
+    /**
+     * @return true only when the session is known to have no previous turns
+     */
+    public boolean firstTurn() {
+        return known && previousTurns.isEmpty();
+    }
+}
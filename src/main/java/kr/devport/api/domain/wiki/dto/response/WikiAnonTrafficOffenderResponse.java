@@ -0,0 +1,24 @@
+package kr.devport.api.domain.wiki.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "Anonymous chat client with the highest recent request estimate on this node")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WikiAnonTrafficOffenderResponse {
+
+    @Schema(description = "Client IP address", example = "203.0.113.7")
+    private String ip;
+
+    @Schema(description = "Decayed request count estimate (an upper bound)", example = "42")
+    private Long estimatedRequests;
+
+    @Schema(description = "Whether the estimate is over the local rejection threshold", example = "true")
+    private Boolean blocked;
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "wiki_chat_messages", indexes = {
+@Table(name = "wiki_chat_messages", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_wiki_chat_messages_session_role_created_at",
+                columnNames = {"session_id", "role", "created_at"})
+}, indexes = {
         @Index(name = "idx_wiki_chat_messages_session_id", columnList = "session_id"),
         @Index(name = "idx_wiki_chat_messages_created_at", columnList = "created_at")
 })
@@ -0,0 +1,47 @@
+package kr.devport.api.domain.wiki.enums;
+
+/**
+ * Frequently asked question categories detected from a chat question.
+ * Each category except NONE carries the canonical question its answer is precomputed for.
+ */
+public enum WikiFaqType {
+    /**
+     * What problem the project solves and why it exists
+     */
+    PROBLEM_SOLVED("이 프로젝트는 어떤 문제를 해결하나요?"),
+
+    /**
+     * System structure, components, and data flow
+     */
+    ARCHITECTURE("핵심 아키텍처는 어떻게 구성되어 있나요?"),
+
+    /**
+     * Installation, setup, and first run
+     */
+    GETTING_STARTED("이 프로젝트를 시작하려면 어떻게 해야 하나요?"),
+
+    /**
+     * Recent updates, releases, and changes
+     */
+    RECENT_CHANGES("최근 변경 사항은 무엇인가요?"),
+
+    /**
+     * Main capabilities of the project
+     */
+    KEY_FEATURES("주요 기능은 무엇인가요?"),
+
+    /**
+     * Not a recognized FAQ
+     */
+    NONE(null);
+
+    private final String canonicalQuestion;
+
+    WikiFaqType(String canonicalQuestion) {
+        this.canonicalQuestion = canonicalQuestion;
+    }
+
+    public String canonicalQuestion() {
+        return canonicalQuestion;
+    }
+}
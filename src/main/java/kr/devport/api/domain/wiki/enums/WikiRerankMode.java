@@ -0,0 +1,21 @@
+package kr.devport.api.domain.wiki.enums;
+
+/**
+ * How retrieval candidates are reranked before context selection.
+ */
+public enum WikiRerankMode {
+    /**
+     * Always call the LLM reranker
+     */
+    LLM,
+
+    /**
+     * CPU-only lexical reranking, no model call
+     */
+    LOCAL,
+
+    /**
+     * Lexical reranking first; escalate to the LLM only when local scores are ambiguous
+     */
+    GATED
+}
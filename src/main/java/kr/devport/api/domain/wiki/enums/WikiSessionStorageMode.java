@@ -0,0 +1,16 @@
+package kr.devport.api.domain.wiki.enums;
+
+/**
+ * How chat session turns are laid out in Redis.
+ */
+public enum WikiSessionStorageMode {
+    /**
+     * One JSON value per session, rewritten in full on every turn
+     */
+    BLOB,
+
+    /**
+     * One Redis list per session, appended and trimmed in place by a Lua script
+     */
+    LIST
+}
@@ -0,0 +1,7 @@
+package kr.devport.api.domain.wiki.exception;
+
+public class WikiStreamCancelledException extends RuntimeException {
+    public WikiStreamCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package kr.devport.api.domain.wiki.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Set-based deletes of expired wiki chat sessions in keyset batches.
+ * Each batch runs in its own transaction: the next expired session ids after the cursor are selected and
+ * locked first, so a chat that extends one of them concurrently either waits for the purge or keeps the
+ * session alive, then their messages are deleted, then the sessions, both by that id list.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WikiChatPurgeRepository {
+
+    private static final String LOCK_EXPIRED_BATCH_SQL =
+            "SELECT id FROM wiki_chat_sessions WHERE expires_at < ? AND id > ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String DELETE_MESSAGES_SQL =
+            "DELETE FROM wiki_chat_messages WHERE session_id = ANY(?)";
+
+    private static final String DELETE_SESSIONS_SQL =
+            "DELETE FROM wiki_chat_sessions WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Deletes up to {@code limit} sessions with an id above {@code afterId} that expired before the cutoff,
+     * messages first.
+     *
+     * @return Deleted rows and the highest session id of the batch, which is the cursor for the next one
+     */
+    @Transactional
+    public PurgedBatch purgeBatch(long afterId, LocalDateTime cutoff, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                LOCK_EXPIRED_BATCH_SQL, Long.class, Timestamp.valueOf(cutoff), afterId, limit);
+        if (ids.isEmpty()) {
+            return new PurgedBatch(0, 0, afterId);
+        }
+        int messages = deleteByIds(DELETE_MESSAGES_SQL, ids);
+        int sessions = deleteByIds(DELETE_SESSIONS_SQL, ids);
+        return new PurgedBatch(sessions, messages, ids.getLast());
+    }
+
+    private int deleteByIds(String sql, List<Long> ids) {
+        return jdbcTemplate.update(sql, statement -> {
+            Array idArray = statement.getConnection().createArrayOf("bigint", ids.toArray());
+            statement.setArray(1, idArray);
+        });
+    }
+
+    /**
+     * @param sessions Sessions deleted
+     * @param messages Messages deleted
+     * @param lastId Highest session id of the batch, or the previous cursor when the batch was empty
+     */
+    public record PurgedBatch(int sessions, int messages, long lastId) {
+    }
+}
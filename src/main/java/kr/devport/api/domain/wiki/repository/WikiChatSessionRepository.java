@@ -8,7 +8,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
 
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface WikiChatSessionRepository extends JpaRepository<WikiChatSession, Long> {
@@ -26,6 +25,4 @@ public interface WikiChatSessionRepository extends JpaRepository<WikiChatSession
     @EntityGraph(attributePaths = "user")
     Page<WikiChatSession> findByUserAndSessionTypeOrderByLastMessageAtDesc(
             User user, WikiChatSessionType sessionType, Pageable pageable);
-
-    void deleteByExpiresAtBefore(LocalDateTime now);
 }
@@ -0,0 +1,42 @@
+package kr.devport.api.domain.wiki.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched title writes for wiki chat sessions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WikiChatTitleRepository {
+
+    private static final String UPDATE_TITLE_SQL =
+            "UPDATE wiki_chat_sessions SET title = ?, updated_at = ? WHERE external_id = ? AND title IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sets the titles of sessions that do not have one yet, in one JDBC batch.
+     *
+     * @param titles Title per session external ID
+     */
+    public void updateTitles(Map<String, String> titles) {
+        if (titles.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<String, String>> rows = new ArrayList<>(titles.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_TITLE_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setString(1, row.getValue());
+            statement.setTimestamp(2, now);
+            statement.setString(3, row.getKey());
+        });
+    }
+}
@@ -0,0 +1,163 @@
+package kr.devport.api.domain.wiki.repository;
+
+import kr.devport.api.domain.wiki.dto.internal.WikiChatPendingTurn;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched JDBC writes for the chat write-behind pipeline.
+ * Sessions are upserted once per batch and messages are inserted with one batch statement, all in one
+ * transaction. Message inserts skip rows that already exist for the same session, role and timestamp, backed
+ * by a unique constraint, so replaying a journaled turn is harmless even when two nodes replay it at once.
+ */
+@Repository
+@RequiredArgsConstructor
+public class WikiChatWriteBehindRepository {
+
+    private static final int SESSION_TTL_DAYS = 10;
+    private static final String USER_ROLE = "USER";
+    private static final String ASSISTANT_ROLE = "ASSISTANT";
+
+    private static final String UPSERT_SESSION_SQL = """
+            INSERT INTO wiki_chat_sessions
+                (external_id, user_id, project_external_id, session_type, created_at, updated_at, last_message_at, expires_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (external_id) DO UPDATE SET
+                updated_at = EXCLUDED.updated_at,
+                last_message_at = GREATEST(wiki_chat_sessions.last_message_at, EXCLUDED.last_message_at),
+                expires_at = GREATEST(wiki_chat_sessions.expires_at, EXCLUDED.expires_at)
+            """;
+
+    private static final String INSERT_MESSAGE_SQL = """
+            INSERT INTO wiki_chat_messages (session_id, role, content, is_clarification, created_at)
+            SELECT s.id, ?, ?, ?, ?
+            FROM wiki_chat_sessions s
+            WHERE s.external_id = ?
+            ON CONFLICT (session_id, role, created_at) DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Writes a batch of turns in enqueue order.
+     *
+     * @param turns Pending turns, oldest first
+     * @return External IDs of sessions that did not exist before this batch
+     */
+    @Transactional
+    public Set<String> writeBatch(List<WikiChatPendingTurn> turns) {
+        if (turns.isEmpty()) {
+            return Set.of();
+        }
+        Map<String, SessionRow> sessions = new LinkedHashMap<>();
+        for (WikiChatPendingTurn turn : turns) {
+            sessions.merge(turn.sessionExternalId(), SessionRow.of(turn), SessionRow::touchedBy);
+        }
+        Set<String> created = new HashSet<>(sessions.keySet());
+        created.removeAll(findExistingSessions(sessions.keySet()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SessionRow> sessionRows = new ArrayList<>(sessions.values());
+        jdbcTemplate.batchUpdate(UPSERT_SESSION_SQL, sessionRows, sessionRows.size(), (statement, row) -> {
+            statement.setString(1, row.externalId());
+            if (row.userId() == null) {
+                statement.setNull(2, Types.BIGINT);
+            } else {
+                statement.setLong(2, row.userId());
+            }
+            statement.setString(3, row.projectExternalId());
+            statement.setString(4, row.sessionType());
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+            statement.setTimestamp(6, Timestamp.valueOf(now));
+            statement.setTimestamp(7, Timestamp.valueOf(row.lastMessageAt()));
+            statement.setTimestamp(8, Timestamp.valueOf(row.lastMessageAt().plusDays(SESSION_TTL_DAYS)));
+        });
+
+        List<MessageRow> messageRows = new ArrayList<>(turns.size() * 2);
+        for (WikiChatPendingTurn turn : turns) {
+            messageRows.add(new MessageRow(turn.sessionExternalId(), USER_ROLE, turn.question(), false, userMessageAt(turn)));
+            messageRows.add(new MessageRow(
+                    turn.sessionExternalId(), ASSISTANT_ROLE, turn.answer(), turn.isClarification(), assistantMessageAt(turn)));
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, messageRows, messageRows.size(), WikiChatWriteBehindRepository::bindMessage);
+        return created;
+    }
+
+    /**
+     * Message timestamps are kept at the database's microsecond precision so replays match the stored rows.
+     */
+    static LocalDateTime userMessageAt(WikiChatPendingTurn turn) {
+        return turn.askedAt().withNano(turn.askedAt().getNano() / 1_000 * 1_000);
+    }
+
+    /**
+     * The answer sorts one microsecond after its question.
+     */
+    static LocalDateTime assistantMessageAt(WikiChatPendingTurn turn) {
+        return userMessageAt(turn).plusNanos(1_000);
+    }
+
+    private Set<String> findExistingSessions(Set<String> externalIds) {
+        String placeholders = String.join(", ", Collections.nCopies(externalIds.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT external_id FROM wiki_chat_sessions WHERE external_id IN (" + placeholders + ")",
+                String.class,
+                externalIds.toArray()));
+    }
+
+    private static void bindMessage(PreparedStatement statement, MessageRow row) throws SQLException {
+        statement.setString(1, row.role());
+        statement.setString(2, row.content());
+        statement.setBoolean(3, row.isClarification());
+        statement.setTimestamp(4, Timestamp.valueOf(row.createdAt()));
+        statement.setString(5, row.sessionExternalId());
+    }
+
+    private record SessionRow(
+            String externalId,
+            Long userId,
+            String projectExternalId,
+            String sessionType,
+            LocalDateTime lastMessageAt
+    ) {
+
+        static SessionRow of(WikiChatPendingTurn turn) {
+            return new SessionRow(
+                    turn.sessionExternalId(),
+                    turn.userId(),
+                    turn.projectExternalId(),
+                    turn.sessionType().name(),
+                    turn.askedAt()
+            );
+        }
+
+        SessionRow touchedBy(SessionRow later) {
+            LocalDateTime latest = later.lastMessageAt().isAfter(lastMessageAt) ? later.lastMessageAt() : lastMessageAt;
+            return new SessionRow(externalId, userId, projectExternalId, sessionType, latest);
+        }
+    }
+
+    private record MessageRow(
+            String sessionExternalId,
+            String role,
+            String content,
+            boolean isClarification,
+            LocalDateTime createdAt
+    ) {
+    }
+}
@@ -2,16 +2,63 @@ package kr.devport.api.domain.wiki.repository;
 
 import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface WikiSectionChunkRepositoryCustom {
 
-    List<ScoredChunkRow> findSimilarChunksWithScore(String projectExternalId, String queryEmbedding, int limit);
+    List<ScoredChunkRow> findSimilarChunksWithScore(String projectExternalId, float[] queryEmbedding, int limit);
 
-    List<ScoredChunkRow> findSimilarChunksGlobalWithScore(String queryEmbedding, int limit);
+    List<ScoredChunkRow> findSimilarChunksGlobalWithScore(float[] queryEmbedding, int limit);
+
+    /**
+     * Runs the per-project vector search for several projects in one statement, up to
+     * {@code limitPerProject} rows each, ordered by score.
+     */
+    List<ScoredChunkRow> findSimilarChunksInProjectsWithScore(List<String> projectExternalIds, float[] queryEmbedding, int limitPerProject);
 
     List<ScoredChunkRow> findLexicalCandidates(String projectExternalId, String question, int limit);
 
+    /**
+     * Runs the vector and trigram candidate sets in a single statement and fuses them with
+     * reciprocal rank fusion in the database, ordered by fusion score.
+     */
+    List<FusedChunkRow> findHybridCandidatesFused(
+            String projectExternalId,
+            float[] queryEmbedding,
+            String question,
+            int vectorLimit,
+            int lexicalLimit,
+            int rrfK
+    );
+
+    /**
+     * Loads every chunk of a project without its embedding column, for in-heap snapshots.
+     */
+    List<SnapshotChunkRow> findSnapshotChunks(String projectExternalId);
+
+    /**
+     * Loads chunk ids and embeddings of a project for the in-process vector index.
+     */
+    List<ChunkEmbeddingRow> findChunkEmbeddings(String projectExternalId);
+
+    /**
+     * Aggregates one mean embedding per project (and one over its summary chunks) for project routing.
+     */
+    List<ProjectCentroidRow> findProjectCentroids();
+
     record ScoredChunkRow(WikiSectionChunk chunk, double score) {
     }
+
+    record FusedChunkRow(WikiSectionChunk chunk, double vectorScore, double lexicalScore, double fusionScore) {
+    }
+
+    record SnapshotChunkRow(WikiSectionChunk chunk, OffsetDateTime updatedAt) {
+    }
+
+    record ChunkEmbeddingRow(long chunkId, float[] embedding) {
+    }
+
+    record ProjectCentroidRow(String projectExternalId, int chunkCount, float[] centroid, float[] summaryCentroid) {
+    }
 }
@@ -9,10 +9,12 @@ import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Array;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -35,21 +37,49 @@ public class WikiSectionChunkRepositoryImpl implements WikiSectionChunkRepositor
                 c.commit_sha
             """;
 
-    private static final String VECTOR_BY_PROJECT_SQL = SELECT_CHUNK_COLUMNS + """
-            , 1 - (c.embedding <=> cast(? AS vector)) AS score
+    /**
+     * The embedding is sent as a primitive float4[] parameter (binary-encoded by the driver) and cast
+     * to vector once; queries reference it through a scalar subquery instead of re-binding it.
+     */
+    private static final String QUERY_EMBEDDING_CTE = """
+            WITH query_embedding AS MATERIALIZED (
+                SELECT cast(cast(? AS real[]) AS vector) AS embedding
+            )
+            """;
+
+    private static final String VECTOR_BY_PROJECT_SQL = QUERY_EMBEDDING_CTE + SELECT_CHUNK_COLUMNS + """
+            , 1 - (c.embedding <=> (SELECT embedding FROM query_embedding)) AS score
             FROM wiki_section_chunks c
             WHERE c.project_external_id = ?
-            ORDER BY c.embedding <=> cast(? AS vector)
+            ORDER BY c.embedding <=> (SELECT embedding FROM query_embedding)
             LIMIT ?
             """;
 
-    private static final String VECTOR_GLOBAL_SQL = SELECT_CHUNK_COLUMNS + """
-            , 1 - (c.embedding <=> cast(? AS vector)) AS score
+    private static final String VECTOR_GLOBAL_SQL = QUERY_EMBEDDING_CTE + SELECT_CHUNK_COLUMNS + """
+            , 1 - (c.embedding <=> (SELECT embedding FROM query_embedding)) AS score
             FROM wiki_section_chunks c
-            ORDER BY c.embedding <=> cast(? AS vector)
+            ORDER BY c.embedding <=> (SELECT embedding FROM query_embedding)
             LIMIT ?
             """;
 
+    /**
+     * One LATERAL index scan per project over {@code unnest(?)}, so each project keeps its own limit
+     * while the whole candidate set costs a single round-trip and connection.
+     */
+    private static final String VECTOR_BY_PROJECTS_SQL = QUERY_EMBEDDING_CTE + SELECT_CHUNK_COLUMNS + """
+            , ranked.score
+            FROM unnest(cast(? AS text[])) AS p(project_external_id)
+            CROSS JOIN LATERAL (
+                SELECT c.id, 1 - (c.embedding <=> (SELECT embedding FROM query_embedding)) AS score
+                FROM wiki_section_chunks c
+                WHERE c.project_external_id = p.project_external_id
+                ORDER BY c.embedding <=> (SELECT embedding FROM query_embedding)
+                LIMIT ?
+            ) ranked
+            JOIN wiki_section_chunks c ON c.id = ranked.id
+            ORDER BY ranked.score DESC
+            """;
+
     private static final String LEXICAL_SQL = SELECT_CHUNK_COLUMNS + """
             ,
             (similarity(c.content, ?) + 0.5 * COALESCE(similarity(c.metadata->>'titleKo', ?), 0)) AS score
@@ -60,20 +90,111 @@ public class WikiSectionChunkRepositoryImpl implements WikiSectionChunkRepositor
             LIMIT ?
             """;
 
+    /**
+     * Hybrid retrieval in one round-trip, fused with RRF (1 / (k + rank)).
+     * Candidates are keyed by section, subsection and chunk type, the same key the in-memory fusion uses:
+     * each hit list keeps its best-ranked chunk per key before ranking, and the two lists join on that key.
+     */
+    private static final String HYBRID_FUSED_SQL = QUERY_EMBEDDING_CTE + """
+            , vector_hits AS (
+                SELECT deduped.id,
+                       deduped.candidate_key,
+                       1 - deduped.distance AS vector_score,
+                       ROW_NUMBER() OVER (ORDER BY deduped.distance) AS vector_rank
+                FROM (
+                    SELECT DISTINCT ON (ranked.candidate_key) ranked.id, ranked.candidate_key, ranked.distance
+                    FROM (
+                        SELECT c.id,
+                               c.section_id || '|' || COALESCE(c.subsection_id, '') || '|' || c.chunk_type AS candidate_key,
+                               c.embedding <=> (SELECT embedding FROM query_embedding) AS distance
+                        FROM wiki_section_chunks c
+                        WHERE c.project_external_id = ?
+                        ORDER BY distance
+                        LIMIT ?
+                    ) ranked
+                    ORDER BY ranked.candidate_key, ranked.distance, ranked.id
+                ) deduped
+            ),
+            lexical_hits AS (
+                SELECT deduped.id,
+                       deduped.candidate_key,
+                       deduped.lexical_score,
+                       ROW_NUMBER() OVER (ORDER BY deduped.lexical_score DESC) AS lexical_rank
+                FROM (
+                    SELECT DISTINCT ON (ranked.candidate_key) ranked.id, ranked.candidate_key, ranked.lexical_score
+                    FROM (
+                        SELECT c.id,
+                               c.section_id || '|' || COALESCE(c.subsection_id, '') || '|' || c.chunk_type AS candidate_key,
+                               (similarity(c.content, ?) + 0.5 * COALESCE(similarity(c.metadata->>'titleKo', ?), 0)) AS lexical_score
+                        FROM wiki_section_chunks c
+                        WHERE c.project_external_id = ?
+                          AND (c.content % ? OR c.metadata->>'titleKo' % ?)
+                        ORDER BY lexical_score DESC
+                        LIMIT ?
+                    ) ranked
+                    ORDER BY ranked.candidate_key, ranked.lexical_score DESC, ranked.id
+                ) deduped
+            ),
+            fused AS (
+                SELECT COALESCE(v.id, l.id) AS id,
+                       COALESCE(v.vector_score, 0) AS vector_score,
+                       COALESCE(l.lexical_score, 0) AS lexical_score,
+                       COALESCE(1.0 / (? + v.vector_rank), 0) + COALESCE(1.0 / (? + l.lexical_rank), 0) AS fusion_score
+                FROM vector_hits v
+                FULL OUTER JOIN lexical_hits l ON l.candidate_key = v.candidate_key
+            )
+            """ + SELECT_CHUNK_COLUMNS + """
+            , f.vector_score, f.lexical_score, f.fusion_score
+            FROM fused f
+            JOIN wiki_section_chunks c ON c.id = f.id
+            ORDER BY f.fusion_score DESC, f.vector_score DESC
+            """;
+
+    private static final String SNAPSHOT_SQL = SELECT_CHUNK_COLUMNS + """
+            , c.updated_at
+            FROM wiki_section_chunks c
+            WHERE c.project_external_id = ?
+            ORDER BY c.id
+            """;
+
+    private static final String EMBEDDINGS_BY_PROJECT_SQL = """
+            SELECT c.id, cast(c.embedding AS real[]) AS embedding
+            FROM wiki_section_chunks c
+            WHERE c.project_external_id = ?
+            ORDER BY c.id
+            """;
+
+    private static final String PROJECT_CENTROIDS_SQL = """
+            SELECT c.project_external_id,
+                   count(*) AS chunk_count,
+                   cast(avg(c.embedding) AS real[]) AS centroid,
+                   cast(avg(c.embedding) FILTER (WHERE c.chunk_type = 'summary') AS real[]) AS summary_centroid
+            FROM wiki_section_chunks c
+            WHERE c.embedding IS NOT NULL
+            GROUP BY c.project_external_id
+            """;
+
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private final RowMapper<ScoredChunkRow> scoredChunkRowMapper = (rs, rowNum) ->
             new ScoredChunkRow(mapChunk(rs), rs.getDouble("score"));
 
+    private final RowMapper<FusedChunkRow> fusedChunkRowMapper = (rs, rowNum) ->
+            new FusedChunkRow(
+                    mapChunk(rs),
+                    rs.getDouble("vector_score"),
+                    rs.getDouble("lexical_score"),
+                    rs.getDouble("fusion_score")
+            );
+
     @Override
-    public List<ScoredChunkRow> findSimilarChunksWithScore(String projectExternalId, String queryEmbedding, int limit) {
+    public List<ScoredChunkRow> findSimilarChunksWithScore(String projectExternalId, float[] queryEmbedding, int limit) {
         return jdbcTemplate.execute((ConnectionCallback<List<ScoredChunkRow>>) connection -> {
             try (PreparedStatement statement = connection.prepareStatement(VECTOR_BY_PROJECT_SQL)) {
-                statement.setString(1, queryEmbedding);
+                statement.setObject(1, queryEmbedding);
                 statement.setString(2, projectExternalId);
-                statement.setString(3, queryEmbedding);
-                statement.setInt(4, limit);
+                statement.setInt(3, limit);
                 try (ResultSet rs = statement.executeQuery()) {
                     return mapRows(rs);
                 }
@@ -82,13 +203,12 @@ public class WikiSectionChunkRepositoryImpl implements WikiSectionChunkRepositor
     }
 
     @Override
-    public List<ScoredChunkRow> findSimilarChunksGlobalWithScore(String queryEmbedding, int limit) {
+    public List<ScoredChunkRow> findSimilarChunksGlobalWithScore(float[] queryEmbedding, int limit) {
         return jdbcTemplate.execute((ConnectionCallback<List<ScoredChunkRow>>) connection -> {
             setVectorSearchEf(connection);
             try (PreparedStatement statement = connection.prepareStatement(VECTOR_GLOBAL_SQL)) {
-                statement.setString(1, queryEmbedding);
-                statement.setString(2, queryEmbedding);
-                statement.setInt(3, limit);
+                statement.setObject(1, queryEmbedding);
+                statement.setInt(2, limit);
                 try (ResultSet rs = statement.executeQuery()) {
                     return mapRows(rs);
                 }
@@ -98,6 +218,27 @@ public class WikiSectionChunkRepositoryImpl implements WikiSectionChunkRepositor
         });
     }
 
+    @Override
+    public List<ScoredChunkRow> findSimilarChunksInProjectsWithScore(
+            List<String> projectExternalIds,
+            float[] queryEmbedding,
+            int limitPerProject
+    ) {
+        return jdbcTemplate.execute((ConnectionCallback<List<ScoredChunkRow>>) connection -> {
+            Array projects = connection.createArrayOf("text", projectExternalIds.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(VECTOR_BY_PROJECTS_SQL)) {
+                statement.setObject(1, queryEmbedding);
+                statement.setArray(2, projects);
+                statement.setInt(3, limitPerProject);
+                try (ResultSet rs = statement.executeQuery()) {
+                    return mapRows(rs);
+                }
+            } finally {
+                projects.free();
+            }
+        });
+    }
+
     @Override
     public List<ScoredChunkRow> findLexicalCandidates(String projectExternalId, String question, int limit) {
         return jdbcTemplate.query(
@@ -112,6 +253,63 @@ public class WikiSectionChunkRepositoryImpl implements WikiSectionChunkRepositor
         );
     }
 
+    @Override
+    public List<FusedChunkRow> findHybridCandidatesFused(
+            String projectExternalId,
+            float[] queryEmbedding,
+            String question,
+            int vectorLimit,
+            int lexicalLimit,
+            int rrfK
+    ) {
+        return jdbcTemplate.query(
+                HYBRID_FUSED_SQL,
+                fusedChunkRowMapper,
+                queryEmbedding,
+                projectExternalId,
+                vectorLimit,
+                question,
+                question,
+                projectExternalId,
+                question,
+                question,
+                lexicalLimit,
+                rrfK,
+                rrfK
+        );
+    }
+
+    @Override
+    public List<SnapshotChunkRow> findSnapshotChunks(String projectExternalId) {
+        return jdbcTemplate.query(
+                SNAPSHOT_SQL,
+                (rs, rowNum) -> new SnapshotChunkRow(mapChunk(rs), rs.getObject("updated_at", OffsetDateTime.class)),
+                projectExternalId
+        );
+    }
+
+    @Override
+    public List<ChunkEmbeddingRow> findChunkEmbeddings(String projectExternalId) {
+        return jdbcTemplate.query(
+                EMBEDDINGS_BY_PROJECT_SQL,
+                (rs, rowNum) -> new ChunkEmbeddingRow(rs.getLong("id"), readFloatArray(rs.getArray("embedding"))),
+                projectExternalId
+        );
+    }
+
+    @Override
+    public List<ProjectCentroidRow> findProjectCentroids() {
+        return jdbcTemplate.query(
+                PROJECT_CENTROIDS_SQL,
+                (rs, rowNum) -> new ProjectCentroidRow(
+                        rs.getString("project_external_id"),
+                        rs.getInt("chunk_count"),
+                        readFloatArray(rs.getArray("centroid")),
+                        readFloatArray(rs.getArray("summary_centroid"))
+                )
+        );
+    }
+
     private List<ScoredChunkRow> mapRows(ResultSet rs) throws SQLException {
         List<ScoredChunkRow> rows = new java.util.ArrayList<>();
         int rowNum = 0;
@@ -151,6 +349,22 @@ public class WikiSectionChunkRepositoryImpl implements WikiSectionChunkRepositor
         }
     }
 
+    private float[] readFloatArray(Array array) throws SQLException {
+        if (array == null) {
+            return new float[0];
+        }
+        try {
+            Object[] values = (Object[]) array.getArray();
+            float[] result = new float[values.length];
+            for (int i = 0; i < values.length; i++) {
+                result[i] = ((Number) values[i]).floatValue();
+            }
+            return result;
+        } finally {
+            array.free();
+        }
+    }
+
     private void setVectorSearchEf(java.sql.Connection connection) throws SQLException {
         try (Statement statement = connection.createStatement()) {
             statement.execute("SET hnsw.ef_search = " + HNSW_EF_SEARCH);
@@ -1,28 +1,36 @@
 package kr.devport.api.domain.wiki.service;
 
 import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
+import kr.devport.api.domain.wiki.service.WikiRateLimitEngine.Policy;
+import kr.devport.api.domain.wiki.service.WikiRateLimitEngine.Window;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
 
 /**
  * IP-based anonymous rate limiter for wiki chat.
  * Allows 1 request per day per IP address.
+ * IPs whose request the limiter already admitted today are rejected by the in-process shield without a Redis
+ * call; only requests that pass the Redis check are recorded in the shield.
  * Fail-open on Redis errors to avoid blocking chat when Redis is unavailable.
  */
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class WikiAnonRateLimiter {
 
-    private static final int DAILY_LIMIT = 1;
+    static final int DAILY_LIMIT = 1;
     private static final Duration DAILY_WINDOW = Duration.ofHours(24);
-    private static final String KEY_PREFIX = "wiki:anon:ip:";
+    private static final String KEY_PREFIX = "wiki:anon:ip:daily:";
+    private static final String LIMIT_MESSAGE = "익명 사용자는 하루 1번만 질문할 수 있습니다. 로그인하면 더 많이 이용할 수 있어요.";
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    static final Policy POLICY = new Policy("anonymous", List.of(
+            new Window(KEY_PREFIX, DAILY_LIMIT, DAILY_WINDOW, LIMIT_MESSAGE)
+    ));
+
+    private final WikiAnonTrafficShield trafficShield;
+    private final WikiRateLimitEngine rateLimitEngine;
 
     /**
      * Check and increment the daily request count for the given IP.
@@ -31,24 +39,10 @@ public class WikiAnonRateLimiter {
      * @throws WikiChatRateLimitExceededException when daily limit is exceeded
      */
     public void checkAndIncrement(String ip) {
-        String key = KEY_PREFIX + ip + ":daily";
-        try {
-            Long count = redisTemplate.opsForValue().increment(key);
-            if (count == null) {
-                log.warn("wiki-anon-rl: Redis returned null for key={}, allowing request", key);
-                return;
-            }
-            if (count == 1L) {
-                redisTemplate.expire(key, DAILY_WINDOW);
-            }
-            if (count > DAILY_LIMIT) {
-                throw new WikiChatRateLimitExceededException(
-                        "익명 사용자는 하루 1번만 질문할 수 있습니다. 로그인하면 더 많이 이용할 수 있어요.");
-            }
-        } catch (WikiChatRateLimitExceededException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("wiki-anon-rl: Redis error for key={}, allowing request: {}", key, e.getMessage());
+        if (trafficShield.isBlocked(ip)) {
+            throw new WikiChatRateLimitExceededException(LIMIT_MESSAGE);
         }
+        rateLimitEngine.check(POLICY, ip);
+        trafficShield.recordAdmitted(ip);
     }
 }
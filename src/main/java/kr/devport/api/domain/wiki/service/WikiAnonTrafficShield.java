@@ -0,0 +1,206 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.devport.api.domain.wiki.dto.response.WikiAnonTrafficOffenderResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process "seen today" filter and heavy-hitter tracker for anonymous chat traffic.
+ * Every anonymous request the rate limiter admits is counted in a count-min sketch with conservative update,
+ * so memory stays fixed however many IPs show up and estimates only ever over-count. Because the anonymous
+ * policy allows {@link WikiAnonRateLimiter#DAILY_LIMIT} requests per day, an IP whose admitted requests today
+ * already reach that limit is rejected before the rate limiter touches Redis. Requests rejected here or by
+ * Redis are not counted, so local rejections stay a subset of what Redis would reject. The check subtracts the sketch's error bound
+ * ({@code floor(e * total / width)}) from the estimate, so a flood of many distinct IPs sends more of them to
+ * Redis instead of blocking IPs that were never seen.
+ * The top-k table of the largest estimates, served on the admin endpoint, also counts the local rejections of
+ * the IPs it holds. The sketch and the table are cleared at the start of every day. Hash seeds are random per node, so colliding IPs cannot be chosen ahead of time.
+ */
+@Component
+public class WikiAnonTrafficShield {
+
+    private final boolean enabled;
+    private final int width;
+    private final int depth;
+    private final int topK;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final int[][] counters;
+    private final Map<String, Long> topOffenders = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter rejections;
+    private long total;
+
+    public WikiAnonTrafficShield(
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.anon-shield.enabled:true}") boolean enabled,
+            @Value("${app.wiki.anon-shield.width:65536}") int width,
+            @Value("${app.wiki.anon-shield.depth:4}") int depth,
+            @Value("${app.wiki.anon-shield.top-k:20}") int topK
+    ) {
+        this.enabled = enabled;
+        this.width = Math.max(1, width);
+        this.depth = Math.max(1, depth);
+        this.topK = Math.max(1, topK);
+        this.counters = new int[this.depth][this.width];
+        this.rejections = Counter.builder("wiki.anon.shield.rejections")
+                .description("Anonymous chat requests rejected locally because the IP was already seen today")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks the IP against the requests admitted today, without counting this request.
+     *
+     * @param ip Client IP address
+     * @return true when the IP's admitted requests today already use up the daily limit even after allowing
+     *         for the sketch's error
+     */
+    public boolean isBlocked(String ip) {
+        if (!enabled) {
+            return false;
+        }
+        long hash1 = hash(ip, seed);
+        long hash2 = hash(ip, ~seed) | 1L;
+        boolean flagged;
+        lock.lock();
+        try {
+            flagged = estimate(hash1, hash2) - errorBound() >= WikiAnonRateLimiter.DAILY_LIMIT;
+            if (flagged) {
+                topOffenders.computeIfPresent(ip, (ignored, requests) -> requests + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (flagged) {
+            rejections.increment();
+        }
+        return flagged;
+    }
+
+    /**
+     * Counts one request from the IP that the rate limiter admitted.
+     *
+     * @param ip Client IP address
+     */
+    public void recordAdmitted(String ip) {
+        if (!enabled) {
+            return;
+        }
+        long hash1 = hash(ip, seed);
+        long hash2 = hash(ip, ~seed) | 1L;
+        lock.lock();
+        try {
+            long estimate = Math.min(estimate(hash1, hash2) + 1, Integer.MAX_VALUE);
+            // Conservative update: only counters below the new estimate are raised.
+            for (int row = 0; row < depth; row++) {
+                int column = index(hash1, hash2, row);
+                if (counters[row][column] < estimate) {
+                    counters[row][column] = (int) estimate;
+                }
+            }
+            total++;
+            trackTopOffender(ip, estimate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return IPs with the largest request estimates on this node today, largest first
+     */
+    public List<WikiAnonTrafficOffenderResponse> topOffenders() {
+        lock.lock();
+        try {
+            return topOffenders.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .map(entry -> WikiAnonTrafficOffenderResponse.builder()
+                            .ip(entry.getKey())
+                            .estimatedRequests(entry.getValue())
+                            .blocked(entry.getValue() - errorBound() >= WikiAnonRateLimiter.DAILY_LIMIT)
+                            .build())
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Clears the sketch and the top-k table when a new day starts.
+     */
+    @Scheduled(cron = "${app.wiki.anon-shield.reset-cron:0 0 0 * * *}")
+    public void reset() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (int[] row : counters) {
+                Arrays.fill(row, 0);
+            }
+            total = 0L;
+            topOffenders.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void trackTopOffender(String ip, long estimate) {
+        if (topOffenders.containsKey(ip) || topOffenders.size() < topK) {
+            topOffenders.put(ip, estimate);
+            return;
+        }
+        Map.Entry<String, Long> smallest = topOffenders.entrySet().stream()
+                .min(Comparator.comparingLong(Map.Entry::getValue))
+                .orElseThrow();
+        if (estimate > smallest.getValue()) {
+            topOffenders.remove(smallest.getKey());
+            topOffenders.put(ip, estimate);
+        }
+    }
+
+    private long estimate(long hash1, long hash2) {
+        long seen = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            seen = Math.min(seen, counters[row][index(hash1, hash2, row)]);
+        }
+        return seen;
+    }
+
+    /**
+     * Over-count that a single estimate stays under with probability {@code 1 - e^-depth}.
+     * Estimates are whole numbers, so the fractional part of {@code e * total / width} can be dropped.
+     */
+    private long errorBound() {
+        return (long) Math.floor(Math.E * total / width);
+    }
+
+    private int index(long hash1, long hash2, int row) {
+        return (int) Math.floorMod(hash1 + row * hash2, (long) width);
+    }
+
+    /**
+     * Seeded FNV-1a over the characters, finished with the SplitMix64 mixer.
+     */
+    private static long hash(String value, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 30;
+        hash *= 0xbf58476d1ce4e5b9L;
+        hash ^= hash >>> 27;
+        hash *= 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -17,6 +17,7 @@ import java.util.function.Consumer;
 public class WikiChatApplicationService {
 
     private final WikiChatService wikiChatService;
+    private final WikiChatPreparer chatPreparer;
     private final WikiGlobalChatService wikiGlobalChatService;
     private final WikiChatRateLimiter rateLimiter;
     private final WikiAnonRateLimiter anonRateLimiter;
@@ -28,12 +29,13 @@ public class WikiChatApplicationService {
             Long userId,
             String clientIp
     ) {
-        User user = resolveUser(userId, clientIp);
+        WikiChatPreparer.Prepared prepared = prepareProject(projectExternalId, request, userId, clientIp);
         WikiChatResult result = wikiChatService.chatResult(
                 request.getSessionId(),
                 projectExternalId,
                 request.getQuestion(),
-                user
+                prepared.user(),
+                prepared.history()
         );
         return WikiChatResponse.from(result, request.getSessionId());
     }
@@ -43,15 +45,18 @@ public class WikiChatApplicationService {
             WikiChatRequest request,
             Long userId,
             String clientIp,
-            Consumer<String> tokenConsumer
+            Consumer<String> tokenConsumer,
+            WikiStreamCancellation cancellation
     ) {
-        User user = resolveUser(userId, clientIp);
+        WikiChatPreparer.Prepared prepared = prepareProject(projectExternalId, request, userId, clientIp);
         return wikiChatService.streamChatResult(
                 request.getSessionId(),
                 projectExternalId,
                 request.getQuestion(),
                 tokenConsumer,
-                user
+                prepared.user(),
+                prepared.history(),
+                cancellation
         );
     }
 
@@ -72,14 +77,16 @@ public class WikiChatApplicationService {
             WikiGlobalChatRequest request,
             Long userId,
             String clientIp,
-            Consumer<String> tokenConsumer
+            Consumer<String> tokenConsumer,
+            WikiStreamCancellation cancellation
     ) {
         User user = resolveUser(userId, clientIp);
         return wikiGlobalChatService.streamChatResult(
                 request.getSessionId(),
                 request.getQuestion(),
                 tokenConsumer,
-                user
+                user,
+                cancellation
         );
     }
 
@@ -87,6 +94,21 @@ public class WikiChatApplicationService {
         wikiChatService.clearSession(sessionId);
     }
 
+    private WikiChatPreparer.Prepared prepareProject(
+            String projectExternalId,
+            WikiChatRequest request,
+            Long userId,
+            String clientIp
+    ) {
+        return chatPreparer.prepare(
+                request.getSessionId(),
+                projectExternalId,
+                request.getQuestion(),
+                userId != null,
+                () -> resolveUser(userId, clientIp)
+        );
+    }
+
     private User resolveUser(Long userId, String clientIp) {
         if (userId == null) {
             anonRateLimiter.checkAndIncrement(clientIp);
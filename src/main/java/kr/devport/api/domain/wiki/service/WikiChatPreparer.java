@@ -0,0 +1,187 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.devport.api.domain.auth.entity.User;
+import kr.devport.api.domain.common.logging.LoggingContext;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatSessionHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent parts of project chat preparation concurrently on virtual threads:
+ * user resolution (rate limits + user lookup), session history loading, and query embedding.
+ * The embedding is paid for, so it only starts once the user stage has passed the rate limits; it is not
+ * awaited, it only warms the embedding cache that retrieval reads through. The user and session stages have
+ * their own deadlines and a stage that misses one is interrupted, so it gives back its pooled connection.
+ * A failed user stage cancels the session stage and fails the request; a slow session stage degrades to an
+ * unknown history, which answers without context and skips every first-turn-only path.
+ */
+@Slf4j
+@Component
+public class WikiChatPreparer {
+
+    private final WikiChatService wikiChatService;
+    private final WikiQueryEmbeddingService embeddingService;
+    private final ExecutorService stageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration userTimeout;
+    private final Duration sessionTimeout;
+
+    private final Timer userStage;
+    private final Timer sessionStage;
+    private final Timer embeddingStage;
+    private final Timer totalTimer;
+
+    public WikiChatPreparer(
+            WikiChatService wikiChatService,
+            WikiQueryEmbeddingService embeddingService,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.chat.prepare.user-timeout:2s}") Duration userTimeout,
+            @Value("${app.wiki.chat.prepare.session-timeout:1s}") Duration sessionTimeout
+    ) {
+        this.wikiChatService = wikiChatService;
+        this.embeddingService = embeddingService;
+        this.userTimeout = userTimeout;
+        this.sessionTimeout = sessionTimeout;
+
+        this.userStage = stageTimer(meterRegistry, "user");
+        this.sessionStage = stageTimer(meterRegistry, "session");
+        this.embeddingStage = stageTimer(meterRegistry, "embedding");
+        this.totalTimer = Timer.builder("wiki.chat.prepare")
+                .description("Wall-clock time of the concurrent chat preparation fan-out")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Prepares a project chat turn.
+     *
+     * @param sessionId Session identifier
+     * @param projectExternalId Project external ID
+     * @param question User question
+     * @param authenticated Whether the request carries a user id (enables the database history fallback)
+     * @param userResolver Rate-limit check and user lookup; exceptions are rethrown to the caller
+     * @return Resolved user and session history
+     */
+    public Prepared prepare(
+            String sessionId,
+            String projectExternalId,
+            String question,
+            boolean authenticated,
+            Supplier<User> userResolver
+    ) {
+        long startedAt = System.nanoTime();
+        Future<User> user = submit(userStage, userResolver);
+        Future<WikiChatSessionHistory> history = submit(sessionStage,
+                () -> wikiChatService.loadHistory(sessionId, projectExternalId, authenticated));
+
+        try {
+            User resolvedUser = awaitRequired(user, userTimeout, history);
+            warmEmbedding(question);
+            WikiChatSessionHistory resolvedHistory = awaitOptional(history, sessionTimeout, "session");
+            return new Prepared(resolvedUser, resolvedHistory != null ? resolvedHistory : WikiChatSessionHistory.unknown());
+        } finally {
+            totalTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdownStageExecutor() {
+        stageExecutor.close();
+    }
+
+    /**
+     * Submitted as a task of the executor rather than a CompletableFuture, so cancelling it interrupts the stage.
+     */
+    private <T> Future<T> submit(Timer timer, Supplier<T> stage) {
+        Supplier<T> timed = LoggingContext.wrapSupplier(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                return stage.get();
+            } finally {
+                timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        });
+        return stageExecutor.submit(timed::get);
+    }
+
+    /**
+     * Starts embedding the question without waiting for it; retrieval embeds through the same cache.
+     */
+    private void warmEmbedding(String question) {
+        stageExecutor.execute(LoggingContext.wrap(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                embeddingService.embed(question);
+            } catch (RuntimeException e) {
+                log.debug("wiki-chat-prepare: embedding warm-up failed, retrieval embeds again: {}", e.getMessage());
+            } finally {
+                embeddingStage.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }));
+    }
+
+    private <T> T awaitRequired(Future<T> future, Duration timeout, Future<?>... siblings) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            cancel(siblings);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Chat preparation failed", e.getCause());
+        } catch (TimeoutException e) {
+            cancel(siblings);
+            future.cancel(true);
+            throw new IllegalStateException("Chat preparation timed out resolving the user");
+        } catch (InterruptedException e) {
+            cancel(siblings);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Chat preparation interrupted", e);
+        }
+    }
+
+    private <T> T awaitOptional(Future<T> future, Duration timeout, String stage) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("wiki-chat-prepare: {} stage exceeded {}ms, continuing without it", stage, timeout.toMillis());
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("wiki-chat-prepare: {} stage failed, continuing without it: {}", stage, e.getCause().getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void cancel(Future<?>... futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("wiki.chat.prepare.stage")
+                .description("Chat preparation stage latency")
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public record Prepared(User user, WikiChatSessionHistory history) {
+    }
+}
@@ -0,0 +1,169 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kr.devport.api.domain.wiki.repository.WikiChatPurgeRepository;
+import kr.devport.api.domain.wiki.repository.WikiChatPurgeRepository.PurgedBatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk purge of expired wiki chat sessions.
+ * Walks expired sessions in keyset batches of at most {@code batch-size} ids, so every batch deletes a full
+ * batch however sparse the expired ids are. Each batch is deleted with set-based SQL in its own short
+ * transaction, with a pause between batches so the small connection pool stays available to chat.
+ * Only the node holding a Redis lease purges; the lease is extended after every batch, and the run stops
+ * if it was lost. Redis errors fail open, since concurrent purges only contend on row locks.
+ */
+@Slf4j
+@Component
+public class WikiChatPurgeEngine {
+
+    private static final String LEASE_KEY = "wiki:chat:purge:lease";
+    private static final RedisScript<Long> EXTEND_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+
+    private final WikiChatPurgeRepository purgeRepository;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration leaseTtl;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Timer batchDuration;
+    private final Counter purgedSessions;
+    private final Counter purgedMessages;
+
+    public WikiChatPurgeEngine(
+            WikiChatPurgeRepository purgeRepository,
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.chat.purge.batch-size:1000}") int batchSize,
+            @Value("${app.wiki.chat.purge.pause:100ms}") Duration pause,
+            @Value("${app.wiki.chat.purge.lease-ttl:10m}") Duration leaseTtl
+    ) {
+        this.purgeRepository = purgeRepository;
+        this.redisTemplate = redisTemplate;
+        this.batchSize = Math.max(1, batchSize);
+        this.pause = pause;
+        this.leaseTtl = leaseTtl;
+        this.batchDuration = Timer.builder("wiki.chat.purge.batch.duration")
+                .description("Time to purge one batch of expired chat sessions")
+                .register(meterRegistry);
+        this.purgedSessions = purgedRows(meterRegistry, "sessions");
+        this.purgedMessages = purgedRows(meterRegistry, "messages");
+    }
+
+    /**
+     * Purges sessions that expired before the cutoff.
+     *
+     * @param cutoff Sessions with an earlier expiry are deleted
+     * @return Totals of the run, or {@link PurgeResult#SKIPPED} when another node holds the lease
+     */
+    public PurgeResult purgeExpired(LocalDateTime cutoff) {
+        if (!tryAcquireLease()) {
+            log.info("wiki-purge: another node holds the purge lease, skipping");
+            return PurgeResult.SKIPPED;
+        }
+        try {
+            long sessions = 0;
+            long messages = 0;
+            int batches = 0;
+            long afterId = 0L;
+            while (true) {
+                long startedAt = System.nanoTime();
+                PurgedBatch purged = purgeRepository.purgeBatch(afterId, cutoff, batchSize);
+                if (purged.sessions() == 0) {
+                    break;
+                }
+                long elapsedNanos = System.nanoTime() - startedAt;
+                batchDuration.record(Duration.ofNanos(elapsedNanos));
+                purgedSessions.increment(purged.sessions());
+                purgedMessages.increment(purged.messages());
+                sessions += purged.sessions();
+                messages += purged.messages();
+                batches++;
+                log.debug("wiki-purge: ids {}-{} purged sessions={} messages={} in {}ms",
+                        afterId + 1, purged.lastId(), purged.sessions(), purged.messages(), elapsedNanos / 1_000_000);
+                afterId = purged.lastId();
+                if (purged.sessions() < batchSize) {
+                    break;
+                }
+                if (!extendLease()) {
+                    log.warn("wiki-purge: purge lease lost after id {}, stopping", afterId);
+                    break;
+                }
+                Thread.sleep(pause);
+            }
+            return new PurgeResult(sessions, messages, batches);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("wiki-purge: interrupted, remaining sessions are purged on the next run");
+            return PurgeResult.SKIPPED;
+        } finally {
+            releaseLease();
+        }
+    }
+
+    /**
+     * @return true when this node holds the lease, or Redis is unavailable and it should purge anyway
+     */
+    private boolean tryAcquireLease() {
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LEASE_KEY, nodeId, leaseTtl);
+            return !Boolean.FALSE.equals(acquired);
+        } catch (Exception e) {
+            log.warn("wiki-purge: lease acquisition failed, purging anyway: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private boolean extendLease() {
+        try {
+            Long extended = redisTemplate.execute(EXTEND_LEASE, List.of(LEASE_KEY), nodeId, leaseTtl.toMillis());
+            return extended == null || extended != 0L;
+        } catch (Exception e) {
+            log.warn("wiki-purge: lease extension failed, continuing: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void releaseLease() {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(LEASE_KEY), nodeId);
+        } catch (Exception e) {
+            log.warn("wiki-purge: lease release failed, letting it expire: {}", e.getMessage());
+        }
+    }
+
+    private static Counter purgedRows(MeterRegistry meterRegistry, String table) {
+        return Counter.builder("wiki.chat.purge.rows")
+                .description("Rows deleted by the expired chat session purge")
+                .tag("table", table)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param sessions Sessions deleted
+     * @param messages Messages deleted
+     * @param batches Non-empty batches deleted; -1 when the run was skipped
+     */
+    public record PurgeResult(long sessions, long messages, int batches) {
+
+        public static final PurgeResult SKIPPED = new PurgeResult(0, 0, -1);
+    }
+}
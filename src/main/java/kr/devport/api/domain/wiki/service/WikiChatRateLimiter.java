@@ -1,14 +1,14 @@
 package kr.devport.api.domain.wiki.service;
 
 import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
+import kr.devport.api.domain.wiki.service.WikiRateLimitEngine.Policy;
+import kr.devport.api.domain.wiki.service.WikiRateLimitEngine.Window;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.List;
 
-@Slf4j
 @Component
 @RequiredArgsConstructor
 public class WikiChatRateLimiter {
@@ -20,41 +20,24 @@ public class WikiChatRateLimiter {
     private static final String KEY_PREFIX = "wiki:rl:";
     private static final String DAILY_KEY_PREFIX = "wiki:rl:day:";
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    static final Policy POLICY = new Policy("user", List.of(
+            new Window(KEY_PREFIX, LIMIT, WINDOW, "요청이 너무 많습니다. 잠시 후 다시 시도해 주세요."),
+            new Window(DAILY_KEY_PREFIX, DAILY_LIMIT, DAILY_WINDOW, "일일 요청 한도를 초과했습니다. 내일 다시 시도해 주세요.")
+    ));
+
+    private final WikiRateLimitEngine rateLimitEngine;
 
     /**
-     * Dual fixed-window rate limit per user:
+     * Dual rate limit per user, evaluated atomically in one Redis call:
      * - 5 requests per 60 seconds (burst protection)
      * - 100 requests per 24 hours (sustained abuse protection)
+     * A request rejected by the burst window is not charged to the daily window.
      * Fail-open on Redis errors to avoid blocking chat when Redis is unavailable.
      *
      * @param userId authenticated user ID string
      * @throws WikiChatRateLimitExceededException when either limit is exceeded
      */
     public void check(String userId) {
-        checkWindow(KEY_PREFIX + userId, LIMIT, WINDOW,
-                "요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
-        checkWindow(DAILY_KEY_PREFIX + userId, DAILY_LIMIT, DAILY_WINDOW,
-                "일일 요청 한도를 초과했습니다. 내일 다시 시도해 주세요.");
-    }
-
-    private void checkWindow(String key, int limit, Duration window, String errorMessage) {
-        try {
-            Long count = redisTemplate.opsForValue().increment(key);
-            if (count == null) {
-                log.warn("wiki-rl: Redis returned null for key={}, allowing request", key);
-                return;
-            }
-            if (count == 1L) {
-                redisTemplate.expire(key, window);
-            }
-            if (count > limit) {
-                throw new WikiChatRateLimitExceededException(errorMessage);
-            }
-        } catch (WikiChatRateLimitExceededException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("wiki-rl: Redis error for key={}, allowing request: {}", key, e.getMessage());
-        }
+        rateLimitEngine.check(POLICY, userId);
     }
 }
@@ -10,27 +10,28 @@ import com.openai.models.ResponseFormatJsonSchema;
 import com.openai.models.chat.completions.ChatCompletion;
 import com.openai.models.chat.completions.ChatCompletionChunk;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
-import com.openai.models.chat.completions.ChatCompletionAssistantMessageParam;
 import com.openai.models.chat.completions.ChatCompletionMessageParam;
-import com.openai.models.chat.completions.ChatCompletionSystemMessageParam;
-import com.openai.models.chat.completions.ChatCompletionUserMessageParam;
+import com.openai.models.chat.completions.ChatCompletionStreamOptions;
+import com.openai.models.completions.CompletionUsage;
 import kr.devport.api.domain.auth.entity.User;
 import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatSessionHistory;
 import kr.devport.api.domain.wiki.enums.WikiChatSessionType;
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import kr.devport.api.domain.wiki.exception.WikiStreamCancelledException;
 import kr.devport.api.domain.wiki.store.WikiChatSessionStore;
 import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievalContext;
-import kr.devport.api.domain.wiki.entity.WikiChatSession;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 /**
  * Wiki chat service with uncertainty handling and session-scoped memory.
@@ -42,20 +43,82 @@ import java.util.regex.Pattern;
 public class WikiChatService {
 
     private static final int MAX_PROMPT_TURNS = 10;
+    private static final int MAX_HISTORY_TOKENS = 2000;
     private static final int MAX_CLARIFICATION_TURNS = 2;
-    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^a-z0-9가-힣]+");
+    private static final int REPLAY_CHUNK_CODE_POINTS = 24;
     private static final String CLARIFICATION_HEADING = "선택할 수 있는 범위:";
     private static final String SUGGESTED_QUESTION_HEADING = "다음처럼 좁혀서 물어보면 더 정확해요:";
-    private static final Pattern META_HISTORY_PATTERN = Pattern.compile(
-        "이전|예전|방금|아까|요약|정리|다시|뭐라고|말했|물어봤" +
-        "|before|previous|summary|summarize|earlier|what did",
-        Pattern.CASE_INSENSITIVE
-    );
+    private static final String PROMPT_CACHE_KEY_PREFIX = "wiki-chat:";
+
+    /**
+     * Static system policies. They must stay byte-identical across requests to be served from the prompt cache.
+     */
+    private static final String STREAMING_POLICY = """
+            You are a repository-grounded technical teammate.
+            Output in rich, readable Markdown format.
+            Do not output JSON.
+            Always write the answer in Korean only.
+
+            Markdown Formatting Policy:
+            - Use fenced code blocks with language identifiers (e.g., ```java, ```bash) for multi-line code snippets or command outputs.
+            - Use single backticks (`) for inline code, variables, or file paths.
+            - Use bolding (**text**) for emphasis on key technical terms.
+            - Use bullet points (-) or numbered lists to break down complex explanations or steps.
+            - You MUST insert an empty line between every bullet point, numbered list item, and paragraph to ensure extreme readability.
+
+            Answer policy:
+            - Stay concise, direct, and repository-specific.
+            - Mention file paths, classes, or methods only when grounded context supports them.
+            - If the question is broad but partly answerable, answer the safest slice first and then add one narrow clarification.
+            - If the question is ambiguous across repo areas, write %s on its own line and follow it with 2-3 short - bullet options without question marks.
+            - If grounding is weak, keep the answer short and action-oriented, then write %s on its own line and follow it with 2-3 short - bullet suggestions.
+            - Do not add confidence labels, citations, JSON, or generic chat filler.
+
+            Conversation policy:
+            - Recent turns are already filtered to the most relevant context.
+            - Do not repeat stale earlier topics unless they are clearly needed.
+            - When previous clarification exists, continue naturally without looping.
+            """.formatted(CLARIFICATION_HEADING, SUGGESTED_QUESTION_HEADING);
+
+    private static final String JSON_POLICY = """
+            You are a repository-grounded technical teammate.
+            Output must be valid JSON matching the schema.
+            Format the answer field in rich, readable Markdown.
+            Always write the answer in Korean only.
+
+            Markdown Formatting Policy:
+            - Use fenced code blocks with language identifiers (e.g., ```java, ```bash) for multi-line code snippets or command outputs.
+            - Use single backticks (`) for inline code, variables, or file paths.
+            - Use bolding (**text**) for emphasis on key technical terms.
+            - Use bullet points (-) or numbered lists to break down complex explanations or steps.
+            - You MUST insert an empty line between every bullet point, numbered list item, and paragraph to ensure extreme readability.
+
+            Answer policy:
+            - Stay concise, direct, and repository-specific.
+            - Mention file paths, classes, or methods only when grounded context supports them.
+            - If the question is broad but partly answerable, answer the safest slice first and then add one narrow clarification.
+            - If the question is ambiguous across repo areas, set isClarification=true and return 2-3 short clarificationOptions without question marks.
+            - If grounding is weak, keep the answer short and action-oriented and include 2-3 suggestedNextQuestions.
+            - Do not add confidence labels, citations, or generic chat filler.
+            - usedPreviousContext should be true only when recent turns materially help this answer.
+
+            Conversation policy:
+            - Recent turns are already filtered to the most relevant context.
+            - Do not repeat stale earlier topics unless they are clearly needed.
+            - When previous clarification exists, continue naturally without looping.
+            """;
 
     private final WikiRetrievalService retrievalService;
     private final WikiChatSessionStore sessionStore;
     private final WikiChatSessionPersistenceService persistenceService;
-    private final WikiChatTitleService titleService;
+    private final WikiChatWriteBehind writeBehind;
+    private final WikiSemanticAnswerCache answerCache;
+    private final WikiFaqAnswerService faqAnswerService;
+    private final WikiChatSingleFlight singleFlight;
+    private final WikiTokenCounter tokenCounter;
+    private final WikiPromptAssembler promptAssembler;
+    private final WikiProjectPromptContext projectPromptContext;
+    private final WikiStreamMetrics streamMetrics;
     private final OpenAIClient openAIClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -77,11 +140,70 @@ public class WikiChatService {
     }
 
     public WikiChatResult chatResult(String sessionId, String projectExternalId, String userQuestion, User user) {
-        ChatRequestContext chatRequest = prepareChatRequest(sessionId, projectExternalId, userQuestion, user);
+        return chatResult(sessionId, projectExternalId, userQuestion, user, loadHistory(sessionId, projectExternalId, user != null));
+    }
+
+    /**
+     * Generate chat response with session history that was already loaded by the caller.
+     *
+     * @param history Session history, typically loaded concurrently by {@link WikiChatPreparer}
+     */
+    public WikiChatResult chatResult(
+            String sessionId,
+            String projectExternalId,
+            String userQuestion,
+            User user,
+            WikiChatSessionHistory history
+    ) {
+        WikiQuestionIntents.Analysis question = WikiQuestionIntents.analyze(userQuestion);
+        WikiChatResult cached = lookupCachedAnswer(projectExternalId, question, history);
+        if (cached != null) {
+            recordTurn(sessionId, projectExternalId, userQuestion, cached, user);
+            return cached;
+        }
+
+        WikiChatResult result = generateFirstTurnOnce("json", projectExternalId, userQuestion, history,
+                token -> { }, new WikiStreamCancellation(),
+                (tokens, cancellation) -> generateJson(projectExternalId, question, history));
+        recordTurn(sessionId, projectExternalId, userQuestion, result, user);
+
+        return result;
+    }
+
+    private WikiChatResult generateJson(
+            String projectExternalId,
+            WikiQuestionIntents.Analysis question,
+            WikiChatSessionHistory history
+    ) {
+        ChatRequestContext chatRequest = prepareChatRequest(projectExternalId, question, history);
+        WikiChatResult result = completeJson(projectExternalId, chatRequest, "project");
+        storeCachedAnswer(projectExternalId, question.question(), chatRequest, result);
+        return result;
+    }
+
+    /**
+     * Answers a question outside any session, for background precomputation.
+     * Nothing is recorded or cached.
+     *
+     * @param projectExternalId Project external ID
+     * @param question Question to answer
+     * @return Answer, or empty when grounding is weak or the model asked for clarification
+     */
+    public Optional<WikiChatResult> answerStandalone(String projectExternalId, String question) {
+        ChatRequestContext chatRequest = prepareChatRequest(
+                projectExternalId, WikiQuestionIntents.analyze(question), new WikiChatSessionHistory(List.of(), false));
+        if (chatRequest.context().weakGrounding()) {
+            return Optional.empty();
+        }
+        WikiChatResult result = completeJson(projectExternalId, chatRequest, "faq_precompute");
+        return result.isClarification() ? Optional.empty() : Optional.of(result);
+    }
+
+    private WikiChatResult completeJson(String projectExternalId, ChatRequestContext chatRequest, String endpoint) {
         List<ChatCompletionMessageParam> messages = buildMessages(
                 chatRequest.context(),
                 chatRequest.promptTurns(),
-                userQuestion,
+                chatRequest.question(),
                 chatRequest.clarificationTurns(),
                 false
         );
@@ -90,31 +212,19 @@ public class WikiChatService {
                         .model(ChatModel.GPT_5_MINI)
                         .messages(messages)
                         .responseFormat(buildResponseFormat())
+                        .promptCacheKey(PROMPT_CACHE_KEY_PREFIX + projectExternalId)
                         .build()
         );
+        completion.usage().ifPresent(usage -> promptAssembler.recordUsage(endpoint, usage));
 
         String payload = completion.choices().getFirst().message().content().orElse("");
-        WikiChatResult result = normalizeResult(
+        return normalizeResult(
                 parseResult(payload, chatRequest.context()),
                 chatRequest.context(),
                 chatRequest.topicShift(),
                 chatRequest.sessionReset(),
                 chatRequest.clarificationTurns()
         );
-
-        if (user != null) {
-            boolean isFirst = persistenceService.isFirstMessage(sessionId);
-            WikiChatSession session = persistenceService.findOrCreateSession(
-                    sessionId, user, projectExternalId, WikiChatSessionType.PROJECT);
-            persistenceService.saveUserMessage(session, userQuestion);
-            persistenceService.saveAssistantMessage(session, result.answer(), result.isClarification());
-            if (isFirst) {
-                titleService.generateAndSave(sessionId, userQuestion);
-            }
-        }
-        sessionStore.saveTurn(sessionId, projectExternalId, userQuestion, result.answer(), result.isClarification());
-
-        return result;
     }
 
     public WikiChatResult streamChatResult(
@@ -133,25 +243,103 @@ public class WikiChatService {
             Consumer<String> tokenConsumer,
             User user
     ) {
-        ChatRequestContext chatRequest = prepareChatRequest(sessionId, projectExternalId, userQuestion, user);
+        return streamChatResult(sessionId, projectExternalId, userQuestion, tokenConsumer, user,
+                loadHistory(sessionId, projectExternalId, user != null));
+    }
+
+    public WikiChatResult streamChatResult(
+            String sessionId,
+            String projectExternalId,
+            String userQuestion,
+            Consumer<String> tokenConsumer,
+            User user,
+            WikiChatSessionHistory history
+    ) {
+        return streamChatResult(sessionId, projectExternalId, userQuestion, tokenConsumer, user, history,
+                new WikiStreamCancellation());
+    }
+
+    /**
+     * Stream a chat response until it completes or the client cancels it.
+     * A cancelled stream records nothing in the session and closes the upstream model response, or, for a
+     * shared first turn, leaves it to the other requests still waiting on it.
+     *
+     * @param cancellation Cancelled by the caller when the client disconnects
+     * @throws WikiStreamCancelledException if the stream was cancelled
+     */
+    public WikiChatResult streamChatResult(
+            String sessionId,
+            String projectExternalId,
+            String userQuestion,
+            Consumer<String> tokenConsumer,
+            User user,
+            WikiChatSessionHistory history,
+            WikiStreamCancellation cancellation
+    ) {
+        WikiQuestionIntents.Analysis question = WikiQuestionIntents.analyze(userQuestion);
+        WikiChatResult cached = lookupCachedAnswer(projectExternalId, question, history);
+        if (cached != null) {
+            replayAnswer(cached.answer(), tokenConsumer, cancellation);
+            recordTurn(sessionId, projectExternalId, userQuestion, cached, user);
+            return cached;
+        }
+
+        WikiChatResult result = generateFirstTurnOnce("stream", projectExternalId, userQuestion, history,
+                tokenConsumer, cancellation,
+                (tokens, streamCancellation) -> generateStreamed(projectExternalId, question, history, tokens, streamCancellation));
+        recordTurn(sessionId, projectExternalId, userQuestion, result, user);
+
+        return result;
+    }
+
+    private WikiChatResult generateStreamed(
+            String projectExternalId,
+            WikiQuestionIntents.Analysis question,
+            WikiChatSessionHistory history,
+            Consumer<String> tokenConsumer,
+            WikiStreamCancellation cancellation
+    ) {
+        ChatRequestContext chatRequest = prepareChatRequest(projectExternalId, question, history);
         List<ChatCompletionMessageParam> messages = buildMessages(
                 chatRequest.context(),
                 chatRequest.promptTurns(),
-                userQuestion,
+                chatRequest.question(),
                 chatRequest.clarificationTurns(),
                 true
         );
         StringBuilder accumulated = new StringBuilder();
+        AtomicReference<CompletionUsage> finalUsage = new AtomicReference<>();
 
         try (StreamResponse<ChatCompletionChunk> completionStream = openAIClient.chat().completions().createStreaming(
                 ChatCompletionCreateParams.builder()
                         .model(ChatModel.GPT_5_MINI)
                         .messages(messages)
+                        .promptCacheKey(PROMPT_CACHE_KEY_PREFIX + projectExternalId)
+                        .streamOptions(ChatCompletionStreamOptions.builder().includeUsage(true).build())
                         .build()
-        );
-             java.util.stream.Stream<ChatCompletionChunk> chunks = completionStream.stream()) {
-            chunks.forEach(chunk -> appendStreamChunk(chunk, tokenConsumer, accumulated));
+        )) {
+            cancellation.bind(completionStream);
+            try (java.util.stream.Stream<ChatCompletionChunk> chunks = completionStream.stream()) {
+                chunks.forEach(chunk -> {
+                    cancellation.throwIfCancelled();
+                    appendStreamChunk(chunk, tokenConsumer, accumulated);
+                    chunk.usage().ifPresent(usage -> {
+                        promptAssembler.recordUsage("project_stream", usage);
+                        finalUsage.set(usage);
+                    });
+                });
+            } finally {
+                cancellation.unbind();
+            }
+        } catch (RuntimeException e) {
+            if (!cancellation.isCancelled()) {
+                throw e;
+            }
+            // Closing the upstream surfaces as an I/O error on this thread; report it as the cancellation it is.
+            streamMetrics.recordCancelled("project_stream", accumulated.toString());
+            throw new WikiStreamCancelledException("Project chat stream was cancelled by the client");
         }
+        streamMetrics.recordCompleted("project_stream", accumulated.toString(), finalUsage.get());
 
         WikiChatResult result = normalizeStreamedResult(
                 accumulated.toString(),
@@ -159,134 +347,139 @@ public class WikiChatService {
                 !chatRequest.topicShift() && !chatRequest.promptTurns().isEmpty()
         );
 
+        storeCachedAnswer(projectExternalId, question.question(), chatRequest, result);
+        return result;
+    }
+
+    /**
+     * Shares first-turn generation with identical concurrent requests; follow-ups depend on history and run alone,
+     * as do turns whose history could not be loaded.
+     * The shared answer carries the generating request's session flags, so they are reapplied for this caller.
+     */
+    private WikiChatResult generateFirstTurnOnce(
+            String mode,
+            String projectExternalId,
+            String userQuestion,
+            WikiChatSessionHistory history,
+            Consumer<String> tokenConsumer,
+            WikiStreamCancellation cancellation,
+            WikiChatSingleFlight.Generator generator
+    ) {
+        if (!history.firstTurn()) {
+            return generator.generate(tokenConsumer, cancellation);
+        }
+        WikiChatResult shared = singleFlight.execute(mode, projectExternalId, userQuestion, tokenConsumer, cancellation, generator);
+        if (shared.sessionReset() == history.sessionReset()) {
+            return shared;
+        }
+        return new WikiChatResult(
+                shared.answer(),
+                shared.isClarification(),
+                shared.clarificationOptions(),
+                shared.suggestedNextQuestions(),
+                shared.usedPreviousContext(),
+                history.sessionReset()
+        );
+    }
+
+    private void recordTurn(String sessionId, String projectExternalId, String userQuestion, WikiChatResult result, User user) {
         if (user != null) {
-            boolean isFirst = persistenceService.isFirstMessage(sessionId);
-            WikiChatSession session = persistenceService.findOrCreateSession(
-                    sessionId, user, projectExternalId, WikiChatSessionType.PROJECT);
-            persistenceService.saveUserMessage(session, userQuestion);
-            persistenceService.saveAssistantMessage(session, result.answer(), result.isClarification());
-            if (isFirst) {
-                titleService.generateAndSave(sessionId, userQuestion);
-            }
+            writeBehind.record(sessionId, user, projectExternalId, WikiChatSessionType.PROJECT,
+                    userQuestion, result.answer(), result.isClarification());
         }
         sessionStore.saveTurn(sessionId, projectExternalId, userQuestion, result.answer(), result.isClarification());
+    }
 
-        return result;
+    /**
+     * Precomputed FAQ answers and the semantic answer cache are only consulted for known first turns;
+     * follow-ups depend on history.
+     */
+    private WikiChatResult lookupCachedAnswer(
+            String projectExternalId,
+            WikiQuestionIntents.Analysis question,
+            WikiChatSessionHistory history
+    ) {
+        if (!history.firstTurn()) {
+            return null;
+        }
+        return faqAnswerService.lookup(projectExternalId, question)
+                .or(() -> answerCache.lookup(projectExternalId, question.question()))
+                .map(cached -> new WikiChatResult(
+                        cached.answer(),
+                        cached.isClarification(),
+                        cached.clarificationOptions(),
+                        cached.suggestedNextQuestions(),
+                        false,
+                        history.sessionReset()
+                ))
+                .orElse(null);
+    }
+
+    private void storeCachedAnswer(
+            String projectExternalId,
+            String userQuestion,
+            ChatRequestContext chatRequest,
+            WikiChatResult result
+    ) {
+        // Clarifications and weak-grounding replies are cheap to regenerate and likely to improve.
+        if (!chatRequest.firstTurn() || chatRequest.context().weakGrounding() || result.isClarification()) {
+            return;
+        }
+        answerCache.store(projectExternalId, userQuestion, result);
+    }
+
+    private void replayAnswer(String answer, Consumer<String> tokenConsumer, WikiStreamCancellation cancellation) {
+        int offset = 0;
+        while (offset < answer.length()) {
+            cancellation.throwIfCancelled();
+            int end = answer.offsetByCodePoints(offset, Math.min(REPLAY_CHUNK_CODE_POINTS, answer.codePointCount(offset, answer.length())));
+            tokenConsumer.accept(answer.substring(offset, end));
+            offset = end;
+        }
     }
 
     /**
-     * Build chat messages with system prompt, context, history, and current question.
+     * Build chat messages ordered for prompt caching: static policy, project, retrieval context, history, question.
      */
     private List<ChatCompletionMessageParam> buildMessages(
             WikiRetrievalContext context,
             List<ChatTurn> previousTurns,
-            String userQuestion,
+            WikiQuestionIntents.Analysis question,
             int clarificationTurns,
             boolean streaming
     ) {
-        List<ChatCompletionMessageParam> messages = new ArrayList<>();
-
-        String systemPrompt = buildSystemPrompt(context, clarificationTurns > 0, streaming);
-        messages.add(ChatCompletionMessageParam.ofSystem(
-                ChatCompletionSystemMessageParam.builder()
-                        .content(systemPrompt)
-                        .build()
+        return promptAssembler.assemble(new WikiPromptAssembler.PromptLayout(
+                streaming ? STREAMING_POLICY : JSON_POLICY,
+                projectPromptContext.build(context.projectExternalId()),
+                buildTurnContext(context, clarificationTurns > 0),
+                fitHistoryToBudget(previousTurns),
+                buildUserPrompt(context, question, clarificationTurns, streaming)
         ));
-
-        for (ChatTurn turn : previousTurns) {
-            messages.add(ChatCompletionMessageParam.ofUser(
-                    ChatCompletionUserMessageParam.builder()
-                            .content(turn.getQuestion())
-                            .build()
-            ));
-            messages.add(ChatCompletionMessageParam.ofAssistant(
-                    ChatCompletionAssistantMessageParam.builder()
-                            .content(turn.getAnswer())
-                            .build()
-            ));
-        }
-
-        messages.add(ChatCompletionMessageParam.ofUser(
-                ChatCompletionUserMessageParam.builder()
-                        .content(buildUserPrompt(context, userQuestion, clarificationTurns, streaming))
-                        .build()
-        ));
-
-        return messages;
     }
 
     /**
-     * Build system prompt with context and uncertainty handling instructions.
+     * Keeps the most recent turns whose questions and answers fit the history token budget.
      */
-    private String buildSystemPrompt(WikiRetrievalContext context, boolean hasPreviousContext, boolean streaming) {
-        if (streaming) {
-            return """
-                You are a repository-grounded technical teammate.
-                Output in rich, readable Markdown format.
-                Do not output JSON.
-                Always write the answer in Korean only.
-
-                Markdown Formatting Policy:
-                - Use fenced code blocks with language identifiers (e.g., ```java, ```bash) for multi-line code snippets or command outputs.
-                - Use single backticks (`) for inline code, variables, or file paths.
-                - Use bolding (**text**) for emphasis on key technical terms.
-                - Use bullet points (-) or numbered lists to break down complex explanations or steps.
-                - You MUST insert an empty line between every bullet point, numbered list item, and paragraph to ensure extreme readability.
-
-                Answer policy:
-                - Stay concise, direct, and repository-specific.
-                - Mention file paths, classes, or methods only when grounded context supports them.
-                - If the question is broad but partly answerable, answer the safest slice first and then add one narrow clarification.
-                - If the question is ambiguous across repo areas, write %s on its own line and follow it with 2-3 short - bullet options without question marks.
-                - If grounding is weak, keep the answer short and action-oriented, then write %s on its own line and follow it with 2-3 short - bullet suggestions.
-                - Do not add confidence labels, citations, JSON, or generic chat filler.
-
-                Conversation policy:
-                - Recent turns are already filtered to the most relevant context.
-                - Do not repeat stale earlier topics unless they are clearly needed.
-                - When previous clarification exists, continue naturally without looping.
-
-                Grounding strength: %s
-                Previous context included: %s
-
-                Repository Context:
-                %s
-                """.formatted(
-                    CLARIFICATION_HEADING,
-                    SUGGESTED_QUESTION_HEADING,
-                    context.weakGrounding() ? "weak" : "strong",
-                    hasPreviousContext,
-                    context.groundedContext()
-            );
+    private List<ChatTurn> fitHistoryToBudget(List<ChatTurn> turns) {
+        int used = 0;
+        int start = turns.size();
+        while (start > 0) {
+            ChatTurn turn = turns.get(start - 1);
+            int cost = tokenCounter.count(turn.getQuestion()) + tokenCounter.count(turn.getAnswer());
+            if (used + cost > MAX_HISTORY_TOKENS) {
+                break;
+            }
+            used += cost;
+            start--;
         }
+        return turns.subList(start, turns.size());
+    }
 
+    /**
+     * Per-turn retrieval context; kept out of the static policy so the policy prefix stays cacheable.
+     */
+    private String buildTurnContext(WikiRetrievalContext context, boolean hasPreviousContext) {
         return """
-                You are a repository-grounded technical teammate.
-                Output must be valid JSON matching the schema.
-                Format the answer field in rich, readable Markdown.
-                Always write the answer in Korean only.
-
-                Markdown Formatting Policy:
-                - Use fenced code blocks with language identifiers (e.g., ```java, ```bash) for multi-line code snippets or command outputs.
-                - Use single backticks (`) for inline code, variables, or file paths.
-                - Use bolding (**text**) for emphasis on key technical terms.
-                - Use bullet points (-) or numbered lists to break down complex explanations or steps.
-                - You MUST insert an empty line between every bullet point, numbered list item, and paragraph to ensure extreme readability.
-
-                Answer policy:
-                - Stay concise, direct, and repository-specific.
-                - Mention file paths, classes, or methods only when grounded context supports them.
-                - If the question is broad but partly answerable, answer the safest slice first and then add one narrow clarification.
-                - If the question is ambiguous across repo areas, set isClarification=true and return 2-3 short clarificationOptions without question marks.
-                - If grounding is weak, keep the answer short and action-oriented and include 2-3 suggestedNextQuestions.
-                - Do not add confidence labels, citations, or generic chat filler.
-                - usedPreviousContext should be true only when recent turns materially help this answer.
-
-                Conversation policy:
-                - Recent turns are already filtered to the most relevant context.
-                - Do not repeat stale earlier topics unless they are clearly needed.
-                - When previous clarification exists, continue naturally without looping.
-
                 Grounding strength: %s
                 Previous context included: %s
 
@@ -297,14 +490,14 @@ public class WikiChatService {
 
     private String buildUserPrompt(
             WikiRetrievalContext context,
-            String userQuestion,
+            WikiQuestionIntents.Analysis question,
             int clarificationTurns,
             boolean streaming
     ) {
         String responseInstruction = streaming
                 ? "응답은 마크다운(Markdown)이 적용된 한국어 텍스트로 반환하세요."
                 : "응답 JSON만 반환하세요.";
-        String faqInstruction = buildFaqInstruction(userQuestion);
+        String faqInstruction = buildFaqInstruction(question.faqType());
         return """
                 질문: %s
                 약한 근거 여부: %s
@@ -313,7 +506,7 @@ public class WikiChatService {
                 %s
                 %s
                 """.formatted(
-                userQuestion,
+                question.question(),
                 context.weakGrounding(),
                 context.suggestedNextQuestions(),
                 clarificationTurns,
@@ -322,29 +515,15 @@ public class WikiChatService {
         );
     }
 
-    private static final java.util.regex.Pattern FAQ_PROBLEM  = java.util.regex.Pattern.compile(
-            "문제.*해결|해결.*문제|왜 만들|어떤.*목적|what.*problem|solve|why.*built", java.util.regex.Pattern.CASE_INSENSITIVE);
-    private static final java.util.regex.Pattern FAQ_ARCH     = java.util.regex.Pattern.compile(
-            "아키텍처|구조|설계|architecture|design|어떻게.*동작|동작.*원리|how.*work|내부.*구조", java.util.regex.Pattern.CASE_INSENSITIVE);
-    private static final java.util.regex.Pattern FAQ_START    = java.util.regex.Pattern.compile(
-            "시작하려면|어떻게.*시작|설치|install|setup|getting.?started|사용.*방법|how.*use|how.*start", java.util.regex.Pattern.CASE_INSENSITIVE);
-    private static final java.util.regex.Pattern FAQ_CHANGES  = java.util.regex.Pattern.compile(
-            "최근.*변경|변경.*사항|changelog|release|업데이트|최근.*업|새로운|recent.*change|what.*new", java.util.regex.Pattern.CASE_INSENSITIVE);
-    private static final java.util.regex.Pattern FAQ_FEATURES = java.util.regex.Pattern.compile(
-            "주요.*기능|기능.*무엇|특징|feature|capabilities|what.*can|뭘.*할|어떤.*기능", java.util.regex.Pattern.CASE_INSENSITIVE);
-
-    private String buildFaqInstruction(String question) {
-        if (FAQ_PROBLEM.matcher(question).find())
-            return "FAQ 유형: 프로젝트 목적/문제 해결. 명확화 질문 없이 이 프로젝트가 해결하는 핵심 문제와 존재 이유를 포괄적으로 답하세요.";
-        if (FAQ_ARCH.matcher(question).find())
-            return "FAQ 유형: 핵심 아키텍처. 명확화 질문 없이 전체 시스템 구조, 주요 컴포넌트, 데이터 흐름을 구조화하여 설명하세요.";
-        if (FAQ_START.matcher(question).find())
-            return "FAQ 유형: 시작 방법. 명확화 질문 없이 설치/설정/첫 실행까지의 단계를 순서대로 안내하세요.";
-        if (FAQ_CHANGES.matcher(question).find())
-            return "FAQ 유형: 최근 변경 사항. 명확화 질문 없이 최근 업데이트, 릴리즈, 주요 변경 내용을 정리해 답하세요.";
-        if (FAQ_FEATURES.matcher(question).find())
-            return "FAQ 유형: 주요 기능. 명확화 질문 없이 핵심 기능 목록을 간결하게 나열하여 설명하세요.";
-        return "";
+    private String buildFaqInstruction(WikiFaqType faqType) {
+        return switch (faqType) {
+            case PROBLEM_SOLVED -> "FAQ 유형: 프로젝트 목적/문제 해결. 명확화 질문 없이 이 프로젝트가 해결하는 핵심 문제와 존재 이유를 포괄적으로 답하세요.";
+            case ARCHITECTURE -> "FAQ 유형: 핵심 아키텍처. 명확화 질문 없이 전체 시스템 구조, 주요 컴포넌트, 데이터 흐름을 구조화하여 설명하세요.";
+            case GETTING_STARTED -> "FAQ 유형: 시작 방법. 명확화 질문 없이 설치/설정/첫 실행까지의 단계를 순서대로 안내하세요.";
+            case RECENT_CHANGES -> "FAQ 유형: 최근 변경 사항. 명확화 질문 없이 최근 업데이트, 릴리즈, 주요 변경 내용을 정리해 답하세요.";
+            case KEY_FEATURES -> "FAQ 유형: 주요 기능. 명확화 질문 없이 핵심 기능 목록을 간결하게 나열하여 설명하세요.";
+            case NONE -> "";
+        };
     }
 
     private WikiChatResult parseResult(String payload, WikiRetrievalContext context) {
@@ -454,15 +633,15 @@ public class WikiChatService {
         return (int) turns.stream().filter(ChatTurn::isWasClarification).count();
     }
 
-    private boolean isTopicShift(List<ChatTurn> previousTurns, String userQuestion) {
+    private boolean isTopicShift(List<ChatTurn> previousTurns, WikiQuestionIntents.Analysis question) {
         if (previousTurns.isEmpty()) {
             return false;
         }
         // Meta-history questions reference the conversation itself — never drop context.
-        if (META_HISTORY_PATTERN.matcher(userQuestion).find()) {
+        if (question.historyReference()) {
             return false;
         }
-        Set<String> currentTokens = tokenize(userQuestion);
+        Set<String> currentTokens = question.tokens();
         // Require >= 2 tokens before judging a topic shift; single-token follow-ups
         // ("왜?", "예를 들면?") have too little signal. Note: "왜" is 1 char → filtered by
         // tokenize()'s length >= 2 rule, so "왜?" yields 0 tokens → size < 2 → false.
@@ -471,18 +650,12 @@ public class WikiChatService {
         }
         Set<String> previousTokens = new LinkedHashSet<>();
         for (ChatTurn turn : selectPromptTurns(previousTurns)) {
-            previousTokens.addAll(tokenize(turn.getQuestion()));
-            previousTokens.addAll(tokenize(turn.getAnswer()));
+            previousTokens.addAll(WikiChunkTexts.tokenize(turn.getQuestion()));
+            previousTokens.addAll(WikiChunkTexts.tokenize(turn.getAnswer()));
         }
         return currentTokens.stream().noneMatch(previousTokens::contains);
     }
 
-    private Set<String> tokenize(String text) {
-        return TOKEN_SPLIT.splitAsStream(text.toLowerCase(Locale.ROOT))
-                .filter(token -> token.length() >= 2)
-                .collect(LinkedHashSet::new, Set::add, Set::addAll);
-    }
-
     private List<String> readStringList(JsonNode node) {
         if (!node.isArray()) {
             return List.of();
@@ -603,21 +776,38 @@ public class WikiChatService {
         }
     }
 
-    private ChatRequestContext prepareChatRequest(
-            String sessionId, String projectExternalId, String userQuestion, User user) {
-        WikiRetrievalContext context = retrievalService.retrieveContext(projectExternalId, userQuestion);
+    /**
+     * Load recent session turns from Redis, falling back to the database for authenticated users.
+     *
+     * @param sessionId Session identifier
+     * @param projectExternalId Project external ID
+     * @param authenticated Whether the request belongs to a signed-in user
+     * @return Session history
+     */
+    public WikiChatSessionHistory loadHistory(String sessionId, String projectExternalId, boolean authenticated) {
         boolean hadActiveSession = sessionStore.hasActiveSession(sessionId);
         List<ChatTurn> redisTurns = sessionStore.loadRecentTurns(sessionId, projectExternalId);
         // If Redis is cold but user is authenticated, load from DB (resumed session)
         List<ChatTurn> previousTurns = redisTurns;
-        if (redisTurns.isEmpty() && user != null) {
+        if (redisTurns.isEmpty() && authenticated) {
             previousTurns = persistenceService.loadRecentMessages(sessionId, MAX_PROMPT_TURNS);
         }
         boolean sessionReset = hadActiveSession && redisTurns.isEmpty();
-        boolean topicShift = isTopicShift(previousTurns, userQuestion);
+        return new WikiChatSessionHistory(previousTurns, sessionReset);
+    }
+
+    private ChatRequestContext prepareChatRequest(
+            String projectExternalId,
+            WikiQuestionIntents.Analysis question,
+            WikiChatSessionHistory history
+    ) {
+        WikiRetrievalContext context = retrievalService.retrieveContext(projectExternalId, question);
+        List<ChatTurn> previousTurns = history.previousTurns();
+        boolean topicShift = isTopicShift(previousTurns, question);
         List<ChatTurn> promptTurns = topicShift ? List.of() : selectPromptTurns(previousTurns);
         int clarificationTurns = countClarificationTurns(previousTurns);
-        return new ChatRequestContext(context, promptTurns, topicShift, sessionReset, clarificationTurns);
+        return new ChatRequestContext(
+                context, question, promptTurns, topicShift, history.sessionReset(), clarificationTurns, history.firstTurn());
     }
 
     private ResponseFormatJsonSchema buildResponseFormat() {
@@ -670,10 +860,12 @@ public class WikiChatService {
 
     private record ChatRequestContext(
             WikiRetrievalContext context,
+            WikiQuestionIntents.Analysis question,
             List<ChatTurn> promptTurns,
             boolean topicShift,
             boolean sessionReset,
-            int clarificationTurns
+            int clarificationTurns,
+            boolean firstTurn
     ) {
     }
 }
@@ -18,7 +18,6 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -32,70 +31,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class WikiChatSessionPersistenceService {
 
-    private static final int SESSION_TTL_DAYS = 10;
-
     private final WikiChatSessionRepository sessionRepository;
     private final WikiChatMessageRepository messageRepository;
 
-    /**
-     * Find or create a session. Updates last_message_at and expiresAt on every call.
-     */
-    @Transactional
-    public WikiChatSession findOrCreateSession(
-            String externalId,
-            User user,
-            String projectExternalId,
-            WikiChatSessionType sessionType
-    ) {
-        return sessionRepository.findByExternalId(externalId)
-                .map(session -> {
-                    LocalDateTime now = LocalDateTime.now();
-                    session.setLastMessageAt(now);
-                    session.setExpiresAt(now.plusDays(SESSION_TTL_DAYS));
-                    return sessionRepository.save(session);
-                })
-                .orElseGet(() -> {
-                    LocalDateTime now = LocalDateTime.now();
-                    WikiChatSession session = WikiChatSession.builder()
-                            .externalId(externalId)
-                            .user(user)
-                            .projectExternalId(projectExternalId)
-                            .sessionType(sessionType)
-                            .lastMessageAt(now)
-                            .expiresAt(now.plusDays(SESSION_TTL_DAYS))
-                            .build();
-                    return sessionRepository.save(session);
-                });
-    }
-
-    /**
-     * Save a user message to the DB.
-     */
-    @Transactional
-    public WikiChatMessage saveUserMessage(WikiChatSession session, String question) {
-        WikiChatMessage message = WikiChatMessage.builder()
-                .session(session)
-                .role("USER")
-                .content(question)
-                .isClarification(false)
-                .build();
-        return messageRepository.save(message);
-    }
-
-    /**
-     * Save an assistant message to the DB.
-     */
-    @Transactional
-    public WikiChatMessage saveAssistantMessage(WikiChatSession session, String answer, boolean isClarification) {
-        WikiChatMessage message = WikiChatMessage.builder()
-                .session(session)
-                .role("ASSISTANT")
-                .content(answer)
-                .isClarification(isClarification)
-                .build();
-        return messageRepository.save(message);
-    }
-
     /**
      * Load recent messages from DB and convert to ChatTurn list (oldest-first).
      * Used as fallback when Redis session is cold (resumed session).
@@ -199,16 +137,6 @@ public class WikiChatSessionPersistenceService {
         sessionRepository.delete(session);
     }
 
-    /**
-     * Check if a session has 0 prior messages (first message check).
-     */
-    @Transactional(readOnly = true)
-    public boolean isFirstMessage(String externalId) {
-        return sessionRepository.findByExternalId(externalId)
-                .map(session -> messageRepository.countBySession(session) == 0)
-                .orElse(true);
-    }
-
     private WikiSessionListResponse toListResponse(Page<WikiChatSession> sessionPage) {
         List<WikiChatSession> sessions = sessionPage.getContent();
         Map<Long, Long> countMap = sessions.isEmpty()
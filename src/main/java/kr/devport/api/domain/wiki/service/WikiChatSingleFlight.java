@@ -0,0 +1,573 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import kr.devport.api.domain.common.logging.LoggingContext;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.exception.WikiStreamCancelledException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Collapses concurrent identical first-turn chat requests into one retrieval and model call.
+ * Requests are keyed by answer mode, project and normalized question; follow-ups depend on session history
+ * and are never shared. The first request starts a flight on a virtual thread, and every request, the first
+ * included, drains the flight's token log on its own thread: late joiners replay the tokens produced so far
+ * and then follow live. A disconnecting subscriber only leaves the flight; the upstream model stream is
+ * cancelled once no subscriber is left.
+ * Across nodes a short Redis lease elects one generator, which renews the lease while it generates and
+ * appends its tokens to a Redis list in small timed chunks. The lease value carries a random generation id
+ * and the token list and published answer are keyed by it, so a later flight of the same question never
+ * appends to or reads the keys of an earlier one that have not expired yet. Other nodes relay those chunks to their own
+ * subscribers as they arrive and pick up the published answer at the end. If the lease lapses without an
+ * answer they generate themselves, unless chunks were already relayed, in which case the request fails rather
+ * than stream a second answer after the first. Redis errors fail open to local generation.
+ */
+@Slf4j
+@Component
+public class WikiChatSingleFlight {
+
+    private static final String LEASE_KEY_PREFIX = "wiki:flight:lease:";
+    private static final String RESULT_KEY_PREFIX = "wiki:flight:result:";
+    private static final String TOKENS_KEY_PREFIX = "wiki:flight:tokens:";
+    private static final String ANSWER_KEY = "answer";
+    private static final String IS_CLARIFICATION_KEY = "isClarification";
+    private static final String CLARIFICATION_OPTIONS_KEY = "clarificationOptions";
+    private static final String SUGGESTED_NEXT_QUESTIONS_KEY = "suggestedNextQuestions";
+    private static final String TOKENS_COMPLETE_KEY = "tokensComplete";
+    private static final long SUBSCRIBER_CHECK_MILLIS = 100L;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0",
+            Long.class);
+    private static final RedisScript<Long> EXTEND_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) end return 0",
+            Long.class);
+    private static final RedisScript<Long> APPEND_TOKENS = new DefaultRedisScript<>(
+            "redis.call('rpush', KEYS[1], unpack(ARGV, 2)) return redis.call('pexpire', KEYS[1], ARGV[1])",
+            Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean enabled;
+    private final Duration leaseTtl;
+    private final Duration remotePollInterval;
+    private final Duration remoteMaxWait;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter remoteFollowers;
+
+    public WikiChatSingleFlight(
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.chat.single-flight.enabled:true}") boolean enabled,
+            @Value("${app.wiki.chat.single-flight.lease-ttl:30s}") Duration leaseTtl,
+            @Value("${app.wiki.chat.single-flight.remote-poll-interval:200ms}") Duration remotePollInterval,
+            @Value("${app.wiki.chat.single-flight.remote-max-wait:2m}") Duration remoteMaxWait
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.leaseTtl = leaseTtl;
+        this.remotePollInterval = remotePollInterval;
+        this.remoteMaxWait = remoteMaxWait;
+        this.leaders = requestCounter(meterRegistry, "leader");
+        this.followers = requestCounter(meterRegistry, "follower");
+        this.remoteFollowers = requestCounter(meterRegistry, "remote_follower");
+    }
+
+    /**
+     * Generates a first-turn answer, sharing the generation with identical requests already in flight.
+     *
+     * @param mode Answer format, so streamed and JSON answers are never mixed (e.g. json, stream)
+     * @param projectExternalId Project identifier
+     * @param question User question
+     * @param tokenConsumer Receives the streamed tokens of the shared answer
+     * @param cancellation Cancelled by the caller when its client goes away
+     * @param generator Produces the answer; runs at most once per flight
+     * @return Shared answer
+     * @throws WikiStreamCancelledException if the caller cancelled
+     */
+    public WikiChatResult execute(
+            String mode,
+            String projectExternalId,
+            String question,
+            Consumer<String> tokenConsumer,
+            WikiStreamCancellation cancellation,
+            Generator generator
+    ) {
+        if (!enabled) {
+            return generator.generate(tokenConsumer, cancellation);
+        }
+        String key = mode + ':' + projectExternalId + ':' + normalize(question);
+        Flight[] started = new Flight[1];
+        Flight flight = flights.compute(key, (flightKey, existing) -> {
+            if (existing != null && existing.join()) {
+                return existing;
+            }
+            Flight created = new Flight(flightKey);
+            created.join();
+            started[0] = created;
+            return created;
+        });
+        if (started[0] != null) {
+            leaders.increment();
+            executor.execute(LoggingContext.wrap(() -> fly(flight, generator)));
+        } else {
+            followers.increment();
+            log.debug("wiki-flight: joined in-flight answer for project={}", projectExternalId);
+        }
+        return flight.drain(tokenConsumer, cancellation);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    static String normalize(String question) {
+        return WHITESPACE.matcher(question.strip().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    private void fly(Flight flight, Generator generator) {
+        try {
+            flight.complete(generateOnce(flight, generator));
+        } catch (RuntimeException e) {
+            flight.fail(e);
+        } finally {
+            flights.remove(flight.key, flight);
+        }
+    }
+
+    private WikiChatResult generateOnce(Flight flight, Generator generator) {
+        String flightId = hash(flight.key);
+        String leaseValue = nodeId + '/' + UUID.randomUUID();
+        String holder = acquireLease(flightId, leaseValue);
+        if (!holder.equals(leaseValue)) {
+            Optional<WikiChatResult> remote = awaitRemoteResult(flightId, holder, flight);
+            if (remote.isPresent()) {
+                remoteFollowers.increment();
+                return remote.get();
+            }
+            return generator.generate(flight, flight.upstream);
+        }
+        String generationKey = generationKey(flightId, leaseValue);
+        Future<?> renewal = executor.submit(() -> keepLease(flightId, leaseValue));
+        TokenPublisher publisher = new TokenPublisher(generationKey, flight);
+        try {
+            WikiChatResult result = generator.generate(publisher, flight.upstream);
+            publisher.flush();
+            publishResult(generationKey, result, publisher.complete());
+            return result;
+        } finally {
+            renewal.cancel(true);
+            releaseLease(flightId, leaseValue);
+        }
+    }
+
+    /**
+     * @return The value of the current lease: {@code leaseValue} when this node took it, or Redis is
+     *         unavailable and it should generate anyway; otherwise the holder's value
+     */
+    private String acquireLease(String flightId, String leaseValue) {
+        String leaseKey = LEASE_KEY_PREFIX + flightId;
+        try {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                if (!Boolean.FALSE.equals(redisTemplate.opsForValue().setIfAbsent(leaseKey, leaseValue, leaseTtl))) {
+                    return leaseValue;
+                }
+                // The holder may release between the two calls; then try to take the lease once more.
+                if (redisTemplate.opsForValue().get(leaseKey) instanceof String holder) {
+                    return holder;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("wiki-flight: lease acquisition failed, generating locally: {}", e.getMessage());
+        }
+        return leaseValue;
+    }
+
+    /**
+     * Scopes the token list and published answer to one generation: the id after the node id in the lease value.
+     */
+    private static String generationKey(String flightId, String leaseValue) {
+        return flightId + ':' + leaseValue.substring(leaseValue.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Extends the lease every third of its TTL for as long as the generation runs, so a long answer does not
+     * outlive it and get generated a second time elsewhere.
+     */
+    private void keepLease(String flightId, String leaseValue) {
+        Duration interval = leaseTtl.dividedBy(3);
+        try {
+            while (true) {
+                Thread.sleep(interval);
+                Long extended = redisTemplate.execute(
+                        EXTEND_LEASE, List.of(LEASE_KEY_PREFIX + flightId), leaseValue, leaseTtl.toMillis());
+                if (extended != null && extended == 0L) {
+                    log.warn("wiki-flight: lease for flight {} was lost while generating", flightId);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("wiki-flight: lease renewal failed, letting it expire: {}", e.getMessage());
+        }
+    }
+
+    private void releaseLease(String flightId, String leaseValue) {
+        try {
+            redisTemplate.execute(RELEASE_LEASE, List.of(LEASE_KEY_PREFIX + flightId), leaseValue);
+        } catch (Exception e) {
+            log.warn("wiki-flight: lease release failed, letting it expire: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Relays the lease holder's token chunks to the local flight until its answer is published or the lease
+     * goes away or passes to another generation.
+     *
+     * @return The published answer, or empty when this node should generate itself
+     * @throws IllegalStateException if the lease holder stopped after chunks were already relayed
+     */
+    private Optional<WikiChatResult> awaitRemoteResult(String flightId, String holder, Flight flight) {
+        String generationKey = generationKey(flightId, holder);
+        long deadline = System.nanoTime() + remoteMaxWait.toNanos();
+        int relayed = 0;
+        try {
+            while (System.nanoTime() < deadline) {
+                flight.upstream.throwIfCancelled();
+                // The holder flushes its chunks before publishing, so chunks read after the answer are complete.
+                Optional<RemoteAnswer> result = readResult(generationKey);
+                relayed += relayTokens(generationKey, relayed, flight);
+                if (result.isPresent()) {
+                    return Optional.of(finishRemote(result.get(), relayed, flight));
+                }
+                if (!holder.equals(redisTemplate.opsForValue().get(LEASE_KEY_PREFIX + flightId))) {
+                    // The holder publishes before releasing, so one more read covers a release between the two checks.
+                    result = readResult(generationKey);
+                    relayed += relayTokens(generationKey, relayed, flight);
+                    if (result.isPresent()) {
+                        return Optional.of(finishRemote(result.get(), relayed, flight));
+                    }
+                    break;
+                }
+                Thread.sleep(remotePollInterval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WikiStreamCancelledException("Shared chat answer was interrupted");
+        } catch (WikiStreamCancelledException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("wiki-flight: waiting for remote answer failed: {}", e.getMessage());
+        }
+        if (relayed > 0) {
+            throw new IllegalStateException("Shared chat answer stopped after " + relayed + " relayed chunks");
+        }
+        return Optional.empty();
+    }
+
+    private int relayTokens(String generationKey, int from, Flight flight) {
+        List<Object> chunks = redisTemplate.opsForList().range(TOKENS_KEY_PREFIX + generationKey, from, -1);
+        if (chunks == null) {
+            return 0;
+        }
+        for (Object chunk : chunks) {
+            flight.accept(String.valueOf(chunk));
+        }
+        return chunks.size();
+    }
+
+    /**
+     * A holder that streamed nothing, such as a JSON answer, is replayed as one token.
+     *
+     * @throws IllegalStateException if chunks were relayed but the holder could not publish all of them
+     */
+    private static WikiChatResult finishRemote(RemoteAnswer answer, int relayed, Flight flight) {
+        if (relayed == 0) {
+            flight.accept(answer.result().answer());
+        } else if (!answer.tokensComplete()) {
+            throw new IllegalStateException("Shared chat answer is missing chunks after " + relayed + " relayed");
+        }
+        return answer.result();
+    }
+
+    private void publishResult(String generationKey, WikiChatResult result, boolean tokensComplete) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put(ANSWER_KEY, result.answer());
+        payload.put(IS_CLARIFICATION_KEY, result.isClarification());
+        payload.put(CLARIFICATION_OPTIONS_KEY, new ArrayList<>(result.clarificationOptions()));
+        payload.put(SUGGESTED_NEXT_QUESTIONS_KEY, new ArrayList<>(result.suggestedNextQuestions()));
+        payload.put(TOKENS_COMPLETE_KEY, tokensComplete);
+        try {
+            redisTemplate.opsForValue().set(RESULT_KEY_PREFIX + generationKey, payload, leaseTtl);
+        } catch (Exception e) {
+            log.warn("wiki-flight: publishing shared answer failed: {}", e.getMessage());
+        }
+    }
+
+    private Optional<RemoteAnswer> readResult(String generationKey) {
+        if (!(redisTemplate.opsForValue().get(RESULT_KEY_PREFIX + generationKey) instanceof Map<?, ?> payload)
+                || !(payload.get(ANSWER_KEY) instanceof String answer)) {
+            return Optional.empty();
+        }
+        return Optional.of(new RemoteAnswer(
+                new WikiChatResult(
+                        answer,
+                        Boolean.TRUE.equals(payload.get(IS_CLARIFICATION_KEY)),
+                        readStrings(payload.get(CLARIFICATION_OPTIONS_KEY)),
+                        readStrings(payload.get(SUGGESTED_NEXT_QUESTIONS_KEY)),
+                        false,
+                        false
+                ),
+                !Boolean.FALSE.equals(payload.get(TOKENS_COMPLETE_KEY))
+        ));
+    }
+
+    private static List<String> readStrings(Object raw) {
+        List<String> values = new ArrayList<>();
+        if (raw instanceof List<?> items) {
+            for (Object item : items) {
+                if (item instanceof String value) {
+                    values.add(value);
+                }
+            }
+        }
+        return List.copyOf(values);
+    }
+
+    private static String hash(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 algorithm is not available", e);
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder("wiki.chat.single_flight.requests")
+                .description("First-turn chat requests by single-flight role")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Produces one answer, streaming its tokens to the given consumer.
+     */
+    @FunctionalInterface
+    public interface Generator {
+        WikiChatResult generate(Consumer<String> tokenConsumer, WikiStreamCancellation cancellation);
+    }
+
+    /**
+     * @param tokensComplete Whether every streamed token also reached the shared token list
+     */
+    private record RemoteAnswer(WikiChatResult result, boolean tokensComplete) {
+    }
+
+    /**
+     * Forwards the lease holder's tokens to the local flight and appends them to the shared Redis token list,
+     * one chunk per poll interval rather than one write per token.
+     */
+    private final class TokenPublisher implements Consumer<String> {
+
+        private final String generationKey;
+        private final Flight flight;
+        private final List<String> pending = new ArrayList<>();
+        private long lastFlushAt = System.nanoTime();
+        private boolean failed;
+
+        private TokenPublisher(String generationKey, Flight flight) {
+            this.generationKey = generationKey;
+            this.flight = flight;
+        }
+
+        @Override
+        public void accept(String token) {
+            flight.accept(token);
+            if (failed) {
+                return;
+            }
+            pending.add(token);
+            if (System.nanoTime() - lastFlushAt >= remotePollInterval.toNanos()) {
+                flush();
+            }
+        }
+
+        boolean complete() {
+            return !failed;
+        }
+
+        void flush() {
+            lastFlushAt = System.nanoTime();
+            if (pending.isEmpty() || failed) {
+                return;
+            }
+            Object[] args = new Object[2];
+            args[0] = leaseTtl.toMillis();
+            args[1] = String.join("", pending);
+            pending.clear();
+            try {
+                redisTemplate.execute(APPEND_TOKENS, List.of(TOKENS_KEY_PREFIX + generationKey), args);
+            } catch (Exception e) {
+                // Remote followers that relayed chunks then fail instead of streaming a gap; local ones are unaffected.
+                failed = true;
+                log.warn("wiki-flight: publishing answer chunks failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One shared generation: an append-only token log, its outcome and the number of attached subscribers.
+     */
+    private static final class Flight implements Consumer<String> {
+
+        private final String key;
+        private final WikiStreamCancellation upstream = new WikiStreamCancellation();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final List<String> tokens = new ArrayList<>();
+        private int subscribers;
+        private boolean abandoned;
+        private boolean done;
+        private WikiChatResult result;
+        private RuntimeException failure;
+
+        private Flight(String key) {
+            this.key = key;
+        }
+
+        /**
+         * @return false when the flight was abandoned or failed and a new one must be started
+         */
+        boolean join() {
+            lock.lock();
+            try {
+                if (abandoned || failure != null) {
+                    return false;
+                }
+                subscribers++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void accept(String token) {
+            lock.lock();
+            try {
+                tokens.add(token);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void complete(WikiChatResult value) {
+            finish(value, null);
+        }
+
+        void fail(RuntimeException e) {
+            finish(null, e);
+        }
+
+        /**
+         * Delivers every token to the consumer on the calling thread and returns the outcome.
+         */
+        WikiChatResult drain(Consumer<String> tokenConsumer, WikiStreamCancellation cancellation) {
+            int delivered = 0;
+            try {
+                while (true) {
+                    List<String> pending;
+                    boolean finished;
+                    lock.lock();
+                    try {
+                        while (delivered == tokens.size() && !done && !cancellation.isCancelled()) {
+                            // Timed wait: the caller's cancellation is only polled, not signalled.
+                            changed.await(SUBSCRIBER_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+                        }
+                        pending = List.copyOf(tokens.subList(delivered, tokens.size()));
+                        finished = done;
+                    } finally {
+                        lock.unlock();
+                    }
+                    cancellation.throwIfCancelled();
+                    pending.forEach(tokenConsumer);
+                    delivered += pending.size();
+                    if (finished) {
+                        if (failure != null) {
+                            throw failure;
+                        }
+                        return result;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WikiStreamCancelledException("Chat stream was interrupted while waiting for a shared answer");
+            } finally {
+                leave();
+            }
+        }
+
+        private void leave() {
+            boolean cancelUpstream;
+            lock.lock();
+            try {
+                subscribers--;
+                abandoned = subscribers == 0 && !done;
+                cancelUpstream = abandoned;
+            } finally {
+                lock.unlock();
+            }
+            if (cancelUpstream) {
+                upstream.cancel();
+            }
+        }
+
+        private void finish(WikiChatResult value, RuntimeException e) {
+            lock.lock();
+            try {
+                result = value;
+                failure = e;
+                done = true;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
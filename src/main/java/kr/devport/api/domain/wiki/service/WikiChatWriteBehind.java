@@ -0,0 +1,460 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.devport.api.domain.auth.entity.User;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatPendingTurn;
+import kr.devport.api.domain.wiki.enums.WikiChatSessionType;
+import kr.devport.api.domain.wiki.repository.WikiChatWriteBehindRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence of logged-in chat turns.
+ * The request thread only enqueues the answered turn; a single drainer thread writes queued turns in batches
+ * through {@link WikiChatWriteBehindRepository}, so the request no longer waits on the small connection pool.
+ * One drainer writing in enqueue order, with message timestamps taken when the turn was answered, keeps
+ * per-session ordering. Title generation starts once the batch that created the session has committed.
+ * With the journal enabled each turn is also appended to a Redis list until its batch commits; entries left
+ * behind by a node that died are replayed on startup and by a periodic sweep that one node at a time runs
+ * under a Redis lease, so a node that restarts quickly does not strand its turns. A full queue or a closed writer falls back to writing
+ * the turn on the caller's thread. A batch that keeps failing is retried one turn at a time, and only the
+ * turns that still fail are moved from the journal to a bounded dead-letter list.
+ */
+@Slf4j
+@Component
+public class WikiChatWriteBehind {
+
+    private static final String JOURNAL_KEY = "wiki:chat:write-behind:journal";
+    private static final String DEAD_LETTER_KEY = "wiki:chat:write-behind:dead-letter";
+    private static final String REPLAY_LEASE_KEY = "wiki:chat:write-behind:replay-lease";
+    private static final long POLL_MILLIS = 200L;
+    private static final RedisScript<Long> REMOVE_JOURNAL_ENTRIES = new DefaultRedisScript<>(
+            "for i = 1, #ARGV do redis.call('lrem', KEYS[1], 1, ARGV[i]) end return #ARGV",
+            Long.class);
+    private static final RedisScript<Long> MOVE_TO_DEAD_LETTER = new DefaultRedisScript<>("""
+            for i = 2, #ARGV do
+                redis.call('lrem', KEYS[1], 1, ARGV[i])
+                redis.call('rpush', KEYS[2], ARGV[i])
+            end
+            redis.call('ltrim', KEYS[2], -tonumber(ARGV[1]), -1)
+            return #ARGV - 1
+            """, Long.class);
+
+    private final WikiChatWriteBehindRepository writeBehindRepository;
+    private final WikiChatTitleService titleService;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final boolean journalEnabled;
+    private final Duration journalReplayAfter;
+    private final Duration journalReplayLeaseTtl;
+    private final Duration shutdownTimeout;
+    private final int deadLetterMaxEntries;
+    private final BlockingQueue<PendingEntry> queue;
+    private final Set<String> journaledInFlight = ConcurrentHashMap.newKeySet();
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Thread drainer;
+    private volatile boolean closed;
+
+    private final Timer lag;
+    private final DistributionSummary batchSizes;
+    private final Counter queueFullFallbacks;
+    private final Counter closedFallbacks;
+    private final Counter droppedTurns;
+
+    public WikiChatWriteBehind(
+            WikiChatWriteBehindRepository writeBehindRepository,
+            WikiChatTitleService titleService,
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.chat.write-behind.enabled:true}") boolean enabled,
+            @Value("${app.wiki.chat.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.wiki.chat.write-behind.batch-size:100}") int batchSize,
+            @Value("${app.wiki.chat.write-behind.max-attempts:3}") int maxAttempts,
+            @Value("${app.wiki.chat.write-behind.retry-backoff:500ms}") Duration retryBackoff,
+            @Value("${app.wiki.chat.write-behind.journal.enabled:true}") boolean journalEnabled,
+            @Value("${app.wiki.chat.write-behind.journal.replay-after:2m}") Duration journalReplayAfter,
+            @Value("${app.wiki.chat.write-behind.journal.replay-lease-ttl:50s}") Duration journalReplayLeaseTtl,
+            @Value("${app.wiki.chat.write-behind.shutdown-timeout:10s}") Duration shutdownTimeout,
+            @Value("${app.wiki.chat.write-behind.dead-letter.max-entries:10000}") int deadLetterMaxEntries
+    ) {
+        this.writeBehindRepository = writeBehindRepository;
+        this.titleService = titleService;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.journalEnabled = journalEnabled;
+        this.journalReplayAfter = journalReplayAfter;
+        this.journalReplayLeaseTtl = journalReplayLeaseTtl;
+        this.shutdownTimeout = shutdownTimeout;
+        this.deadLetterMaxEntries = Math.max(1, deadLetterMaxEntries);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        Gauge.builder("wiki.chat.write_behind.queue.depth", queue, BlockingQueue::size)
+                .description("Chat turns waiting to be written to the database")
+                .register(meterRegistry);
+        this.lag = Timer.builder("wiki.chat.write_behind.lag")
+                .description("Time from answering a chat turn until its batch committed")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("wiki.chat.write_behind.batch.size")
+                .description("Chat turns written per batch")
+                .register(meterRegistry);
+        this.queueFullFallbacks = fallbackCounter(meterRegistry, "queue_full");
+        this.closedFallbacks = fallbackCounter(meterRegistry, "closed");
+        this.droppedTurns = Counter.builder("wiki.chat.write_behind.dropped")
+                .description("Chat turns moved to the dead-letter list after every write attempt failed")
+                .register(meterRegistry);
+
+        this.drainer = enabled
+                ? Thread.ofVirtual().name("wiki-chat-write-behind").start(this::drain)
+                : null;
+    }
+
+    /**
+     * Records an answered turn of a logged-in user.
+     *
+     * @param sessionId Session external ID
+     * @param user Logged-in user owning the session
+     * @param projectExternalId Project external ID, or null for global chat
+     * @param sessionType Session type used when the session is created
+     * @param question User's question
+     * @param answer Assistant answer
+     * @param isClarification Whether the answer was a clarifying question
+     */
+    public void record(
+            String sessionId,
+            User user,
+            String projectExternalId,
+            WikiChatSessionType sessionType,
+            String question,
+            String answer,
+            boolean isClarification
+    ) {
+        WikiChatPendingTurn turn = new WikiChatPendingTurn(
+                sessionId, user.getId(), projectExternalId, sessionType, question, answer, isClarification, LocalDateTime.now());
+        if (!enabled) {
+            writeNow(turn);
+            return;
+        }
+        if (closed) {
+            closedFallbacks.increment();
+            writeNow(turn);
+            return;
+        }
+        PendingEntry entry = new PendingEntry(turn, appendToJournal(turn));
+        if (entry.journalEntry() != null) {
+            journaledInFlight.add(journalId(turn));
+        }
+        if (!queue.offer(entry)) {
+            queueFullFallbacks.increment();
+            writeNow(turn);
+            removeFromJournal(List.of(entry));
+        } else if (closed && !drainer.isAlive() && queue.remove(entry)) {
+            // Shutdown finished draining between the closed check and the offer.
+            closedFallbacks.increment();
+            writeNow(turn);
+            removeFromJournal(List.of(entry));
+        }
+    }
+
+    /**
+     * Stops accepting turns and waits for the drainer to write everything already queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        if (drainer == null) {
+            return;
+        }
+        try {
+            if (!drainer.join(shutdownTimeout)) {
+                log.warn("wiki-write-behind: {} turns still queued after {}; journaled turns are replayed on the next start",
+                        queue.size(), shutdownTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Replays stale journal entries while the node runs. Every node fires; only the one that takes the
+     * lease sweeps, and the lease is left to expire so the journal is swept at most once per lease TTL.
+     */
+    @Scheduled(fixedDelayString = "${app.wiki.chat.write-behind.journal.replay-interval:1m}",
+            initialDelayString = "${app.wiki.chat.write-behind.journal.replay-interval:1m}")
+    public void replayStaleJournal() {
+        if (!enabled || !journalEnabled || closed || !tryAcquireReplayLease()) {
+            return;
+        }
+        replayJournal();
+    }
+
+    private void drain() {
+        replayJournal();
+        List<PendingEntry> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            PendingEntry first;
+            try {
+                first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingEntry> batch) {
+        List<WikiChatPendingTurn> turns = batch.stream().map(PendingEntry::turn).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                committed(batch, writeBehindRepository.writeBatch(turns));
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("wiki-write-behind: batch of {} turns failed {} times, writing turns one by one",
+                            turns.size(), attempt, e);
+                    flushEach(batch);
+                    return;
+                }
+                log.warn("wiki-write-behind: batch of {} turns failed (attempt {}): {}", turns.size(), attempt, e.getMessage());
+                try {
+                    Thread.sleep(retryBackoff.multipliedBy(attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes each turn of a failing batch on its own, so one bad turn cannot take the others down with it.
+     */
+    private void flushEach(List<PendingEntry> batch) {
+        List<PendingEntry> failed = new ArrayList<>();
+        for (PendingEntry entry : batch) {
+            try {
+                committed(List.of(entry), writeBehindRepository.writeBatch(List.of(entry.turn())));
+            } catch (RuntimeException e) {
+                log.error("wiki-write-behind: giving up on turn of session={}", entry.turn().sessionExternalId(), e);
+                failed.add(entry);
+            }
+        }
+        if (!failed.isEmpty()) {
+            droppedTurns.increment(failed.size());
+            moveToDeadLetter(failed);
+        }
+    }
+
+    private void committed(List<PendingEntry> entries, Set<String> createdSessions) {
+        List<WikiChatPendingTurn> turns = entries.stream().map(PendingEntry::turn).toList();
+        LocalDateTime committedAt = LocalDateTime.now();
+        for (WikiChatPendingTurn turn : turns) {
+            lag.record(Duration.between(turn.askedAt(), committedAt));
+        }
+        batchSizes.record(turns.size());
+        generateTitles(turns, createdSessions);
+        removeFromJournal(entries);
+    }
+
+    private void writeNow(WikiChatPendingTurn turn) {
+        List<WikiChatPendingTurn> turns = List.of(turn);
+        generateTitles(turns, writeBehindRepository.writeBatch(turns));
+    }
+
+    /**
+     * Starts title generation with the first question of every session the batch created.
+     */
+    private void generateTitles(List<WikiChatPendingTurn> turns, Set<String> createdSessions) {
+        if (createdSessions.isEmpty()) {
+            return;
+        }
+        Set<String> untitled = new HashSet<>(createdSessions);
+        for (WikiChatPendingTurn turn : turns) {
+            if (untitled.remove(turn.sessionExternalId())) {
+                titleService.generateAndSave(turn.sessionExternalId(), turn.question());
+            }
+        }
+    }
+
+    private Map<String, Object> appendToJournal(WikiChatPendingTurn turn) {
+        if (!journalEnabled) {
+            return null;
+        }
+        Map<String, Object> journalEntry = toJournalEntry(turn);
+        try {
+            redisTemplate.opsForList().rightPush(JOURNAL_KEY, journalEntry);
+            return journalEntry;
+        } catch (RuntimeException e) {
+            log.warn("wiki-write-behind: journal append failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void removeFromJournal(List<PendingEntry> entries) {
+        if (!journalEnabled) {
+            return;
+        }
+        entries.forEach(entry -> journaledInFlight.remove(journalId(entry.turn())));
+        Object[] journalEntries = entries.stream()
+                .map(PendingEntry::journalEntry)
+                .filter(Objects::nonNull)
+                .toArray();
+        if (journalEntries.length == 0) {
+            return;
+        }
+        try {
+            redisTemplate.execute(REMOVE_JOURNAL_ENTRIES, List.of(JOURNAL_KEY), journalEntries);
+        } catch (RuntimeException e) {
+            log.warn("wiki-write-behind: journal cleanup failed, entries will be replayed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Moves turns out of the journal into the dead-letter list, so they are kept for inspection instead of
+     * being replayed and failing again on every start.
+     */
+    private void moveToDeadLetter(List<PendingEntry> entries) {
+        entries.forEach(entry -> journaledInFlight.remove(journalId(entry.turn())));
+        List<Object> args = new ArrayList<>(entries.size() + 1);
+        args.add(deadLetterMaxEntries);
+        for (PendingEntry entry : entries) {
+            args.add(entry.journalEntry() != null ? entry.journalEntry() : toJournalEntry(entry.turn()));
+        }
+        try {
+            redisTemplate.execute(MOVE_TO_DEAD_LETTER, List.of(JOURNAL_KEY, DEAD_LETTER_KEY), args.toArray());
+        } catch (RuntimeException e) {
+            log.warn("wiki-write-behind: dead-letter write failed for {} turns: {}", entries.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Queues journal entries old enough that the node which wrote them is no longer going to commit them.
+     * Entries this node still holds are skipped. Replays are idempotent, so an entry that did commit before
+     * its node died, or that a slow live node writes as well, is only written once.
+     */
+    private void replayJournal() {
+        if (!journalEnabled) {
+            return;
+        }
+        try {
+            List<Object> journalEntries = redisTemplate.opsForList().range(JOURNAL_KEY, 0, -1);
+            if (journalEntries == null || journalEntries.isEmpty()) {
+                return;
+            }
+            LocalDateTime cutoff = LocalDateTime.now().minus(journalReplayAfter);
+            int replayed = 0;
+            for (Object journalEntry : journalEntries) {
+                if (!(journalEntry instanceof Map<?, ?> values)) {
+                    continue;
+                }
+                WikiChatPendingTurn turn = fromJournalEntry(values);
+                if (!turn.askedAt().isBefore(cutoff) || !journaledInFlight.add(journalId(turn))) {
+                    continue;
+                }
+                if (queue.offer(new PendingEntry(turn, journalEntry))) {
+                    replayed++;
+                } else {
+                    journaledInFlight.remove(journalId(turn));
+                }
+            }
+            if (replayed > 0) {
+                log.info("wiki-write-behind: replaying {} journaled turns", replayed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("wiki-write-behind: journal replay failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean tryAcquireReplayLease() {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REPLAY_LEASE_KEY, nodeId, journalReplayLeaseTtl));
+        } catch (RuntimeException e) {
+            log.warn("wiki-write-behind: replay lease acquisition failed, skipping this sweep: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Identifies a turn across the local copy and the one read back from Redis, whose number types may differ.
+     */
+    private static String journalId(WikiChatPendingTurn turn) {
+        return turn.sessionExternalId() + "|" + turn.askedAt();
+    }
+
+    private static Map<String, Object> toJournalEntry(WikiChatPendingTurn turn) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("sessionId", turn.sessionExternalId());
+        values.put("userId", turn.userId());
+        values.put("projectExternalId", turn.projectExternalId());
+        values.put("sessionType", turn.sessionType().name());
+        values.put("question", turn.question());
+        values.put("answer", turn.answer());
+        values.put("isClarification", turn.isClarification());
+        values.put("askedAt", turn.askedAt().toString());
+        return values;
+    }
+
+    private static WikiChatPendingTurn fromJournalEntry(Map<?, ?> values) {
+        Object userId = values.get("userId");
+        return new WikiChatPendingTurn(
+                (String) values.get("sessionId"),
+                userId instanceof Number number ? number.longValue() : null,
+                (String) values.get("projectExternalId"),
+                WikiChatSessionType.valueOf((String) values.get("sessionType")),
+                (String) values.get("question"),
+                (String) values.get("answer"),
+                Boolean.TRUE.equals(values.get("isClarification")),
+                LocalDateTime.parse((String) values.get("askedAt"))
+        );
+    }
+
+    private static Counter fallbackCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("wiki.chat.write_behind.fallbacks")
+                .description("Chat turns written on the request thread instead of the write-behind queue")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param journalEntry Value pushed to the Redis journal, or null when the turn is not journaled
+     */
+    private record PendingEntry(WikiChatPendingTurn turn, Object journalEntry) {
+    }
+}
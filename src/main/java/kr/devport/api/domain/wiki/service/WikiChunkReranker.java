@@ -1,6 +1,8 @@
 package kr.devport.api.domain.wiki.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.openai.client.OpenAIClient;
 import com.openai.core.JsonValue;
@@ -11,26 +13,86 @@ import com.openai.models.chat.completions.ChatCompletionCreateParams;
 import com.openai.models.chat.completions.ChatCompletionMessageParam;
 import com.openai.models.chat.completions.ChatCompletionSystemMessageParam;
 import com.openai.models.chat.completions.ChatCompletionUserMessageParam;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+/**
+ * LLM reranker for wiki retrieval candidates.
+ * Results are cached by (normalized question, ordered candidate chunk ids), and model calls are bounded
+ * by a latency budget: when the budget expires the caller gets an empty result and keeps RRF fusion order,
+ * while the late answer still lands in the cache for the next identical request. Unparseable model output
+ * counts as a failed call: the caller keeps fusion order and nothing is cached.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class WikiChunkReranker {
+public class WikiChunkReranker implements WikiReranker {
 
     private static final int MAX_CANDIDATES = 20;
     private static final int MAX_CONTENT_CHARS = 600;
 
     private final OpenAIClient openAIClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Cache<RerankKey, List<ScoredChunk>> results;
+    private final WikiRetrievalExecutor retrievalExecutor;
+    private final Duration deadline;
 
+    private final Timer modelLatency;
+    private final Counter cacheHits;
+    private final Counter modelCalls;
+    private final Counter timeouts;
+    private final Counter failures;
+
+    public WikiChunkReranker(
+            OpenAIClient openAIClient,
+            WikiRetrievalExecutor retrievalExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.rerank.deadline:2500ms}") Duration deadline,
+            @Value("${app.wiki.rerank.cache-max-entries:5000}") long cacheMaxEntries,
+            @Value("${app.wiki.rerank.cache-ttl:1h}") Duration cacheTtl
+    ) {
+        this.openAIClient = openAIClient;
+        this.retrievalExecutor = retrievalExecutor;
+        this.deadline = deadline;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+
+        this.modelLatency = Timer.builder("wiki.rerank.latency")
+                .description("LLM rerank call latency, including calls that finished after the deadline")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.cacheHits = outcomeCounter(meterRegistry, "cache_hit");
+        this.modelCalls = outcomeCounter(meterRegistry, "model");
+        this.timeouts = outcomeCounter(meterRegistry, "timeout");
+        this.failures = outcomeCounter(meterRegistry, "error");
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "wikiRerankResults");
+    }
+
+    /**
+     * Reranks candidates within the configured latency budget.
+     *
+     * @param question User question
+     * @param candidates Candidates in fusion order (only the first {@value MAX_CANDIDATES} are scored)
+     * @return Scores by candidate index, or empty when the reranker timed out or failed
+     */
+    @Override
     public List<ScoredChunk> rerank(String question, List<WikiSectionChunk> candidates) {
         if (candidates.isEmpty()) {
             return List.of();
@@ -40,6 +102,45 @@ public class WikiChunkReranker {
                 .limit(MAX_CANDIDATES)
                 .toList();
 
+        RerankKey key = RerankKey.of(question, cappedCandidates);
+        if (key != null) {
+            List<ScoredChunk> cached = results.getIfPresent(key);
+            if (cached != null) {
+                cacheHits.increment();
+                return cached;
+            }
+        }
+
+        long startedAt = System.nanoTime();
+        CompletableFuture<List<ScoredChunk>> call = retrievalExecutor
+                .submit(WikiRetrievalExecutor.Lane.MODEL, () -> requestScores(question, cappedCandidates))
+                .whenComplete((scores, error) -> {
+                    modelLatency.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    if (error == null && key != null) {
+                        results.put(key, scores);
+                    }
+                });
+
+        try {
+            List<ScoredChunk> scores = call.get(deadline.toMillis(), TimeUnit.MILLISECONDS);
+            modelCalls.increment();
+            return scores;
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            log.warn("wiki-reranker: no answer within {}ms, keeping fusion order", deadline.toMillis());
+            return List.of();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.increment();
+            return List.of();
+        } catch (ExecutionException e) {
+            failures.increment();
+            log.warn("wiki-reranker: rerank call failed, keeping fusion order: {}", e.getCause().getMessage());
+            return List.of();
+        }
+    }
+
+    private List<ScoredChunk> requestScores(String question, List<WikiSectionChunk> cappedCandidates) {
         ChatCompletion completion = openAIClient.chat().completions().create(
                 ChatCompletionCreateParams.builder()
                         .model(ChatModel.GPT_5_MINI)
@@ -51,7 +152,7 @@ public class WikiChunkReranker {
         String payload = completion.choices().getFirst().message().content().orElse("");
         List<ScoredChunk> parsed = parse(payload);
         if (parsed.isEmpty()) {
-            return fallbackScores(cappedCandidates.size());
+            throw new IllegalStateException("reranker returned no usable scores");
         }
         return parsed;
     }
@@ -83,7 +184,7 @@ public class WikiChunkReranker {
         for (int i = 0; i < candidates.size(); i++) {
             WikiSectionChunk chunk = candidates.get(i);
             prompt.append("Index: ").append(i).append("\n");
-            prompt.append("Heading: ").append(resolveHeading(chunk)).append("\n");
+            prompt.append("Heading: ").append(WikiChunkTexts.resolveHeading(chunk)).append("\n");
             prompt.append("Content:\n").append(truncate(chunk.getContent())).append("\n\n");
         }
         prompt.append("""
@@ -151,32 +252,28 @@ public class WikiChunkReranker {
         }
     }
 
-    private List<ScoredChunk> fallbackScores(int size) {
-        List<ScoredChunk> fallback = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            fallback.add(new ScoredChunk(i, size - i));
-        }
-        return fallback;
-    }
-
     private String truncate(String content) {
         return content.length() <= MAX_CONTENT_CHARS ? content : content.substring(0, MAX_CONTENT_CHARS) + "...";
     }
 
-    private String resolveHeading(WikiSectionChunk chunk) {
-        Map<String, Object> metadata = chunk.getMetadata();
-        if (metadata != null) {
-            Object titleKo = metadata.get("titleKo");
-            if (titleKo != null && !String.valueOf(titleKo).isBlank()) {
-                return String.valueOf(titleKo);
-            }
-        }
-        if (chunk.getSubsectionId() != null && !chunk.getSubsectionId().isBlank()) {
-            return chunk.getSectionId() + " > " + chunk.getSubsectionId();
-        }
-        return chunk.getSectionId();
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("wiki.rerank.requests")
+                .description("Rerank requests by outcome; timeout and error fall back to fusion order")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
-    public record ScoredChunk(int index, double score) {
+    private record RerankKey(String question, List<Long> chunkIds) {
+
+        private static RerankKey of(String question, List<WikiSectionChunk> candidates) {
+            List<Long> chunkIds = new ArrayList<>(candidates.size());
+            for (WikiSectionChunk candidate : candidates) {
+                if (candidate.getId() == null) {
+                    return null;
+                }
+                chunkIds.add(candidate.getId());
+            }
+            return new RerankKey(WikiQueryEmbeddingService.normalize(question), List.copyOf(chunkIds));
+        }
     }
 }
@@ -0,0 +1,64 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable per-project view of wiki chunks, versioned by commit_sha.
+ * Chunks are held without embeddings and pre-sorted in weak-grounding fallback order,
+ * with heading tokens precomputed so fallback selection does no per-turn tokenizing.
+ *
+ * @param projectExternalId Project identifier
+ * @param commitSha Commit the chunks were generated from (null for an empty snapshot)
+ * @param generatedAt Latest chunk update time
+ * @param entries Chunks in fallback order
+ */
+public record WikiChunkSnapshot(
+        String projectExternalId,
+        String commitSha,
+        OffsetDateTime generatedAt,
+        List<Entry> entries
+) {
+
+    private static final Comparator<Entry> FALLBACK_ORDER = Comparator
+            .comparingInt(Entry::fallbackPriority)
+            .thenComparing(entry -> entry.chunk().getSectionId())
+            .thenComparing(entry -> entry.chunk().getSubsectionId() == null ? "" : entry.chunk().getSubsectionId());
+
+    public WikiChunkSnapshot {
+        entries = List.copyOf(entries);
+    }
+
+    public static WikiChunkSnapshot of(String projectExternalId, List<WikiSectionChunk> chunks, OffsetDateTime generatedAt) {
+        List<Entry> entries = chunks.stream()
+                .map(chunk -> new Entry(
+                        chunk,
+                        WikiChunkTexts.resolveHeading(chunk),
+                        WikiChunkTexts.headingTokens(chunk),
+                        WikiChunkTexts.fallbackPriority(chunk.getChunkType())
+                ))
+                .sorted(FALLBACK_ORDER)
+                .toList();
+        String commitSha = chunks.isEmpty() ? null : chunks.getFirst().getCommitSha();
+        return new WikiChunkSnapshot(projectExternalId, commitSha, generatedAt, entries);
+    }
+
+    public static WikiChunkSnapshot empty(String projectExternalId) {
+        return new WikiChunkSnapshot(projectExternalId, null, null, List.of());
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public List<WikiSectionChunk> chunks() {
+        return entries.stream().map(Entry::chunk).toList();
+    }
+
+    public record Entry(WikiSectionChunk chunk, String heading, Set<String> headingTokens, int fallbackPriority) {
+    }
+}
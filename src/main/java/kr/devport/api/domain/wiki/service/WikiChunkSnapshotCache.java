@@ -0,0 +1,169 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import kr.devport.api.domain.common.cache.CacheScope;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.SnapshotChunkRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Size-bounded in-heap cache of {@link WikiChunkSnapshot}s, one per project.
+ * Crawler job completions reach every node through {@link kr.devport.api.domain.common.webhook.CrawlerJobBroadcaster}.
+ * A named project's snapshot is dropped and rebuilt in the background, so no request keeps reading (or fills
+ * the shared wiki page cache from) the previous generation while the rebuild runs; UNKNOWN-scope jobs drop
+ * every snapshot. A write TTL bounds staleness otherwise.
+ * Projects without chunks are not cached so newly generated wikis show up immediately.
+ * Reloads run on a small bounded executor instead of the common pool; a full queue fails the refresh and the
+ * cached snapshot stays until the next webhook or TTL. A reload that read an older generation than the one
+ * already cached (different commit_sha, earlier generatedAt) is discarded so a slow load cannot roll it back.
+ */
+@Slf4j
+@Component
+public class WikiChunkSnapshotCache {
+
+    private final WikiSectionChunkRepository chunkRepository;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final LoadingCache<String, WikiChunkSnapshot> snapshots;
+
+    public WikiChunkSnapshotCache(
+            WikiSectionChunkRepository chunkRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.snapshot.max-chunks:50000}") long maxChunks,
+            @Value("${app.wiki.snapshot.ttl:30m}") Duration ttl,
+            @Value("${app.wiki.snapshot.refresh-threads:2}") int refreshThreads,
+            @Value("${app.wiki.snapshot.refresh-queue-capacity:256}") int refreshQueueCapacity
+    ) {
+        this.chunkRepository = chunkRepository;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(
+                refreshThreads, refreshThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(refreshQueueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "wiki-snapshot-refresh-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxChunks)
+                .weigher((String projectExternalId, WikiChunkSnapshot snapshot) -> snapshot.entries().size() + 1)
+                .expireAfterWrite(ttl)
+                .executor(refreshExecutor)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public WikiChunkSnapshot load(String projectExternalId) {
+                        return WikiChunkSnapshotCache.this.load(projectExternalId);
+                    }
+
+                    @Override
+                    public WikiChunkSnapshot reload(String projectExternalId, WikiChunkSnapshot cached) {
+                        return newerOf(cached, WikiChunkSnapshotCache.this.load(projectExternalId));
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "wikiChunkSnapshots");
+    }
+
+    /**
+     * Returns the current snapshot for a project, loading it on first use.
+     *
+     * @param projectExternalId Project identifier
+     * @return Snapshot, empty when the project has no wiki chunks
+     */
+    public WikiChunkSnapshot get(String projectExternalId) {
+        WikiChunkSnapshot snapshot = snapshots.get(projectExternalId);
+        return snapshot != null ? snapshot : WikiChunkSnapshot.empty(projectExternalId);
+    }
+
+    /**
+     * Reloads a project's snapshot, joining the reload already in flight if there is one.
+     *
+     * @param projectExternalId Project identifier
+     * @return Future of the reloaded snapshot, empty when the project has no wiki chunks
+     */
+    public CompletableFuture<WikiChunkSnapshot> refresh(String projectExternalId) {
+        return snapshots.refresh(projectExternalId)
+                .thenApply(snapshot -> snapshot != null ? snapshot : WikiChunkSnapshot.empty(projectExternalId));
+    }
+
+    public void invalidate(String projectExternalId) {
+        snapshots.invalidate(projectExternalId);
+    }
+
+    @EventListener
+    public void onCrawlerJobCompleted(CrawlerJobCompletedEvent event) {
+        if (!event.projectExternalIds().isEmpty()) {
+            event.projectExternalIds().forEach(projectExternalId -> {
+                snapshots.invalidate(projectExternalId);
+                snapshots.refresh(projectExternalId);
+            });
+            log.info("wiki-snapshot: rebuilding {} project snapshot(s) for jobId={}",
+                    event.projectExternalIds().size(), event.jobId());
+            return;
+        }
+        if (event.scope() == CacheScope.UNKNOWN) {
+            snapshots.invalidateAll();
+            log.info("wiki-snapshot: cleared all project snapshots for jobId={}", event.jobId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Keeps the cached snapshot when the reloaded one is from an earlier generation of the project.
+     */
+    static WikiChunkSnapshot newerOf(WikiChunkSnapshot cached, WikiChunkSnapshot loaded) {
+        if (loaded == null || cached == null || Objects.equals(cached.commitSha(), loaded.commitSha())) {
+            return loaded;
+        }
+        if (cached.generatedAt() != null && loaded.generatedAt() != null && loaded.generatedAt().isBefore(cached.generatedAt())) {
+            log.info("wiki-snapshot: discarded stale reload project={} commitSha={} cachedCommitSha={}",
+                    loaded.projectExternalId(), loaded.commitSha(), cached.commitSha());
+            return cached;
+        }
+        return loaded;
+    }
+
+    private WikiChunkSnapshot load(String projectExternalId) {
+        List<SnapshotChunkRow> rows = chunkRepository.findSnapshotChunks(projectExternalId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        OffsetDateTime generatedAt = rows.stream()
+                .map(SnapshotChunkRow::updatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        WikiChunkSnapshot snapshot = WikiChunkSnapshot.of(
+                projectExternalId,
+                rows.stream().map(SnapshotChunkRow::chunk).toList(),
+                generatedAt
+        );
+        log.debug("wiki-snapshot: loaded project={} commitSha={} chunks={}",
+                projectExternalId, snapshot.commitSha(), snapshot.entries().size());
+        return snapshot;
+    }
+}
@@ -0,0 +1,104 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Text helpers shared by wiki retrieval and the chunk snapshot.
+ */
+final class WikiChunkTexts {
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^a-z0-9가-힣]+");
+
+    static String resolveHeading(WikiSectionChunk chunk) {
+        Map<String, Object> metadata = chunk.getMetadata();
+        if (metadata != null) {
+            Object titleKo = metadata.get("titleKo");
+            if (titleKo != null && !String.valueOf(titleKo).isBlank()) {
+                return String.valueOf(titleKo);
+            }
+        }
+        if (chunk.getSubsectionId() != null && !chunk.getSubsectionId().isBlank()) {
+            return chunk.getSectionId() + " > " + chunk.getSubsectionId();
+        }
+        return chunk.getSectionId();
+    }
+
+    static Set<String> headingTokens(WikiSectionChunk chunk) {
+        return Collections.unmodifiableSet(tokenize(resolveHeading(chunk) + " " + chunk.getSectionId()));
+    }
+
+    static Set<String> tokenize(String text) {
+        return TOKEN_SPLIT.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> token.length() >= 2)
+                .collect(LinkedHashSet::new, Set::add, Set::addAll);
+    }
+
+    /**
+     * Terms for lexical scoring: ASCII tokens as-is, Hangul runs as character bigrams
+     * so particles and compounds ("인증은", "인증필터") still match "인증".
+     */
+    static List<String> lexicalTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            int start = 0;
+            while (start < token.length()) {
+                boolean hangul = isHangul(token.charAt(start));
+                int end = start;
+                while (end < token.length() && isHangul(token.charAt(end)) == hangul) {
+                    end++;
+                }
+                addRunTerms(terms, token.substring(start, end), hangul);
+                start = end;
+            }
+        }
+        return terms;
+    }
+
+    private static void addRunTerms(List<String> terms, String run, boolean hangul) {
+        if (!hangul) {
+            if (run.length() >= 2) {
+                terms.add(run);
+            }
+            return;
+        }
+        if (run.length() == 1) {
+            terms.add(run);
+            return;
+        }
+        for (int i = 0; i + 2 <= run.length(); i++) {
+            terms.add(run.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isHangul(char c) {
+        return c >= '가' && c <= '힣';
+    }
+
+    static int fallbackPriority(String chunkType) {
+        if ("summary".equals(chunkType)) {
+            return 0;
+        }
+        if ("overview".equals(chunkType)) {
+            return 1;
+        }
+        return 2;
+    }
+
+    private WikiChunkTexts() {
+    }
+}
@@ -0,0 +1,79 @@
+package kr.devport.api.domain.wiki.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Packs ranked context blocks into a token budget at block boundaries.
+ * Blocks are taken in rank order; a block that does not fit is skipped so a smaller, lower-ranked block
+ * can still use the remaining budget. Blocks may share a group header (e.g. the project name) that is
+ * emitted once before the first packed block of each group.
+ */
+@Component
+@RequiredArgsConstructor
+public class WikiContextPacker {
+
+    private final WikiTokenCounter tokenCounter;
+
+    /**
+     * Packs blocks after the preamble without exceeding the budget.
+     *
+     * @param preamble Text that always leads the context
+     * @param blocks Blocks in rank order
+     * @param maxTokens Token budget for the whole packed context
+     * @return Packed context; when not even the first block fits, its token-aligned prefix
+     */
+    public String pack(String preamble, List<Block> blocks, int maxTokens) {
+        int used = tokenCounter.count(preamble);
+        List<String> packed = new ArrayList<>();
+        String currentGroup = null;
+        for (Block block : blocks) {
+            String piece = render(block, currentGroup);
+            int cost = tokenCounter.count(piece);
+            if (used + cost > maxTokens) {
+                continue;
+            }
+            packed.add(piece);
+            used += cost;
+            currentGroup = block.groupHeader();
+        }
+
+        if (packed.isEmpty()) {
+            if (blocks.isEmpty()) {
+                return preamble;
+            }
+            String first = render(blocks.getFirst(), null);
+            return preamble + tokenCounter.truncate(first, maxTokens - tokenCounter.count(preamble));
+        }
+
+        // Per-block counts can differ from the joined text by a token at each seam; drop tail blocks until exact.
+        String context = preamble + String.join("", packed);
+        while (packed.size() > 1 && tokenCounter.count(context) > maxTokens) {
+            packed.removeLast();
+            context = preamble + String.join("", packed);
+        }
+        return context;
+    }
+
+    private String render(Block block, String currentGroup) {
+        if (block.groupHeader() == null || Objects.equals(block.groupHeader(), currentGroup)) {
+            return block.body();
+        }
+        return block.groupHeader() + block.body();
+    }
+
+    /**
+     * @param groupHeader Header shared by consecutive blocks of one group, or null
+     * @param body Block text including its own heading
+     */
+    public record Block(String groupHeader, String body) {
+
+        public static Block of(String body) {
+            return new Block(null, body);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import kr.devport.api.domain.wiki.store.WikiFaqAnswerStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Serves precomputed FAQ answers for first-turn questions.
+ * The intent classifier picks the single candidate FAQ type; the question must then be close to that
+ * type's canonical question by embedding similarity, so narrower questions that merely share a keyword
+ * (e.g. "인증 설계는?") still go through retrieval and the model.
+ */
+@Slf4j
+@Service
+public class WikiFaqAnswerService {
+
+    private final WikiFaqAnswerStore answerStore;
+    private final WikiChunkSnapshotCache snapshotCache;
+    private final WikiQueryEmbeddingService embeddingService;
+    private final boolean enabled;
+    private final double similarityThreshold;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public WikiFaqAnswerService(
+            WikiFaqAnswerStore answerStore,
+            WikiChunkSnapshotCache snapshotCache,
+            WikiQueryEmbeddingService embeddingService,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.faq.enabled:true}") boolean enabled,
+            @Value("${app.wiki.faq.similarity-threshold:0.9}") double similarityThreshold
+    ) {
+        this.answerStore = answerStore;
+        this.snapshotCache = snapshotCache;
+        this.embeddingService = embeddingService;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.hits = Counter.builder("wiki.faq.answer.lookups")
+                .description("Precomputed FAQ answer lookups by outcome")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("wiki.faq.answer.lookups")
+                .description("Precomputed FAQ answer lookups by outcome")
+                .tag("outcome", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Looks up the precomputed answer for a first-turn FAQ question.
+     *
+     * @param projectExternalId Project identifier
+     * @param question User question
+     * @return Stored answer for the current wiki commit when the question is a canonical FAQ
+     */
+    public Optional<WikiChatResult> lookup(String projectExternalId, String question) {
+        return lookup(projectExternalId, WikiQuestionIntents.analyze(question));
+    }
+
+    /**
+     * Looks up the precomputed answer for a question the caller already analyzed.
+     */
+    Optional<WikiChatResult> lookup(String projectExternalId, WikiQuestionIntents.Analysis analysis) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String question = analysis.question();
+        WikiFaqType faqType = analysis.faqType();
+        if (faqType == WikiFaqType.NONE) {
+            return Optional.empty();
+        }
+        String commitSha = snapshotCache.get(projectExternalId).commitSha();
+        if (commitSha == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        Optional<WikiChatResult> stored = answerStore.find(projectExternalId, faqType, commitSha);
+        if (stored.isEmpty() || !isCanonical(question, faqType)) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        log.debug("wiki-faq: serving precomputed {} answer for project={}", faqType, projectExternalId);
+        return stored;
+    }
+
+    private boolean isCanonical(String question, WikiFaqType faqType) {
+        if (question.strip().equals(faqType.canonicalQuestion())) {
+            return true;
+        }
+        try {
+            return cosine(embeddingService.embed(question), embeddingService.embed(faqType.canonicalQuestion())) >= similarityThreshold;
+        } catch (RuntimeException e) {
+            log.warn("wiki-faq: embedding failed, bypassing precomputed answers: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static double cosine(float[] left, float[] right) {
+        if (left.length != right.length) {
+            return 0.0d;
+        }
+        double dot = 0.0d;
+        double leftNorm = 0.0d;
+        double rightNorm = 0.0d;
+        for (int i = 0; i < left.length; i++) {
+            dot += left[i] * right[i];
+            leftNorm += left[i] * left[i];
+            rightNorm += right[i] * right[i];
+        }
+        return leftNorm == 0.0d || rightNorm == 0.0d ? 0.0d : dot / Math.sqrt(leftNorm * rightNorm);
+    }
+}
@@ -0,0 +1,134 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.devport.api.domain.common.logging.LoggingContext;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import kr.devport.api.domain.wiki.store.WikiFaqAnswerStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Generates FAQ answers in the background when a crawler job regenerates a project's wiki.
+ * The project snapshot is reloaded first so answers are grounded in, and tagged with, the new commit_sha.
+ * Projects whose answers already match the current commit are skipped, and only a few projects are
+ * generated at once so a bulk crawl does not flood the model with requests.
+ */
+@Slf4j
+@Component
+public class WikiFaqPrecomputer {
+
+    private final WikiChatService wikiChatService;
+    private final WikiFaqAnswerStore answerStore;
+    private final WikiChunkSnapshotCache snapshotCache;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> pendingProjects = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final boolean enabled;
+
+    private final Timer projectTimer;
+    private final Counter generated;
+    private final Counter rejected;
+
+    public WikiFaqPrecomputer(
+            WikiChatService wikiChatService,
+            WikiFaqAnswerStore answerStore,
+            WikiChunkSnapshotCache snapshotCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.faq.enabled:true}") boolean enabled,
+            @Value("${app.wiki.faq.max-concurrent-projects:2}") int maxConcurrentProjects
+    ) {
+        this.wikiChatService = wikiChatService;
+        this.answerStore = answerStore;
+        this.snapshotCache = snapshotCache;
+        this.enabled = enabled;
+        this.permits = new Semaphore(maxConcurrentProjects);
+        this.projectTimer = Timer.builder("wiki.faq.precompute")
+                .description("Time to precompute all FAQ answers for one project")
+                .register(meterRegistry);
+        this.generated = Counter.builder("wiki.faq.precompute.answers")
+                .description("Precomputed FAQ answers by outcome")
+                .tag("outcome", "stored")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("wiki.faq.precompute.answers")
+                .description("Precomputed FAQ answers by outcome")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onCrawlerJobCompleted(CrawlerJobCompletedEvent event) {
+        // Precomputed answers are shared, so only the node that received the webhook generates them.
+        if (!enabled || event.remote() || event.projectExternalIds().isEmpty()) {
+            return;
+        }
+        event.projectExternalIds().forEach(this::schedule);
+        log.info("wiki-faq: scheduled FAQ precompute for {} project(s), jobId={}",
+                event.projectExternalIds().size(), event.jobId());
+    }
+
+    /**
+     * Schedules FAQ generation for a project unless one is already pending.
+     *
+     * @param projectExternalId Project identifier
+     */
+    public void schedule(String projectExternalId) {
+        if (!pendingProjects.add(projectExternalId)) {
+            return;
+        }
+        executor.execute(LoggingContext.wrap(() -> {
+            try {
+                permits.acquire();
+                try {
+                    projectTimer.record(() -> precompute(projectExternalId));
+                } finally {
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("wiki-faq: precompute failed for project={}: {}", projectExternalId, e.getMessage());
+            } finally {
+                pendingProjects.remove(projectExternalId);
+            }
+        }));
+    }
+
+    void precompute(String projectExternalId) {
+        String commitSha = snapshotCache.refresh(projectExternalId).join().commitSha();
+        if (commitSha == null || answerStore.isComplete(projectExternalId, commitSha)) {
+            return;
+        }
+        for (WikiFaqType faqType : WikiFaqType.values()) {
+            if (faqType == WikiFaqType.NONE || answerStore.find(projectExternalId, faqType, commitSha).isPresent()) {
+                continue;
+            }
+            Optional<WikiChatResult> result = wikiChatService.answerStandalone(projectExternalId, faqType.canonicalQuestion());
+            if (result.isEmpty()) {
+                rejected.increment();
+                continue;
+            }
+            answerStore.save(projectExternalId, faqType, commitSha, result.get());
+            generated.increment();
+        }
+        log.info("wiki-faq: precomputed FAQ answers for project={} commitSha={}", projectExternalId, commitSha);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -11,8 +11,10 @@ import com.openai.models.chat.completions.ChatCompletion;
 import com.openai.models.chat.completions.ChatCompletionChunk;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
 import com.openai.models.chat.completions.ChatCompletionMessageParam;
+import com.openai.models.chat.completions.ChatCompletionStreamOptions;
 import com.openai.models.chat.completions.ChatCompletionSystemMessageParam;
 import com.openai.models.chat.completions.ChatCompletionUserMessageParam;
+import com.openai.models.completions.CompletionUsage;
 import kr.devport.api.domain.auth.entity.User;
 import kr.devport.api.domain.port.entity.Project;
 import kr.devport.api.domain.port.repository.ProjectRepository;
@@ -22,6 +24,7 @@ import kr.devport.api.domain.wiki.dto.internal.WikiGlobalRetrievalContext;
 import kr.devport.api.domain.wiki.dto.response.RelatedProjectResponse;
 import kr.devport.api.domain.wiki.dto.response.WikiGlobalChatResponse;
 import kr.devport.api.domain.wiki.enums.WikiChatSessionType;
+import kr.devport.api.domain.wiki.exception.WikiStreamCancelledException;
 import kr.devport.api.domain.wiki.store.WikiChatSessionStore;
 import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +34,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
@@ -47,8 +51,9 @@ public class WikiGlobalChatService {
     private final WikiGlobalRetrievalService retrievalService;
     private final WikiChatSessionStore sessionStore;
     private final WikiChatSessionPersistenceService persistenceService;
-    private final WikiChatTitleService titleService;
+    private final WikiChatWriteBehind writeBehind;
     private final ProjectRepository projectRepository;
+    private final WikiStreamMetrics streamMetrics;
     private final OpenAIClient openAIClient;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -70,14 +75,8 @@ public class WikiGlobalChatService {
         WikiGlobalChatResult result = parseResult(payload);
 
         // Persist
-        boolean isFirst = persistenceService.isFirstMessage(sessionId);
         if (user != null) {
-            var session = persistenceService.findOrCreateSession(sessionId, user, null, WikiChatSessionType.GLOBAL);
-            persistenceService.saveUserMessage(session, question);
-            persistenceService.saveAssistantMessage(session, result.answer(), false);
-            if (isFirst) {
-                titleService.generateAndSave(sessionId, question);
-            }
+            writeBehind.record(sessionId, user, null, WikiChatSessionType.GLOBAL, question, result.answer(), false);
         }
         sessionStore.saveTurn(sessionId, null, question, result.answer(), false);
 
@@ -91,6 +90,23 @@ public class WikiGlobalChatService {
             String question,
             Consumer<String> tokenConsumer,
             User user
+    ) {
+        return streamChatResult(sessionId, question, tokenConsumer, user, new WikiStreamCancellation());
+    }
+
+    /**
+     * Stream a global chat response until it completes or the client cancels it.
+     * A cancelled stream closes the upstream model response and records nothing in the session.
+     *
+     * @param cancellation Cancelled by the caller when the client disconnects
+     * @throws WikiStreamCancelledException if the stream was cancelled
+     */
+    public WikiGlobalChatResponse streamChatResult(
+            String sessionId,
+            String question,
+            Consumer<String> tokenConsumer,
+            User user,
+            WikiStreamCancellation cancellation
     ) {
         WikiGlobalRetrievalContext context = retrievalService.retrieve(question);
         List<ChatTurn> promptTurns = loadContextTurns(sessionId, user);
@@ -100,35 +116,44 @@ public class WikiGlobalChatService {
         List<ChatCompletionMessageParam> messages = buildStreamMessages(context, promptTurns, question);
 
         StringBuilder accumulated = new StringBuilder();
+        AtomicReference<CompletionUsage> finalUsage = new AtomicReference<>();
 
         try (StreamResponse<ChatCompletionChunk> completionStream = openAIClient.chat().completions().createStreaming(
                 ChatCompletionCreateParams.builder()
                         .model(ChatModel.GPT_4O_MINI)
                         .messages(messages)
+                        .streamOptions(ChatCompletionStreamOptions.builder().includeUsage(true).build())
                         .build()
-        );
-             java.util.stream.Stream<ChatCompletionChunk> chunks = completionStream.stream()) {
-            chunks.forEach(chunk -> {
-                for (ChatCompletionChunk.Choice choice : chunk.choices()) {
-                    choice.delta().content().ifPresent(token -> {
-                        tokenConsumer.accept(token);
-                        accumulated.append(token);
-                    });
-                }
-            });
+        )) {
+            cancellation.bind(completionStream);
+            try (java.util.stream.Stream<ChatCompletionChunk> chunks = completionStream.stream()) {
+                chunks.forEach(chunk -> {
+                    cancellation.throwIfCancelled();
+                    for (ChatCompletionChunk.Choice choice : chunk.choices()) {
+                        choice.delta().content().ifPresent(token -> {
+                            tokenConsumer.accept(token);
+                            accumulated.append(token);
+                        });
+                    }
+                    chunk.usage().ifPresent(finalUsage::set);
+                });
+            } finally {
+                cancellation.unbind();
+            }
+        } catch (RuntimeException e) {
+            if (!cancellation.isCancelled()) {
+                throw e;
+            }
+            streamMetrics.recordCancelled("global_stream", accumulated.toString());
+            throw new WikiStreamCancelledException("Global chat stream was cancelled by the client");
         }
+        streamMetrics.recordCompleted("global_stream", accumulated.toString(), finalUsage.get());
 
         String answer = accumulated.toString().strip();
 
         // Persist after stream
-        boolean isFirst = persistenceService.isFirstMessage(sessionId);
         if (user != null) {
-            var session = persistenceService.findOrCreateSession(sessionId, user, null, WikiChatSessionType.GLOBAL);
-            persistenceService.saveUserMessage(session, question);
-            persistenceService.saveAssistantMessage(session, answer, false);
-            if (isFirst) {
-                titleService.generateAndSave(sessionId, question);
-            }
+            writeBehind.record(sessionId, user, null, WikiChatSessionType.GLOBAL, question, answer, false);
         }
         sessionStore.saveTurn(sessionId, null, question, answer, false);
 
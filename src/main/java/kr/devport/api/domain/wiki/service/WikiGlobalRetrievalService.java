@@ -1,31 +1,35 @@
 package kr.devport.api.domain.wiki.service;
 
-import com.openai.client.OpenAIClient;
-import com.openai.models.embeddings.CreateEmbeddingResponse;
-import com.openai.models.embeddings.EmbeddingCreateParams;
 import kr.devport.api.domain.wiki.dto.internal.WikiGlobalRetrievalContext;
 import kr.devport.api.domain.wiki.dto.internal.WikiGlobalRetrievalContext.ScoredProject;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievedChunk;
 import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
 import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
 import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ScoredChunkRow;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Cross-project RAG retrieval for global wiki chat.
  * Finds the most relevant projects across all wiki content for a given question.
+ * Candidate projects are picked from {@link WikiProjectRoutingIndex}; small projects are searched in-process
+ * in parallel and the rest in one batched pgvector statement with a per-project limit. The single global pgvector scan is
+ * the fallback when routing yields nothing.
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class WikiGlobalRetrievalService {
 
     private static final int GLOBAL_CANDIDATE_LIMIT = 20;
@@ -34,12 +38,44 @@ public class WikiGlobalRetrievalService {
     private static final int MAX_CONTEXT_TOKENS = 4000;
 
     private final WikiSectionChunkRepository chunkRepository;
-    private final OpenAIClient openAIClient;
+    private final WikiQueryEmbeddingService embeddingService;
+    private final WikiProjectRoutingIndex routingIndex;
+    private final WikiProjectVectorIndex vectorIndex;
+    private final WikiRetrievalExecutor retrievalExecutor;
+    private final WikiContextPacker contextPacker;
+    private final int candidateProjects;
+    private final int chunksPerProjectSearch;
+    private final Duration projectSearchTimeout;
+
+    public WikiGlobalRetrievalService(
+            WikiSectionChunkRepository chunkRepository,
+            WikiQueryEmbeddingService embeddingService,
+            WikiProjectRoutingIndex routingIndex,
+            WikiProjectVectorIndex vectorIndex,
+            WikiRetrievalExecutor retrievalExecutor,
+            WikiContextPacker contextPacker,
+            @Value("${app.wiki.global.routing.candidate-projects:8}") int candidateProjects,
+            @Value("${app.wiki.global.routing.chunks-per-project:4}") int chunksPerProjectSearch,
+            @Value("${app.wiki.global.routing.search-timeout:2s}") Duration projectSearchTimeout
+    ) {
+        this.chunkRepository = chunkRepository;
+        this.embeddingService = embeddingService;
+        this.routingIndex = routingIndex;
+        this.vectorIndex = vectorIndex;
+        this.retrievalExecutor = retrievalExecutor;
+        this.contextPacker = contextPacker;
+        this.candidateProjects = candidateProjects;
+        this.chunksPerProjectSearch = chunksPerProjectSearch;
+        this.projectSearchTimeout = projectSearchTimeout;
+    }
 
     public WikiGlobalRetrievalContext retrieve(String question) {
         try {
-            String vectorStr = toVectorString(embedText(question));
-            List<ScoredChunkRow> topChunks = chunkRepository.findSimilarChunksGlobalWithScore(vectorStr, GLOBAL_CANDIDATE_LIMIT);
+            float[] queryEmbedding = embeddingService.embed(question);
+            List<ScoredChunkRow> topChunks = searchRoutedProjects(queryEmbedding);
+            if (topChunks.isEmpty()) {
+                topChunks = chunkRepository.findSimilarChunksGlobalWithScore(queryEmbedding, GLOBAL_CANDIDATE_LIMIT);
+            }
 
             if (topChunks.isEmpty()) {
                 return new WikiGlobalRetrievalContext("", List.of(), false);
@@ -66,7 +102,7 @@ public class WikiGlobalRetrievalService {
                                         ic.chunk().getSectionId(),
                                         ic.chunk().getSubsectionId(),
                                         ic.chunk().getChunkType(),
-                                        resolveHeading(ic.chunk()),
+                                        WikiChunkTexts.resolveHeading(ic.chunk()),
                                         ic.chunk().getContent(),
                                         ic.similarity(),
                                         0.0d,
@@ -87,61 +123,69 @@ public class WikiGlobalRetrievalService {
         }
     }
 
-    private String buildContext(List<ScoredProject> scoredProjects) {
-        StringBuilder sb = new StringBuilder("# Multi-Project Context\n\n");
-        for (ScoredProject project : scoredProjects) {
-            sb.append("## Project: ").append(project.projectExternalId()).append("\n\n");
-            for (WikiRetrievedChunk chunk : project.topChunks()) {
-                sb.append("### ").append(chunk.heading()).append("\n\n");
-                sb.append(chunk.content()).append("\n\n");
-            }
+    /**
+     * Searches the routed candidate projects: in-process where the vector index serves the project, and in one
+     * database statement on the database lane for the rest. The per-project index searches run concurrently on
+     * the database lane, since a cold index is loaded from the database. Projects whose search is rejected, fails,
+     * or misses the timeout contribute no chunks and are counted in the log.
+     */
+    private List<ScoredChunkRow> searchRoutedProjects(float[] queryEmbedding) {
+        List<String> projects = routingIndex.route(queryEmbedding, candidateProjects);
+        if (projects.isEmpty()) {
+            return List.of();
         }
-        return truncateToTokenLimit(sb.toString(), MAX_CONTEXT_TOKENS);
-    }
 
-    private String resolveHeading(WikiSectionChunk chunk) {
-        Map<String, Object> metadata = chunk.getMetadata();
-        if (metadata != null) {
-            Object titleKo = metadata.get("titleKo");
-            if (titleKo != null && !String.valueOf(titleKo).isBlank()) {
-                return String.valueOf(titleKo);
+        List<CompletableFuture<Optional<List<ScoredChunkRow>>>> searches = projects.stream()
+                .map(projectExternalId -> retrievalExecutor.submit(WikiRetrievalExecutor.Lane.DATABASE,
+                                () -> vectorIndex.search(projectExternalId, queryEmbedding, chunksPerProjectSearch))
+                        .orTimeout(projectSearchTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                .toList();
+
+        List<ScoredChunkRow> rows = new ArrayList<>();
+        List<String> databaseProjects = new ArrayList<>();
+        int skipped = 0;
+        for (int i = 0; i < projects.size(); i++) {
+            String projectExternalId = projects.get(i);
+            Optional<List<ScoredChunkRow>> result;
+            try {
+                result = searches.get(i).join();
+            } catch (CompletionException e) {
+                skipped++;
+                continue;
             }
+            result.ifPresentOrElse(rows::addAll, () -> databaseProjects.add(projectExternalId));
         }
-        if (chunk.getSubsectionId() != null && !chunk.getSubsectionId().isBlank()) {
-            return chunk.getSectionId() + " > " + chunk.getSubsectionId();
+        if (skipped > 0) {
+            log.warn("wiki-global-retrieval: skipped {} of {} routed projects, in-process search failed",
+                    skipped, projects.size());
         }
-        return chunk.getSectionId();
-    }
-
-    private float[] embedText(String text) {
-        EmbeddingCreateParams params = EmbeddingCreateParams.builder()
-                .model("text-embedding-3-small")
-                .input(text)
-                .build();
-        CreateEmbeddingResponse response = openAIClient.embeddings().create(params);
-        List<Float> embeddingFloats = response.data().getFirst().embedding();
-        float[] embedding = new float[embeddingFloats.size()];
-        for (int i = 0; i < embeddingFloats.size(); i++) {
-            embedding[i] = embeddingFloats.get(i);
+        if (databaseProjects.isEmpty()) {
+            return rows;
         }
-        return embedding;
+
+        List<ScoredChunkRow> databaseRows = retrievalExecutor.submit(WikiRetrievalExecutor.Lane.DATABASE,
+                        () -> chunkRepository.findSimilarChunksInProjectsWithScore(
+                                databaseProjects, queryEmbedding, chunksPerProjectSearch))
+                .orTimeout(projectSearchTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    log.warn("wiki-global-retrieval: skipped {} of {} routed projects, batched search failed: {}",
+                            databaseProjects.size(), projects.size(), e.getMessage());
+                    return List.of();
+                })
+                .join();
+        rows.addAll(databaseRows);
+        return rows;
     }
 
-    private String toVectorString(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) {
-                sb.append(",");
+    private String buildContext(List<ScoredProject> scoredProjects) {
+        List<WikiContextPacker.Block> blocks = new ArrayList<>();
+        for (ScoredProject project : scoredProjects) {
+            String projectHeader = "## Project: " + project.projectExternalId() + "\n\n";
+            for (WikiRetrievedChunk chunk : project.topChunks()) {
+                blocks.add(new WikiContextPacker.Block(projectHeader, "### " + chunk.heading() + "\n\n" + chunk.content() + "\n\n"));
             }
-            sb.append(vector[i]);
         }
-        sb.append("]");
-        return sb.toString();
-    }
-
-    private String truncateToTokenLimit(String text, int maxTokens) {
-        int maxChars = maxTokens * 4;
-        return text.length() <= maxChars ? text : text.substring(0, maxChars) + "...";
+        return contextPacker.pack("# Multi-Project Context\n\n", blocks, MAX_CONTEXT_TOKENS);
     }
 
     private record IndexedChunk(WikiSectionChunk chunk, double similarity) {
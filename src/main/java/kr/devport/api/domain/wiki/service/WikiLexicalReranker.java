@@ -0,0 +1,90 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CPU-only reranker: BM25 over heading and content, with IDF taken from the candidate set itself.
+ * Heading terms count more than body terms, and Korean text is matched on character bigrams.
+ * Scores are normalized by the best candidate so they sit on the same 0..1 scale as LLM scores.
+ */
+@Component
+public class WikiLexicalReranker implements WikiReranker {
+
+    private static final int MAX_CANDIDATES = 20;
+    private static final double K1 = 1.2d;
+    private static final double B = 0.75d;
+    private static final double HEADING_WEIGHT = 2.5d;
+
+    @Override
+    public List<ScoredChunk> rerank(String question, List<WikiSectionChunk> candidates) {
+        Set<String> queryTerms = new LinkedHashSet<>(WikiChunkTexts.lexicalTerms(question));
+        if (candidates.isEmpty() || queryTerms.isEmpty()) {
+            return List.of();
+        }
+
+        int size = Math.min(MAX_CANDIDATES, candidates.size());
+        List<Map<String, Double>> termFrequencies = new ArrayList<>(size);
+        double[] lengths = new double[size];
+        double totalLength = 0.0d;
+        for (int i = 0; i < size; i++) {
+            WikiSectionChunk chunk = candidates.get(i);
+            Map<String, Double> frequencies = new HashMap<>();
+            for (String term : WikiChunkTexts.lexicalTerms(WikiChunkTexts.resolveHeading(chunk) + " " + chunk.getSectionId())) {
+                frequencies.merge(term, HEADING_WEIGHT, Double::sum);
+                lengths[i] += HEADING_WEIGHT;
+            }
+            for (String term : WikiChunkTexts.lexicalTerms(chunk.getContent())) {
+                frequencies.merge(term, 1.0d, Double::sum);
+                lengths[i] += 1.0d;
+            }
+            termFrequencies.add(frequencies);
+            totalLength += lengths[i];
+        }
+        double averageLength = Math.max(1.0d, totalLength / size);
+
+        Map<String, Double> inverseDocumentFrequencies = new HashMap<>();
+        for (String term : queryTerms) {
+            long documentFrequency = termFrequencies.stream().filter(frequencies -> frequencies.containsKey(term)).count();
+            if (documentFrequency > 0) {
+                inverseDocumentFrequencies.put(term,
+                        Math.log(1.0d + (size - documentFrequency + 0.5d) / (documentFrequency + 0.5d)));
+            }
+        }
+        if (inverseDocumentFrequencies.isEmpty()) {
+            return List.of();
+        }
+
+        double[] scores = new double[size];
+        double best = 0.0d;
+        for (int i = 0; i < size; i++) {
+            Map<String, Double> frequencies = termFrequencies.get(i);
+            double lengthNorm = K1 * (1.0d - B + B * lengths[i] / averageLength);
+            for (Map.Entry<String, Double> idf : inverseDocumentFrequencies.entrySet()) {
+                double frequency = frequencies.getOrDefault(idf.getKey(), 0.0d);
+                if (frequency > 0.0d) {
+                    scores[i] += idf.getValue() * frequency * (K1 + 1.0d) / (frequency + lengthNorm);
+                }
+            }
+            best = Math.max(best, scores[i]);
+        }
+        if (best <= 0.0d) {
+            return List.of();
+        }
+
+        List<ScoredChunk> ranked = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ranked.add(new ScoredChunk(i, scores[i] / best));
+        }
+        ranked.sort(Comparator.comparingDouble(ScoredChunk::score).reversed());
+        return ranked;
+    }
+}
@@ -0,0 +1,72 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Project-level prompt segment for wiki chat.
+ * Renders the project's section summaries and overviews from its {@link WikiChunkSnapshot} in snapshot order,
+ * packed into a fixed token budget. The text only changes when the project's wiki is regenerated, so it forms a
+ * stable prefix long enough for provider-side prompt caching; rendered text is cached per commit.
+ * Falls back to the bare project line when the snapshot is empty or cannot be loaded.
+ */
+@Slf4j
+@Component
+public class WikiProjectPromptContext {
+
+    private static final int MAX_PROJECT_CONTEXT_TOKENS = 1500;
+
+    private final WikiChunkSnapshotCache snapshotCache;
+    private final WikiContextPacker contextPacker;
+    private final Cache<String, String> rendered;
+
+    public WikiProjectPromptContext(
+            WikiChunkSnapshotCache snapshotCache,
+            WikiContextPacker contextPacker,
+            @Value("${app.wiki.chat.project-context.max-projects:1000}") long maxProjects
+    ) {
+        this.snapshotCache = snapshotCache;
+        this.contextPacker = contextPacker;
+        this.rendered = Caffeine.newBuilder()
+                .maximumSize(maxProjects)
+                .build();
+    }
+
+    /**
+     * @param projectExternalId Project external ID
+     * @return Project segment for the prompt; identical for every request until the wiki changes
+     */
+    public String build(String projectExternalId) {
+        String header = "Project: " + projectExternalId + "\n";
+        WikiChunkSnapshot snapshot;
+        try {
+            snapshot = snapshotCache.get(projectExternalId);
+        } catch (Exception e) {
+            log.warn("wiki-project-context: snapshot unavailable for project={}: {}", projectExternalId, e.getMessage());
+            return header;
+        }
+        if (snapshot.isEmpty()) {
+            return header;
+        }
+        return rendered.get(projectExternalId + "@" + snapshot.commitSha(), ignored -> render(header, snapshot));
+    }
+
+    private String render(String header, WikiChunkSnapshot snapshot) {
+        List<WikiContextPacker.Block> blocks = new ArrayList<>();
+        for (WikiChunkSnapshot.Entry entry : snapshot.entries()) {
+            WikiSectionChunk chunk = entry.chunk();
+            boolean sectionSummary = "summary".equals(chunk.getChunkType()) && chunk.getSubsectionId() == null;
+            if (sectionSummary || "overview".equals(chunk.getChunkType())) {
+                blocks.add(WikiContextPacker.Block.of("### " + entry.heading() + "\n\n" + chunk.getContent() + "\n\n"));
+            }
+        }
+        return contextPacker.pack(header + "\nProject Overview:\n\n", blocks, MAX_PROJECT_CONTEXT_TOKENS);
+    }
+}
@@ -0,0 +1,200 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ProjectCentroidRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory project routing index for global wiki chat.
+ * Holds one normalized centroid per project (mean of all chunk embeddings) plus one over its summary chunks,
+ * and ranks projects by the better of the two cosine similarities. {@link #route} only reads the current
+ * snapshot; the centroid aggregation runs in the background on the retrieval executor's DATABASE lane, started
+ * by crawler completion events and by a scheduled check once the refresh interval has passed. Until the first
+ * load finishes, routing returns nothing and the caller falls back to the global scan; a failed load keeps
+ * the previous snapshot and is not retried until {@code failure-backoff} has passed.
+ */
+@Slf4j
+@Component
+public class WikiProjectRoutingIndex {
+
+    private final WikiSectionChunkRepository chunkRepository;
+    private final WikiRetrievalExecutor retrievalExecutor;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+    private final Duration failureBackoff;
+    private final Timer refreshTimer;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean stale = true;
+    private volatile long retryAtNanos = System.nanoTime();
+    private CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+
+    public WikiProjectRoutingIndex(
+            WikiSectionChunkRepository chunkRepository,
+            WikiRetrievalExecutor retrievalExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.global.routing.enabled:true}") boolean enabled,
+            @Value("${app.wiki.global.routing.refresh-interval:30m}") Duration refreshInterval,
+            @Value("${app.wiki.global.routing.failure-backoff:30s}") Duration failureBackoff
+    ) {
+        this.chunkRepository = chunkRepository;
+        this.retrievalExecutor = retrievalExecutor;
+        this.enabled = enabled;
+        this.refreshInterval = refreshInterval;
+        this.failureBackoff = failureBackoff;
+        this.refreshTimer = Timer.builder("wiki.routing.index.refresh")
+                .description("Time to reload project centroids for global routing")
+                .register(meterRegistry);
+        Gauge.builder("wiki.routing.index.projects", this, index -> index.snapshot.projects().size())
+                .description("Projects currently held in the global routing index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Picks the projects whose centroids are closest to the query.
+     *
+     * @param queryEmbedding Query embedding
+     * @param limit Maximum number of projects
+     * @return Project external IDs ordered by routing score, or empty when the index is disabled or unavailable
+     */
+    public List<String> route(float[] queryEmbedding, int limit) {
+        if (!enabled || limit <= 0) {
+            return List.of();
+        }
+
+        List<ProjectCentroid> projects = snapshot.projects();
+        if (projects.isEmpty()) {
+            return List.of();
+        }
+        float[] query = normalize(queryEmbedding);
+        PriorityQueue<RoutedProject> best = new PriorityQueue<>(Comparator.comparingDouble(RoutedProject::score));
+        for (ProjectCentroid project : projects) {
+            if (project.centroid().length != query.length) {
+                continue;
+            }
+            double score = dot(project.centroid(), query);
+            if (project.summaryCentroid().length == query.length) {
+                score = Math.max(score, dot(project.summaryCentroid(), query));
+            }
+            best.offer(new RoutedProject(project.projectExternalId(), score));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<RoutedProject> ordered = new ArrayList<>(best);
+        ordered.sort(Comparator.comparingDouble(RoutedProject::score).reversed());
+        return ordered.stream().map(RoutedProject::projectExternalId).toList();
+    }
+
+    public void invalidate() {
+        stale = true;
+    }
+
+    @EventListener
+    public void onCrawlerJobCompleted(CrawlerJobCompletedEvent event) {
+        invalidate();
+        refresh();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.wiki.global.routing.refresh-check:30s}",
+            initialDelayString = "${app.wiki.global.routing.initial-delay:5s}")
+    public void refreshIfStale() {
+        refresh();
+    }
+
+    /**
+     * Starts a background reload when the index is stale or expired and no reload is running.
+     *
+     * @return The running or just-started reload, or a completed future when nothing needs loading
+     */
+    synchronized CompletableFuture<Void> refresh() {
+        if (!enabled || !inFlight.isDone()) {
+            return inFlight;
+        }
+        boolean expired = System.nanoTime() - snapshot.loadedAtNanos() > refreshInterval.toNanos();
+        if ((!stale && !expired) || System.nanoTime() - retryAtNanos < 0) {
+            return inFlight;
+        }
+        stale = false;
+        inFlight = retrievalExecutor.submit(WikiRetrievalExecutor.Lane.DATABASE, this::load).handle((loaded, error) -> {
+            if (error == null) {
+                snapshot = loaded;
+                return null;
+            }
+            stale = true;
+            retryAtNanos = System.nanoTime() + failureBackoff.toNanos();
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            log.warn("wiki-routing-index: refresh failed, keeping {} projects and retrying in {}: {}",
+                    snapshot.projects().size(), failureBackoff, cause.getMessage());
+            return null;
+        });
+        return inFlight;
+    }
+
+    private Snapshot load() {
+        long startedAt = System.nanoTime();
+        List<ProjectCentroid> projects = chunkRepository.findProjectCentroids().stream()
+                .filter(row -> row.projectExternalId() != null && row.centroid().length > 0)
+                .map(WikiProjectRoutingIndex::toCentroid)
+                .toList();
+        refreshTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        log.debug("wiki-routing-index: loaded {} project centroids", projects.size());
+        return new Snapshot(projects, System.nanoTime());
+    }
+
+    private static ProjectCentroid toCentroid(ProjectCentroidRow row) {
+        return new ProjectCentroid(row.projectExternalId(), normalize(row.centroid()), normalize(row.summaryCentroid()));
+    }
+
+    private static float[] normalize(float[] vector) {
+        double sumOfSquares = 0.0d;
+        for (float value : vector) {
+            sumOfSquares += value * value;
+        }
+        if (sumOfSquares == 0.0d) {
+            return new float[0];
+        }
+        float inverseNorm = (float) (1.0d / Math.sqrt(sumOfSquares));
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * inverseNorm;
+        }
+        return normalized;
+    }
+
+    private static double dot(float[] left, float[] right) {
+        double sum = 0.0d;
+        for (int i = 0; i < left.length; i++) {
+            sum += left[i] * right[i];
+        }
+        return sum;
+    }
+
+    private record ProjectCentroid(String projectExternalId, float[] centroid, float[] summaryCentroid) {
+    }
+
+    private record RoutedProject(String projectExternalId, double score) {
+    }
+
+    private record Snapshot(List<ProjectCentroid> projects, long loadedAtNanos) {
+        private static final Snapshot EMPTY = new Snapshot(List.of(), System.nanoTime());
+    }
+}
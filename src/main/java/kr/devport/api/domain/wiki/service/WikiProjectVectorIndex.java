@@ -0,0 +1,293 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import kr.devport.api.domain.common.cache.CacheScope;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ChunkEmbeddingRow;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ScoredChunkRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process exact top-k cosine search for small projects.
+ * Each project's embeddings live in one contiguous off-heap segment (row-major float32) scanned with
+ * {@link WikiVectorKernels}; projects above the chunk-count threshold keep using the pgvector query.
+ * Indexes are built lazily, keyed by the chunk snapshot's project and commit_sha, and dropped on crawler
+ * invalidation. Projects without embeddings are cached as an empty index so they go straight to pgvector.
+ */
+@Slf4j
+@Component
+public class WikiProjectVectorIndex {
+
+    private final WikiSectionChunkRepository chunkRepository;
+    private final WikiChunkSnapshotCache snapshotCache;
+    private final Cache<IndexKey, ProjectVectors> indexes;
+    private final WikiVectorKernels.Kernel kernel;
+    private final boolean enabled;
+    private final int maxChunks;
+
+    private final Timer searchTimer;
+    private final Counter localSearches;
+    private final Counter databaseSearches;
+
+    public WikiProjectVectorIndex(
+            WikiSectionChunkRepository chunkRepository,
+            WikiChunkSnapshotCache snapshotCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.vector-index.enabled:true}") boolean enabled,
+            @Value("${app.wiki.vector-index.max-chunks:2000}") int maxChunks,
+            @Value("${app.wiki.vector-index.max-bytes:134217728}") long maxBytes
+    ) {
+        this.chunkRepository = chunkRepository;
+        this.snapshotCache = snapshotCache;
+        this.enabled = enabled;
+        this.maxChunks = maxChunks;
+        this.kernel = WikiVectorKernels.best();
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((IndexKey key, ProjectVectors vectors) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1L, vectors.byteSize())))
+                .removalListener((IndexKey key, ProjectVectors vectors, RemovalCause cause) -> {
+                    if (vectors != null) {
+                        vectors.release();
+                    }
+                })
+                .recordStats()
+                .build();
+
+        this.searchTimer = Timer.builder("wiki.vector.index.search")
+                .description("In-process exact top-k scan latency")
+                .tag("kernel", kernel.name())
+                .register(meterRegistry);
+        this.localSearches = Counter.builder("wiki.vector.index.route")
+                .description("Project vector searches by serving engine")
+                .tag("engine", "local")
+                .register(meterRegistry);
+        this.databaseSearches = Counter.builder("wiki.vector.index.route")
+                .description("Project vector searches by serving engine")
+                .tag("engine", "pgvector")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "wikiProjectVectorIndex");
+        log.info("wiki-vector-index: enabled={}, maxChunks={}, kernel={}", enabled, maxChunks, kernel.name());
+    }
+
+    /**
+     * Searches the project in-process when it is small enough.
+     *
+     * @param projectExternalId Project identifier
+     * @param queryEmbedding Query embedding
+     * @param limit Number of rows to return
+     * @return Rows ordered by cosine similarity, or empty when the caller should query pgvector instead
+     */
+    public Optional<List<ScoredChunkRow>> search(String projectExternalId, float[] queryEmbedding, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        WikiChunkSnapshot snapshot = snapshotCache.get(projectExternalId);
+        if (snapshot.isEmpty() || snapshot.entries().size() > maxChunks) {
+            databaseSearches.increment();
+            return Optional.empty();
+        }
+
+        IndexKey key = IndexKey.of(snapshot);
+        boolean[] built = new boolean[1];
+        ProjectVectors vectors = indexes.get(key, missing -> {
+            built[0] = true;
+            return build(snapshot);
+        });
+        if (built[0]) {
+            evictOtherVersions(key);
+        }
+        if (vectors.dimensions() != queryEmbedding.length || !vectors.retain()) {
+            // Mismatched dimensions, or the index was evicted between lookup and retain.
+            databaseSearches.increment();
+            return Optional.empty();
+        }
+        try {
+            long startedAt = System.nanoTime();
+            List<ScoredChunkRow> rows = vectors.topK(kernel, queryEmbedding, limit);
+            searchTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            localSearches.increment();
+            return Optional.of(rows);
+        } finally {
+            vectors.release();
+        }
+    }
+
+    public void invalidate(String projectExternalId) {
+        indexes.asMap().keySet().removeIf(key -> key.projectExternalId().equals(projectExternalId));
+    }
+
+    @EventListener
+    public void onCrawlerJobCompleted(CrawlerJobCompletedEvent event) {
+        if (!event.projectExternalIds().isEmpty()) {
+            indexes.asMap().keySet().removeIf(key -> event.projectExternalIds().contains(key.projectExternalId()));
+            return;
+        }
+        if (event.scope() == CacheScope.UNKNOWN) {
+            indexes.invalidateAll();
+        }
+    }
+
+    private ProjectVectors build(WikiChunkSnapshot snapshot) {
+        Map<Long, WikiSectionChunk> chunksById = new HashMap<>();
+        for (WikiChunkSnapshot.Entry entry : snapshot.entries()) {
+            if (entry.chunk().getId() != null) {
+                chunksById.put(entry.chunk().getId(), entry.chunk());
+            }
+        }
+
+        List<ChunkEmbeddingRow> rows = chunkRepository.findChunkEmbeddings(snapshot.projectExternalId()).stream()
+                .filter(row -> chunksById.containsKey(row.chunkId()) && row.embedding().length > 0)
+                .toList();
+        if (rows.isEmpty()) {
+            return ProjectVectors.EMPTY;
+        }
+
+        int dimensions = rows.getFirst().embedding().length;
+        Arena arena = Arena.ofShared();
+        MemorySegment segment = arena.allocate((long) rows.size() * dimensions * Float.BYTES, ValueLayout.JAVA_FLOAT.byteAlignment());
+        WikiSectionChunk[] chunks = new WikiSectionChunk[rows.size()];
+        float[] inverseNorms = new float[rows.size()];
+        for (int row = 0; row < rows.size(); row++) {
+            float[] embedding = rows.get(row).embedding();
+            MemorySegment.copy(embedding, 0, segment, ValueLayout.JAVA_FLOAT, (long) row * dimensions * Float.BYTES, dimensions);
+            chunks[row] = chunksById.get(rows.get(row).chunkId());
+            inverseNorms[row] = inverseNorm(embedding);
+        }
+
+        log.debug("wiki-vector-index: built project={} commitSha={} rows={} dims={}",
+                snapshot.projectExternalId(), snapshot.commitSha(), rows.size(), dimensions);
+        return new ProjectVectors(dimensions, arena, segment, chunks, inverseNorms);
+    }
+
+    /**
+     * Drops indexes of earlier snapshots of the project once a newer one was built.
+     */
+    private void evictOtherVersions(IndexKey current) {
+        indexes.asMap().keySet().removeIf(key -> key.projectExternalId().equals(current.projectExternalId()) && !key.equals(current));
+    }
+
+    private static float inverseNorm(float[] vector) {
+        double sumOfSquares = 0.0d;
+        for (float value : vector) {
+            sumOfSquares += value * value;
+        }
+        return sumOfSquares == 0.0d ? 0.0f : (float) (1.0d / Math.sqrt(sumOfSquares));
+    }
+
+    /**
+     * The snapshot size is part of the key because a snapshot without a commit_sha can still change.
+     */
+    private record IndexKey(String projectExternalId, String commitSha, int snapshotSize) {
+
+        private static IndexKey of(WikiChunkSnapshot snapshot) {
+            return new IndexKey(snapshot.projectExternalId(), snapshot.commitSha(), snapshot.entries().size());
+        }
+    }
+
+    /**
+     * Off-heap vectors of one index version. The cache holds one reference and every scan holds another,
+     * so an evicted segment is only freed once the last in-flight scan releases it.
+     */
+    private static final class ProjectVectors {
+
+        /**
+         * Project without usable embeddings; its zero dimensions never match a query.
+         */
+        private static final ProjectVectors EMPTY = new ProjectVectors(0, null, MemorySegment.NULL, new WikiSectionChunk[0], new float[0]);
+
+        private final int dimensions;
+        private final Arena arena;
+        private final MemorySegment segment;
+        private final WikiSectionChunk[] chunks;
+        private final float[] inverseNorms;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private ProjectVectors(int dimensions, Arena arena, MemorySegment segment, WikiSectionChunk[] chunks, float[] inverseNorms) {
+            this.dimensions = dimensions;
+            this.arena = arena;
+            this.segment = segment;
+            this.chunks = chunks;
+            this.inverseNorms = inverseNorms;
+        }
+
+        private int dimensions() {
+            return dimensions;
+        }
+
+        /**
+         * @return false when the segment was already released by the cache and the last reader
+         */
+        private boolean retain() {
+            if (arena == null) {
+                return true;
+            }
+            while (true) {
+                int current = references.get();
+                if (current <= 0) {
+                    return false;
+                }
+                if (references.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            if (arena != null && references.decrementAndGet() == 0) {
+                arena.close();
+            }
+        }
+
+        private long byteSize() {
+            return segment.byteSize();
+        }
+
+        private List<ScoredChunkRow> topK(WikiVectorKernels.Kernel kernel, float[] query, int limit) {
+            float queryInverseNorm = inverseNorm(query);
+            long rowBytes = (long) dimensions * Float.BYTES;
+            PriorityQueue<RowScore> heap = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(RowScore::score));
+            for (int row = 0; row < chunks.length; row++) {
+                float cosine = kernel.dot(segment, row * rowBytes, query) * inverseNorms[row] * queryInverseNorm;
+                if (heap.size() < limit) {
+                    heap.add(new RowScore(row, cosine));
+                } else if (cosine > heap.peek().score()) {
+                    heap.poll();
+                    heap.add(new RowScore(row, cosine));
+                }
+            }
+
+            List<RowScore> ranked = new ArrayList<>(heap);
+            ranked.sort(Comparator.comparingDouble(RowScore::score).reversed());
+            return ranked.stream()
+                    .map(rowScore -> new ScoredChunkRow(chunks[rowScore.row()], rowScore.score()))
+                    .toList();
+        }
+    }
+
+    private record RowScore(int row, double score) {
+    }
+}
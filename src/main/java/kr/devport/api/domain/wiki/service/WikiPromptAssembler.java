@@ -0,0 +1,130 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.openai.models.chat.completions.ChatCompletionAssistantMessageParam;
+import com.openai.models.chat.completions.ChatCompletionMessageParam;
+import com.openai.models.chat.completions.ChatCompletionSystemMessageParam;
+import com.openai.models.chat.completions.ChatCompletionUserMessageParam;
+import com.openai.models.completions.CompletionUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assembles chat prompts so provider-side prefix caching can reuse as much as possible.
+ * Segments are ordered from most to least stable: static policy, project context, per-turn retrieval
+ * context, history, then the question. Anything that varies per request must stay out of the earlier
+ * segments, or it invalidates the cached prefix for every request after it.
+ * Prompt usage is recorded as cached versus uncached input tokens per endpoint; meters are registered once
+ * per endpoint on first use.
+ */
+@Component
+public class WikiPromptAssembler {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, UsageMeters> usageMeters = new ConcurrentHashMap<>();
+
+    public WikiPromptAssembler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public List<ChatCompletionMessageParam> assemble(PromptLayout layout) {
+        List<ChatCompletionMessageParam> messages = new ArrayList<>();
+        addSystem(messages, layout.staticPolicy());
+        addSystem(messages, layout.projectContext());
+        addSystem(messages, layout.turnContext());
+        for (ChatTurn turn : layout.history()) {
+            messages.add(ChatCompletionMessageParam.ofUser(
+                    ChatCompletionUserMessageParam.builder()
+                            .content(turn.getQuestion())
+                            .build()
+            ));
+            messages.add(ChatCompletionMessageParam.ofAssistant(
+                    ChatCompletionAssistantMessageParam.builder()
+                            .content(turn.getAnswer())
+                            .build()
+            ));
+        }
+        messages.add(ChatCompletionMessageParam.ofUser(
+                ChatCompletionUserMessageParam.builder()
+                        .content(layout.question())
+                        .build()
+        ));
+        return messages;
+    }
+
+    /**
+     * Records how many input tokens the provider served from its prompt cache.
+     *
+     * @param endpoint Logical prompt name used as the metric tag (e.g. project, project_stream)
+     * @param usage Completion usage reported by the provider
+     */
+    public void recordUsage(String endpoint, CompletionUsage usage) {
+        long promptTokens = usage.promptTokens();
+        if (promptTokens <= 0) {
+            return;
+        }
+        long cachedTokens = usage.promptTokensDetails()
+                .flatMap(CompletionUsage.PromptTokensDetails::cachedTokens)
+                .orElse(0L);
+        UsageMeters meters = usageMeters.computeIfAbsent(endpoint, this::registerUsageMeters);
+        meters.cachedTokens().increment(cachedTokens);
+        meters.uncachedTokens().increment(promptTokens - cachedTokens);
+        meters.cacheRatio().record(cachedTokens / (double) promptTokens);
+    }
+
+    private UsageMeters registerUsageMeters(String endpoint) {
+        return new UsageMeters(
+                tokenCounter(endpoint, "cached"),
+                tokenCounter(endpoint, "uncached"),
+                DistributionSummary.builder("wiki.chat.prompt.cache.ratio")
+                        .description("Share of prompt tokens served from the provider prompt cache")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry)
+        );
+    }
+
+    private Counter tokenCounter(String endpoint, String cache) {
+        return Counter.builder("wiki.chat.prompt.tokens")
+                .description("Chat prompt input tokens by prompt-cache outcome")
+                .tag("endpoint", endpoint)
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    private void addSystem(List<ChatCompletionMessageParam> messages, String content) {
+        if (content == null || content.isBlank()) {
+            return;
+        }
+        messages.add(ChatCompletionMessageParam.ofSystem(
+                ChatCompletionSystemMessageParam.builder()
+                        .content(content)
+                        .build()
+        ));
+    }
+
+    /**
+     * @param staticPolicy Policy text identical for every request of a prompt kind
+     * @param projectContext Context that only changes when the project changes
+     * @param turnContext Retrieval context and flags for this turn
+     * @param history Previous turns, oldest first
+     * @param question Final user message
+     */
+    public record PromptLayout(
+            String staticPolicy,
+            String projectContext,
+            String turnContext,
+            List<ChatTurn> history,
+            String question
+    ) {
+    }
+
+    private record UsageMeters(Counter cachedTokens, Counter uncachedTokens, DistributionSummary cacheRatio) {
+    }
+}
@@ -0,0 +1,230 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.openai.client.OpenAIClient;
+import com.openai.models.embeddings.CreateEmbeddingResponse;
+import com.openai.models.embeddings.EmbeddingCreateParams;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Query embedding service shared by project and global wiki retrieval.
+ * Keeps a bounded in-heap L1 of primitive float[] vectors keyed by normalized question text,
+ * backed by a Redis L2 that stores vectors as little-endian float32 bytes.
+ * The normalized text is also what gets embedded, so every question sharing a cache key gets the same vector.
+ * Redis failures are treated as cache misses so chat never blocks on the L2.
+ */
+@Slf4j
+@Service
+public class WikiQueryEmbeddingService {
+
+    static final String EMBEDDING_MODEL = "text-embedding-3-small";
+    private static final String KEY_PREFIX = "wiki:emb:v2:";
+    private static final byte ENCODING_VERSION = 1;
+    private static final int HEADER_BYTES = Byte.BYTES + Integer.BYTES;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[?!.。？！\\s]+$");
+
+    private final OpenAIClient openAIClient;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final Cache<String, float[]> localCache;
+    private final Duration redisTtl;
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+    private final Counter savedMillis;
+    private final Timer embeddingTimer;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder missNanos = new LongAdder();
+
+    public WikiQueryEmbeddingService(
+            OpenAIClient openAIClient,
+            RedisTemplate<String, byte[]> binaryRedisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.embedding-cache.local-max-entries:2048}") long localMaxEntries,
+            @Value("${app.wiki.embedding-cache.local-ttl:6h}") Duration localTtl,
+            @Value("${app.wiki.embedding-cache.redis-ttl:7d}") Duration redisTtl
+    ) {
+        this.openAIClient = openAIClient;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.redisTtl = redisTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterAccess(localTtl)
+                .recordStats()
+                .build();
+
+        this.l1Hits = lookupCounter(meterRegistry, "l1");
+        this.l2Hits = lookupCounter(meterRegistry, "l2");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.savedMillis = Counter.builder("wiki.embedding.cache.saved")
+                .description("Estimated embedding latency avoided by cache hits")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.embeddingTimer = Timer.builder("wiki.embedding.latency")
+                .description("OpenAI embedding round-trip on cache miss")
+                .register(meterRegistry);
+        Gauge.builder("wiki.embedding.cache.hit.ratio", this, WikiQueryEmbeddingService::hitRatio)
+                .description("Share of embedding lookups served from L1 or L2")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "wikiQueryEmbeddingL1");
+    }
+
+    /**
+     * Returns the embedding for a question, consulting L1, then Redis, then OpenAI.
+     *
+     * @param question Raw user question
+     * @return Embedding vector (callers must not mutate the returned array)
+     */
+    public float[] embed(String question) {
+        String normalized = normalize(question);
+        lookups.increment();
+
+        float[] cached = localCache.getIfPresent(normalized);
+        if (cached != null) {
+            recordHit(l1Hits);
+            return cached;
+        }
+
+        String redisKey = redisKey(normalized);
+        float[] remote = readRemote(redisKey);
+        if (remote != null) {
+            localCache.put(normalized, remote);
+            recordHit(l2Hits);
+            return remote;
+        }
+
+        misses.increment();
+        long startedAt = System.nanoTime();
+        float[] embedding = requestEmbedding(normalized);
+        long elapsed = System.nanoTime() - startedAt;
+        embeddingTimer.record(Duration.ofNanos(elapsed));
+        missCount.increment();
+        missNanos.add(elapsed);
+
+        localCache.put(normalized, embedding);
+        writeRemote(redisKey, embedding);
+        return embedding;
+    }
+
+    static String normalize(String question) {
+        String normalized = Normalizer.normalize(question == null ? "" : question, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .strip();
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+
+    static byte[] encode(float[] embedding) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + embedding.length * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(ENCODING_VERSION);
+        buffer.putInt(embedding.length);
+        buffer.asFloatBuffer().put(embedding);
+        return buffer.array();
+    }
+
+    static float[] decode(byte[] payload) {
+        if (payload == null || payload.length < HEADER_BYTES) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.get() != ENCODING_VERSION) {
+            return null;
+        }
+        int dimensions = buffer.getInt();
+        if (dimensions <= 0 || buffer.remaining() != dimensions * Float.BYTES) {
+            return null;
+        }
+        float[] embedding = new float[dimensions];
+        buffer.asFloatBuffer().get(embedding);
+        return embedding;
+    }
+
+    private float[] requestEmbedding(String text) {
+        EmbeddingCreateParams params = EmbeddingCreateParams.builder()
+                .model(EMBEDDING_MODEL)
+                .input(text)
+                .build();
+
+        CreateEmbeddingResponse response = openAIClient.embeddings().create(params);
+        List<Float> embeddingFloats = response.data().getFirst().embedding();
+        float[] embedding = new float[embeddingFloats.size()];
+        for (int i = 0; i < embeddingFloats.size(); i++) {
+            embedding[i] = embeddingFloats.get(i);
+        }
+        return embedding;
+    }
+
+    private float[] readRemote(String key) {
+        try {
+            return decode(binaryRedisTemplate.opsForValue().get(key));
+        } catch (Exception e) {
+            log.warn("wiki-embedding: Redis read failed for key={}, treating as miss: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRemote(String key, float[] embedding) {
+        try {
+            binaryRedisTemplate.opsForValue().set(key, encode(embedding), redisTtl);
+        } catch (Exception e) {
+            log.warn("wiki-embedding: Redis write failed for key={}: {}", key, e.getMessage());
+        }
+    }
+
+    private void recordHit(Counter tierCounter) {
+        tierCounter.increment();
+        hits.increment();
+        long observedMisses = missCount.sum();
+        if (observedMisses > 0) {
+            savedMillis.increment(missNanos.sum() / (double) observedMisses / 1_000_000d);
+        }
+    }
+
+    private double hitRatio() {
+        long total = lookups.sum();
+        return total == 0 ? 0.0d : hits.sum() / (double) total;
+    }
+
+    private String redisKey(String normalized) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((EMBEDDING_MODEL + "\n" + normalized).getBytes(StandardCharsets.UTF_8));
+            return KEY_PREFIX + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String tier) {
+        return Counter.builder("wiki.embedding.cache.lookups")
+                .description("Query embedding lookups by serving tier")
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
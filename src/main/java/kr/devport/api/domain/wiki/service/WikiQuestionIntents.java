@@ -0,0 +1,269 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Single-pass intent classification for chat questions.
+ * Every FAQ and history-reference keyword is compiled into one Aho-Corasick automaton that scans the
+ * lower-cased question once. Rules keep the former regex syntax: {@code |} separates alternatives,
+ * {@code a.*b} requires the keywords in order, and {@code a.?b} allows one optional separator.
+ * The analysis also carries the question tokens so callers do not split the question again.
+ */
+final class WikiQuestionIntents {
+
+    private static final List<String> SEPARATOR_VARIANTS = List.of("", " ", "-", "_");
+
+    private static final Map<String, Integer> KEYWORD_IDS = new LinkedHashMap<>();
+
+    private static final List<FaqRule> FAQ_RULES = List.of(
+            new FaqRule(WikiFaqType.PROBLEM_SOLVED, compile(
+                    "문제.*해결|해결.*문제|왜 만들|어떤.*목적|what.*problem|solve|why.*built")),
+            new FaqRule(WikiFaqType.ARCHITECTURE, compile(
+                    "아키텍처|구조|설계|architecture|design|어떻게.*동작|동작.*원리|how.*work|내부.*구조")),
+            new FaqRule(WikiFaqType.GETTING_STARTED, compile(
+                    "시작하려면|어떻게.*시작|설치|install|setup|getting.?started|사용.*방법|how.*use|how.*start")),
+            new FaqRule(WikiFaqType.RECENT_CHANGES, compile(
+                    "최근.*변경|변경.*사항|changelog|release|업데이트|최근.*업|새로운|recent.*change|what.*new")),
+            new FaqRule(WikiFaqType.KEY_FEATURES, compile(
+                    "주요.*기능|기능.*무엇|특징|feature|capabilities|what.*can|뭘.*할|어떤.*기능"))
+    );
+
+    /**
+     * Meta-history questions reference the conversation itself.
+     */
+    private static final int[][] HISTORY_RULE = compile(
+            "이전|예전|방금|아까|요약|정리|다시|뭐라고|말했|물어봤|before|previous|summary|summarize|earlier|what did");
+
+    private static final Automaton AUTOMATON = Automaton.build(new ArrayList<>(KEYWORD_IDS.keySet()));
+
+    static Analysis analyze(String question) {
+        String text = question == null ? "" : question.toLowerCase(Locale.ROOT);
+        Matches matches = AUTOMATON.scan(text);
+
+        WikiFaqType faqType = WikiFaqType.NONE;
+        boolean historyReference = false;
+        if (matches.size > 0) {
+            for (FaqRule rule : FAQ_RULES) {
+                if (matchesAny(rule.alternatives(), matches)) {
+                    faqType = rule.type();
+                    break;
+                }
+            }
+            historyReference = matchesAny(HISTORY_RULE, matches);
+        }
+        return new Analysis(question, faqType, historyReference, Collections.unmodifiableSet(WikiChunkTexts.tokenize(text)));
+    }
+
+    private static boolean matchesAny(int[][] alternatives, Matches matches) {
+        for (int[] keywords : alternatives) {
+            if (matchesInOrder(keywords, matches)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Matches are ordered by end offset, so the first occurrence starting at or after the cursor also ends first.
+     */
+    private static boolean matchesInOrder(int[] keywords, Matches matches) {
+        int position = 0;
+        for (int keyword : keywords) {
+            int end = -1;
+            for (int i = 0; i < matches.size; i++) {
+                if (matches.keywords[i] == keyword && matches.ends[i] - AUTOMATON.lengths[keyword] >= position) {
+                    end = matches.ends[i];
+                    break;
+                }
+            }
+            if (end < 0) {
+                return false;
+            }
+            position = end;
+        }
+        return true;
+    }
+
+    private static int[][] compile(String rule) {
+        List<int[]> alternatives = new ArrayList<>();
+        for (String alternative : rule.split("\\|")) {
+            List<List<String>> segmentVariants = new ArrayList<>();
+            for (String segment : alternative.split("\\.\\*")) {
+                segmentVariants.add(expandOptionalSeparator(segment.toLowerCase(Locale.ROOT)));
+            }
+            addCombinations(segmentVariants, 0, new int[segmentVariants.size()], alternatives);
+        }
+        return alternatives.toArray(int[][]::new);
+    }
+
+    private static List<String> expandOptionalSeparator(String segment) {
+        int index = segment.indexOf(".?");
+        if (index < 0) {
+            return List.of(segment);
+        }
+        List<String> variants = new ArrayList<>();
+        for (String suffix : expandOptionalSeparator(segment.substring(index + 2))) {
+            for (String separator : SEPARATOR_VARIANTS) {
+                variants.add(segment.substring(0, index) + separator + suffix);
+            }
+        }
+        return variants;
+    }
+
+    private static void addCombinations(List<List<String>> segmentVariants, int depth, int[] current, List<int[]> out) {
+        if (depth == segmentVariants.size()) {
+            out.add(current.clone());
+            return;
+        }
+        for (String keyword : segmentVariants.get(depth)) {
+            current[depth] = KEYWORD_IDS.computeIfAbsent(keyword, ignored -> KEYWORD_IDS.size());
+            addCombinations(segmentVariants, depth + 1, current, out);
+        }
+    }
+
+    /**
+     * @param question Original question
+     * @param faqType First matching FAQ category in priority order, or NONE
+     * @param historyReference Whether the question refers back to the conversation
+     * @param tokens Lower-cased tokens of at least two characters
+     */
+    record Analysis(String question, WikiFaqType faqType, boolean historyReference, Set<String> tokens) {
+    }
+
+    private record FaqRule(WikiFaqType type, int[][] alternatives) {
+    }
+
+    private static final class Matches {
+
+        private int[] keywords = new int[8];
+        private int[] ends = new int[8];
+        private int size;
+
+        private void add(int keyword, int end) {
+            if (size == keywords.length) {
+                keywords = Arrays.copyOf(keywords, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            keywords[size] = keyword;
+            ends[size] = end;
+            size++;
+        }
+    }
+
+    /**
+     * Immutable automaton with sorted per-state transition labels and output sets merged along failure links.
+     */
+    private static final class Automaton {
+
+        private final char[][] labels;
+        private final int[][] targets;
+        private final int[] failures;
+        private final int[][] outputs;
+        private final int[] lengths;
+
+        private Automaton(char[][] labels, int[][] targets, int[] failures, int[][] outputs, int[] lengths) {
+            this.labels = labels;
+            this.targets = targets;
+            this.failures = failures;
+            this.outputs = outputs;
+            this.lengths = lengths;
+        }
+
+        private static Automaton build(List<String> keywords) {
+            List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+            List<List<Integer>> outputs = new ArrayList<>();
+            transitions.add(new TreeMap<>());
+            outputs.add(new ArrayList<>());
+
+            int[] lengths = new int[keywords.size()];
+            for (int keyword = 0; keyword < keywords.size(); keyword++) {
+                String text = keywords.get(keyword);
+                lengths[keyword] = text.length();
+                int state = 0;
+                for (int i = 0; i < text.length(); i++) {
+                    Integer next = transitions.get(state).get(text.charAt(i));
+                    if (next == null) {
+                        next = transitions.size();
+                        transitions.get(state).put(text.charAt(i), next);
+                        transitions.add(new TreeMap<>());
+                        outputs.add(new ArrayList<>());
+                    }
+                    state = next;
+                }
+                outputs.get(state).add(keyword);
+            }
+
+            int[] failures = new int[transitions.size()];
+            Queue<Integer> queue = new ArrayDeque<>(transitions.getFirst().values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int fallback = failures[state];
+                    while (fallback != 0 && !transitions.get(fallback).containsKey(edge.getKey())) {
+                        fallback = failures[fallback];
+                    }
+                    Integer target = transitions.get(fallback).get(edge.getKey());
+                    failures[child] = target != null && target != child ? target : 0;
+                    outputs.get(child).addAll(outputs.get(failures[child]));
+                    queue.add(child);
+                }
+            }
+
+            char[][] labels = new char[transitions.size()][];
+            int[][] targets = new int[transitions.size()][];
+            int[][] frozenOutputs = new int[transitions.size()][];
+            for (int state = 0; state < transitions.size(); state++) {
+                TreeMap<Character, Integer> edges = transitions.get(state);
+                labels[state] = new char[edges.size()];
+                targets[state] = new int[edges.size()];
+                int index = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    labels[state][index] = edge.getKey();
+                    targets[state][index] = edge.getValue();
+                    index++;
+                }
+                frozenOutputs[state] = outputs.get(state).stream().mapToInt(Integer::intValue).toArray();
+            }
+            return new Automaton(labels, targets, failures, frozenOutputs, lengths);
+        }
+
+        private Matches scan(String text) {
+            Matches matches = new Matches();
+            int state = 0;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                int next = next(state, c);
+                while (next < 0 && state != 0) {
+                    state = failures[state];
+                    next = next(state, c);
+                }
+                state = Math.max(next, 0);
+                for (int keyword : outputs[state]) {
+                    matches.add(keyword, i + 1);
+                }
+            }
+            return matches;
+        }
+
+        private int next(int state, char c) {
+            int index = Arrays.binarySearch(labels[state], c);
+            return index >= 0 ? targets[state][index] : -1;
+        }
+    }
+
+    private WikiQuestionIntents() {
+    }
+}
@@ -0,0 +1,181 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit engine shared by the wiki chat limiters.
+ * A policy is a list of GCRA windows, each allowing {@code limit} requests per {@code period} with a burst of
+ * up to {@code limit}. All windows of a policy are evaluated in one Lua call against Redis server time: the
+ * request is admitted only when every window admits it, and only then does each window advance, so a request
+ * rejected by one window is not charged to the others. Every key is written with an expiry equal to the time
+ * until its window has fully recovered, in the same call.
+ * A per-node token bucket with the rate of the policy's first window sits in front of Redis and rejects
+ * subjects already over that rate on this node without a round trip. Redis errors fail open to the local
+ * bucket alone.
+ */
+@Slf4j
+@Component
+public class WikiRateLimitEngine {
+
+    /**
+     * KEYS are the window keys; ARGV holds limit and period in milliseconds per window.
+     * Returns 0 when admitted, otherwise the 1-based index of the first window that rejected the request.
+     */
+    static final RedisScript<Long> GCRA_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local arrivals = {}
+            for i = 1, #KEYS do
+              local limit = tonumber(ARGV[2 * i - 1])
+              local period = tonumber(ARGV[2 * i])
+              local interval = math.ceil(period / limit)
+              local tat = tonumber(redis.call('GET', KEYS[i]) or '0') or 0
+              if tat < now then
+                tat = now
+              end
+              if tat - now > period - interval then
+                return i
+              end
+              arrivals[i] = tat + interval
+            end
+            for i = 1, #KEYS do
+              redis.call('SET', KEYS[i], tostring(arrivals[i]), 'PX', arrivals[i] - now)
+            end
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean localBucketEnabled;
+    private final Cache<String, LocalBucket> localBuckets;
+
+    public WikiRateLimitEngine(
+            RedisTemplate<String, Object> redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.rate-limit.local-bucket.enabled:true}") boolean localBucketEnabled,
+            @Value("${app.wiki.rate-limit.local-bucket.max-subjects:100000}") long maxLocalSubjects
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.localBucketEnabled = localBucketEnabled;
+        this.localBuckets = Caffeine.newBuilder()
+                .maximumSize(maxLocalSubjects)
+                .expireAfterAccess(Duration.ofDays(1))
+                .build();
+    }
+
+    /**
+     * Admits one request of the subject or rejects it with the message of the window that is exhausted.
+     *
+     * @param policy Limit policy
+     * @param subject User ID or client IP
+     * @throws WikiChatRateLimitExceededException when the local bucket or any window rejects the request
+     */
+    public void check(Policy policy, String subject) {
+        Window first = policy.windows().getFirst();
+        if (localBucketEnabled) {
+            LocalBucket bucket = localBuckets.get(policy.name() + ":" + subject, key -> new LocalBucket(first));
+            if (!bucket.tryAcquire(System.nanoTime())) {
+                count(policy, "rejected_local");
+                throw new WikiChatRateLimitExceededException(first.message());
+            }
+        }
+
+        List<String> keys = new ArrayList<>(policy.windows().size());
+        Object[] args = new Object[policy.windows().size() * 2];
+        for (int i = 0; i < policy.windows().size(); i++) {
+            Window window = policy.windows().get(i);
+            keys.add(window.keyPrefix() + subject);
+            args[2 * i] = window.limit();
+            args[2 * i + 1] = window.period().toMillis();
+        }
+
+        Long rejectedWindow;
+        try {
+            rejectedWindow = redisTemplate.execute(GCRA_SCRIPT, keys, args);
+        } catch (Exception e) {
+            log.error("wiki-rl: Redis error for policy={} subject={}, allowing request: {}",
+                    policy.name(), subject, e.getMessage());
+            count(policy, "fail_open");
+            return;
+        }
+        if (rejectedWindow == null) {
+            log.warn("wiki-rl: Redis returned null for policy={} subject={}, allowing request", policy.name(), subject);
+            count(policy, "fail_open");
+            return;
+        }
+        if (rejectedWindow > 0) {
+            count(policy, "rejected");
+            throw new WikiChatRateLimitExceededException(policy.windows().get(rejectedWindow.intValue() - 1).message());
+        }
+        count(policy, "allowed");
+    }
+
+    private void count(Policy policy, String outcome) {
+        meterRegistry.counter("wiki.rate_limit.decisions", "policy", policy.name(), "outcome", outcome).increment();
+    }
+
+    /**
+     * @param name Policy name used in local bucket keys and metric tags
+     * @param windows Windows evaluated in order; the first also sizes the local bucket
+     */
+    public record Policy(String name, List<Window> windows) {
+
+        public Policy {
+            if (windows.isEmpty()) {
+                throw new IllegalArgumentException("A rate limit policy needs at least one window");
+            }
+            windows = List.copyOf(windows);
+        }
+    }
+
+    /**
+     * @param keyPrefix Redis key prefix; the subject is appended
+     * @param limit Requests allowed per period, also the largest burst
+     * @param period Window length
+     * @param message Message of the exception thrown when this window rejects a request
+     */
+    public record Window(String keyPrefix, int limit, Duration period, String message) {
+    }
+
+    /**
+     * Token bucket holding up to {@code limit} tokens and refilling at {@code limit} per period.
+     */
+    private static final class LocalBucket {
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        private LocalBucket(Window window) {
+            this.capacity = window.limit();
+            this.tokensPerNano = window.limit() / (double) window.period().toNanos();
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens < 1.0d) {
+                return false;
+            }
+            tokens -= 1.0d;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.enums.WikiRerankMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Chooses between the lexical and LLM rerankers.
+ * In {@link WikiRerankMode#GATED} mode the lexical scores are used unless they are ambiguous:
+ * no lexical evidence at all, or a runner-up within {@code gate-margin} of the best candidate.
+ */
+@Slf4j
+@Component
+public class WikiRerankRouter {
+
+    private final WikiChunkReranker llmReranker;
+    private final WikiLexicalReranker lexicalReranker;
+    private final WikiRerankMode defaultMode;
+    private final double gateMargin;
+
+    private final Timer localLatency;
+    private final Counter localRoutes;
+    private final Counter llmRoutes;
+
+    public WikiRerankRouter(
+            WikiChunkReranker llmReranker,
+            WikiLexicalReranker lexicalReranker,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.rerank.mode:GATED}") WikiRerankMode defaultMode,
+            @Value("${app.wiki.rerank.gate-margin:0.2}") double gateMargin
+    ) {
+        this.llmReranker = llmReranker;
+        this.lexicalReranker = lexicalReranker;
+        this.defaultMode = defaultMode;
+        this.gateMargin = gateMargin;
+
+        this.localLatency = Timer.builder("wiki.rerank.local.latency")
+                .description("Lexical rerank latency")
+                .register(meterRegistry);
+        this.localRoutes = Counter.builder("wiki.rerank.route")
+                .description("Rerank requests by the reranker that produced the final scores")
+                .tag("engine", "local")
+                .register(meterRegistry);
+        this.llmRoutes = Counter.builder("wiki.rerank.route")
+                .description("Rerank requests by the reranker that produced the final scores")
+                .tag("engine", "llm")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reranks candidates with the given mode.
+     *
+     * @param question User question
+     * @param candidates Candidates in fusion order
+     * @param mode Rerank mode, or null for the configured default
+     * @return Scores by candidate index, or empty to keep fusion order
+     */
+    public List<WikiReranker.ScoredChunk> rerank(String question, List<WikiSectionChunk> candidates, WikiRerankMode mode) {
+        WikiRerankMode effectiveMode = mode != null ? mode : defaultMode;
+        if (effectiveMode == WikiRerankMode.LLM) {
+            llmRoutes.increment();
+            return llmReranker.rerank(question, candidates);
+        }
+
+        List<WikiReranker.ScoredChunk> local = localLatency.record(() -> lexicalReranker.rerank(question, candidates));
+        if (effectiveMode == WikiRerankMode.LOCAL || !isAmbiguous(local)) {
+            localRoutes.increment();
+            return local;
+        }
+
+        log.debug("wiki-rerank: lexical scores ambiguous, escalating to LLM reranker");
+        llmRoutes.increment();
+        return llmReranker.rerank(question, candidates);
+    }
+
+    private boolean isAmbiguous(List<WikiReranker.ScoredChunk> scores) {
+        if (scores.isEmpty()) {
+            return true;
+        }
+        if (scores.size() == 1) {
+            return false;
+        }
+        return scores.get(0).score() - scores.get(1).score() < gateMargin;
+    }
+}
@@ -0,0 +1,18 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+
+import java.util.List;
+
+/**
+ * Scores retrieval candidates for a question.
+ * Implementations return scores by candidate index in descending order, or an empty list
+ * when the caller should keep the incoming fusion order.
+ */
+public interface WikiReranker {
+
+    List<ScoredChunk> rerank(String question, List<WikiSectionChunk> candidates);
+
+    record ScoredChunk(int index, double score) {
+    }
+}
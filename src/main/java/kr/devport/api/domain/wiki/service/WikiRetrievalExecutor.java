@@ -0,0 +1,122 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import kr.devport.api.domain.common.logging.LoggingContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Virtual-thread executor for blocking retrieval work, with a semaphore bulkhead per lane.
+ * The DATABASE lane is sized from the Hikari pool (minus connections reserved for request threads)
+ * so parallel JDBC calls queue here instead of on the pool; the MODEL lane bounds concurrent LLM calls.
+ * Tasks that cannot get a permit within {@code max-queue-wait} fail with {@link RejectedExecutionException}.
+ */
+@Slf4j
+@Component
+public class WikiRetrievalExecutor {
+
+    public enum Lane { DATABASE, MODEL }
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Lane, Bulkhead> bulkheads = new EnumMap<>(Lane.class);
+    private final Duration maxQueueWait;
+
+    public WikiRetrievalExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int databasePoolSize,
+            @Value("${app.wiki.retrieval.executor.reserved-connections:1}") int reservedConnections,
+            @Value("${app.wiki.retrieval.executor.model-concurrency:16}") int modelConcurrency,
+            @Value("${app.wiki.retrieval.executor.max-queue-wait:500ms}") Duration maxQueueWait
+    ) {
+        this.maxQueueWait = maxQueueWait;
+        bulkheads.put(Lane.DATABASE, new Bulkhead(meterRegistry, Lane.DATABASE, Math.max(1, databasePoolSize - reservedConnections)));
+        bulkheads.put(Lane.MODEL, new Bulkhead(meterRegistry, Lane.MODEL, Math.max(1, modelConcurrency)));
+        log.info("wiki-retrieval-executor: database permits={}, model permits={}",
+                bulkheads.get(Lane.DATABASE).permits, bulkheads.get(Lane.MODEL).permits);
+    }
+
+    /**
+     * Runs blocking work on a virtual thread once a lane permit is available.
+     *
+     * @param lane Bulkhead lane
+     * @param work Blocking work
+     * @return Future completed with the result, or exceptionally with {@link RejectedExecutionException}
+     *         when no permit became available within the queue wait
+     */
+    public <T> CompletableFuture<T> submit(Lane lane, Supplier<T> work) {
+        Bulkhead bulkhead = bulkheads.get(lane);
+        long submittedAt = System.nanoTime();
+        return CompletableFuture.supplyAsync(LoggingContext.wrapSupplier(() -> {
+            bulkhead.acquire(maxQueueWait, submittedAt);
+            try {
+                return work.get();
+            } finally {
+                bulkhead.semaphore.release();
+            }
+        }), executor);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.close();
+    }
+
+    private static final class Bulkhead {
+
+        private final int permits;
+        private final Semaphore semaphore;
+        private final Timer queueTime;
+        private final Counter rejections;
+
+        private Bulkhead(MeterRegistry meterRegistry, Lane lane, int permits) {
+            String laneTag = lane.name().toLowerCase(Locale.ROOT);
+            this.permits = permits;
+            this.semaphore = new Semaphore(permits, true);
+            this.queueTime = Timer.builder("wiki.retrieval.executor.queue")
+                    .description("Time retrieval tasks waited for a bulkhead permit")
+                    .tag("lane", laneTag)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.rejections = Counter.builder("wiki.retrieval.executor.rejected")
+                    .description("Retrieval tasks rejected because no permit became available in time")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            Gauge.builder("wiki.retrieval.executor.active", semaphore, s -> permits - s.availablePermits())
+                    .description("Retrieval tasks currently holding a bulkhead permit")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+        }
+
+        private void acquire(Duration maxQueueWait, long submittedAt) {
+            boolean acquired;
+            try {
+                acquired = semaphore.tryAcquire(maxQueueWait.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            queueTime.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                rejections.increment();
+                throw new RejectedExecutionException("Retrieval bulkhead saturated");
+            }
+        }
+    }
+}
@@ -1,28 +1,29 @@
 package kr.devport.api.domain.wiki.service;
 
-import com.openai.client.OpenAIClient;
-import com.openai.models.embeddings.CreateEmbeddingResponse;
-import com.openai.models.embeddings.EmbeddingCreateParams;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievalContext;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievedChunk;
 import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import kr.devport.api.domain.wiki.enums.WikiRerankMode;
 import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
 import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ScoredChunkRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
-import java.util.regex.Pattern;
 
 /**
  * Wiki chat retrieval service using hybrid retrieval over wiki_section_chunks.
@@ -44,92 +45,101 @@ public class WikiRetrievalService {
     private static final double DIVERSITY_BONUS = 0.35d;
     private static final double SUMMARY_FAQ_BONUS = 0.5d;
     private static final int RRF_K = 60;
-    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^a-z0-9가-힣]+");
-
-    private static final Pattern FAQ_PROBLEM = Pattern.compile(
-            "문제.*해결|해결.*문제|왜 만들|어떤.*목적|what.*problem|solve|why.*built",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern FAQ_ARCH = Pattern.compile(
-            "아키텍처|구조|설계|architecture|design|어떻게.*동작|동작.*원리|how.*work|내부.*구조",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern FAQ_START = Pattern.compile(
-            "시작하려면|어떻게.*시작|설치|install|setup|getting.?started|사용.*방법|how.*use|how.*start",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern FAQ_CHANGES = Pattern.compile(
-            "최근.*변경|변경.*사항|changelog|release|업데이트|최근.*업|새로운|recent.*change|what.*new",
-            Pattern.CASE_INSENSITIVE);
-    private static final Pattern FAQ_FEATURES = Pattern.compile(
-            "주요.*기능|기능.*무엇|특징|feature|capabilities|what.*can|뭘.*할|어떤.*기능",
-            Pattern.CASE_INSENSITIVE);
-
-    private enum FaqType { PROBLEM_SOLVED, ARCHITECTURE, GETTING_STARTED, RECENT_CHANGES, KEY_FEATURES, NONE }
 
     private final WikiSectionChunkRepository chunkRepository;
-    private final WikiChunkReranker chunkReranker;
-    private final OpenAIClient openAIClient;
+    private final WikiRerankRouter rerankRouter;
+    private final WikiQueryEmbeddingService embeddingService;
+    private final WikiChunkSnapshotCache snapshotCache;
+    private final WikiProjectVectorIndex vectorIndex;
+    private final WikiRetrievalExecutor retrievalExecutor;
+    private final WikiContextPacker contextPacker;
+
+    /**
+     * When enabled, vector and lexical candidates are fetched and RRF-fused in a single SQL statement
+     * on one connection; otherwise the two queries run in parallel and are fused in memory.
+     */
+    @Value("${app.wiki.retrieval.fused-sql-enabled:true}")
+    private boolean fusedSqlEnabled;
 
     public WikiRetrievalContext retrieveContext(String projectExternalId, String userQuestion) {
-        List<WikiSectionChunk> allChunks = chunkRepository.findByProjectExternalId(projectExternalId);
-        if (allChunks.isEmpty()) {
-            throw new IllegalArgumentException("No wiki content found for project: " + projectExternalId);
-        }
-
-        try {
-            FaqType faqType = detectFaq(userQuestion);
-            int candidateLimit = faqType != FaqType.NONE ? FAQ_CANDIDATE_LIMIT : CANDIDATE_LIMIT;
-            String vectorStr = toVectorString(embedText(userQuestion));
+        return retrieveContext(projectExternalId, WikiQuestionIntents.analyze(userQuestion), null);
+    }
 
-            List<HybridCandidate> hybridCandidates = hybridRetrieve(projectExternalId, userQuestion, vectorStr, candidateLimit);
-            if (hybridCandidates.isEmpty()) {
-                return buildWeakGroundingContext(projectExternalId, allChunks, userQuestion);
-            }
+    /**
+     * Retrieve grounded context for a question the caller already analyzed.
+     */
+    WikiRetrievalContext retrieveContext(String projectExternalId, WikiQuestionIntents.Analysis question) {
+        return retrieveContext(projectExternalId, question, null);
+    }
 
-            HybridCandidate strongestSignal = hybridCandidates.getFirst();
-            boolean weakGrounding = strongestSignal.similarityScore() < MIN_USEFUL_SIMILARITY
-                    && strongestSignal.lexicalScore() <= 0.0d;
-            if (weakGrounding) {
-                return buildWeakGroundingContext(projectExternalId, allChunks, userQuestion);
-            }
+    /**
+     * Retrieve grounded context with an explicit rerank mode (used by the RAG evaluation harness).
+     *
+     * @param projectExternalId Project identifier
+     * @param userQuestion User question
+     * @param rerankMode Rerank mode, or null for the configured default
+     * @return Retrieval context
+     */
+    public WikiRetrievalContext retrieveContext(String projectExternalId, String userQuestion, WikiRerankMode rerankMode) {
+        return retrieveContext(projectExternalId, WikiQuestionIntents.analyze(userQuestion), rerankMode);
+    }
 
-            List<ScoredChunk> selectedChunks = selectDiverseChunks(hybridCandidates, userQuestion, faqType);
-            return new WikiRetrievalContext(
-                    projectExternalId,
-                    buildGroundedContext(selectedChunks),
-                    !selectedChunks.isEmpty(),
-                    false,
-                    toRetrievedChunks(selectedChunks),
-                    List.of()
-            );
+    private WikiRetrievalContext retrieveContext(
+            String projectExternalId,
+            WikiQuestionIntents.Analysis question,
+            WikiRerankMode rerankMode
+    ) {
+        String userQuestion = question.question();
+        List<HybridCandidate> hybridCandidates;
+        try {
+            int candidateLimit = question.faqType() != WikiFaqType.NONE ? FAQ_CANDIDATE_LIMIT : CANDIDATE_LIMIT;
+            float[] queryEmbedding = embeddingService.embed(userQuestion);
+            hybridCandidates = hybridRetrieve(projectExternalId, userQuestion, queryEmbedding, candidateLimit, rerankMode);
         } catch (Exception e) {
             log.warn("wiki-retrieval: retrieval failed for project {}: {}", projectExternalId, e.getMessage());
-            return buildWeakGroundingContext(projectExternalId, allChunks, userQuestion);
+            return buildWeakGroundingContext(projectExternalId, question);
         }
+
+        if (hybridCandidates.isEmpty()) {
+            return buildWeakGroundingContext(projectExternalId, question);
+        }
+
+        HybridCandidate strongestSignal = hybridCandidates.getFirst();
+        boolean weakGrounding = strongestSignal.similarityScore() < MIN_USEFUL_SIMILARITY
+                && strongestSignal.lexicalScore() <= 0.0d;
+        if (weakGrounding) {
+            return buildWeakGroundingContext(projectExternalId, question);
+        }
+
+        List<ScoredChunk> selectedChunks = selectDiverseChunks(hybridCandidates, question);
+        return new WikiRetrievalContext(
+                projectExternalId,
+                buildGroundedContext(selectedChunks),
+                !selectedChunks.isEmpty(),
+                false,
+                toRetrievedChunks(selectedChunks),
+                List.of()
+        );
     }
 
     private List<HybridCandidate> hybridRetrieve(
             String projectExternalId,
             String question,
-            String queryEmbedding,
-            int vectorCandidateLimit
+            float[] queryEmbedding,
+            int vectorCandidateLimit,
+            WikiRerankMode rerankMode
     ) {
-        CompletableFuture<List<ScoredChunkRow>> vectorFuture = CompletableFuture.supplyAsync(
-                () -> chunkRepository.findSimilarChunksWithScore(projectExternalId, queryEmbedding, vectorCandidateLimit)
-        );
-        CompletableFuture<List<ScoredChunkRow>> lexicalFuture = CompletableFuture.supplyAsync(
-                () -> chunkRepository.findLexicalCandidates(projectExternalId, question, LEXICAL_CANDIDATE_LIMIT)
-        );
-
-        List<ScoredChunkRow> vectorCandidates = vectorFuture.join();
-        List<ScoredChunkRow> lexicalCandidates = lexicalFuture.join();
-
-        Map<String, HybridAccumulator> fused = new LinkedHashMap<>();
-        mergeCandidates(fused, vectorCandidates, true);
-        mergeCandidates(fused, lexicalCandidates, false);
-
-        List<HybridCandidate> fusedCandidates = fused.values().stream()
-                .map(HybridAccumulator::toCandidate)
-                .sorted(Comparator.comparingDouble(HybridCandidate::fusionScore).reversed())
-                .toList();
+        Optional<List<ScoredChunkRow>> localVectorCandidates =
+                vectorIndex.search(projectExternalId, queryEmbedding, vectorCandidateLimit);
+        List<HybridCandidate> fusedCandidates;
+        if (localVectorCandidates.isPresent()) {
+            fusedCandidates = fuseInMemory(projectExternalId, question, localVectorCandidates::get);
+        } else if (fusedSqlEnabled) {
+            fusedCandidates = fuseInDatabase(projectExternalId, question, queryEmbedding, vectorCandidateLimit);
+        } else {
+            fusedCandidates = fuseInMemory(projectExternalId, question, () -> chunkRepository
+                    .findSimilarChunksWithScore(projectExternalId, queryEmbedding, vectorCandidateLimit));
+        }
 
         if (fusedCandidates.isEmpty()) {
             return List.of();
@@ -141,15 +151,16 @@ public class WikiRetrievalService {
         if (shouldSkipRerank(rerankInput)) {
             return rerankInput;
         }
-        List<WikiChunkReranker.ScoredChunk> reranked = safeRerank(question, rerankInput);
+        List<WikiReranker.ScoredChunk> reranked = safeRerank(question, rerankInput, rerankMode);
         if (reranked.isEmpty()) {
+            log.debug("wiki-retrieval: no rerank scores for project {}, keeping fusion order", projectExternalId);
             return rerankInput;
         }
 
         Map<Integer, Double> rerankScores = reranked.stream()
                 .collect(java.util.stream.Collectors.toMap(
-                        WikiChunkReranker.ScoredChunk::index,
-                        WikiChunkReranker.ScoredChunk::score,
+                        WikiReranker.ScoredChunk::index,
+                        WikiReranker.ScoredChunk::score,
                         Math::max
                 ));
 
@@ -161,6 +172,60 @@ public class WikiRetrievalService {
                 .toList();
     }
 
+    private List<HybridCandidate> fuseInDatabase(
+            String projectExternalId,
+            String question,
+            float[] queryEmbedding,
+            int vectorCandidateLimit
+    ) {
+        try {
+            return chunkRepository.findHybridCandidatesFused(
+                            projectExternalId,
+                            queryEmbedding,
+                            question,
+                            vectorCandidateLimit,
+                            LEXICAL_CANDIDATE_LIMIT,
+                            RRF_K
+                    ).stream()
+                    .map(row -> new HybridCandidate(row.chunk(), row.vectorScore(), row.lexicalScore(), row.fusionScore(), null, -1))
+                    .toList();
+        } catch (Exception e) {
+            log.warn("wiki-retrieval: fused hybrid query failed for project {}, falling back to in-memory fusion: {}",
+                    projectExternalId, e.getMessage());
+            return fuseInMemory(projectExternalId, question, () -> chunkRepository
+                    .findSimilarChunksWithScore(projectExternalId, queryEmbedding, vectorCandidateLimit));
+        }
+    }
+
+    private List<HybridCandidate> fuseInMemory(
+            String projectExternalId,
+            String question,
+            Supplier<List<ScoredChunkRow>> vectorSearch
+    ) {
+        CompletableFuture<List<ScoredChunkRow>> vectorFuture =
+                retrievalExecutor.submit(WikiRetrievalExecutor.Lane.DATABASE, vectorSearch);
+        // Lexical candidates only refine the vector list, so a saturated bulkhead degrades to vector-only fusion.
+        CompletableFuture<List<ScoredChunkRow>> lexicalFuture = retrievalExecutor.submit(
+                WikiRetrievalExecutor.Lane.DATABASE,
+                () -> chunkRepository.findLexicalCandidates(projectExternalId, question, LEXICAL_CANDIDATE_LIMIT)
+        ).exceptionally(error -> {
+            log.warn("wiki-retrieval: lexical search unavailable for project {}: {}", projectExternalId, error.getMessage());
+            return List.of();
+        });
+
+        List<ScoredChunkRow> vectorCandidates = vectorFuture.join();
+        List<ScoredChunkRow> lexicalCandidates = lexicalFuture.join();
+
+        Map<String, HybridAccumulator> fused = new LinkedHashMap<>();
+        mergeCandidates(fused, vectorCandidates, true);
+        mergeCandidates(fused, lexicalCandidates, false);
+
+        return fused.values().stream()
+                .map(HybridAccumulator::toCandidate)
+                .sorted(Comparator.comparingDouble(HybridCandidate::fusionScore).reversed())
+                .toList();
+    }
+
     private boolean shouldSkipRerank(List<HybridCandidate> candidates) {
         if (candidates.size() <= 1) {
             return true;
@@ -175,11 +240,16 @@ public class WikiRetrievalService {
         return strongTopMatch && clearVectorGap && lexicalDoesNotDisagree;
     }
 
-    private List<WikiChunkReranker.ScoredChunk> safeRerank(String question, List<HybridCandidate> candidates) {
+    private List<WikiReranker.ScoredChunk> safeRerank(
+            String question,
+            List<HybridCandidate> candidates,
+            WikiRerankMode rerankMode
+    ) {
         try {
-            return chunkReranker.rerank(
+            return rerankRouter.rerank(
                     question,
-                    candidates.stream().map(HybridCandidate::chunk).toList()
+                    candidates.stream().map(HybridCandidate::chunk).toList(),
+                    rerankMode
             );
         } catch (Exception e) {
             log.warn("wiki-retrieval: reranker failed, falling back to fused order: {}", e.getMessage());
@@ -192,11 +262,17 @@ public class WikiRetrievalService {
             List<ScoredChunkRow> candidates,
             boolean vector
     ) {
-        for (int i = 0; i < candidates.size(); i++) {
-            ScoredChunkRow row = candidates.get(i);
+        // Only the best-ranked row per key counts and ranks are taken after that dedupe, as in HYBRID_FUSED_SQL.
+        Set<String> seen = new HashSet<>();
+        int rank = 0;
+        for (ScoredChunkRow row : candidates) {
             String key = candidateKey(row.chunk());
+            if (!seen.add(key)) {
+                continue;
+            }
+            rank++;
             HybridAccumulator accumulator = fused.computeIfAbsent(key, ignored -> new HybridAccumulator(row.chunk()));
-            double rankContribution = 1.0d / (RRF_K + i + 1);
+            double rankContribution = 1.0d / (RRF_K + rank);
             if (vector) {
                 accumulator.setVectorScore(row.score());
                 accumulator.addFusionScore(rankContribution);
@@ -207,31 +283,32 @@ public class WikiRetrievalService {
         }
     }
 
-    private WikiRetrievalContext buildWeakGroundingContext(
-            String projectExternalId,
-            List<WikiSectionChunk> allChunks,
-            String userQuestion
-    ) {
-        List<ScoredChunk> fallbackChunks = selectFallbackChunks(allChunks, userQuestion);
+    private WikiRetrievalContext buildWeakGroundingContext(String projectExternalId, WikiQuestionIntents.Analysis question) {
+        WikiChunkSnapshot snapshot = snapshotCache.get(projectExternalId);
+        if (snapshot.isEmpty()) {
+            throw new IllegalArgumentException("No wiki content found for project: " + projectExternalId);
+        }
+
+        List<ScoredChunk> fallbackChunks = selectFallbackChunks(snapshot, question.tokens());
         return new WikiRetrievalContext(
                 projectExternalId,
                 buildGroundedContext(fallbackChunks),
                 !fallbackChunks.isEmpty(),
                 true,
                 toRetrievedChunks(fallbackChunks),
-                suggestNextQuestions(userQuestion, fallbackChunks)
+                suggestNextQuestions(fallbackChunks)
         );
     }
 
     private List<ScoredChunk> selectDiverseChunks(
             List<HybridCandidate> candidates,
-            String userQuestion,
-            FaqType faqType
+            WikiQuestionIntents.Analysis question
     ) {
+        Set<String> questionTokens = question.tokens();
         List<ScoredChunk> scoredCandidates = candidates.stream()
                 .map(candidate -> {
-                    double headingScore = computeHeadingScore(candidate.chunk(), userQuestion);
-                    double faqBonus = faqChunkBonus(faqType, candidate.chunk());
+                    double headingScore = computeHeadingScore(questionTokens, WikiChunkTexts.headingTokens(candidate.chunk()));
+                    double faqBonus = faqChunkBonus(question.faqType(), candidate.chunk());
                     double baseScore = candidate.effectiveRankingScore();
                     return new ScoredChunk(
                             candidate.chunk(),
@@ -246,16 +323,12 @@ public class WikiRetrievalService {
         return greedySelect(scoredCandidates);
     }
 
-    private List<ScoredChunk> selectFallbackChunks(List<WikiSectionChunk> allChunks, String userQuestion) {
-        List<ScoredChunk> scored = allChunks.stream()
-                .sorted(Comparator
-                        .comparingInt((WikiSectionChunk chunk) -> fallbackChunkPriority(chunk.getChunkType()))
-                        .thenComparing(WikiSectionChunk::getSectionId)
-                        .thenComparing(chunk -> chunk.getSubsectionId() == null ? "" : chunk.getSubsectionId()))
-                .map(chunk -> new ScoredChunk(
-                        chunk,
+    private List<ScoredChunk> selectFallbackChunks(WikiChunkSnapshot snapshot, Set<String> questionTokens) {
+        List<ScoredChunk> scored = snapshot.entries().stream()
+                .map(entry -> new ScoredChunk(
+                        entry.chunk(),
                         0.35d,
-                        computeHeadingScore(chunk, userQuestion),
+                        computeHeadingScore(questionTokens, entry.headingTokens()),
                         null,
                         0.35d
                 ))
@@ -289,24 +362,12 @@ public class WikiRetrievalService {
         return candidate.qualityScore() + diversityBonus;
     }
 
-    private int fallbackChunkPriority(String chunkType) {
-        if ("summary".equals(chunkType)) {
-            return 0;
-        }
-        if ("overview".equals(chunkType)) {
-            return 1;
-        }
-        return 2;
-    }
-
     private String buildGroundedContext(List<ScoredChunk> chunks) {
-        StringBuilder context = new StringBuilder();
-        context.append("# Repository Context\n\n");
-        for (ScoredChunk chunk : chunks) {
-            context.append("## ").append(resolveHeading(chunk.chunk())).append("\n\n");
-            context.append(chunk.chunk().getContent()).append("\n\n");
-        }
-        return truncateToTokenLimit(context.toString(), MAX_CONTEXT_TOKENS);
+        List<WikiContextPacker.Block> blocks = chunks.stream()
+                .map(chunk -> WikiContextPacker.Block.of(
+                        "## " + WikiChunkTexts.resolveHeading(chunk.chunk()) + "\n\n" + chunk.chunk().getContent() + "\n\n"))
+                .toList();
+        return contextPacker.pack("# Repository Context\n\n", blocks, MAX_CONTEXT_TOKENS);
     }
 
     private List<WikiRetrievedChunk> toRetrievedChunks(List<ScoredChunk> chunks) {
@@ -315,7 +376,7 @@ public class WikiRetrievalService {
                         chunk.chunk().getSectionId(),
                         chunk.chunk().getSubsectionId(),
                         chunk.chunk().getChunkType(),
-                        resolveHeading(chunk.chunk()),
+                        WikiChunkTexts.resolveHeading(chunk.chunk()),
                         chunk.chunk().getContent(),
                         chunk.similarityScore(),
                         chunk.headingScore(),
@@ -325,20 +386,6 @@ public class WikiRetrievalService {
                 .toList();
     }
 
-    private String resolveHeading(WikiSectionChunk chunk) {
-        Map<String, Object> metadata = chunk.getMetadata();
-        if (metadata != null) {
-            Object titleKo = metadata.get("titleKo");
-            if (titleKo != null && !String.valueOf(titleKo).isBlank()) {
-                return String.valueOf(titleKo);
-            }
-        }
-        if (chunk.getSubsectionId() != null && !chunk.getSubsectionId().isBlank()) {
-            return chunk.getSectionId() + " > " + chunk.getSubsectionId();
-        }
-        return chunk.getSectionId();
-    }
-
     private String resolveSourcePathHint(WikiSectionChunk chunk) {
         Map<String, Object> metadata = chunk.getMetadata();
         if (metadata == null) {
@@ -351,13 +398,11 @@ public class WikiRetrievalService {
         return null;
     }
 
-    private double computeHeadingScore(WikiSectionChunk chunk, String userQuestion) {
-        Set<String> questionTokens = tokenize(userQuestion);
+    private double computeHeadingScore(Set<String> questionTokens, Set<String> headingTokens) {
         if (questionTokens.isEmpty()) {
             return 0.0d;
         }
 
-        Set<String> headingTokens = tokenize(resolveHeading(chunk) + " " + chunk.getSectionId());
         long overlap = questionTokens.stream()
                 .filter(questionToken -> headingTokens.stream().anyMatch(headingToken -> matchesToken(questionToken, headingToken)))
                 .count();
@@ -365,36 +410,21 @@ public class WikiRetrievalService {
         return overlap / (double) questionTokens.size();
     }
 
-    private Set<String> tokenize(String text) {
-        return TOKEN_SPLIT.splitAsStream(text.toLowerCase(Locale.ROOT))
-                .filter(token -> token.length() >= 2)
-                .collect(LinkedHashSet::new, Set::add, Set::addAll);
-    }
-
     private boolean matchesToken(String left, String right) {
         return left.equals(right) || left.startsWith(right) || right.startsWith(left);
     }
 
-    private FaqType detectFaq(String question) {
-        if (FAQ_PROBLEM.matcher(question).find()) return FaqType.PROBLEM_SOLVED;
-        if (FAQ_ARCH.matcher(question).find()) return FaqType.ARCHITECTURE;
-        if (FAQ_START.matcher(question).find()) return FaqType.GETTING_STARTED;
-        if (FAQ_CHANGES.matcher(question).find()) return FaqType.RECENT_CHANGES;
-        if (FAQ_FEATURES.matcher(question).find()) return FaqType.KEY_FEATURES;
-        return FaqType.NONE;
-    }
-
-    private double faqChunkBonus(FaqType faqType, WikiSectionChunk chunk) {
+    private double faqChunkBonus(WikiFaqType faqType, WikiSectionChunk chunk) {
         return switch (faqType) {
             case PROBLEM_SOLVED, KEY_FEATURES -> "summary".equals(chunk.getChunkType()) ? SUMMARY_FAQ_BONUS : 0.0d;
             default -> 0.0d;
         };
     }
 
-    private List<String> suggestNextQuestions(String userQuestion, List<ScoredChunk> chunks) {
+    private List<String> suggestNextQuestions(List<ScoredChunk> chunks) {
         LinkedHashSet<String> suggestions = new LinkedHashSet<>();
         for (ScoredChunk chunk : chunks) {
-            suggestions.add(resolveHeading(chunk.chunk()) + " 기준으로 설명해줘");
+            suggestions.add(WikiChunkTexts.resolveHeading(chunk.chunk()) + " 기준으로 설명해줘");
             if (suggestions.size() == 3) {
                 break;
             }
@@ -423,38 +453,6 @@ public class WikiRetrievalService {
         return chunk.getProjectExternalId() + "|" + chunk.getSectionId() + "|" + subsectionId + "|" + chunk.getChunkType();
     }
 
-    private float[] embedText(String text) {
-        EmbeddingCreateParams params = EmbeddingCreateParams.builder()
-                .model("text-embedding-3-small")
-                .input(text)
-                .build();
-
-        CreateEmbeddingResponse response = openAIClient.embeddings().create(params);
-        List<Float> embeddingFloats = response.data().getFirst().embedding();
-        float[] embedding = new float[embeddingFloats.size()];
-        for (int i = 0; i < embeddingFloats.size(); i++) {
-            embedding[i] = embeddingFloats.get(i);
-        }
-        return embedding;
-    }
-
-    private String toVectorString(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            if (i > 0) {
-                sb.append(",");
-            }
-            sb.append(vector[i]);
-        }
-        sb.append("]");
-        return sb.toString();
-    }
-
-    private String truncateToTokenLimit(String text, int maxTokens) {
-        int maxChars = maxTokens * 4;
-        return text.length() <= maxChars ? text : text.substring(0, maxChars) + "...";
-    }
-
     private static final class HybridAccumulator {
         private final WikiSectionChunk chunk;
         private double vectorScore;
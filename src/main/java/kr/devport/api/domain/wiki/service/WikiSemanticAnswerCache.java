@@ -0,0 +1,196 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * First-turn answer cache for project wiki chat, matched by question-embedding similarity.
+ * Entries are grouped per project and pinned to the wiki commit_sha they were answered against,
+ * so a regenerated wiki starts with an empty bucket. Only used when the session has no prior turns,
+ * because follow-up answers depend on conversation history.
+ */
+@Slf4j
+@Component
+public class WikiSemanticAnswerCache {
+
+    private final WikiQueryEmbeddingService embeddingService;
+    private final WikiChunkSnapshotCache snapshotCache;
+    private final Cache<String, ProjectAnswers> answers;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final int maxEntriesPerProject;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final DistributionSummary bestSimilarity;
+
+    public WikiSemanticAnswerCache(
+            WikiQueryEmbeddingService embeddingService,
+            WikiChunkSnapshotCache snapshotCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.answer-cache.enabled:true}") boolean enabled,
+            @Value("${app.wiki.answer-cache.similarity-threshold:0.95}") double similarityThreshold,
+            @Value("${app.wiki.answer-cache.max-entries-per-project:256}") int maxEntriesPerProject,
+            @Value("${app.wiki.answer-cache.max-projects:1000}") long maxProjects,
+            @Value("${app.wiki.answer-cache.ttl:6h}") Duration ttl
+    ) {
+        this.embeddingService = embeddingService;
+        this.snapshotCache = snapshotCache;
+        this.enabled = enabled;
+        this.similarityThreshold = similarityThreshold;
+        this.maxEntriesPerProject = maxEntriesPerProject;
+        this.answers = Caffeine.newBuilder()
+                .maximumSize(maxProjects)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        this.hits = Counter.builder("wiki.answer.cache.lookups")
+                .description("Semantic answer cache lookups by outcome")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("wiki.answer.cache.lookups")
+                .description("Semantic answer cache lookups by outcome")
+                .tag("outcome", "miss")
+                .register(meterRegistry);
+        this.bestSimilarity = DistributionSummary.builder("wiki.answer.cache.similarity")
+                .description("Best cosine similarity between a first-turn question and cached questions")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, answers, "wikiSemanticAnswers");
+    }
+
+    /**
+     * Looks up a cached answer for a first-turn question.
+     *
+     * @param projectExternalId Project identifier
+     * @param question User question
+     * @return Cached result when a semantically equivalent question was answered for the current wiki
+     */
+    public Optional<WikiChatResult> lookup(String projectExternalId, String question) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String commitSha = snapshotCache.get(projectExternalId).commitSha();
+        ProjectAnswers projectAnswers = answers.getIfPresent(projectExternalId);
+        if (commitSha == null || projectAnswers == null || !commitSha.equals(projectAnswers.commitSha())) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        float[] embedding = embedNormalized(question);
+        if (embedding == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+
+        Match match = projectAnswers.closest(embedding);
+        if (match == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        bestSimilarity.record(match.similarity());
+        if (match.similarity() < similarityThreshold) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        log.debug("wiki-answer-cache: hit project={} similarity={}", projectExternalId, match.similarity());
+        return Optional.of(match.result());
+    }
+
+    /**
+     * Stores a first-turn answer against the project's current wiki commit.
+     *
+     * @param projectExternalId Project identifier
+     * @param question User question
+     * @param result Normalized chat result
+     */
+    public void store(String projectExternalId, String question, WikiChatResult result) {
+        if (!enabled) {
+            return;
+        }
+        String commitSha = snapshotCache.get(projectExternalId).commitSha();
+        float[] embedding = embedNormalized(question);
+        if (commitSha == null || embedding == null) {
+            return;
+        }
+        answers.asMap()
+                .compute(projectExternalId, (key, current) -> current != null && commitSha.equals(current.commitSha())
+                        ? current
+                        : new ProjectAnswers(commitSha, new ArrayDeque<>()))
+                .add(new Entry(embedding, result), maxEntriesPerProject);
+    }
+
+    public void invalidate(String projectExternalId) {
+        answers.invalidate(projectExternalId);
+    }
+
+    private float[] embedNormalized(String question) {
+        try {
+            float[] embedding = embeddingService.embed(question);
+            double sumOfSquares = 0.0d;
+            for (float value : embedding) {
+                sumOfSquares += value * value;
+            }
+            if (sumOfSquares == 0.0d) {
+                return null;
+            }
+            float inverseNorm = (float) (1.0d / Math.sqrt(sumOfSquares));
+            float[] normalized = new float[embedding.length];
+            for (int i = 0; i < embedding.length; i++) {
+                normalized[i] = embedding[i] * inverseNorm;
+            }
+            return normalized;
+        } catch (RuntimeException e) {
+            log.warn("wiki-answer-cache: embedding failed, bypassing cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record ProjectAnswers(String commitSha, Deque<Entry> entries) {
+
+        private synchronized void add(Entry entry, int maxEntries) {
+            entries.addFirst(entry);
+            while (entries.size() > maxEntries) {
+                entries.removeLast();
+            }
+        }
+
+        private synchronized Match closest(float[] embedding) {
+            Match best = null;
+            for (Entry entry : entries) {
+                if (entry.embedding().length != embedding.length) {
+                    continue;
+                }
+                double similarity = 0.0d;
+                for (int i = 0; i < embedding.length; i++) {
+                    similarity += entry.embedding()[i] * embedding[i];
+                }
+                if (best == null || similarity > best.similarity()) {
+                    best = new Match(similarity, entry.result());
+                }
+            }
+            return best;
+        }
+    }
+
+    private record Entry(float[] embedding, WikiChatResult result) {
+    }
+
+    private record Match(double similarity, WikiChatResult result) {
+    }
+}
@@ -34,6 +34,7 @@ public class WikiService {
 
     private final ProjectRepository projectRepository;
     private final WikiSectionChunkRepository wikiSectionChunkRepository;
+    private final WikiChunkSnapshotCache chunkSnapshotCache;
 
     @Cacheable(cacheNames = CacheNames.WIKI_PROJECTS)
     public WikiProjectListResponse getProjects() {
@@ -75,10 +76,11 @@ public class WikiService {
         Project project = projectRepository.findByExternalId(projectExternalId)
                 .orElseThrow(() -> new IllegalArgumentException("Project not found: " + projectExternalId));
 
-        List<WikiSectionChunk> chunks = wikiSectionChunkRepository.findByProjectExternalId(projectExternalId);
-        if (chunks.isEmpty()) {
+        WikiChunkSnapshot snapshot = chunkSnapshotCache.get(projectExternalId);
+        if (snapshot.isEmpty()) {
             throw new IllegalArgumentException("No wiki content found for project: " + projectExternalId);
         }
+        List<WikiSectionChunk> chunks = snapshot.chunks();
 
         Map<String, List<WikiSectionChunk>> bySectionId = chunks.stream()
                 .collect(Collectors.groupingBy(WikiSectionChunk::getSectionId));
@@ -87,11 +89,7 @@ public class WikiService {
                 .sorted(Comparator.comparingInt(this::extractTrailingNumber))
                 .collect(Collectors.toList());
 
-        OffsetDateTime generatedAt = chunks.stream()
-                .map(WikiSectionChunk::getUpdatedAt)
-                .filter(t -> t != null)
-                .max(Comparator.naturalOrder())
-                .orElse(null);
+        OffsetDateTime generatedAt = snapshot.generatedAt();
 
         List<WikiProjectPageResponse.WikiSection> sections = sortedSectionIds.stream()
                 .map(sectionId -> buildSection(sectionId, bySectionId.get(sectionId)))
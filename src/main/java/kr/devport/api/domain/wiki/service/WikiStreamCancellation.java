@@ -0,0 +1,79 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.exception.WikiStreamCancelledException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cancellation token for one streamed chat answer.
+ * The controller cancels it from the SSE emitter's completion, error and timeout callbacks; the service binds
+ * the upstream model stream to it so cancelling closes the HTTP response and stops generation, and checks it
+ * between chunks so a cancelled answer is never persisted.
+ */
+@Slf4j
+public final class WikiStreamCancellation {
+
+    private volatile boolean cancelled;
+    private AutoCloseable upstream;
+
+    /**
+     * Marks the stream cancelled and closes the bound upstream, if any. Safe to call from any thread, repeatedly.
+     */
+    public void cancel() {
+        AutoCloseable toClose;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            toClose = upstream;
+            upstream = null;
+        }
+        closeQuietly(toClose);
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws WikiStreamCancelledException if the stream was cancelled
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new WikiStreamCancelledException("Chat stream was cancelled by the client");
+        }
+    }
+
+    /**
+     * Binds the upstream stream so {@link #cancel()} closes it; closes it at once if already cancelled.
+     *
+     * @param stream Upstream model stream
+     */
+    void bind(AutoCloseable stream) {
+        synchronized (this) {
+            if (!cancelled) {
+                upstream = stream;
+                return;
+            }
+        }
+        closeQuietly(stream);
+    }
+
+    /**
+     * Releases the upstream after the stream finished; the caller closes it itself.
+     */
+    synchronized void unbind() {
+        upstream = null;
+    }
+
+    private static void closeQuietly(AutoCloseable stream) {
+        if (stream == null) {
+            return;
+        }
+        try {
+            stream.close();
+        } catch (Exception e) {
+            log.debug("wiki-stream: closing cancelled upstream failed: {}", e.getMessage());
+        }
+    }
+}
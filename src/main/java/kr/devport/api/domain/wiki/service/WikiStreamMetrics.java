@@ -0,0 +1,60 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.openai.models.completions.CompletionUsage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records completion sizes of streamed answers and what client-side cancellation saved.
+ * Tokens saved are estimated as the mean completion size of finished streams on the same endpoint minus
+ * the tokens already generated when the client went away.
+ */
+@Component
+public class WikiStreamMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final WikiTokenCounter tokenCounter;
+
+    public WikiStreamMetrics(MeterRegistry meterRegistry, WikiTokenCounter tokenCounter) {
+        this.meterRegistry = meterRegistry;
+        this.tokenCounter = tokenCounter;
+    }
+
+    /**
+     * @param endpoint Logical stream name used as the metric tag (e.g. project_stream, global_stream)
+     * @param answer Full streamed answer
+     * @param usage Provider usage from the final chunk, or null when the stream did not report it
+     */
+    public void recordCompleted(String endpoint, String answer, CompletionUsage usage) {
+        long completionTokens = usage != null ? usage.completionTokens() : tokenCounter.count(answer);
+        completionTokens(endpoint).record(completionTokens);
+    }
+
+    /**
+     * @param endpoint Logical stream name used as the metric tag
+     * @param partialAnswer Answer text generated before cancellation
+     */
+    public void recordCancelled(String endpoint, String partialAnswer) {
+        Counter.builder("wiki.chat.stream.cancelled")
+                .description("Streamed answers cancelled because the client disconnected")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment();
+        double expected = completionTokens(endpoint).mean();
+        double saved = Math.max(0.0d, expected - tokenCounter.count(partialAnswer));
+        Counter.builder("wiki.chat.stream.cancelled.tokens.saved")
+                .description("Estimated completion tokens not generated because a cancelled stream was closed early")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .increment(saved);
+    }
+
+    private DistributionSummary completionTokens(String endpoint) {
+        return DistributionSummary.builder("wiki.chat.stream.completion.tokens")
+                .description("Completion tokens of streamed answers that ran to the end")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
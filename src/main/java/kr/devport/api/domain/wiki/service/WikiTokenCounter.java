@@ -0,0 +1,85 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.knuddels.jtokkit.api.EncodingType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exact prompt token counting with the OpenAI BPE encoding used by the chat models.
+ * Counts for long texts (chunk bodies, previous answers) are memoized by content, since the same
+ * chunks are packed into many prompts; short texts are encoded directly.
+ */
+@Slf4j
+@Component
+public class WikiTokenCounter {
+
+    private static final int MIN_CACHED_LENGTH = 256;
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private final Encoding encoding;
+    private final Cache<String, Integer> counts;
+
+    public WikiTokenCounter(
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.tokenizer.encoding:o200k_base}") String encodingName,
+            @Value("${app.wiki.tokenizer.cache-max-chars:8000000}") long cacheMaxChars
+    ) {
+        EncodingType encodingType = EncodingType.fromName(encodingName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown tokenizer encoding: " + encodingName));
+        this.encoding = Encodings.newLazyEncodingRegistry().getEncoding(encodingType);
+        this.counts = Caffeine.newBuilder()
+                .maximumWeight(cacheMaxChars)
+                .weigher((String text, Integer count) -> text.length())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "wikiTokenCounts");
+        log.info("wiki-token-counter: encoding={}", encodingType.getName());
+    }
+
+    /**
+     * Counts the tokens the model will see for the given text.
+     *
+     * @param text Text to count, may be null
+     * @return Token count
+     */
+    public int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        if (text.length() < MIN_CACHED_LENGTH) {
+            return encoding.countTokensOrdinary(text);
+        }
+        return counts.get(text, encoding::countTokensOrdinary);
+    }
+
+    /**
+     * Cuts the text to at most {@code maxTokens} tokens, dropping a trailing partial character.
+     *
+     * @param text Text to truncate
+     * @param maxTokens Token budget
+     * @return The text itself when it fits, otherwise its longest token-aligned prefix
+     */
+    public String truncate(String text, int maxTokens) {
+        if (text == null || maxTokens <= 0) {
+            return "";
+        }
+        EncodingResult result = encoding.encodeOrdinary(text, maxTokens);
+        if (!result.isTruncated()) {
+            return text;
+        }
+        String prefix = encoding.decode(result.getTokens());
+        int end = prefix.length();
+        while (end > 0 && prefix.charAt(end - 1) == REPLACEMENT_CHARACTER) {
+            end--;
+        }
+        return prefix.substring(0, end);
+    }
+}
@@ -0,0 +1,54 @@
+package kr.devport.api.domain.wiki.service;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * Dot-product kernels over contiguous off-heap float rows.
+ * The SIMD kernel lives in the opt-in {@code vector} source set (built with {@code -PvectorApi}) and is only
+ * loaded when jdk.incubator.vector is resolved at runtime; otherwise a scalar loop is used.
+ */
+final class WikiVectorKernels {
+
+    private static final String SIMD_KERNEL = "kr.devport.api.domain.wiki.service.WikiSimdKernel";
+
+    interface Kernel {
+
+        float dot(MemorySegment rows, long rowOffsetBytes, float[] query);
+
+        String name();
+    }
+
+    static Kernel best() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (Kernel) Class.forName(SIMD_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Module resolved but the build did not include the vector source set.
+            }
+        }
+        return new ScalarKernel();
+    }
+
+    static final class ScalarKernel implements Kernel {
+
+        private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED;
+
+        @Override
+        public float dot(MemorySegment rows, long rowOffsetBytes, float[] query) {
+            float sum = 0.0f;
+            for (int i = 0; i < query.length; i++) {
+                sum += rows.get(FLOAT, rowOffsetBytes + (long) i * Float.BYTES) * query[i];
+            }
+            return sum;
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    }
+
+    private WikiVectorKernels() {
+    }
+}
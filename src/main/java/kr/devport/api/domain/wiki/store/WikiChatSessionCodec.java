@@ -0,0 +1,274 @@
+package kr.devport.api.domain.wiki.store;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatSession;
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned binary encoding for chat sessions and turns.
+ * A payload is a magic byte, a version byte and a flags byte followed by the body: length-prefixed UTF-8
+ * strings, instants as epoch seconds plus nanos and booleans as single bytes, with no class or field names.
+ * Bodies at or above the compression threshold are deflated at {@link Deflater#BEST_SPEED} when that makes
+ * them smaller, which mostly pays off on long markdown answers.
+ * Payloads without the magic byte were written by the JSON serializer; callers hand those to the JSON decoder.
+ */
+@Component
+public class WikiChatSessionCodec {
+
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte VERSION = 1;
+    private static final byte FLAG_DEFLATED = 0x01;
+    private static final int HEADER_BYTES = 3;
+    private static final int NULL_LENGTH = -1;
+    private static final int MAX_RAW_BYTES = 16 * 1024 * 1024;
+
+    private final int compressionThreshold;
+    private final DistributionSummary binaryPayloadBytes;
+    private final DistributionSummary jsonPayloadBytes;
+    private final Counter compressionSavedBytes;
+
+    public WikiChatSessionCodec(
+            MeterRegistry meterRegistry,
+            @Value("${app.wiki.session.codec.compression-threshold:1024}") int compressionThreshold
+    ) {
+        this.compressionThreshold = compressionThreshold;
+        this.binaryPayloadBytes = payloadSummary(meterRegistry, "binary");
+        this.jsonPayloadBytes = payloadSummary(meterRegistry, "json");
+        this.compressionSavedBytes = Counter.builder("wiki.session.codec.compression.saved.bytes")
+                .description("Bytes removed from chat session payloads by compression")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true when the payload was written by this codec rather than the JSON serializer
+     */
+    public boolean isEncoded(byte[] payload) {
+        return payload != null && payload.length >= HEADER_BYTES && payload[0] == MAGIC;
+    }
+
+    public byte[] encodeTurn(ChatTurn turn) {
+        return encode(out -> writeTurn(out, turn));
+    }
+
+    public ChatTurn decodeTurn(byte[] payload) {
+        return decode(payload, WikiChatSessionCodec::readTurn);
+    }
+
+    public byte[] encodeSession(ChatSession session) {
+        return encode(out -> {
+            writeString(out, session.getSessionId());
+            writeString(out, session.getProjectExternalId());
+            writeInstant(out, session.getExpiresAt());
+            out.writeInt(session.getTurns().size());
+            for (ChatTurn turn : session.getTurns()) {
+                writeTurn(out, turn);
+            }
+        });
+    }
+
+    public ChatSession decodeSession(byte[] payload) {
+        return decode(payload, in -> {
+            String sessionId = readString(in);
+            String projectExternalId = readString(in);
+            Instant expiresAt = readInstant(in);
+            int turnCount = in.readInt();
+            List<ChatTurn> turns = new ArrayList<>();
+            for (int i = 0; i < turnCount; i++) {
+                turns.add(readTurn(in));
+            }
+            return ChatSession.builder()
+                    .sessionId(sessionId)
+                    .projectExternalId(projectExternalId)
+                    .expiresAt(expiresAt)
+                    .turns(turns)
+                    .build();
+        });
+    }
+
+    /**
+     * Records the size of a payload read in the JSON format, for comparison with binary payload sizes.
+     *
+     * @param bytes Stored size of the JSON payload
+     */
+    public void recordJsonPayload(int bytes) {
+        jsonPayloadBytes.record(bytes);
+    }
+
+    private byte[] encode(BodyWriter writer) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(body)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new SerializationException("Could not encode chat session payload: " + e.getMessage(), e);
+        }
+        byte[] raw = body.toByteArray();
+        byte[] deflated = raw.length >= compressionThreshold ? deflate(raw) : null;
+        boolean compressed = deflated != null && deflated.length + Integer.BYTES < raw.length;
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(HEADER_BYTES + raw.length);
+        payload.write(MAGIC);
+        payload.write(VERSION);
+        payload.write(compressed ? FLAG_DEFLATED : 0);
+        if (compressed) {
+            payload.write(raw.length >>> 24);
+            payload.write(raw.length >>> 16);
+            payload.write(raw.length >>> 8);
+            payload.write(raw.length);
+            payload.writeBytes(deflated);
+            compressionSavedBytes.increment(raw.length - deflated.length - Integer.BYTES);
+        } else {
+            payload.writeBytes(raw);
+        }
+        byte[] encoded = payload.toByteArray();
+        binaryPayloadBytes.record(encoded.length);
+        return encoded;
+    }
+
+    private <T> T decode(byte[] payload, BodyReader<T> reader) {
+        if (!isEncoded(payload)) {
+            throw new SerializationException("Not a binary chat session payload");
+        }
+        if (payload[1] != VERSION) {
+            throw new SerializationException("Unsupported chat session payload version " + payload[1]);
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload, HEADER_BYTES, payload.length - HEADER_BYTES));
+            if ((payload[2] & FLAG_DEFLATED) != 0) {
+                int rawLength = in.readInt();
+                if (rawLength < 0 || rawLength > MAX_RAW_BYTES) {
+                    throw new IOException("Invalid uncompressed length " + rawLength);
+                }
+                in = new DataInputStream(new ByteArrayInputStream(
+                        inflate(payload, HEADER_BYTES + Integer.BYTES, rawLength)));
+            }
+            return reader.read(in);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not decode chat session payload: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] payload, int offset, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload, offset, payload.length - offset);
+            byte[] raw = new byte[rawLength];
+            int filled = 0;
+            while (filled < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, filled, rawLength - filled);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                filled += inflated;
+            }
+            if (filled != rawLength) {
+                throw new IOException("Truncated compressed body");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt compressed body", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeTurn(DataOutputStream out, ChatTurn turn) throws IOException {
+        writeString(out, turn.getQuestion());
+        writeString(out, turn.getAnswer());
+        writeInstant(out, turn.getTimestamp());
+        out.writeBoolean(turn.isWasClarification());
+    }
+
+    private static ChatTurn readTurn(DataInputStream in) throws IOException {
+        return ChatTurn.builder()
+                .question(readString(in))
+                .answer(readString(in))
+                .timestamp(readInstant(in))
+                .wasClarification(in.readBoolean())
+                .build();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Truncated string");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value.getEpochSecond());
+        out.writeInt(value.getNano());
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    private static DistributionSummary payloadSummary(MeterRegistry meterRegistry, String format) {
+        return DistributionSummary.builder("wiki.session.codec.payload.bytes")
+                .description("Stored size of chat session payloads by encoding")
+                .baseUnit("bytes")
+                .tag("format", format)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface BodyReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
@@ -1,34 +1,44 @@
 package kr.devport.api.domain.wiki.store;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import kr.devport.api.domain.wiki.enums.WikiSessionStorageMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.serializer.SerializationException;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Redis-backed session store for wiki chat turns.
  * Sessions expire via Redis TTL and remain available across restarts and nodes.
  * Keeps storage bounded by storing only recent turns per session.
+ * In {@link WikiSessionStorageMode#LIST} mode each session is a Redis list of encoded turns plus a project key;
+ * a Lua script appends, trims and refreshes the TTL in one round trip without reading the session back, and
+ * recent turns are a single LRANGE. Sessions still in the {@link WikiSessionStorageMode#BLOB} format stay
+ * readable and are moved into the list on their next turn.
+ * Sessions and turns are written with {@link WikiChatSessionCodec}; values in the older JSON formats are still
+ * decoded so existing keys keep working until they expire or are rewritten.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class WikiChatSessionStore {
 
     private static final int DEFAULT_TTL_MINUTES = 30;
@@ -44,8 +54,69 @@ public class WikiChatSessionStore {
     private static final String ANSWER_KEY = "answer";
     private static final String TIMESTAMP_KEY = "timestamp";
     private static final String WAS_CLARIFICATION_KEY = "wasClarification";
+    private static final String TURNS_KEY_SUFFIX = ":turns";
+    private static final String PROJECT_KEY_SUFFIX = ":project";
+    private static final long MIGRATION_REQUIRED = -1L;
+
+    /**
+     * KEYS: turn list, project key, legacy session blob. ARGV: project ('' for none), max turns, TTL millis,
+     * encoded turns oldest first. Returns the new list length, or -1 when the legacy blob must be migrated first.
+     * A session without a project, or whose project changed, starts over like {@code newSession} does.
+     */
+    static final RedisScript<Long> APPEND_TURNS_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[3]) == 1 then
+                return -1
+            end
+            if ARGV[1] == '' or redis.call('GET', KEYS[2]) ~= ARGV[1] then
+                redis.call('DEL', KEYS[1])
+            end
+            redis.call('RPUSH', KEYS[1], unpack(ARGV, 4))
+            redis.call('LTRIM', KEYS[1], -tonumber(ARGV[2]), -1)
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[3])
+            return redis.call('LLEN', KEYS[1])
+            """, Long.class);
+
+    /**
+     * Sole entry returned by {@link #READ_TURNS_SCRIPT} when the turns still live in the legacy blob.
+     */
+    static final byte[] LEGACY_SESSION_MARKER = "legacy".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * KEYS: turn list, project key, legacy session blob. ARGV: project ('' to skip the check), start index.
+     * Returns {@link #LEGACY_SESSION_MARKER} instead of an empty range when the legacy blob exists, so the
+     * blob is only fetched for sessions that have not been migrated yet.
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> READ_TURNS_SCRIPT = new DefaultRedisScript<>("""
+            local turns = {}
+            if ARGV[1] == '' or redis.call('GET', KEYS[2]) == ARGV[1] then
+                turns = redis.call('LRANGE', KEYS[1], tonumber(ARGV[2]), -1)
+            end
+            if #turns == 0 and redis.call('EXISTS', KEYS[3]) == 1 then
+                return {'legacy'}
+            end
+            return turns
+            """, List.class);
+
+    private static final ObjectMapper TURN_MAPPER = new ObjectMapper();
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final WikiChatSessionCodec codec;
+    private final WikiSessionStorageMode storageMode;
+
+    public WikiChatSessionStore(
+            RedisTemplate<String, Object> redisTemplate,
+            RedisTemplate<String, byte[]> binaryRedisTemplate,
+            WikiChatSessionCodec codec,
+            @Value("${app.wiki.session.storage:LIST}") WikiSessionStorageMode storageMode
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.codec = codec;
+        this.storageMode = storageMode;
+    }
 
     /**
      * Chat session with TTL expiration tracking.
@@ -92,18 +163,22 @@ public class WikiChatSessionStore {
             String answer,
             boolean wasClarification
     ) {
-        String key = KEY_PREFIX + sessionId;
-        ChatSession session = fetchSession(key);
-        if (session == null || !projectMatches(session, projectExternalId)) {
-            session = newSession(sessionId, projectExternalId);
-        }
-
         ChatTurn turn = ChatTurn.builder()
                 .question(question)
                 .answer(answer)
                 .timestamp(Instant.now())
                 .wasClarification(wasClarification)
                 .build();
+        if (storageMode == WikiSessionStorageMode.LIST) {
+            appendTurn(sessionId, projectExternalId, turn);
+            return;
+        }
+
+        String key = KEY_PREFIX + sessionId;
+        ChatSession session = fetchSession(key);
+        if (session == null || !projectMatches(session, projectExternalId)) {
+            session = newSession(sessionId, projectExternalId);
+        }
 
         session.getTurns().add(turn);
 
@@ -112,7 +187,7 @@ public class WikiChatSessionStore {
         }
 
         session.setExpiresAt(calculateExpiration());
-        redisTemplate.opsForValue().set(key, serializeSession(session), SESSION_TTL);
+        binaryRedisTemplate.opsForValue().set(key, codec.encodeSession(session), SESSION_TTL);
     }
 
     /**
@@ -131,7 +206,9 @@ public class WikiChatSessionStore {
     }
 
     public List<ChatTurn> loadRecentTurns(String sessionId, String projectExternalId) {
-        List<ChatTurn> turns = loadTurnsInternal(sessionId, projectExternalId);
+        List<ChatTurn> turns = storageMode == WikiSessionStorageMode.LIST
+                ? readTurnLog(sessionId, projectExternalId, -MAX_RECENT_TURNS)
+                : loadTurnsInternal(sessionId, projectExternalId);
         if (turns.size() <= MAX_RECENT_TURNS) {
             return turns;
         }
@@ -149,6 +226,11 @@ public class WikiChatSessionStore {
      * @return true if session is active
      */
     public boolean hasActiveSession(String sessionId) {
+        if (storageMode == WikiSessionStorageMode.LIST) {
+            Long existing = redisTemplate.countExistingKeys(
+                    List.of(KEY_PREFIX + sessionId + TURNS_KEY_SUFFIX, KEY_PREFIX + sessionId));
+            return existing != null && existing > 0;
+        }
         return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + sessionId));
     }
 
@@ -158,10 +240,25 @@ public class WikiChatSessionStore {
      * @param sessionId Session identifier
      */
     public void clearSession(String sessionId) {
+        if (storageMode == WikiSessionStorageMode.LIST) {
+            redisTemplate.delete(List.of(
+                    KEY_PREFIX + sessionId + TURNS_KEY_SUFFIX,
+                    KEY_PREFIX + sessionId + PROJECT_KEY_SUFFIX,
+                    KEY_PREFIX + sessionId
+            ));
+            return;
+        }
         redisTemplate.delete(KEY_PREFIX + sessionId);
     }
 
     private List<ChatTurn> loadTurnsInternal(String sessionId, String projectExternalId) {
+        if (storageMode == WikiSessionStorageMode.LIST) {
+            return readTurnLog(sessionId, projectExternalId, 0);
+        }
+        return loadLegacyTurns(sessionId, projectExternalId);
+    }
+
+    private List<ChatTurn> loadLegacyTurns(String sessionId, String projectExternalId) {
         Optional<ChatSession> session = getSession(sessionId);
         if (session.isEmpty()) {
             return List.of();
@@ -174,6 +271,85 @@ public class WikiChatSessionStore {
         return new ArrayList<>(session.get().getTurns());
     }
 
+    private void appendTurn(String sessionId, String projectExternalId, ChatTurn turn) {
+        Long length = runAppendScript(sessionId, projectExternalId, List.of(turn));
+        if (length == null || length != MIGRATION_REQUIRED) {
+            return;
+        }
+        // The session predates list storage: carry its turns over, then drop the blob.
+        String legacyKey = KEY_PREFIX + sessionId;
+        ChatSession legacy = fetchSession(legacyKey);
+        redisTemplate.delete(legacyKey);
+        List<ChatTurn> turns = new ArrayList<>();
+        if (legacy != null && projectMatches(legacy, projectExternalId)) {
+            turns.addAll(legacy.getTurns());
+        }
+        turns.add(turn);
+        runAppendScript(sessionId, projectExternalId, turns);
+    }
+
+    private Long runAppendScript(String sessionId, String projectExternalId, List<ChatTurn> turns) {
+        List<byte[]> args = new ArrayList<>(turns.size() + 3);
+        args.add(utf8(projectExternalId == null ? "" : projectExternalId));
+        args.add(utf8(Integer.toString(MAX_TURNS_PER_SESSION)));
+        args.add(utf8(Long.toString(SESSION_TTL.toMillis())));
+        for (ChatTurn turn : turns) {
+            args.add(codec.encodeTurn(turn));
+        }
+        return binaryRedisTemplate.execute(
+                APPEND_TURNS_SCRIPT,
+                List.of(KEY_PREFIX + sessionId + TURNS_KEY_SUFFIX, KEY_PREFIX + sessionId + PROJECT_KEY_SUFFIX, KEY_PREFIX + sessionId),
+                args.toArray()
+        );
+    }
+
+    /**
+     * Reads turns from the list, from {@code start} (negative counts back from the newest) to the end.
+     * Falls back to the legacy blob only when the script reports one for a session not migrated yet.
+     */
+    private List<ChatTurn> readTurnLog(String sessionId, String projectExternalId, int start) {
+        List<?> entries = binaryRedisTemplate.execute(
+                READ_TURNS_SCRIPT,
+                List.of(KEY_PREFIX + sessionId + TURNS_KEY_SUFFIX, KEY_PREFIX + sessionId + PROJECT_KEY_SUFFIX, KEY_PREFIX + sessionId),
+                utf8(projectExternalId == null ? "" : projectExternalId),
+                utf8(Integer.toString(start))
+        );
+        if (entries == null || entries.isEmpty()) {
+            return List.of();
+        }
+        if (entries.size() == 1 && entries.getFirst() instanceof byte[] marker && Arrays.equals(marker, LEGACY_SESSION_MARKER)) {
+            return loadLegacyTurns(sessionId, projectExternalId);
+        }
+        List<ChatTurn> turns = new ArrayList<>(entries.size());
+        for (Object entry : entries) {
+            ChatTurn turn = entry instanceof byte[] bytes ? decodeTurn(bytes) : null;
+            if (turn != null) {
+                turns.add(turn);
+            }
+        }
+        return turns;
+    }
+
+    /**
+     * Decodes a list entry; entries appended before the binary codec are plain JSON objects.
+     */
+    private ChatTurn decodeTurn(byte[] bytes) {
+        try {
+            if (codec.isEncoded(bytes)) {
+                return codec.decodeTurn(bytes);
+            }
+            codec.recordJsonPayload(bytes.length);
+            return deserializeTurn(TURN_MAPPER.readValue(bytes, Map.class));
+        } catch (IOException | SerializationException e) {
+            log.warn("wiki-session: skipping unreadable turn entry: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
     private ChatSession newSession(String sessionId, String projectExternalId) {
         return ChatSession.builder()
                 .sessionId(sessionId)
@@ -189,9 +365,27 @@ public class WikiChatSessionStore {
 
     /**
      * Load a session from Redis, returning null if missing or deserialized to an unexpected type.
+     * Values that are not binary-encoded are re-read through the JSON serializer.
      * SerializationException is treated as a cache miss (stale data from a prior deployment).
      */
     private ChatSession fetchSession(String key) {
+        byte[] payload = binaryRedisTemplate.opsForValue().get(key);
+        if (payload == null || payload.length == 0) {
+            return null;
+        }
+        if (codec.isEncoded(payload)) {
+            try {
+                return codec.decodeSession(payload);
+            } catch (SerializationException ex) {
+                log.warn("wiki-session: decoding failed for key={}, treating as cache miss: {}", key, ex.getMessage());
+                return null;
+            }
+        }
+        codec.recordJsonPayload(payload.length);
+        return fetchJsonSession(key);
+    }
+
+    private ChatSession fetchJsonSession(String key) {
         Object raw;
         try {
             raw = redisTemplate.opsForValue().get(key);
@@ -215,28 +409,6 @@ public class WikiChatSessionStore {
         return Instant.now().plus(DEFAULT_TTL_MINUTES, ChronoUnit.MINUTES);
     }
 
-    private Map<String, Object> serializeSession(ChatSession session) {
-        List<Map<String, Object>> serializedTurns = session.getTurns().stream()
-                .map(this::serializeTurn)
-                .collect(Collectors.toCollection(ArrayList::new));
-
-        Map<String, Object> payload = new HashMap<>();
-        payload.put(SESSION_ID_KEY, session.getSessionId());
-        payload.put(PROJECT_EXTERNAL_ID_KEY, session.getProjectExternalId());
-        payload.put(EXPIRES_AT_KEY, session.getExpiresAt().toString());
-        payload.put(TURNS_KEY, serializedTurns);
-        return payload;
-    }
-
-    private Map<String, Object> serializeTurn(ChatTurn turn) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put(QUESTION_KEY, turn.getQuestion());
-        payload.put(ANSWER_KEY, turn.getAnswer());
-        payload.put(TIMESTAMP_KEY, turn.getTimestamp().toString());
-        payload.put(WAS_CLARIFICATION_KEY, turn.isWasClarification());
-        return payload;
-    }
-
     private ChatSession deserializeSession(Map<?, ?> payload) {
         Object sessionIdValue = payload.get(SESSION_ID_KEY);
         Object expiresAtValue = payload.get(EXPIRES_AT_KEY);
@@ -313,7 +485,8 @@ public class WikiChatSessionStore {
      * Uses Redis KEYS and should not be treated as a hot-path operation.
      */
     public int getActiveSessionCount() {
-        Set<String> keys = redisTemplate.keys(KEY_PREFIX + "*");
+        String pattern = storageMode == WikiSessionStorageMode.LIST ? KEY_PREFIX + "*" + TURNS_KEY_SUFFIX : KEY_PREFIX + "*";
+        Set<String> keys = redisTemplate.keys(pattern);
         return keys == null ? 0 : keys.size();
     }
 }
@@ -0,0 +1,126 @@
+package kr.devport.api.domain.wiki.store;
+
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Redis-backed store of precomputed FAQ answers, one hash per project with a field per FAQ type.
+ * Every answer is tagged with the wiki commit_sha it was generated against; readers compare it with
+ * the current snapshot, so answers for a regenerated wiki are never served.
+ */
+@Slf4j
+@Component
+public class WikiFaqAnswerStore {
+
+    private static final String KEY_PREFIX = "wiki:faq:";
+    private static final String COMMIT_SHA_KEY = "commitSha";
+    private static final String ANSWER_KEY = "answer";
+    private static final String SUGGESTED_NEXT_QUESTIONS_KEY = "suggestedNextQuestions";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration ttl;
+
+    public WikiFaqAnswerStore(
+            RedisTemplate<String, Object> redisTemplate,
+            @Value("${app.wiki.faq.ttl:14d}") Duration ttl
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Loads the precomputed answer for a FAQ type if it was generated against the given commit.
+     *
+     * @param projectExternalId Project identifier
+     * @param faqType FAQ category
+     * @param commitSha Current wiki commit
+     * @return Stored answer, empty when missing, unreadable, or generated for another commit
+     */
+    public Optional<WikiChatResult> find(String projectExternalId, WikiFaqType faqType, String commitSha) {
+        Object raw;
+        try {
+            raw = redisTemplate.opsForHash().get(KEY_PREFIX + projectExternalId, faqType.name());
+        } catch (SerializationException ex) {
+            log.warn("wiki-faq: deserialization failed for project={} type={}, treating as miss: {}",
+                    projectExternalId, faqType, ex.getMessage());
+            return Optional.empty();
+        }
+        if (!(raw instanceof Map<?, ?> payload) || !commitSha.equals(payload.get(COMMIT_SHA_KEY))) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(deserializeAnswer(payload));
+    }
+
+    /**
+     * Returns whether every FAQ type already has an answer for the given commit.
+     *
+     * @param projectExternalId Project identifier
+     * @param commitSha Current wiki commit
+     * @return true when nothing is left to precompute
+     */
+    public boolean isComplete(String projectExternalId, String commitSha) {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(KEY_PREFIX + projectExternalId);
+        for (WikiFaqType faqType : WikiFaqType.values()) {
+            if (faqType == WikiFaqType.NONE) {
+                continue;
+            }
+            if (!(entries.get(faqType.name()) instanceof Map<?, ?> payload) || !commitSha.equals(payload.get(COMMIT_SHA_KEY))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores an answer and refreshes the project key TTL.
+     *
+     * @param projectExternalId Project identifier
+     * @param faqType FAQ category
+     * @param commitSha Wiki commit the answer was generated against
+     * @param result Normalized chat result
+     */
+    public void save(String projectExternalId, WikiFaqType faqType, String commitSha, WikiChatResult result) {
+        String key = KEY_PREFIX + projectExternalId;
+        redisTemplate.opsForHash().put(key, faqType.name(), serializeAnswer(commitSha, result));
+        redisTemplate.expire(key, ttl);
+    }
+
+    public void clear(String projectExternalId) {
+        redisTemplate.delete(KEY_PREFIX + projectExternalId);
+    }
+
+    private Map<String, Object> serializeAnswer(String commitSha, WikiChatResult result) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put(COMMIT_SHA_KEY, commitSha);
+        payload.put(ANSWER_KEY, result.answer());
+        payload.put(SUGGESTED_NEXT_QUESTIONS_KEY, new ArrayList<>(result.suggestedNextQuestions()));
+        return payload;
+    }
+
+    private WikiChatResult deserializeAnswer(Map<?, ?> payload) {
+        if (!(payload.get(ANSWER_KEY) instanceof String answer) || answer.isBlank()) {
+            return null;
+        }
+        List<String> suggestedNextQuestions = new ArrayList<>();
+        if (payload.get(SUGGESTED_NEXT_QUESTIONS_KEY) instanceof List<?> values) {
+            for (Object value : values) {
+                if (value instanceof String question) {
+                    suggestedNextQuestions.add(question);
+                }
+            }
+        }
+        return new WikiChatResult(answer, false, List.of(), List.copyOf(suggestedNextQuestions), false, false);
+    }
+}
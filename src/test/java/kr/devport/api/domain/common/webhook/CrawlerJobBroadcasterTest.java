@@ -0,0 +1,100 @@
+package kr.devport.api.domain.common.webhook;
+
+import kr.devport.api.domain.common.cache.CacheScope;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CrawlerJobBroadcasterTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RedisSerializer<Object> valueSerializer;
+
+    private CrawlerJobBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new CrawlerJobBroadcaster(redisTemplate, listenerContainer, eventPublisher, true);
+    }
+
+    @Test
+    @DisplayName("a locally received job is published to the other nodes and a remote copy is not sent again")
+    void onCrawlerJobCompleted_publishesLocalEventsOnly() {
+        verify(listenerContainer).addMessageListener(broadcaster, new ChannelTopic(CrawlerJobBroadcaster.CHANNEL));
+
+        broadcaster.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-1", CacheScope.GIT_REPO, Set.of("github:a")));
+        broadcaster.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-2", CacheScope.GIT_REPO, Set.of("github:b"), true));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+        verify(redisTemplate).convertAndSend(eq(CrawlerJobBroadcaster.CHANNEL), payload.capture());
+        assertThat(payload.getValue())
+                .containsEntry("jobId", "job-1")
+                .containsEntry("scope", "GIT_REPO")
+                .containsEntry("projectExternalIds", List.of("github:a"));
+    }
+
+    @Test
+    @DisplayName("a message from another node is republished as a remote event; the node's own messages are ignored")
+    void onMessage_republishesMessagesFromOtherNodes() {
+        broadcaster.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-1", CacheScope.GIT_REPO, Set.of("github:a")));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> own = ArgumentCaptor.forClass(Map.class);
+        verify(redisTemplate).convertAndSend(eq(CrawlerJobBroadcaster.CHANNEL), own.capture());
+        doReturn(valueSerializer).when(redisTemplate).getValueSerializer();
+        when(valueSerializer.deserialize(any()))
+                .thenReturn(own.getValue())
+                .thenReturn(Map.of(
+                        "nodeId", "other-node",
+                        "jobId", "job-2",
+                        "scope", "GIT_REPO",
+                        "projectExternalIds", List.of("github:b")
+                ));
+
+        broadcaster.onMessage(message(), null);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        broadcaster.onMessage(message(), null);
+
+        verify(eventPublisher).publishEvent(
+                new CrawlerJobCompletedEvent("job-2", CacheScope.GIT_REPO, Set.of("github:b"), true));
+    }
+
+    private static DefaultMessage message() {
+        return new DefaultMessage(
+                CrawlerJobBroadcaster.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
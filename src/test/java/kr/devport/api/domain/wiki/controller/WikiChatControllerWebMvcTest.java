@@ -1,6 +1,7 @@
 package kr.devport.api.domain.wiki.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import kr.devport.api.domain.common.security.CustomUserDetails;
 import kr.devport.api.domain.wiki.dto.request.WikiChatRequest;
 import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
@@ -25,6 +26,7 @@ import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Consumer;
 import kr.devport.api.domain.common.exception.GlobalExceptionHandler;
@@ -48,6 +50,9 @@ class WikiChatControllerWebMvcTest {
     @Mock
     private WikiChatApplicationService chatApplicationService;
 
+    private final WikiSseTokenCoalescer tokenCoalescer =
+            new WikiSseTokenCoalescer(new SimpleMeterRegistry(), Duration.ofMillis(40), 1024);
+
     private MockMvc mockMvc;
     private ObjectMapper objectMapper;
 
@@ -56,7 +61,7 @@ class WikiChatControllerWebMvcTest {
         LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
         validator.afterPropertiesSet();
 
-        mockMvc = MockMvcBuilders.standaloneSetup(new WikiChatController(chatApplicationService))
+        mockMvc = MockMvcBuilders.standaloneSetup(new WikiChatController(chatApplicationService, tokenCoalescer))
                 .addFilters(new SecurityContextHolderFilter(new HttpSessionSecurityContextRepository()))
                 .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
                 .setControllerAdvice(new GlobalExceptionHandler())
@@ -145,7 +150,7 @@ class WikiChatControllerWebMvcTest {
     @Test
     @DisplayName("unauthenticated chat requests return the compact Korean login message")
     void chat_unauthenticatedRequestReturnsKoreanLoginMessage() throws Exception {
-        MockMvc securedMockMvc = MockMvcBuilders.standaloneSetup(new WikiChatController(chatApplicationService))
+        MockMvc securedMockMvc = MockMvcBuilders.standaloneSetup(new WikiChatController(chatApplicationService, tokenCoalescer))
                 .addFilters(new SecurityContextHolderFilter(new HttpSessionSecurityContextRepository()))
                 .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
                 .addFilter((request, response, chain) -> {
@@ -184,7 +189,7 @@ class WikiChatControllerWebMvcTest {
             consumer.accept("이");
             consumer.accept(" 프로젝트는");
             return new WikiChatResult("이 프로젝트는", false, java.util.List.of(), java.util.List.of(), false, false);
-        }).when(chatApplicationService).streamProject(any(), any(), any(), any(), any());
+        }).when(chatApplicationService).streamProject(any(), any(), any(), any(), any(), any());
 
         WikiChatRequest request = WikiChatRequest.builder()
                 .question("인증 구조가 뭐야?")
@@ -204,13 +209,16 @@ class WikiChatControllerWebMvcTest {
 
         assertThat(mvcResult.getResponse().getContentType()).contains("text/event-stream");
         assertThat(mvcResult.getResponse().getContentAsString()).contains("session-789");
+        assertThat(mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .contains("event:token\ndata:\"이\"\n\n")
+                .contains("event:token\ndata:\" 프로젝트는\"\n\n");
     }
 
     @Test
     @DisplayName("streaming endpoint emits SSE error event when rate limit is exceeded")
     void streamChat_rateLimitedBeforeStreamEmitsErrorEvent() throws Exception {
         doThrow(new WikiChatRateLimitExceededException("요청이 너무 많습니다."))
-                .when(chatApplicationService).streamProject(any(), any(), any(), any(), any());
+                .when(chatApplicationService).streamProject(any(), any(), any(), any(), any(), any());
 
         WikiChatRequest request = WikiChatRequest.builder()
                 .question("인증 구조가 뭐야?")
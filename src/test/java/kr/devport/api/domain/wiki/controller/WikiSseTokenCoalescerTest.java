@@ -0,0 +1,112 @@
+package kr.devport.api.domain.wiki.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class WikiSseTokenCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiSseTokenCoalescer coalescer;
+    private SseEmitter emitter;
+    private final List<String> frames = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new WikiSseTokenCoalescer(meterRegistry, Duration.ofSeconds(10), 64);
+        emitter = mock(SseEmitter.class);
+        doAnswer(invocation -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> items = invocation.getArgument(0);
+            items.forEach(item -> frames.add(new String((byte[]) item.getData(), StandardCharsets.UTF_8)));
+            return null;
+        }).when(emitter).send(any(Set.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("first token is sent at once and later tokens are batched into one frame until close")
+    void accept_batchesTokensAfterFirstFrame() {
+        try (WikiSseTokenCoalescer.TokenSink sink = coalescer.open(emitter, "project")) {
+            sink.accept("인증은");
+            sink.accept(" JWT");
+            sink.accept(" 필터");
+            assertThat(frames).containsExactly("event:token\ndata:\"인증은\"\n\n");
+        }
+
+        assertThat(frames).containsExactly(
+                "event:token\ndata:\"인증은\"\n\n",
+                "event:token\ndata:\" JWT 필터\"\n\n"
+        );
+        assertThat(meterRegistry.summary("wiki.chat.stream.frames", "endpoint", "project").totalAmount()).isEqualTo(2.0d);
+        assertThat(meterRegistry.summary("wiki.chat.stream.frame.bytes", "endpoint", "project").count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("a full buffer is flushed without waiting for the window")
+    void accept_flushesWhenBufferReachesByteLimit() {
+        try (WikiSseTokenCoalescer.TokenSink sink = coalescer.open(emitter, "global")) {
+            sink.accept("a");
+            sink.accept("x".repeat(40));
+            sink.accept("y".repeat(40));
+
+            assertThat(frames).hasSize(2);
+        }
+    }
+
+    @Test
+    @DisplayName("the buffer is flushed by the scheduler when the window elapses without new tokens")
+    void accept_flushesAfterWindow() throws InterruptedException {
+        coalescer.shutdown();
+        coalescer = new WikiSseTokenCoalescer(meterRegistry, Duration.ofMillis(20), 1024);
+        try (WikiSseTokenCoalescer.TokenSink sink = coalescer.open(emitter, "project")) {
+            sink.accept("a");
+            sink.accept("b");
+            Thread.sleep(300);
+
+            assertThat(frames).containsExactly("event:token\ndata:\"a\"\n\n", "event:token\ndata:\"b\"\n\n");
+        }
+    }
+
+    @Test
+    @DisplayName("data is encoded as the same JSON string Jackson would write")
+    void toJsonString_matchesJackson() throws Exception {
+        String token = "```java\n\tSystem.out.println(\"\\\\\");\r\u0001```";
+
+        assertThat(WikiSseTokenCoalescer.toJsonString(token)).isEqualTo(new ObjectMapper().writeValueAsString(token));
+    }
+
+    @Test
+    @DisplayName("a failed write is rethrown to the streaming thread")
+    @SuppressWarnings("unchecked")
+    void accept_rethrowsWriteFailure() throws IOException {
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(Set.class));
+        WikiSseTokenCoalescer.TokenSink sink = coalescer.open(emitter, "project");
+
+        assertThatThrownBy(() -> sink.accept("a")).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -3,6 +3,8 @@ package kr.devport.api.domain.wiki.eval;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievedChunk;
+import kr.devport.api.domain.wiki.enums.WikiRerankMode;
+import kr.devport.api.domain.wiki.service.WikiQueryEmbeddingService;
 import kr.devport.api.domain.wiki.service.WikiRetrievalService;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,7 @@ import org.springframework.test.context.ActiveProfiles;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -30,6 +33,9 @@ class RagEvalRunner {
     @Autowired
     private WikiRetrievalService retrievalService;
 
+    @Autowired
+    private WikiQueryEmbeddingService embeddingService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -45,14 +51,54 @@ class RagEvalRunner {
             throw new IllegalStateException("No rag-eval fixtures found. Populate src/test/resources/rag-eval/fixtures.json.");
         }
 
+        // Warm query embeddings so per-mode latency only differs by reranking.
+        fixtures.forEach(fixture -> embeddingService.embed(fixture.question()));
+
+        // LLM runs first so the other modes can report deltas against it.
+        List<ModeResult> modeResults = new ArrayList<>();
+        Summary baseline = null;
+        for (WikiRerankMode mode : WikiRerankMode.values()) {
+            ModeResult modeResult = evaluateMode(fixtures, mode, baseline);
+            if (mode == WikiRerankMode.LLM) {
+                baseline = modeResult.summary();
+            }
+            modeResults.add(modeResult);
+
+            Summary summary = modeResult.summary();
+            System.out.printf(Locale.ROOT,
+                    "rag-eval mode=%s fixtures=%d evaluated=%d skipped=%d hit@1=%.3f hit@3=%.3f hit@5=%.3f mrr=%.3f "
+                            + "Δhit@1=%+.3f Δmrr=%+.3f latency.mean=%.1fms latency.p95=%.1fms%n",
+                    mode,
+                    fixtures.size(),
+                    summary.evaluated(),
+                    summary.skipped(),
+                    summary.hitAt1(),
+                    summary.hitAt3(),
+                    summary.hitAt5(),
+                    summary.mrr(),
+                    modeResult.deltaHitAt1(),
+                    modeResult.deltaMrr(),
+                    modeResult.latencyMeanMillis(),
+                    modeResult.latencyP95Millis());
+        }
+
+        Files.createDirectories(OUTPUT_PATH.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(OUTPUT_PATH.toFile(), new ResultEnvelope(modeResults));
+    }
+
+    private ModeResult evaluateMode(List<Fixture> fixtures, WikiRerankMode mode, Summary baseline) {
         List<QuestionResult> questionResults = new ArrayList<>();
+        List<Double> latenciesMillis = new ArrayList<>();
         int skipped = 0;
 
         for (Fixture fixture : fixtures) {
             try {
+                long startedAt = System.nanoTime();
                 List<WikiRetrievedChunk> chunks = retrievalService
-                        .retrieveContext(fixture.projectExternalId(), fixture.question())
+                        .retrieveContext(fixture.projectExternalId(), fixture.question(), mode)
                         .chunks();
+                latenciesMillis.add((System.nanoTime() - startedAt) / 1_000_000.0d);
                 questionResults.add(scoreFixture(fixture, chunks));
             } catch (IllegalArgumentException e) {
                 skipped++;
@@ -61,19 +107,18 @@ class RagEvalRunner {
         }
 
         Summary summary = summarize(questionResults, skipped);
-        Files.createDirectories(OUTPUT_PATH.getParent());
-        objectMapper.writerWithDefaultPrettyPrinter()
-                .writeValue(OUTPUT_PATH.toFile(), new ResultEnvelope(summary, questionResults));
-
-        System.out.printf(Locale.ROOT,
-                "rag-eval fixtures=%d evaluated=%d skipped=%d hit@1=%.3f hit@3=%.3f hit@5=%.3f mrr=%.3f%n",
-                fixtures.size(),
-                summary.evaluated(),
-                summary.skipped(),
-                summary.hitAt1(),
-                summary.hitAt3(),
-                summary.hitAt5(),
-                summary.mrr());
+        double[] sorted = latenciesMillis.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+        double mean = Arrays.stream(sorted).average().orElse(0.0d);
+        double p95 = sorted.length == 0 ? 0.0d : sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * 0.95d) - 1)];
+        return new ModeResult(
+                mode,
+                summary,
+                baseline == null ? 0.0d : summary.hitAt1() - baseline.hitAt1(),
+                baseline == null ? 0.0d : summary.mrr() - baseline.mrr(),
+                mean,
+                p95,
+                questionResults
+        );
     }
 
     private QuestionResult scoreFixture(Fixture fixture, List<WikiRetrievedChunk> chunks) {
@@ -198,9 +243,19 @@ class RagEvalRunner {
     ) {
     }
 
-    private record ResultEnvelope(
+    private record ModeResult(
+            WikiRerankMode mode,
             Summary summary,
+            double deltaHitAt1,
+            double deltaMrr,
+            double latencyMeanMillis,
+            double latencyP95Millis,
             List<QuestionResult> questions
     ) {
     }
+
+    private record ResultEnvelope(
+            List<ModeResult> modes
+    ) {
+    }
 }
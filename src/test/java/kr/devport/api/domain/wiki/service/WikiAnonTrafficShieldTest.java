@@ -0,0 +1,123 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.dto.response.WikiAnonTrafficOffenderResponse;
+import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class WikiAnonTrafficShieldTest {
+
+    @Mock
+    private WikiRateLimitEngine rateLimitEngine;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiAnonTrafficShield shield;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        shield = new WikiAnonTrafficShield(meterRegistry, true, 1024, 4, 3);
+    }
+
+    @Test
+    @DisplayName("an IP admitted today is flagged on its next request")
+    void isBlocked_flagsIpAdmittedToday() {
+        assertThat(shield.isBlocked("198.51.100.1")).isFalse();
+        shield.recordAdmitted("198.51.100.1");
+
+        assertThat(shield.isBlocked("198.51.100.1")).isTrue();
+        assertThat(shield.isBlocked("198.51.100.2")).isFalse();
+        assertThat(meterRegistry.counter("wiki.anon.shield.rejections").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("a flood of distinct IPs widens the error bound instead of flagging IPs by collision")
+    void isBlocked_defersToRedisWhenSketchIsSaturated() {
+        WikiAnonTrafficShield narrow = new WikiAnonTrafficShield(meterRegistry, true, 64, 4, 3);
+        for (int i = 0; i < 200; i++) {
+            narrow.recordAdmitted("203.0.113." + i);
+        }
+
+        assertThat(narrow.isBlocked("198.51.100.1")).isFalse();
+        narrow.recordAdmitted("198.51.100.1");
+        assertThat(narrow.isBlocked("198.51.100.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("the daily reset lets a flagged IP ask again")
+    void reset_letsFlaggedIpRecover() {
+        shield.recordAdmitted("198.51.100.1");
+        assertThat(shield.isBlocked("198.51.100.1")).isTrue();
+
+        shield.reset();
+
+        assertThat(shield.topOffenders()).isEmpty();
+        assertThat(shield.isBlocked("198.51.100.1")).isFalse();
+    }
+
+    @Test
+    @DisplayName("the top-k table keeps the largest offenders, largest first")
+    void topOffenders_keepsLargestEstimates() {
+        record("198.51.100.1", 12);
+        record("198.51.100.2", 2);
+        record("198.51.100.3", 5);
+        record("198.51.100.4", 1);
+        record("198.51.100.5", 7);
+
+        assertThat(shield.topOffenders())
+                .extracting(WikiAnonTrafficOffenderResponse::getIp, WikiAnonTrafficOffenderResponse::getBlocked)
+                .containsExactly(
+                        tuple("198.51.100.1", true),
+                        tuple("198.51.100.5", true),
+                        tuple("198.51.100.3", true));
+    }
+
+    @Test
+    @DisplayName("the anonymous limiter rejects an IP seen today without consulting Redis")
+    void checkAndIncrement_rejectsSeenIpLocally() {
+        WikiAnonRateLimiter anonRateLimiter = new WikiAnonRateLimiter(shield, rateLimitEngine);
+        anonRateLimiter.checkAndIncrement("198.51.100.1");
+
+        assertThatThrownBy(() -> anonRateLimiter.checkAndIncrement("198.51.100.1"))
+                .isInstanceOf(WikiChatRateLimitExceededException.class)
+                .hasMessageContaining("익명 사용자는 하루 1번만");
+        verify(rateLimitEngine, times(1)).check(eq(WikiAnonRateLimiter.POLICY), any());
+    }
+
+    @Test
+    @DisplayName("a request Redis rejects is not recorded, so the shield never rejects what Redis would admit")
+    void checkAndIncrement_recordsOnlyAdmittedRequests() {
+        WikiAnonRateLimiter anonRateLimiter = new WikiAnonRateLimiter(shield, rateLimitEngine);
+        doThrow(new WikiChatRateLimitExceededException("limit"))
+                .doNothing()
+                .when(rateLimitEngine).check(WikiAnonRateLimiter.POLICY, "198.51.100.1");
+
+        assertThatThrownBy(() -> anonRateLimiter.checkAndIncrement("198.51.100.1"))
+                .isInstanceOf(WikiChatRateLimitExceededException.class);
+        assertThat(shield.isBlocked("198.51.100.1")).isFalse();
+
+        anonRateLimiter.checkAndIncrement("198.51.100.1");
+        assertThat(shield.isBlocked("198.51.100.1")).isTrue();
+    }
+
+    private void record(String ip, int requests) {
+        for (int i = 0; i < requests; i++) {
+            shield.recordAdmitted(ip);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.auth.entity.User;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatSessionHistory;
+import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiChatPreparerTest {
+
+    @Mock
+    private WikiChatService wikiChatService;
+
+    @Mock
+    private WikiQueryEmbeddingService embeddingService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiChatPreparer preparer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        preparer = new WikiChatPreparer(
+                wikiChatService, embeddingService, meterRegistry,
+                Duration.ofSeconds(2), Duration.ofMillis(500));
+        lenient().when(embeddingService.embed("인증 구조가 뭐야?")).thenReturn(new float[]{0.1f});
+    }
+
+    @AfterEach
+    void tearDown() {
+        preparer.shutdownStageExecutor();
+    }
+
+    @Test
+    @DisplayName("prepare overlaps user resolution, session loading and embedding")
+    void prepare_runsStagesConcurrently() {
+        User user = mock(User.class);
+        WikiChatSessionHistory history = new WikiChatSessionHistory(
+                List.of(ChatTurn.builder().question("q").answer("a").build()), false);
+        when(wikiChatService.loadHistory("session-1", "github:repo", true)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return history;
+        });
+
+        long startedAt = System.nanoTime();
+        WikiChatPreparer.Prepared prepared = preparer.prepare("session-1", "github:repo", "인증 구조가 뭐야?", true, () -> {
+            sleep(300);
+            return user;
+        });
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+
+        assertThat(prepared.user()).isSameAs(user);
+        assertThat(prepared.history()).isSameAs(history);
+        assertThat(elapsedMillis).isLessThan(550);
+        assertThat(meterRegistry.timer("wiki.chat.prepare.stage", "stage", "session").count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("prepare rethrows rate-limit failures from the user stage without embedding the question")
+    void prepare_rethrowsUserStageFailure() {
+        lenient().when(wikiChatService.loadHistory("session-1", "github:repo", false)).thenReturn(WikiChatSessionHistory.empty());
+
+        assertThatThrownBy(() -> preparer.prepare("session-1", "github:repo", "인증 구조가 뭐야?", false, () -> {
+            throw new WikiChatRateLimitExceededException("limit");
+        })).isInstanceOf(WikiChatRateLimitExceededException.class);
+        verify(embeddingService, never()).embed(anyString());
+    }
+
+    @Test
+    @DisplayName("prepare continues with an unknown history when the session stage misses its deadline")
+    void prepare_degradesSlowSessionStage() {
+        when(wikiChatService.loadHistory("session-1", "github:repo", false)).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return new WikiChatSessionHistory(List.of(), true);
+        });
+
+        WikiChatPreparer.Prepared prepared = preparer.prepare("session-1", "github:repo", "인증 구조가 뭐야?", false, () -> null);
+
+        assertThat(prepared.user()).isNull();
+        assertThat(prepared.history()).isEqualTo(WikiChatSessionHistory.unknown());
+        assertThat(prepared.history().firstTurn()).isFalse();
+    }
+
+    @Test
+    @DisplayName("a session stage that misses its deadline is interrupted instead of left holding its connection")
+    void prepare_interruptsTimedOutSessionStage() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(wikiChatService.loadHistory("session-1", "github:repo", false)).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return WikiChatSessionHistory.empty();
+        });
+
+        preparer.prepare("session-1", "github:repo", "인증 구조가 뭐야?", false, () -> null);
+
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("prepare does not wait for the embedding warm-up")
+    void prepare_doesNotAwaitEmbedding() {
+        when(wikiChatService.loadHistory("session-1", "github:repo", false)).thenReturn(WikiChatSessionHistory.empty());
+        when(embeddingService.embed("인증 구조가 뭐야?")).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return new float[]{0.1f};
+        });
+
+        long startedAt = System.nanoTime();
+        preparer.prepare("session-1", "github:repo", "인증 구조가 뭐야?", false, () -> null);
+
+        assertThat((System.nanoTime() - startedAt) / 1_000_000).isLessThan(500);
+        verify(embeddingService, timeout(2000)).embed("인증 구조가 뭐야?");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
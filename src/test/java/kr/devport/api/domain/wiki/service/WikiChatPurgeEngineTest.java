@@ -0,0 +1,115 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.repository.WikiChatPurgeRepository;
+import kr.devport.api.domain.wiki.repository.WikiChatPurgeRepository.PurgedBatch;
+import kr.devport.api.domain.wiki.service.WikiChatPurgeEngine.PurgeResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiChatPurgeEngineTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2026, 10, 18, 2, 0);
+
+    @Mock
+    private WikiChatPurgeRepository purgeRepository;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiChatPurgeEngine purgeEngine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purgeEngine = new WikiChatPurgeEngine(
+                purgeRepository, redisTemplate, meterRegistry, 100, Duration.ZERO, Duration.ofMinutes(10));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("expired sessions are purged in keyset batches after the last purged id and the totals are reported")
+    void purgeExpired_walksKeysetBatches() {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+        when(purgeRepository.purgeBatch(0L, CUTOFF, 100)).thenReturn(new PurgedBatch(100, 700, 180));
+        when(purgeRepository.purgeBatch(180L, CUTOFF, 100)).thenReturn(new PurgedBatch(100, 700, 5_420));
+        when(purgeRepository.purgeBatch(5_420L, CUTOFF, 100)).thenReturn(new PurgedBatch(40, 280, 5_460));
+
+        PurgeResult result = purgeEngine.purgeExpired(CUTOFF);
+
+        InOrder order = inOrder(purgeRepository);
+        order.verify(purgeRepository).purgeBatch(0L, CUTOFF, 100);
+        order.verify(purgeRepository).purgeBatch(180L, CUTOFF, 100);
+        order.verify(purgeRepository).purgeBatch(5_420L, CUTOFF, 100);
+        order.verifyNoMoreInteractions();
+        assertThat(result).isEqualTo(new PurgeResult(240, 1_680, 3));
+        assertThat(meterRegistry.counter("wiki.chat.purge.rows", "table", "messages").count()).isEqualTo(1_680.0d);
+        assertThat(meterRegistry.timer("wiki.chat.purge.batch.duration").count()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("a node that does not get the lease leaves the purge to the holder")
+    void purgeExpired_skipsWhenLeaseIsHeldElsewhere() {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(false);
+
+        PurgeResult result = purgeEngine.purgeExpired(CUTOFF);
+
+        assertThat(result).isEqualTo(PurgeResult.SKIPPED);
+        verify(purgeRepository, never()).purgeBatch(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("the run stops after the current batch once the lease is lost")
+    void purgeExpired_stopsWhenLeaseIsLost() {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+        when(purgeRepository.purgeBatch(anyLong(), eq(CUTOFF), eq(100))).thenReturn(new PurgedBatch(100, 30, 100));
+
+        PurgeResult result = purgeEngine.purgeExpired(CUTOFF);
+
+        assertThat(result).isEqualTo(new PurgeResult(100, 30, 1));
+        verify(purgeRepository, times(1)).purgeBatch(anyLong(), eq(CUTOFF), eq(100));
+    }
+
+    @Test
+    @DisplayName("the purge still runs when Redis is unavailable")
+    void purgeExpired_failsOpenWhenRedisIsDown() {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class)))
+                .thenThrow(new RuntimeException("Redis connection refused"));
+        when(purgeRepository.purgeBatch(0L, CUTOFF, 100)).thenReturn(new PurgedBatch(0, 0, 0));
+
+        PurgeResult result = purgeEngine.purgeExpired(CUTOFF);
+
+        assertThat(result).isEqualTo(new PurgeResult(0, 0, 0));
+    }
+}
@@ -1,5 +1,6 @@
 package kr.devport.api.domain.wiki.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,15 +9,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
-import java.time.Duration;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,93 +31,43 @@ class WikiChatRateLimiterTest {
     @Mock
     private RedisTemplate<String, Object> redisTemplate;
 
-    @Mock
-    private ValueOperations<String, Object> valueOps;
-
     private WikiChatRateLimiter rateLimiter;
 
     @BeforeEach
     void setUp() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOps);
-        rateLimiter = new WikiChatRateLimiter(redisTemplate);
+        // The local bucket is covered in WikiRateLimitEngineTest; here every call reaches Redis.
+        rateLimiter = new WikiChatRateLimiter(
+                new WikiRateLimitEngine(redisTemplate, new SimpleMeterRegistry(), false, 1000));
     }
 
-    // --- Per-minute window ---
-
     @Test
-    @DisplayName("check allows request when under per-minute limit")
-    void check_allowsRequestWhenUnderLimit() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(3L);
+    @DisplayName("check evaluates the minute and daily windows in a single script call")
+    void check_evaluatesBothWindowsInOneCall() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
 
         assertThatCode(() -> rateLimiter.check("42")).doesNotThrowAnyException();
-    }
-
-    @Test
-    @DisplayName("check sets 60-second expiry on first request in minute window")
-    void check_setsExpiryOnFirstRequest() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(1L);
-
-        rateLimiter.check("42");
-
-        verify(redisTemplate).expire(eq(MINUTE_KEY), eq(Duration.ofSeconds(60)));
-    }
 
-    @Test
-    @DisplayName("check does not reset minute-window expiry on subsequent requests")
-    void check_doesNotResetExpiryOnSubsequentRequests() {
-        // count=3: not first (no expiry reset), within limit (no exception)
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(3L);
-
-        rateLimiter.check("42");
-
-        verify(redisTemplate, never()).expire(eq(MINUTE_KEY), any(Duration.class));
-    }
-
-    @Test
-    @DisplayName("check allows exactly the per-minute limit request")
-    void check_allowsExactlyLimitRequest() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn((long) WikiChatRateLimiter.LIMIT);
-
-        assertThatCode(() -> rateLimiter.check("42")).doesNotThrowAnyException();
+        verify(redisTemplate).execute(
+                WikiRateLimitEngine.GCRA_SCRIPT,
+                List.of(MINUTE_KEY, DAILY_KEY),
+                WikiChatRateLimiter.LIMIT, 60_000L,
+                WikiChatRateLimiter.DAILY_LIMIT, 86_400_000L);
     }
 
     @Test
-    @DisplayName("check throws with Korean burst message when per-minute limit exceeded")
-    void check_throwsOnRequestOverLimit() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn((long) WikiChatRateLimiter.LIMIT + 1);
+    @DisplayName("check throws with Korean burst message when the minute window rejects")
+    void check_throwsBurstMessageWhenMinuteWindowRejects() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
 
         assertThatThrownBy(() -> rateLimiter.check("42"))
                 .isInstanceOf(WikiChatRateLimitExceededException.class)
                 .hasMessage("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
     }
 
-    // --- Per-day window ---
-
-    @Test
-    @DisplayName("check sets 24-hour expiry on first request in daily window")
-    void check_setsExpiryOnFirstDailyRequest() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(1L);
-        when(valueOps.increment(DAILY_KEY)).thenReturn(1L);
-
-        rateLimiter.check("42");
-
-        verify(redisTemplate).expire(eq(DAILY_KEY), eq(Duration.ofHours(24)));
-    }
-
-    @Test
-    @DisplayName("check allows exactly the daily limit request")
-    void check_allowsExactlyDailyLimitRequest() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(1L);
-        when(valueOps.increment(DAILY_KEY)).thenReturn((long) WikiChatRateLimiter.DAILY_LIMIT);
-
-        assertThatCode(() -> rateLimiter.check("42")).doesNotThrowAnyException();
-    }
-
     @Test
-    @DisplayName("check throws with Korean daily message when daily limit exceeded")
-    void check_throwsOnRequestOverDailyLimit() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(1L);
-        when(valueOps.increment(DAILY_KEY)).thenReturn((long) WikiChatRateLimiter.DAILY_LIMIT + 1);
+    @DisplayName("check throws with Korean daily message when the daily window rejects")
+    void check_throwsDailyMessageWhenDailyWindowRejects() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(2L);
 
         assertThatThrownBy(() -> rateLimiter.check("42"))
                 .isInstanceOf(WikiChatRateLimitExceededException.class)
@@ -123,27 +75,14 @@ class WikiChatRateLimiterTest {
     }
 
     @Test
-    @DisplayName("check does not reset daily-window expiry on subsequent daily requests")
-    void check_doesNotResetDailyExpiryOnSubsequentRequests() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(1L);
-        // count=50: not first daily request (no expiry reset), within daily limit
-        when(valueOps.increment(DAILY_KEY)).thenReturn(50L);
+    @DisplayName("check keeps calling Redis once per request")
+    void check_makesOneRedisCallPerRequest() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
 
+        rateLimiter.check("42");
         rateLimiter.check("42");
 
-        verify(redisTemplate, never()).expire(eq(DAILY_KEY), any(Duration.class));
-    }
-
-    @Test
-    @DisplayName("minute limit is checked before daily limit — daily counter not incremented on burst rejection")
-    void check_minuteLimitBlocksBeforeDailyCounterIsReached() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn((long) WikiChatRateLimiter.LIMIT + 1);
-
-        assertThatThrownBy(() -> rateLimiter.check("42"))
-                .isInstanceOf(WikiChatRateLimitExceededException.class)
-                .hasMessage("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
-
-        verify(valueOps, never()).increment(DAILY_KEY);
+        verify(redisTemplate, times(2)).execute(eq(WikiRateLimitEngine.GCRA_SCRIPT), anyList(), any(Object[].class));
     }
 
     // --- Fail-open behaviour ---
@@ -151,7 +90,7 @@ class WikiChatRateLimiterTest {
     @Test
     @DisplayName("check allows request when Redis returns null (fail-open)")
     void check_allowsWhenRedisReturnsNull() {
-        when(valueOps.increment(MINUTE_KEY)).thenReturn(null);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(null);
 
         assertThatCode(() -> rateLimiter.check("42")).doesNotThrowAnyException();
     }
@@ -159,7 +98,8 @@ class WikiChatRateLimiterTest {
     @Test
     @DisplayName("check allows request when Redis throws an exception (fail-open)")
     void check_allowsWhenRedisThrows() {
-        when(valueOps.increment(MINUTE_KEY)).thenThrow(new RuntimeException("Redis connection refused"));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("Redis connection refused"));
 
         assertThatCode(() -> rateLimiter.check("42")).doesNotThrowAnyException();
     }
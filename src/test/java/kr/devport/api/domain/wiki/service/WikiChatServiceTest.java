@@ -4,9 +4,13 @@ import com.openai.client.OpenAIClient;
 import com.openai.core.http.StreamResponse;
 import com.openai.models.chat.completions.ChatCompletionChunk;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import com.openai.models.chat.completions.ChatCompletionMessageParam;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatSessionHistory;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievalContext;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievedChunk;
+import kr.devport.api.domain.wiki.exception.WikiStreamCancelledException;
 import kr.devport.api.domain.wiki.store.WikiChatSessionStore;
 import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,19 +21,24 @@ import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +51,28 @@ class WikiChatServiceTest {
     @Mock
     private WikiChatSessionStore sessionStore;
 
+    @Mock
+    private WikiSemanticAnswerCache answerCache;
+
+    @Mock
+    private WikiFaqAnswerService faqAnswerService;
+
+    @Mock
+    private WikiTokenCounter tokenCounter;
+
+    @Mock
+    private WikiStreamMetrics streamMetrics;
+
+    @Spy
+    private WikiPromptAssembler promptAssembler = new WikiPromptAssembler(new SimpleMeterRegistry());
+
+    @Mock
+    private WikiProjectPromptContext projectPromptContext;
+
+    @Spy
+    private WikiChatSingleFlight singleFlight = new WikiChatSingleFlight(
+            null, new SimpleMeterRegistry(), false, Duration.ofSeconds(30), Duration.ofMillis(200), Duration.ofMinutes(2));
+
     @Mock(answer = Answers.RETURNS_DEEP_STUBS)
     private OpenAIClient openAIClient;
 
@@ -59,7 +90,7 @@ class WikiChatServiceTest {
     @Test
     @DisplayName("chat keeps only the most recent relevant turns in the model prompt")
     void chat_keepsOnlyRecentRelevantTurnsInPrompt() {
-        when(retrievalService.retrieveContext("github:repo", "JWT 흐름 설명해줘"))
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("JWT 흐름 설명해줘")))
                 .thenReturn(strongContext());
         when(sessionStore.loadRecentTurns("session-123", "github:repo"))
                 .thenReturn(List.of(
@@ -94,7 +125,7 @@ class WikiChatServiceTest {
     @Test
     @DisplayName("chat drops stale memory on topic shift and keeps weak-grounding replies short")
     void chat_dropsStaleMemoryOnTopicShiftAndKeepsWeakGroundingRepliesShort() {
-        when(retrievalService.retrieveContext("github:repo", "배포 파이프라인이 어디에 있어?"))
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("배포 파이프라인이 어디에 있어?")))
                 .thenReturn(new WikiRetrievalContext(
                         "github:repo",
                         "# Repository Context\n\n## CI\n.github/workflows/deploy.yml",
@@ -127,7 +158,7 @@ class WikiChatServiceTest {
     @Test
     @DisplayName("chat inlines clarification options into compact responses when clarification is needed")
     void chat_inlinesClarificationOptionsIntoCompactResponses() {
-        when(retrievalService.retrieveContext("github:repo", "인증 쪽 설명해줘"))
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("인증 쪽 설명해줘")))
                 .thenReturn(strongContext());
         when(sessionStore.loadRecentTurns("session-123", "github:repo"))
                 .thenReturn(List.of());
@@ -147,10 +178,28 @@ class WikiChatServiceTest {
         assertThat(result.answer()).contains("- 토큰 갱신");
     }
 
+    @Test
+    @DisplayName("chat keeps per-turn retrieval context out of the cacheable policy prefix")
+    void chat_keepsRetrievalContextOutOfPolicyPrefix() {
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("인증 구조가 뭐야?"))).thenReturn(strongContext());
+        when(sessionStore.loadRecentTurns("s-prefix", "github:repo")).thenReturn(List.of());
+        when(projectPromptContext.build("github:repo")).thenReturn("Project: github:repo\n\nProject Overview:\n\n### architecture\n\nSpring Boot API");
+
+        wikiChatService.chatResult("s-prefix", "github:repo", "인증 구조가 뭐야?");
+
+        ArgumentCaptor<ChatCompletionCreateParams> captor = ArgumentCaptor.forClass(ChatCompletionCreateParams.class);
+        verify(openAIClient.chat().completions(), atLeastOnce()).create(captor.capture());
+        List<ChatCompletionMessageParam> messages = captor.getValue().messages();
+        assertThat(messages.getFirst().toString()).doesNotContain("Repository Context").doesNotContain("github:repo");
+        assertThat(messages.get(1).toString()).contains("Project: github:repo").contains("Project Overview");
+        assertThat(messages.get(2).toString()).contains("Repository Context");
+        assertThat(messages.getLast().toString()).contains("인증 구조가 뭐야?");
+    }
+
     @Test
     @DisplayName("isTopicShift returns false for Korean meta-history questions")
     void isTopicShift_returnsFalseForKoreanMetaHistory() {
-        when(retrievalService.retrieveContext("github:repo", "이전 질문 요약해줘")).thenReturn(strongContext());
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("이전 질문 요약해줘"))).thenReturn(strongContext());
         when(sessionStore.loadRecentTurns("s1", "github:repo")).thenReturn(List.of(
                 turn("JWT 구조 알려줘", "JWT는 헤더/페이로드/서명이에요.", false)));
         when(sessionStore.hasActiveSession("s1")).thenReturn(true);
@@ -165,7 +214,7 @@ class WikiChatServiceTest {
     @Test
     @DisplayName("isTopicShift returns false for English meta-history questions")
     void isTopicShift_returnsFalseForEnglishMetaHistory() {
-        when(retrievalService.retrieveContext("github:repo", "what did I ask before?")).thenReturn(strongContext());
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("what did I ask before?"))).thenReturn(strongContext());
         when(sessionStore.loadRecentTurns("s2", "github:repo")).thenReturn(List.of(
                 turn("How does JWT work?", "JWT는 헤더/페이로드/서명이에요.", false)));
         when(sessionStore.hasActiveSession("s2")).thenReturn(true);
@@ -180,7 +229,7 @@ class WikiChatServiceTest {
     @Test
     @DisplayName("isTopicShift returns false for short follow-up questions with under 2 tokens")
     void isTopicShift_returnsFalseForShortFollowUpQuestion() {
-        when(retrievalService.retrieveContext("github:repo", "왜?")).thenReturn(strongContext());
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("왜?"))).thenReturn(strongContext());
         when(sessionStore.loadRecentTurns("s3", "github:repo")).thenReturn(List.of(
                 turn("SecurityConfig 역할이 뭐야?", "보안 설정 진입점이에요.", false)));
         when(sessionStore.hasActiveSession("s3")).thenReturn(true);
@@ -235,7 +284,7 @@ class WikiChatServiceTest {
     @Test
     @DisplayName("streamChatResult calls token consumer for each streamed token and saves the session turn")
     void streamChatResult_callsTokenConsumerAndSavesSession() {
-        when(retrievalService.retrieveContext("github:repo", "인증 구조가 뭐야?")).thenReturn(strongContext());
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("인증 구조가 뭐야?"))).thenReturn(strongContext());
         when(sessionStore.loadRecentTurns("session-s", "github:repo")).thenReturn(List.of());
         when(sessionStore.hasActiveSession("session-s")).thenReturn(false);
 
@@ -257,10 +306,41 @@ class WikiChatServiceTest {
         verify(sessionStore).saveTurn(any(), any(), any(), any(), anyBoolean());
     }
 
+    @Test
+    @DisplayName("streamChatResult stops reading, closes the upstream and skips persistence when the client cancels")
+    void streamChatResult_cancelledStreamClosesUpstreamAndSkipsPersistence() throws Exception {
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("인증 구조가 뭐야?"))).thenReturn(strongContext());
+        ChatCompletionChunk first = stubChunk("요약하면 ");
+        ChatCompletionChunk neverRead = mock(ChatCompletionChunk.class);
+        @SuppressWarnings("unchecked")
+        StreamResponse<ChatCompletionChunk> streamResponse = mock(StreamResponse.class);
+        when(streamResponse.stream()).thenReturn(Stream.of(first, neverRead));
+        when(openAIClient.chat().completions().createStreaming(any(ChatCompletionCreateParams.class)))
+                .thenReturn(streamResponse);
+
+        WikiStreamCancellation cancellation = new WikiStreamCancellation();
+        List<String> received = new ArrayList<>();
+
+        assertThatThrownBy(() -> wikiChatService.streamChatResult(
+                "session-x", "github:repo", "인증 구조가 뭐야?",
+                token -> {
+                    received.add(token);
+                    cancellation.cancel();
+                },
+                null, new WikiChatSessionHistory(List.of(), false), cancellation))
+                .isInstanceOf(WikiStreamCancelledException.class);
+
+        assertThat(received).containsExactly("요약하면 ");
+        verify(streamResponse, atLeastOnce()).close();
+        verify(streamMetrics).recordCancelled("project_stream", "요약하면 ");
+        verify(sessionStore, never()).saveTurn(any(), any(), any(), any(), anyBoolean());
+        verify(answerCache, never()).store(any(), any(), any());
+    }
+
     @Test
     @DisplayName("streamChatResult detects isClarification=true from clarification heading in accumulated text")
     void streamChatResult_detectsClarificationFromHeading() {
-        when(retrievalService.retrieveContext("github:repo", "인증 쪽 설명해줘")).thenReturn(strongContext());
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("인증 쪽 설명해줘"))).thenReturn(strongContext());
         when(sessionStore.loadRecentTurns("session-c", "github:repo")).thenReturn(List.of());
         when(sessionStore.hasActiveSession("session-c")).thenReturn(false);
 
@@ -279,6 +359,107 @@ class WikiChatServiceTest {
         assertThat(result.clarificationOptions()).containsExactly("로그인", "인가", "토큰 갱신");
     }
 
+    @Test
+    @DisplayName("chatResult serves first-turn questions from the semantic answer cache without retrieval")
+    void chatResult_servesFirstTurnFromAnswerCache() {
+        when(sessionStore.loadRecentTurns("session-new", "github:repo")).thenReturn(List.of());
+        when(sessionStore.hasActiveSession("session-new")).thenReturn(false);
+        when(answerCache.lookup("github:repo", "인증 구조가 뭐야?"))
+                .thenReturn(Optional.of(new WikiChatResult("요약하면 인증은 JWT 필터 중심이에요.", false, List.of(), List.of(), false, false)));
+
+        WikiChatResult result = wikiChatService.chatResult("session-new", "github:repo", "인증 구조가 뭐야?");
+
+        assertThat(result.answer()).isEqualTo("요약하면 인증은 JWT 필터 중심이에요.");
+        verify(retrievalService, never()).retrieveContext(any(), any(WikiQuestionIntents.Analysis.class));
+        verify(sessionStore).saveTurn("session-new", "github:repo", "인증 구조가 뭐야?", result.answer(), false);
+    }
+
+    @Test
+    @DisplayName("chatResult skips the answer cache for follow-up turns and stores strong first-turn answers")
+    void chatResult_usesAnswerCacheOnlyForFirstTurns() {
+        when(retrievalService.retrieveContext(any(), any(WikiQuestionIntents.Analysis.class))).thenReturn(strongContext());
+        when(sessionStore.loadRecentTurns("session-follow", "github:repo"))
+                .thenReturn(List.of(turn("인증 구조가 뭐야?", "JWT 필터 중심이에요.", false)));
+        when(sessionStore.loadRecentTurns("session-first", "github:repo")).thenReturn(List.of());
+
+        wikiChatService.chatResult("session-follow", "github:repo", "JWT 필터는 어디 있어?");
+        WikiChatResult first = wikiChatService.chatResult("session-first", "github:repo", "JWT 필터는 어디 있어?");
+
+        verify(answerCache, times(1)).lookup("github:repo", "JWT 필터는 어디 있어?");
+        verify(answerCache, times(1)).store("github:repo", "JWT 필터는 어디 있어?", first);
+    }
+
+    @Test
+    @DisplayName("chatResult with an unknown history skips every first-turn-only path")
+    void chatResult_unknownHistorySkipsFirstTurnPaths() {
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("인증 구조가 뭐야?"))).thenReturn(strongContext());
+
+        wikiChatService.chatResult("session-slow", "github:repo", "인증 구조가 뭐야?", null, WikiChatSessionHistory.unknown());
+
+        verify(faqAnswerService, never()).lookup(any(), any(WikiQuestionIntents.Analysis.class));
+        verify(answerCache, never()).lookup(any(), any());
+        verify(answerCache, never()).store(any(), any(), any());
+        verify(singleFlight, never()).execute(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("streamChatResult replays a cached answer as a chunked token stream")
+    void streamChatResult_replaysCachedAnswer() {
+        String answer = "요약하면 인증 진입점은 SecurityConfig와 JwtAuthenticationFilter예요.";
+        when(sessionStore.loadRecentTurns("session-s", "github:repo")).thenReturn(List.of());
+        when(answerCache.lookup("github:repo", "인증 구조가 뭐야?"))
+                .thenReturn(Optional.of(new WikiChatResult(answer, false, List.of(), List.of(), false, false)));
+
+        List<String> received = new ArrayList<>();
+        WikiChatResult result = wikiChatService.streamChatResult("session-s", "github:repo", "인증 구조가 뭐야?", received::add);
+
+        assertThat(received).hasSizeGreaterThan(1);
+        assertThat(String.join("", received)).isEqualTo(answer);
+        assertThat(result.answer()).isEqualTo(answer);
+        verify(openAIClient.chat().completions(), never()).createStreaming(any(ChatCompletionCreateParams.class));
+    }
+
+    @Test
+    @DisplayName("streamChatResult replays a precomputed FAQ answer before consulting the answer cache")
+    void streamChatResult_replaysPrecomputedFaqAnswer() {
+        String answer = "요약하면 주요 기능은 위키 생성, 프로젝트 채팅, 전역 검색이에요.";
+        when(sessionStore.loadRecentTurns("session-faq", "github:repo")).thenReturn(List.of());
+        when(faqAnswerService.lookup("github:repo", WikiQuestionIntents.analyze("주요 기능은 무엇인가요?")))
+                .thenReturn(Optional.of(new WikiChatResult(answer, false, List.of(), List.of(), false, false)));
+
+        List<String> received = new ArrayList<>();
+        WikiChatResult result = wikiChatService.streamChatResult("session-faq", "github:repo", "주요 기능은 무엇인가요?", received::add);
+
+        assertThat(String.join("", received)).isEqualTo(answer);
+        assertThat(result.answer()).isEqualTo(answer);
+        verify(answerCache, never()).lookup(any(), any());
+        verify(retrievalService, never()).retrieveContext(any(), any(WikiQuestionIntents.Analysis.class));
+        verify(sessionStore).saveTurn("session-faq", "github:repo", "주요 기능은 무엇인가요?", answer, false);
+    }
+
+    @Test
+    @DisplayName("answerStandalone answers without touching the session and declines weakly grounded questions")
+    void answerStandalone_answersWithoutSessionAndDeclinesWeakGrounding() {
+        when(retrievalService.retrieveContext("github:repo", WikiQuestionIntents.analyze("주요 기능은 무엇인가요?"))).thenReturn(strongContext());
+        when(retrievalService.retrieveContext("github:other", WikiQuestionIntents.analyze("주요 기능은 무엇인가요?"))).thenReturn(new WikiRetrievalContext(
+                "github:other",
+                "",
+                false,
+                true,
+                List.of(),
+                List.of("설치 방법 알려줘")
+        ));
+
+        Optional<WikiChatResult> answered = wikiChatService.answerStandalone("github:repo", "주요 기능은 무엇인가요?");
+        Optional<WikiChatResult> declined = wikiChatService.answerStandalone("github:other", "주요 기능은 무엇인가요?");
+
+        assertThat(answered).isPresent();
+        assertThat(declined).isEmpty();
+        verify(openAIClient.chat().completions(), times(1)).create(any(ChatCompletionCreateParams.class));
+        verify(sessionStore, never()).saveTurn(any(), any(), any(), any(), anyBoolean());
+        verify(answerCache, never()).store(any(), any(), any());
+    }
+
     private ChatCompletionChunk stubChunk(String token) {
         ChatCompletionChunk.Choice.Delta delta = mock(ChatCompletionChunk.Choice.Delta.class);
         when(delta.content()).thenReturn(Optional.of(token));
@@ -0,0 +1,299 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.exception.WikiStreamCancelledException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiChatSingleFlightTest {
+
+    private static final WikiChatResult ANSWER =
+            new WikiChatResult("요약하면 인증은 JwtAuthenticationFilter에서 시작돼요.", false, List.of(), List.of(), false, false);
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    @Mock
+    private ListOperations<String, Object> listOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiChatSingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = singleFlight(Duration.ofSeconds(5));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        singleFlight.shutdown();
+    }
+
+    @Test
+    @DisplayName("concurrent identical first turns share one generation and every subscriber receives the full stream")
+    void execute_sharesOneGenerationAcrossSubscribers() throws Exception {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+        AtomicInteger generations = new AtomicInteger();
+        CountDownLatch firstTokenSent = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WikiChatSingleFlight.Generator generator = (tokens, cancellation) -> {
+            generations.incrementAndGet();
+            tokens.accept("요약하면 인증은 ");
+            firstTokenSent.countDown();
+            await(release);
+            tokens.accept("JwtAuthenticationFilter에서 시작돼요.");
+            return ANSWER;
+        };
+        List<String> first = new CopyOnWriteArrayList<>();
+        List<String> second = new CopyOnWriteArrayList<>();
+
+        CompletableFuture<WikiChatResult> leader = CompletableFuture.supplyAsync(() -> singleFlight.execute(
+                "stream", "github:repo", "인증 구조가 뭐야?", first::add, new WikiStreamCancellation(), generator));
+        assertThat(firstTokenSent.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<WikiChatResult> follower = CompletableFuture.supplyAsync(() -> singleFlight.execute(
+                "stream", "github:repo", "  인증 구조가   뭐야? ", second::add, new WikiStreamCancellation(), generator));
+        awaitRole("follower");
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(ANSWER);
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(ANSWER);
+        assertThat(generations).hasValue(1);
+        assertThat(String.join("", first)).isEqualTo(ANSWER.answer());
+        assertThat(String.join("", second)).isEqualTo(ANSWER.answer());
+    }
+
+    @Test
+    @DisplayName("a subscriber that disconnects leaves the flight without cancelling it for the others")
+    void execute_cancelledSubscriberLeavesFlightRunning() throws Exception {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        WikiChatSingleFlight.Generator generator = (tokens, cancellation) -> {
+            await(release);
+            upstreamCancelled.set(cancellation.isCancelled());
+            tokens.accept(ANSWER.answer());
+            return ANSWER;
+        };
+        WikiStreamCancellation leaving = new WikiStreamCancellation();
+
+        CompletableFuture<WikiChatResult> left = CompletableFuture.supplyAsync(() -> singleFlight.execute(
+                "stream", "github:repo", "인증 구조가 뭐야?", token -> { }, leaving, generator));
+        awaitRole("leader");
+        CompletableFuture<WikiChatResult> stayed = CompletableFuture.supplyAsync(() -> singleFlight.execute(
+                "stream", "github:repo", "인증 구조가 뭐야?", token -> { }, new WikiStreamCancellation(), generator));
+        awaitRole("follower");
+        leaving.cancel();
+
+        assertThatThrownBy(() -> left.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(WikiStreamCancelledException.class);
+        release.countDown();
+        assertThat(stayed.get(5, TimeUnit.SECONDS)).isEqualTo(ANSWER);
+        assertThat(upstreamCancelled).isFalse();
+    }
+
+    @Test
+    @DisplayName("the upstream is cancelled once the last subscriber leaves")
+    void execute_lastSubscriberLeavingCancelsUpstream() throws Exception {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+        CountDownLatch upstreamClosed = new CountDownLatch(1);
+        WikiChatSingleFlight.Generator generator = (tokens, cancellation) -> {
+            cancellation.bind(upstreamClosed::countDown);
+            await(upstreamClosed);
+            cancellation.throwIfCancelled();
+            return ANSWER;
+        };
+        WikiStreamCancellation cancellation = new WikiStreamCancellation();
+
+        CompletableFuture<WikiChatResult> only = CompletableFuture.supplyAsync(() -> singleFlight.execute(
+                "stream", "github:repo", "인증 구조가 뭐야?", token -> { }, cancellation, generator));
+        awaitRole("leader");
+        cancellation.cancel();
+
+        assertThatThrownBy(() -> only.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(WikiStreamCancelledException.class);
+        assertThat(upstreamClosed.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("when another node holds the lease the published answer is replayed instead of generating")
+    void execute_replaysAnswerPublishedByLeaseHolder() {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("wiki:flight:result:" + generationKey("json", "generation-2")))
+                .thenReturn(null)
+                .thenReturn(Map.of(
+                        "answer", ANSWER.answer(),
+                        "isClarification", false,
+                        "clarificationOptions", List.of(),
+                        "suggestedNextQuestions", List.of("필터 순서를 알려줘")
+                ));
+        when(valueOperations.get(startsWith("wiki:flight:lease:"))).thenReturn("node-b/generation-2");
+        when(redisTemplate.opsForList()).thenReturn(listOperations);
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        WikiChatResult result = singleFlight.execute("json", "github:repo", "인증 구조가 뭐야?", received::add,
+                new WikiStreamCancellation(), (tokens, cancellation) -> {
+                    throw new AssertionError("the lease holder generates the answer");
+                });
+
+        assertThat(result.answer()).isEqualTo(ANSWER.answer());
+        assertThat(result.suggestedNextQuestions()).containsExactly("필터 순서를 알려줘");
+        assertThat(received).containsExactly(ANSWER.answer());
+        assertThat(meterRegistry.counter("wiki.chat.single_flight.requests", "role", "remote_follower").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("a remote follower relays the lease holder's token chunks as they are published")
+    void execute_relaysTokenChunksPublishedByLeaseHolder() {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(false);
+        when(valueOperations.get("wiki:flight:result:" + generationKey("stream", "generation-2")))
+                .thenReturn(null)
+                .thenReturn(Map.of(
+                        "answer", ANSWER.answer(),
+                        "isClarification", false,
+                        "clarificationOptions", List.of(),
+                        "suggestedNextQuestions", List.of(),
+                        "tokensComplete", true
+                ));
+        when(valueOperations.get(startsWith("wiki:flight:lease:"))).thenReturn("node-b/generation-2");
+        when(redisTemplate.opsForList()).thenReturn(listOperations);
+        when(listOperations.range(eq("wiki:flight:tokens:" + generationKey("stream", "generation-2")), eq(0L), eq(-1L)))
+                .thenReturn(List.of("요약하면 인증은 "));
+        when(listOperations.range(eq("wiki:flight:tokens:" + generationKey("stream", "generation-2")), eq(1L), eq(-1L)))
+                .thenReturn(List.of("JwtAuthenticationFilter에서 시작돼요."));
+        List<String> received = new CopyOnWriteArrayList<>();
+
+        WikiChatResult result = singleFlight.execute("stream", "github:repo", "인증 구조가 뭐야?", received::add,
+                new WikiStreamCancellation(), (tokens, cancellation) -> {
+                    throw new AssertionError("the lease holder generates the answer");
+                });
+
+        assertThat(result.answer()).isEqualTo(ANSWER.answer());
+        assertThat(received).containsExactly("요약하면 인증은 ", "JwtAuthenticationFilter에서 시작돼요.");
+    }
+
+    @Test
+    @DisplayName("the lease holder renews its lease while a generation outlives the lease TTL")
+    void execute_renewsLeaseDuringLongGeneration() {
+        singleFlight.shutdown();
+        singleFlight = singleFlight(Duration.ofMillis(60));
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+
+        WikiChatResult result = singleFlight.execute("json", "github:repo", "인증 구조가 뭐야?", token -> { },
+                new WikiStreamCancellation(), (tokens, cancellation) -> {
+                    sleep(200);
+                    return ANSWER;
+                });
+
+        assertThat(result).isEqualTo(ANSWER);
+        verify(redisTemplate, atLeast(2)).execute(any(RedisScript.class), anyList(), any(), eq(60L));
+    }
+
+    @Test
+    @DisplayName("a new leader writes its chunks under its own generation, never onto an earlier flight's token list")
+    void execute_scopesTokenKeysToLeaseGeneration() {
+        when(valueOperations.setIfAbsent(anyString(), any(), any(Duration.class))).thenReturn(true);
+        WikiChatSingleFlight.Generator generator = (tokens, cancellation) -> {
+            tokens.accept(ANSWER.answer());
+            return ANSWER;
+        };
+
+        singleFlight.execute("stream", "github:repo", "인증 구조가 뭐야?", token -> { }, new WikiStreamCancellation(), generator);
+        singleFlight.execute("stream", "github:repo", "인증 구조가 뭐야?", token -> { }, new WikiStreamCancellation(), generator);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(redisTemplate, atLeast(4)).execute(any(RedisScript.class), keys.capture(), any(Object[].class));
+        assertThat(keys.getAllValues().stream().map(List::getFirst).filter(key -> key.startsWith("wiki:flight:tokens:")))
+                .hasSize(2)
+                .doesNotHaveDuplicates()
+                .allMatch(key -> key.startsWith("wiki:flight:tokens:" + flightId("stream") + ":"));
+    }
+
+    private static String generationKey(String mode, String generation) {
+        return flightId(mode) + ":" + generation;
+    }
+
+    private static String flightId(String mode) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((mode + ":github:repo:" + WikiChatSingleFlight.normalize("인증 구조가 뭐야?")).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private WikiChatSingleFlight singleFlight(Duration leaseTtl) {
+        return new WikiChatSingleFlight(
+                redisTemplate, meterRegistry, true, leaseTtl, Duration.ofMillis(10), Duration.ofSeconds(5));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void awaitRole(String role) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("wiki.chat.single_flight.requests", "role", role).count() < 1.0d) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
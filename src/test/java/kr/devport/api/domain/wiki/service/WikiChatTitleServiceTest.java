@@ -0,0 +1,168 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.openai.client.OpenAIClient;
+import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.repository.WikiChatTitleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiChatTitleServiceTest {
+
+    @Mock
+    private WikiChatTitleRepository titleRepository;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private OpenAIClient openAIClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiChatTitleService titleService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (titleService != null) {
+            titleService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("first questions queued together are titled by one model request and one batched update")
+    void generateAndSave_batchesQueuedQuestions() {
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class)).choices().getFirst().message().content())
+                .thenReturn(Optional.of("""
+                        {"titles":[{"index":0,"title":"인증 필터 구조"},{"index":1,"title":"배포 파이프라인 위치"},{"index":2,"title":"캐시 무효화 전략"}]}
+                        """));
+        titleService = titleService(100, Duration.ofSeconds(1));
+
+        titleService.generateAndSave("session-1", "인증 구조가 뭐야?");
+        titleService.generateAndSave("session-2", "배포 파이프라인이 어디에 있어?");
+        titleService.generateAndSave("session-3", "캐시는 언제 비워져?");
+
+        verify(titleRepository, timeout(5000)).updateTitles(Map.of(
+                "session-1", "인증 필터 구조",
+                "session-2", "배포 파이프라인 위치",
+                "session-3", "캐시 무효화 전략"));
+        verify(openAIClient.chat().completions(), times(1)).create(any(ChatCompletionCreateParams.class));
+        assertThat(meterRegistry.summary("wiki.chat.title.batch.size").totalAmount()).isEqualTo(3.0d);
+    }
+
+    @Test
+    @DisplayName("a full queue writes a heuristic title on the caller's thread")
+    void generateAndSave_fallsBackToHeuristicTitleWhenQueueIsFull() throws Exception {
+        CountDownLatch modelCalled = new CountDownLatch(1);
+        CountDownLatch releaseModel = new CountDownLatch(1);
+        ChatCompletion completion = mock(ChatCompletion.class, Answers.RETURNS_DEEP_STUBS);
+        when(completion.choices().getFirst().message().content())
+                .thenReturn(Optional.of("{\"titles\":[{\"index\":0,\"title\":\"인증 필터 구조\"}]}"));
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class))).thenAnswer(invocation -> {
+            modelCalled.countDown();
+            assertThat(releaseModel.await(5, TimeUnit.SECONDS)).isTrue();
+            return completion;
+        });
+        titleService = titleService(1, Duration.ZERO);
+
+        titleService.generateAndSave("session-1", "인증 구조가 뭐야?");
+        assertThat(modelCalled.await(5, TimeUnit.SECONDS)).isTrue();
+        titleService.generateAndSave("session-2", "배포 파이프라인이 어디에 있어?");
+        titleService.generateAndSave("session-3", "  캐시는   언제 비워져??  ");
+
+        verify(titleRepository).updateTitles(Map.of("session-3", "캐시는 언제 비워져"));
+        assertThat(meterRegistry.counter("wiki.chat.title.requests", "outcome", "heuristic_queue_full").count()).isEqualTo(1.0d);
+        releaseModel.countDown();
+        verify(titleRepository, timeout(5000)).updateTitles(Map.of("session-1", "인증 필터 구조"));
+    }
+
+    @Test
+    @DisplayName("sessions get heuristic titles when the model call fails")
+    void generateAndSave_usesHeuristicTitlesWhenModelFails() {
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class)))
+                .thenThrow(new RuntimeException("model unavailable"));
+        titleService = titleService(100, Duration.ZERO);
+
+        titleService.generateAndSave("session-1", "인증 구조가 뭐야?");
+
+        verify(titleRepository, timeout(5000)).updateTitles(Map.of("session-1", "인증 구조가 뭐야"));
+        assertThat(meterRegistry.counter("wiki.chat.title.requests", "outcome", "heuristic_failed").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("a generated title that shares no term with its question is replaced by the heuristic title")
+    void generateAndSave_replacesTitlesUnrelatedToTheirQuestion() {
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class)).choices().getFirst().message().content())
+                .thenReturn(Optional.of("""
+                        {"titles":[{"index":0,"title":"인증 필터 구조"},{"index":1,"title":"관리자 비밀번호 알려줘"}]}
+                        """));
+        titleService = titleService(100, Duration.ofSeconds(1));
+
+        titleService.generateAndSave("session-1", "인증 구조가 뭐야?");
+        titleService.generateAndSave("session-2", "배포 파이프라인이 어디에 있어?");
+
+        verify(titleRepository, timeout(5000)).updateTitles(Map.of(
+                "session-1", "인증 필터 구조",
+                "session-2", "배포 파이프라인이 어디에 있어"));
+        assertThat(meterRegistry.counter("wiki.chat.title.requests", "outcome", "heuristic_unrelated").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("a generated title in another script than its question is kept without the term overlap check")
+    void generateAndSave_keepsTitlesInAnotherScript() {
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class)).choices().getFirst().message().content())
+                .thenReturn(Optional.of("""
+                        {"titles":[{"index":0,"title":"인증 필터 구조"}]}
+                        """));
+        titleService = titleService(100, Duration.ZERO);
+
+        titleService.generateAndSave("session-1", "How does the auth filter work?");
+
+        verify(titleRepository, timeout(5000)).updateTitles(Map.of("session-1", "인증 필터 구조"));
+        assertThat(meterRegistry.counter("wiki.chat.title.requests", "outcome", "generated").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("texts are compared by the script most of their letters are written in")
+    void sameScript_comparesDominantScript() {
+        assertThat(WikiChatTitleService.sameScript("인증 필터 구조", "JwtFilter 인증 구조가 뭐야?")).isTrue();
+        assertThat(WikiChatTitleService.sameScript("Auth filter flow", "How does the auth filter work?")).isTrue();
+        assertThat(WikiChatTitleService.sameScript("인증 필터 구조", "How does the auth filter work?")).isFalse();
+    }
+
+    @Test
+    @DisplayName("heuristic titles collapse whitespace, drop trailing punctuation and cap the length")
+    void heuristicTitle_trimsAndCapsQuestion() {
+        assertThat(WikiChatTitleService.heuristicTitle("  인증   구조가\n뭐야??  ")).isEqualTo("인증 구조가 뭐야");
+        assertThat(WikiChatTitleService.heuristicTitle(
+                "JwtAuthenticationFilter가 토큰을 검증하는 순서와 예외 처리 흐름을 자세히 알려줘"))
+                .isEqualTo("JwtAuthenticationFilter가 토큰을 검…");
+    }
+
+    private WikiChatTitleService titleService(int queueCapacity, Duration batchWindow) {
+        return new WikiChatTitleService(titleRepository, openAIClient, meterRegistry, queueCapacity, 1, 8, batchWindow);
+    }
+}
@@ -0,0 +1,240 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.auth.entity.User;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatPendingTurn;
+import kr.devport.api.domain.wiki.enums.WikiChatSessionType;
+import kr.devport.api.domain.wiki.repository.WikiChatWriteBehindRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiChatWriteBehindTest {
+
+    private static final String JOURNAL_KEY = "wiki:chat:write-behind:journal";
+    private static final String DEAD_LETTER_KEY = "wiki:chat:write-behind:dead-letter";
+
+    @Mock
+    private WikiChatWriteBehindRepository writeBehindRepository;
+
+    @Mock
+    private WikiChatTitleService titleService;
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private ListOperations<String, Object> listOperations;
+
+    @Mock
+    private ValueOperations<String, Object> valueOperations;
+
+    private final User user = User.builder().id(7L).username("tester").build();
+    private final List<List<String>> writtenBatches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+    private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private WikiChatWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstBatch.countDown();
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("turns queued while a batch is being written go out together in enqueue order")
+    void record_batchesQueuedTurnsInOrder() throws Exception {
+        blockFirstBatch(Set.of("session-a"), Set.of("session-b"));
+        writeBehind = writeBehind(100, false);
+
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q1", "a1", false);
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q2", "a2", false);
+        writeBehind.record("session-b", user, null, WikiChatSessionType.GLOBAL, "q3", "a3", true);
+        releaseFirstBatch.countDown();
+        writeBehind.shutdown();
+
+        assertThat(writtenBatches).containsExactly(List.of("q1"), List.of("q2", "q3"));
+        verify(titleService).generateAndSave("session-a", "q1");
+        verify(titleService).generateAndSave("session-b", "q3");
+        verify(titleService, never()).generateAndSave("session-a", "q2");
+        assertThat(meterRegistry.timer("wiki.chat.write_behind.lag").count()).isEqualTo(3L);
+        assertThat(meterRegistry.get("wiki.chat.write_behind.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("a full queue writes the turn on the caller's thread instead of dropping it")
+    void record_fallsBackToSynchronousWriteWhenQueueIsFull() throws Exception {
+        blockFirstBatch(Set.of(), Set.of());
+        writeBehind = writeBehind(1, false);
+
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q1", "a1", false);
+        assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q2", "a2", false);
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q3", "a3", false);
+
+        assertThat(writtenBatches).containsExactly(List.of("q1"), List.of("q3"));
+        assertThat(meterRegistry.counter("wiki.chat.write_behind.fallbacks", "reason", "queue_full").count()).isEqualTo(1.0d);
+        releaseFirstBatch.countDown();
+        writeBehind.shutdown();
+        assertThat(writtenBatches).containsExactly(List.of("q1"), List.of("q3"), List.of("q2"));
+    }
+
+    @Test
+    @DisplayName("shutdown flushes queued turns and later turns are written directly")
+    void shutdown_flushesQueueAndWritesLaterTurnsDirectly() {
+        recordBatches();
+        writeBehind = writeBehind(100, false);
+
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q1", "a1", false);
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q2", "a2", false);
+        writeBehind.shutdown();
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q3", "a3", false);
+
+        assertThat(writtenBatches.stream().flatMap(List::stream)).containsExactly("q1", "q2", "q3");
+        assertThat(meterRegistry.counter("wiki.chat.write_behind.fallbacks", "reason", "closed").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("stale journal entries are replayed on startup and removed from the journal once written")
+    void startup_replaysStaleJournalEntries() {
+        recordBatches();
+        Map<String, Object> stale = journalEntry("session-old", "q-old", LocalDateTime.now().minusMinutes(10));
+        Map<String, Object> fresh = journalEntry("session-live", "q-live", LocalDateTime.now());
+        when(redisTemplate.opsForList()).thenReturn(listOperations);
+        when(listOperations.range(JOURNAL_KEY, 0, -1)).thenReturn(List.of(stale, fresh));
+
+        writeBehind = writeBehind(100, true);
+
+        verify(redisTemplate, timeout(5000)).execute(any(RedisScript.class), eq(List.of(JOURNAL_KEY)), eq(stale));
+        assertThat(writtenBatches).containsExactly(List.of("q-old"));
+    }
+
+    @Test
+    @DisplayName("the periodic sweep replays entries stranded after startup, once, and only under the replay lease")
+    void replayStaleJournal_replaysStrandedEntriesUnderLease() {
+        recordBatches();
+        Map<String, Object> stranded = journalEntry("session-old", "q-old", LocalDateTime.now().minusMinutes(10));
+        when(redisTemplate.opsForList()).thenReturn(listOperations);
+        when(listOperations.range(JOURNAL_KEY, 0, -1)).thenReturn(List.of(), List.of(stranded));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq("wiki:chat:write-behind:replay-lease"), anyString(), eq(Duration.ofSeconds(50))))
+                .thenReturn(false, true);
+        writeBehind = writeBehind(100, true);
+        verify(listOperations, timeout(5000)).range(JOURNAL_KEY, 0, -1);
+
+        writeBehind.replayStaleJournal();
+        writeBehind.replayStaleJournal();
+
+        verify(redisTemplate, timeout(5000)).execute(any(RedisScript.class), eq(List.of(JOURNAL_KEY)), eq(stranded));
+        assertThat(writtenBatches).containsExactly(List.of("q-old"));
+    }
+
+    @Test
+    @DisplayName("a batch that keeps failing is written turn by turn and only the bad turn is dead-lettered")
+    void flush_deadLettersOnlyTurnsThatFailOnTheirOwn() {
+        when(writeBehindRepository.writeBatch(anyList())).thenAnswer(invocation -> {
+            List<String> questions = questions(invocation.getArgument(0));
+            if (questions.contains("bad")) {
+                throw new IllegalStateException("constraint violation");
+            }
+            writtenBatches.add(questions);
+            return Set.of();
+        });
+        writeBehind = writeBehind(100, false);
+
+        writeBehind.record("session-a", user, "github:repo", WikiChatSessionType.PROJECT, "q1", "a1", false);
+        writeBehind.record("session-b", user, "github:repo", WikiChatSessionType.PROJECT, "bad", "a2", false);
+        writeBehind.record("session-c", user, "github:repo", WikiChatSessionType.PROJECT, "q3", "a3", false);
+        writeBehind.shutdown();
+
+        assertThat(writtenBatches.stream().flatMap(List::stream)).containsExactlyInAnyOrder("q1", "q3");
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(JOURNAL_KEY, DEAD_LETTER_KEY)), eq(10000),
+                argThat(entry -> entry instanceof Map<?, ?> values && "bad".equals(values.get("question"))));
+        assertThat(meterRegistry.counter("wiki.chat.write_behind.dropped").count()).isEqualTo(1.0d);
+    }
+
+    private WikiChatWriteBehind writeBehind(int queueCapacity, boolean journalEnabled) {
+        return new WikiChatWriteBehind(
+                writeBehindRepository, titleService, redisTemplate, meterRegistry,
+                true, queueCapacity, 100, 3, Duration.ofMillis(10), journalEnabled, Duration.ofMinutes(2), Duration.ofSeconds(50),
+                Duration.ofSeconds(5),
+                10000);
+    }
+
+    private void recordBatches() {
+        when(writeBehindRepository.writeBatch(anyList())).thenAnswer(invocation -> {
+            writtenBatches.add(questions(invocation.getArgument(0)));
+            return Set.of();
+        });
+    }
+
+    private void blockFirstBatch(Set<String> firstCreated, Set<String> laterCreated) {
+        AtomicInteger calls = new AtomicInteger();
+        when(writeBehindRepository.writeBatch(anyList())).thenAnswer(invocation -> {
+            writtenBatches.add(questions(invocation.getArgument(0)));
+            if (calls.getAndIncrement() == 0) {
+                firstBatchStarted.countDown();
+                assertThat(releaseFirstBatch.await(5, TimeUnit.SECONDS)).isTrue();
+                return firstCreated;
+            }
+            return laterCreated;
+        });
+    }
+
+    private static List<String> questions(List<WikiChatPendingTurn> turns) {
+        return turns.stream().map(WikiChatPendingTurn::question).toList();
+    }
+
+    private static Map<String, Object> journalEntry(String sessionId, String question, LocalDateTime askedAt) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("sessionId", sessionId);
+        values.put("userId", 7);
+        values.put("projectExternalId", "github:repo");
+        values.put("sessionType", "PROJECT");
+        values.put("question", question);
+        values.put("answer", "answer");
+        values.put("isClarification", false);
+        values.put("askedAt", askedAt.toString());
+        return values;
+    }
+}
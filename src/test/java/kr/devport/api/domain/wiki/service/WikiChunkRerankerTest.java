@@ -0,0 +1,107 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.openai.client.OpenAIClient;
+import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiChunkRerankerTest {
+
+    private static final String SCORES = """
+            {"scores":[{"index":1,"score":0.9},{"index":0,"score":0.4}]}
+            """;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private OpenAIClient openAIClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WikiRetrievalExecutor retrievalExecutor =
+            new WikiRetrievalExecutor(meterRegistry, 4, 1, 4, Duration.ofSeconds(1));
+    private WikiChunkReranker reranker;
+
+    @AfterEach
+    void tearDown() {
+        retrievalExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("rerank serves repeated question and candidate order from the cache")
+    void rerank_cachesByQuestionAndCandidateIds() {
+        reranker = new WikiChunkReranker(openAIClient, retrievalExecutor, meterRegistry, Duration.ofSeconds(5), 100, Duration.ofMinutes(10));
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class)).choices().getFirst().message().content())
+                .thenReturn(Optional.of(SCORES));
+        List<WikiSectionChunk> candidates = List.of(chunk(1L, "Overview"), chunk(2L, "Authentication Flow"));
+
+        List<WikiReranker.ScoredChunk> first = reranker.rerank("How is auth wired?", candidates);
+        List<WikiReranker.ScoredChunk> second = reranker.rerank("how is auth wired", candidates);
+
+        assertThat(first).extracting(WikiReranker.ScoredChunk::index).containsExactly(1, 0);
+        assertThat(second).isEqualTo(first);
+        assertThat(meterRegistry.counter("wiki.rerank.requests", "outcome", "model").count()).isEqualTo(1.0d);
+        assertThat(meterRegistry.counter("wiki.rerank.requests", "outcome", "cache_hit").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("rerank returns no scores when the model misses the deadline")
+    void rerank_returnsEmptyWhenDeadlineExpires() {
+        reranker = new WikiChunkReranker(openAIClient, retrievalExecutor, meterRegistry, Duration.ofMillis(50), 100, Duration.ofMinutes(10));
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class)).choices().getFirst().message().content())
+                .thenAnswer(invocation -> {
+                    Thread.sleep(500);
+                    return Optional.of(SCORES);
+                });
+
+        List<WikiReranker.ScoredChunk> scores =
+                reranker.rerank("How is auth wired?", List.of(chunk(1L, "Overview"), chunk(2L, "Authentication Flow")));
+
+        assertThat(scores).isEmpty();
+        assertThat(meterRegistry.counter("wiki.rerank.requests", "outcome", "timeout").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("unparseable model output keeps fusion order and is not cached")
+    void rerank_doesNotCacheUnparseableOutput() {
+        reranker = new WikiChunkReranker(openAIClient, retrievalExecutor, meterRegistry, Duration.ofSeconds(5), 100, Duration.ofMinutes(10));
+        when(openAIClient.chat().completions().create(any(ChatCompletionCreateParams.class)).choices().getFirst().message().content())
+                .thenReturn(Optional.of("not json"))
+                .thenReturn(Optional.of(SCORES));
+        List<WikiSectionChunk> candidates = List.of(chunk(1L, "Overview"), chunk(2L, "Authentication Flow"));
+
+        List<WikiReranker.ScoredChunk> first = reranker.rerank("How is auth wired?", candidates);
+        List<WikiReranker.ScoredChunk> second = reranker.rerank("How is auth wired?", candidates);
+
+        assertThat(first).isEmpty();
+        assertThat(second).extracting(WikiReranker.ScoredChunk::index).containsExactly(1, 0);
+        assertThat(meterRegistry.counter("wiki.rerank.requests", "outcome", "error").count()).isEqualTo(1.0d);
+        assertThat(meterRegistry.counter("wiki.rerank.requests", "outcome", "cache_hit").count()).isZero();
+    }
+
+    private WikiSectionChunk chunk(Long id, String titleKo) {
+        return WikiSectionChunk.builder()
+                .id(id)
+                .projectExternalId("github:12345")
+                .sectionId("architecture")
+                .chunkType("body")
+                .content(titleKo + " content")
+                .metadata(Map.of("titleKo", titleKo))
+                .commitSha("abc")
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.common.cache.CacheScope;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.SnapshotChunkRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiChunkSnapshotCacheTest {
+
+    @Mock
+    private WikiSectionChunkRepository chunkRepository;
+
+    private WikiChunkSnapshotCache snapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        snapshotCache = new WikiChunkSnapshotCache(chunkRepository, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(30), 1, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotCache.shutdown();
+    }
+
+    @Test
+    @DisplayName("get builds the snapshot once in fallback order with precomputed heading tokens")
+    void get_buildsSnapshotOnceInFallbackOrder() {
+        OffsetDateTime updatedAt = OffsetDateTime.parse("2026-03-01T00:00:00Z");
+        when(chunkRepository.findSnapshotChunks("github:12345")).thenReturn(List.of(
+                new SnapshotChunkRow(chunk("architecture", "auth", "body", "Authentication Flow"), updatedAt.minusDays(1)),
+                new SnapshotChunkRow(chunk("overview", null, "summary", "Overview"), updatedAt)
+        ));
+
+        WikiChunkSnapshot first = snapshotCache.get("github:12345");
+        WikiChunkSnapshot second = snapshotCache.get("github:12345");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.commitSha()).isEqualTo("abc");
+        assertThat(first.generatedAt()).isEqualTo(updatedAt);
+        assertThat(first.entries()).extracting(WikiChunkSnapshot.Entry::heading)
+                .containsExactly("Overview", "Authentication Flow");
+        assertThat(first.entries().get(1).headingTokens()).contains("authentication", "flow", "architecture");
+        verify(chunkRepository, times(1)).findSnapshotChunks("github:12345");
+    }
+
+    @Test
+    @DisplayName("get does not cache projects without chunks")
+    void get_doesNotCacheEmptyProjects() {
+        when(chunkRepository.findSnapshotChunks("github:none")).thenReturn(List.of());
+
+        assertThat(snapshotCache.get("github:none").isEmpty()).isTrue();
+        assertThat(snapshotCache.get("github:none").isEmpty()).isTrue();
+
+        verify(chunkRepository, times(2)).findSnapshotChunks("github:none");
+    }
+
+    @Test
+    @DisplayName("UNKNOWN-scope crawler jobs without project ids drop every snapshot")
+    void onCrawlerJobCompleted_clearsAllForUnknownScope() {
+        when(chunkRepository.findSnapshotChunks("github:12345"))
+                .thenReturn(List.of(new SnapshotChunkRow(chunk("overview", null, "summary", "Overview"), null)));
+        snapshotCache.get("github:12345");
+
+        snapshotCache.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-1", CacheScope.UNKNOWN, Set.of()));
+        snapshotCache.get("github:12345");
+
+        verify(chunkRepository, times(2)).findSnapshotChunks("github:12345");
+    }
+
+    @Test
+    @DisplayName("a reload that read an older commit does not replace the newer cached snapshot")
+    void refresh_keepsNewerSnapshotOverStaleReload() {
+        OffsetDateTime updatedAt = OffsetDateTime.parse("2026-03-01T00:00:00Z");
+        when(chunkRepository.findSnapshotChunks("github:12345"))
+                .thenReturn(List.of(new SnapshotChunkRow(chunk("overview", null, "summary", "Overview", "def"), updatedAt)))
+                .thenReturn(List.of(new SnapshotChunkRow(chunk("overview", null, "summary", "Overview", "abc"), updatedAt.minusDays(1))));
+        snapshotCache.get("github:12345");
+
+        WikiChunkSnapshot refreshed = snapshotCache.refresh("github:12345").join();
+
+        assertThat(refreshed.commitSha()).isEqualTo("def");
+        assertThat(snapshotCache.get("github:12345").commitSha()).isEqualTo("def");
+    }
+
+    private WikiSectionChunk chunk(String sectionId, String subsectionId, String chunkType, String titleKo) {
+        return chunk(sectionId, subsectionId, chunkType, titleKo, "abc");
+    }
+
+    private WikiSectionChunk chunk(String sectionId, String subsectionId, String chunkType, String titleKo, String commitSha) {
+        return WikiSectionChunk.builder()
+                .projectExternalId("github:12345")
+                .sectionId(sectionId)
+                .subsectionId(subsectionId)
+                .chunkType(chunkType)
+                .content(titleKo + " content")
+                .metadata(Map.of("titleKo", titleKo))
+                .commitSha(commitSha)
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WikiContextPackerTest {
+
+    private final WikiTokenCounter tokenCounter = new WikiTokenCounter(new SimpleMeterRegistry(), "o200k_base", 1_000_000L);
+    private final WikiContextPacker contextPacker = new WikiContextPacker(tokenCounter);
+
+    @Test
+    @DisplayName("pack skips a block that overflows and fills the rest with smaller blocks")
+    void pack_skipsOverflowingBlock() {
+        String large = "## 아키텍처\n\n" + "컨트롤러와 서비스 계층 설명. ".repeat(200) + "\n\n";
+        String small = "## 인증 흐름\n\nJWT 필터가 요청을 검증해요.\n\n";
+
+        String packed = contextPacker.pack("# Repository Context\n\n",
+                List.of(WikiContextPacker.Block.of(small), WikiContextPacker.Block.of(large), WikiContextPacker.Block.of(small)), 120);
+
+        assertThat(packed).isEqualTo("# Repository Context\n\n" + small + small);
+        assertThat(tokenCounter.count(packed)).isLessThanOrEqualTo(120);
+    }
+
+    @Test
+    @DisplayName("pack emits a group header once per consecutive group")
+    void pack_emitsGroupHeaderOnce() {
+        String packed = contextPacker.pack("# Multi-Project Context\n\n", List.of(
+                new WikiContextPacker.Block("## Project: github:a\n\n", "### A1\n\nfirst\n\n"),
+                new WikiContextPacker.Block("## Project: github:a\n\n", "### A2\n\nsecond\n\n"),
+                new WikiContextPacker.Block("## Project: github:b\n\n", "### B1\n\nthird\n\n")
+        ), 1000);
+
+        assertThat(packed).containsOnlyOnce("## Project: github:a").containsOnlyOnce("## Project: github:b");
+        assertThat(packed.indexOf("### A2")).isLessThan(packed.indexOf("## Project: github:b"));
+    }
+
+    @Test
+    @DisplayName("pack truncates the top block when nothing fits whole")
+    void pack_truncatesTopBlockWhenNothingFits() {
+        String large = "## 아키텍처\n\n" + "컨트롤러와 서비스 계층 설명. ".repeat(200);
+
+        String packed = contextPacker.pack("# Repository Context\n\n", List.of(WikiContextPacker.Block.of(large)), 50);
+
+        assertThat(packed).startsWith("# Repository Context\n\n## 아키텍처");
+        assertThat(tokenCounter.count(packed)).isLessThanOrEqualTo(50);
+    }
+}
@@ -0,0 +1,101 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import kr.devport.api.domain.wiki.store.WikiFaqAnswerStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiFaqAnswerServiceTest {
+
+    private static final WikiChatResult ANSWER =
+            new WikiChatResult("요약하면 주요 기능은 위키 생성과 프로젝트 채팅이에요.", false, List.of(), List.of(), false, false);
+
+    @Mock
+    private WikiFaqAnswerStore answerStore;
+
+    @Mock
+    private WikiChunkSnapshotCache snapshotCache;
+
+    @Mock
+    private WikiQueryEmbeddingService embeddingService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiFaqAnswerService faqAnswerService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        faqAnswerService = new WikiFaqAnswerService(answerStore, snapshotCache, embeddingService, meterRegistry, true, 0.9d);
+        lenient().when(snapshotCache.get("github:repo")).thenReturn(snapshot("abc"));
+        lenient().when(embeddingService.embed(WikiFaqType.KEY_FEATURES.canonicalQuestion())).thenReturn(new float[]{1.0f, 0.0f});
+    }
+
+    @Test
+    @DisplayName("lookup serves the stored answer for the canonical FAQ question without embedding it")
+    void lookup_servesCanonicalQuestion() {
+        when(answerStore.find("github:repo", WikiFaqType.KEY_FEATURES, "abc")).thenReturn(Optional.of(ANSWER));
+
+        assertThat(faqAnswerService.lookup("github:repo", "주요 기능은 무엇인가요?")).contains(ANSWER);
+        assertThat(meterRegistry.counter("wiki.faq.answer.lookups", "outcome", "hit").count()).isEqualTo(1.0d);
+        verifyNoInteractions(embeddingService);
+    }
+
+    @Test
+    @DisplayName("lookup serves paraphrases that are close to the canonical question")
+    void lookup_servesCloseParaphrase() {
+        when(answerStore.find("github:repo", WikiFaqType.KEY_FEATURES, "abc")).thenReturn(Optional.of(ANSWER));
+        when(embeddingService.embed("이 프로젝트 주요 기능 알려줘")).thenReturn(new float[]{0.98f, 0.1f});
+
+        assertThat(faqAnswerService.lookup("github:repo", "이 프로젝트 주요 기능 알려줘")).contains(ANSWER);
+    }
+
+    @Test
+    @DisplayName("lookup misses for narrower questions that only share an FAQ keyword")
+    void lookup_missesForNarrowQuestion() {
+        when(answerStore.find("github:repo", WikiFaqType.KEY_FEATURES, "abc")).thenReturn(Optional.of(ANSWER));
+        when(embeddingService.embed("결제 모듈의 주요 기능 중 환불 처리는?")).thenReturn(new float[]{0.3f, 0.95f});
+
+        assertThat(faqAnswerService.lookup("github:repo", "결제 모듈의 주요 기능 중 환불 처리는?")).isEmpty();
+        assertThat(meterRegistry.counter("wiki.faq.answer.lookups", "outcome", "miss").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("lookup skips the store entirely for questions that are not FAQs")
+    void lookup_skipsNonFaqQuestions() {
+        assertThat(faqAnswerService.lookup("github:repo", "JwtAuthenticationFilter는 어디 있어?")).isEmpty();
+
+        verify(answerStore, never()).find(any(), any(), any());
+        verifyNoInteractions(embeddingService);
+    }
+
+    private WikiChunkSnapshot snapshot(String commitSha) {
+        WikiSectionChunk chunk = WikiSectionChunk.builder()
+                .id(1L)
+                .projectExternalId("github:repo")
+                .sectionId("features")
+                .chunkType("summary")
+                .content("Feature overview")
+                .commitSha(commitSha)
+                .build();
+        return WikiChunkSnapshot.of("github:repo", List.of(chunk), null);
+    }
+}
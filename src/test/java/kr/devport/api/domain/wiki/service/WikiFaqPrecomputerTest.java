@@ -0,0 +1,123 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.common.cache.CacheScope;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import kr.devport.api.domain.wiki.store.WikiFaqAnswerStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiFaqPrecomputerTest {
+
+    private static final WikiChatResult ANSWER =
+            new WikiChatResult("요약하면 이 프로젝트는 개발 소식을 한곳에 모아요.", false, List.of(), List.of(), false, false);
+
+    @Mock
+    private WikiChatService wikiChatService;
+
+    @Mock
+    private WikiFaqAnswerStore answerStore;
+
+    @Mock
+    private WikiChunkSnapshotCache snapshotCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiFaqPrecomputer precomputer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        precomputer = new WikiFaqPrecomputer(wikiChatService, answerStore, snapshotCache, meterRegistry, true, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        precomputer.shutdown();
+    }
+
+    @Test
+    @DisplayName("precompute stores an answer per FAQ type against the refreshed commit")
+    void precompute_storesAnswerPerFaqType() {
+        when(snapshotCache.refresh("github:repo")).thenReturn(CompletableFuture.completedFuture(snapshot("def")));
+        when(answerStore.find(eq("github:repo"), any(), eq("def"))).thenReturn(Optional.empty());
+        when(wikiChatService.answerStandalone(eq("github:repo"), anyString())).thenReturn(Optional.of(ANSWER));
+        when(wikiChatService.answerStandalone("github:repo", WikiFaqType.RECENT_CHANGES.canonicalQuestion()))
+                .thenReturn(Optional.empty());
+
+        precomputer.precompute("github:repo");
+
+        verify(answerStore).save("github:repo", WikiFaqType.PROBLEM_SOLVED, "def", ANSWER);
+        verify(answerStore).save("github:repo", WikiFaqType.KEY_FEATURES, "def", ANSWER);
+        verify(answerStore, never()).save(any(), eq(WikiFaqType.RECENT_CHANGES), any(), any());
+        assertThat(meterRegistry.counter("wiki.faq.precompute.answers", "outcome", "stored").count()).isEqualTo(4.0d);
+        assertThat(meterRegistry.counter("wiki.faq.precompute.answers", "outcome", "rejected").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("precompute skips projects whose answers already match the current commit")
+    void precompute_skipsCompleteProjects() {
+        when(snapshotCache.refresh("github:repo")).thenReturn(CompletableFuture.completedFuture(snapshot("def")));
+        when(answerStore.isComplete("github:repo", "def")).thenReturn(true);
+
+        precomputer.precompute("github:repo");
+
+        verify(wikiChatService, never()).answerStandalone(any(), any());
+    }
+
+    @Test
+    @DisplayName("crawler events schedule precompute for every named project")
+    void onCrawlerJobCompleted_schedulesNamedProjects() {
+        when(snapshotCache.refresh(anyString())).thenReturn(CompletableFuture.completedFuture(snapshot("def")));
+        when(answerStore.isComplete(anyString(), eq("def"))).thenReturn(true);
+
+        precomputer.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-1", CacheScope.GIT_REPO, Set.of("github:a", "github:b")));
+
+        verify(answerStore, timeout(1000).times(2)).isComplete(anyString(), eq("def"));
+        verify(snapshotCache, times(1)).refresh("github:a");
+        verify(snapshotCache, times(1)).refresh("github:b");
+    }
+
+    @Test
+    @DisplayName("crawler events relayed from another node do not precompute again")
+    void onCrawlerJobCompleted_ignoresRemoteEvents() {
+        precomputer.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-1", CacheScope.GIT_REPO, Set.of("github:a"), true));
+
+        verify(snapshotCache, never()).refresh(anyString());
+    }
+
+    private WikiChunkSnapshot snapshot(String commitSha) {
+        WikiSectionChunk chunk = WikiSectionChunk.builder()
+                .id(1L)
+                .projectExternalId("github:repo")
+                .sectionId("overview")
+                .chunkType("summary")
+                .content("Project overview")
+                .commitSha(commitSha)
+                .build();
+        return WikiChunkSnapshot.of("github:repo", List.of(chunk), null);
+    }
+}
@@ -0,0 +1,128 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.dto.internal.WikiGlobalRetrievalContext;
+import kr.devport.api.domain.wiki.dto.internal.WikiGlobalRetrievalContext.ScoredProject;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ScoredChunkRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiGlobalRetrievalServiceTest {
+
+    private static final float[] QUERY = {1.0f, 0.0f};
+
+    @Mock
+    private WikiSectionChunkRepository chunkRepository;
+
+    @Mock
+    private WikiQueryEmbeddingService embeddingService;
+
+    @Mock
+    private WikiProjectRoutingIndex routingIndex;
+
+    @Mock
+    private WikiProjectVectorIndex vectorIndex;
+
+    private WikiRetrievalExecutor retrievalExecutor;
+    private WikiGlobalRetrievalService service;
+
+    @BeforeEach
+    void setUp() {
+        retrievalExecutor = new WikiRetrievalExecutor(new SimpleMeterRegistry(), 4, 1, 4, Duration.ofSeconds(1));
+        service = new WikiGlobalRetrievalService(
+                chunkRepository, embeddingService, routingIndex, vectorIndex, retrievalExecutor,
+                new WikiContextPacker(new WikiTokenCounter(new SimpleMeterRegistry(), "o200k_base", 1_000_000L)),
+                8, 4, Duration.ofSeconds(2));
+        when(embeddingService.embed("인증은 어떻게 해?")).thenReturn(QUERY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retrievalExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("retrieve searches only the routed projects, batched into one database statement")
+    void retrieve_searchesRoutedProjects() {
+        when(routingIndex.route(QUERY, 8)).thenReturn(List.of("github:auth", "github:web"));
+        when(chunkRepository.findSimilarChunksInProjectsWithScore(List.of("github:auth", "github:web"), QUERY, 4))
+                .thenReturn(List.of(row(1L, "github:auth", 0.9d), row(2L, "github:auth", 0.8d), row(3L, "github:web", 0.5d)));
+
+        WikiGlobalRetrievalContext context = service.retrieve("인증은 어떻게 해?");
+
+        assertThat(context.scoredProjects()).extracting(ScoredProject::projectExternalId).containsExactly("github:auth", "github:web");
+        verify(chunkRepository, never()).findSimilarChunksWithScore(any(), any(), anyInt());
+        verify(chunkRepository, never()).findSimilarChunksGlobalWithScore(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("projects served by the in-process vector index are left out of the database statement")
+    void retrieve_searchesSmallProjectsInProcess() {
+        when(routingIndex.route(QUERY, 8)).thenReturn(List.of("github:auth", "github:web"));
+        when(vectorIndex.search("github:auth", QUERY, 4)).thenReturn(Optional.of(List.of(row(1L, "github:auth", 0.9d))));
+        when(chunkRepository.findSimilarChunksInProjectsWithScore(List.of("github:web"), QUERY, 4))
+                .thenReturn(List.of(row(3L, "github:web", 0.5d)));
+
+        WikiGlobalRetrievalContext context = service.retrieve("인증은 어떻게 해?");
+
+        assertThat(context.scoredProjects()).extracting(ScoredProject::projectExternalId).containsExactly("github:auth", "github:web");
+    }
+
+    @Test
+    @DisplayName("a project whose in-process search fails is skipped while the other routed projects are still searched")
+    void retrieve_skipsProjectsWhoseSearchFails() {
+        when(routingIndex.route(QUERY, 8)).thenReturn(List.of("github:auth", "github:web", "github:docs"));
+        when(vectorIndex.search("github:auth", QUERY, 4)).thenThrow(new IllegalStateException("index load failed"));
+        when(vectorIndex.search("github:web", QUERY, 4)).thenReturn(Optional.of(List.of(row(3L, "github:web", 0.5d))));
+        when(chunkRepository.findSimilarChunksInProjectsWithScore(List.of("github:docs"), QUERY, 4))
+                .thenReturn(List.of(row(4L, "github:docs", 0.4d)));
+
+        WikiGlobalRetrievalContext context = service.retrieve("인증은 어떻게 해?");
+
+        assertThat(context.scoredProjects()).extracting(ScoredProject::projectExternalId).containsExactly("github:web", "github:docs");
+    }
+
+    @Test
+    @DisplayName("retrieve falls back to the global scan when routing yields no projects")
+    void retrieve_fallsBackToGlobalScan() {
+        when(routingIndex.route(QUERY, 8)).thenReturn(List.of());
+        when(chunkRepository.findSimilarChunksGlobalWithScore(eq(QUERY), anyInt()))
+                .thenReturn(List.of(row(1L, "github:auth", 0.9d)));
+
+        WikiGlobalRetrievalContext context = service.retrieve("인증은 어떻게 해?");
+
+        assertThat(context.scoredProjects()).extracting(ScoredProject::projectExternalId).containsExactly("github:auth");
+    }
+
+    private ScoredChunkRow row(Long id, String projectExternalId, double score) {
+        WikiSectionChunk chunk = WikiSectionChunk.builder()
+                .id(id)
+                .projectExternalId(projectExternalId)
+                .sectionId("architecture")
+                .chunkType("body")
+                .content("Authentication flow " + id)
+                .commitSha("abc")
+                .build();
+        return new ScoredChunkRow(chunk, score);
+    }
+}
@@ -0,0 +1,54 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WikiLexicalRerankerTest {
+
+    private final WikiLexicalReranker reranker = new WikiLexicalReranker();
+
+    @Test
+    @DisplayName("rerank prefers heading matches and matches Korean words through particles")
+    void rerank_prefersHeadingAndKoreanBigramMatches() {
+        List<WikiSectionChunk> candidates = List.of(
+                chunk("overview", "프로젝트 개요", "이 프로젝트는 위키 채팅을 제공합니다."),
+                chunk("architecture", "인증 흐름", "JwtAuthenticationFilter가 토큰을 검증합니다."),
+                chunk("deploy", "배포", "인증서 갱신은 배포 파이프라인에서 처리합니다.")
+        );
+
+        List<WikiReranker.ScoredChunk> scores = reranker.rerank("인증 흐름은 어떻게 동작해?", candidates);
+
+        assertThat(scores).isNotEmpty();
+        assertThat(scores.getFirst().index()).isEqualTo(1);
+        assertThat(scores.getFirst().score()).isEqualTo(1.0d);
+        assertThat(scores).extracting(WikiReranker.ScoredChunk::score).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+    }
+
+    @Test
+    @DisplayName("rerank returns no scores when the question shares no terms with the candidates")
+    void rerank_returnsEmptyWithoutLexicalEvidence() {
+        List<WikiSectionChunk> candidates = List.of(
+                chunk("overview", "Overview", "Wiki chat service"),
+                chunk("deploy", "Deploy", "GitHub Actions workflow")
+        );
+
+        assertThat(reranker.rerank("캐시 무효화", candidates)).isEmpty();
+    }
+
+    private WikiSectionChunk chunk(String sectionId, String titleKo, String content) {
+        return WikiSectionChunk.builder()
+                .projectExternalId("github:12345")
+                .sectionId(sectionId)
+                .chunkType("body")
+                .content(content)
+                .metadata(Map.of("titleKo", titleKo))
+                .commitSha("abc")
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiProjectPromptContextTest {
+
+    @Mock
+    private WikiChunkSnapshotCache snapshotCache;
+
+    private WikiProjectPromptContext projectPromptContext;
+
+    @BeforeEach
+    void setUp() {
+        WikiContextPacker contextPacker = new WikiContextPacker(
+                new WikiTokenCounter(new SimpleMeterRegistry(), "o200k_base", 1_000_000L));
+        projectPromptContext = new WikiProjectPromptContext(snapshotCache, contextPacker, 100);
+    }
+
+    @Test
+    @DisplayName("build renders section summaries and overviews but not bodies or subsection summaries")
+    void build_rendersProjectLevelChunks() {
+        when(snapshotCache.get("github:repo")).thenReturn(WikiChunkSnapshot.of("github:repo", List.of(
+                chunk("architecture", null, "summary", "Spring Boot API with JWT authentication"),
+                chunk("architecture", "auth", "summary", "Subsection summary"),
+                chunk("architecture", "auth", "body", "JwtAuthenticationFilter validates tokens"),
+                chunk("deployment", null, "overview", "Deployed with Docker Compose")
+        ), OffsetDateTime.now()));
+
+        String context = projectPromptContext.build("github:repo");
+
+        assertThat(context)
+                .startsWith("Project: github:repo\n")
+                .contains("Spring Boot API with JWT authentication", "Deployed with Docker Compose")
+                .doesNotContain("Subsection summary", "JwtAuthenticationFilter validates tokens");
+        assertThat(projectPromptContext.build("github:repo")).isEqualTo(context);
+    }
+
+    @Test
+    @DisplayName("build falls back to the bare project line when the snapshot cannot be loaded")
+    void build_fallsBackWhenSnapshotFails() {
+        when(snapshotCache.get("github:repo")).thenThrow(new IllegalStateException("database unavailable"));
+
+        assertThat(projectPromptContext.build("github:repo")).isEqualTo("Project: github:repo\n");
+    }
+
+    private WikiSectionChunk chunk(String sectionId, String subsectionId, String chunkType, String content) {
+        return WikiSectionChunk.builder()
+                .projectExternalId("github:repo")
+                .sectionId(sectionId)
+                .subsectionId(subsectionId)
+                .chunkType(chunkType)
+                .content(content)
+                .commitSha("abc")
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.common.cache.CacheScope;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ProjectCentroidRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiProjectRoutingIndexTest {
+
+    @Mock
+    private WikiSectionChunkRepository chunkRepository;
+
+    private WikiRetrievalExecutor retrievalExecutor;
+    private WikiProjectRoutingIndex routingIndex;
+
+    @BeforeEach
+    void setUp() {
+        retrievalExecutor = new WikiRetrievalExecutor(new SimpleMeterRegistry(), 4, 1, 4, Duration.ofSeconds(1));
+        routingIndex = new WikiProjectRoutingIndex(
+                chunkRepository, retrievalExecutor, new SimpleMeterRegistry(), true, Duration.ofHours(1), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        retrievalExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("route ranks projects by the closer of their centroid and summary centroid")
+    void route_ranksByBestCentroid() {
+        when(chunkRepository.findProjectCentroids()).thenReturn(List.of(
+                new ProjectCentroidRow("github:auth", 10, new float[]{0.9f, 0.1f, 0.0f}, new float[0]),
+                new ProjectCentroidRow("github:deploy", 10, new float[]{0.0f, 1.0f, 0.0f}, new float[0]),
+                new ProjectCentroidRow("github:docs", 10, new float[]{0.0f, 0.0f, 1.0f}, new float[]{1.0f, 0.0f, 0.0f})
+        ));
+        routingIndex.refresh().join();
+
+        List<String> routed = routingIndex.route(new float[]{1.0f, 0.0f, 0.0f}, 2);
+
+        assertThat(routed).containsExactly("github:docs", "github:auth");
+    }
+
+    @Test
+    @DisplayName("centroids are reloaded in the background only after a crawler completion marks the index stale")
+    void refresh_reloadsAfterCrawlerCompletion() {
+        when(chunkRepository.findProjectCentroids())
+                .thenReturn(List.of(new ProjectCentroidRow("github:auth", 10, new float[]{1.0f, 0.0f}, new float[0])))
+                .thenReturn(List.of(
+                        new ProjectCentroidRow("github:auth", 10, new float[]{1.0f, 0.0f}, new float[0]),
+                        new ProjectCentroidRow("github:new", 3, new float[]{0.0f, 1.0f}, new float[0])
+                ));
+
+        routingIndex.refresh().join();
+        assertThat(routingIndex.route(new float[]{0.0f, 1.0f}, 1)).containsExactly("github:auth");
+        routingIndex.refreshIfStale();
+        assertThat(routingIndex.route(new float[]{0.0f, 1.0f}, 1)).containsExactly("github:auth");
+
+        routingIndex.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-1", CacheScope.GIT_REPO, Set.of("github:new")));
+        routingIndex.refresh().join();
+
+        assertThat(routingIndex.route(new float[]{0.0f, 1.0f}, 1)).containsExactly("github:new");
+        verify(chunkRepository, times(2)).findProjectCentroids();
+    }
+
+    @Test
+    @DisplayName("a failed load routes to nothing and is not retried until the backoff has passed")
+    void refresh_backsOffAfterFailedLoad() {
+        when(chunkRepository.findProjectCentroids()).thenThrow(new IllegalStateException("database unavailable"));
+
+        routingIndex.refresh().join();
+        routingIndex.refresh().join();
+
+        assertThat(routingIndex.route(new float[]{1.0f, 0.0f}, 1)).isEmpty();
+        verify(chunkRepository, times(1)).findProjectCentroids();
+    }
+
+    @Test
+    @DisplayName("route only reads the loaded snapshot and never queries the database itself")
+    void route_doesNotLoadCentroids() {
+        assertThat(routingIndex.route(new float[]{1.0f, 0.0f}, 1)).isEmpty();
+
+        verify(chunkRepository, never()).findProjectCentroids();
+    }
+}
@@ -0,0 +1,140 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.common.cache.CacheScope;
+import kr.devport.api.domain.common.webhook.CrawlerJobCompletedEvent;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ChunkEmbeddingRow;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ScoredChunkRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiProjectVectorIndexTest {
+
+    @Mock
+    private WikiSectionChunkRepository chunkRepository;
+
+    @Mock
+    private WikiChunkSnapshotCache snapshotCache;
+
+    private WikiProjectVectorIndex vectorIndex;
+
+    @BeforeEach
+    void setUp() {
+        vectorIndex = new WikiProjectVectorIndex(chunkRepository, snapshotCache, new SimpleMeterRegistry(), true, 3, 1 << 20);
+    }
+
+    @Test
+    @DisplayName("search returns exact cosine top-k and reuses the built index")
+    void search_returnsExactTopKAndReusesIndex() {
+        WikiSectionChunk auth = chunk(1L, "Authentication Flow");
+        WikiSectionChunk cache = chunk(2L, "Cache Layer");
+        WikiSectionChunk api = chunk(3L, "Public API");
+        when(snapshotCache.get("github:12345"))
+                .thenReturn(WikiChunkSnapshot.of("github:12345", List.of(auth, cache, api), null));
+        when(chunkRepository.findChunkEmbeddings("github:12345")).thenReturn(List.of(
+                new ChunkEmbeddingRow(1L, new float[]{1.0f, 0.0f, 0.0f}),
+                new ChunkEmbeddingRow(2L, new float[]{0.0f, 2.0f, 0.0f}),
+                new ChunkEmbeddingRow(3L, new float[]{1.0f, 1.0f, 0.0f})
+        ));
+
+        Optional<List<ScoredChunkRow>> first = vectorIndex.search("github:12345", new float[]{2.0f, 0.0f, 0.0f}, 2);
+        Optional<List<ScoredChunkRow>> second = vectorIndex.search("github:12345", new float[]{0.0f, 1.0f, 0.0f}, 1);
+
+        assertThat(first).isPresent();
+        assertThat(first.get()).extracting(row -> row.chunk().getId()).containsExactly(1L, 3L);
+        assertThat(first.get().getFirst().score()).isCloseTo(1.0d, within(1e-6));
+        assertThat(first.get().get(1).score()).isCloseTo(Math.sqrt(0.5d), within(1e-6));
+        assertThat(second).isPresent();
+        assertThat(second.get()).extracting(row -> row.chunk().getId()).containsExactly(2L);
+        verify(chunkRepository, times(1)).findChunkEmbeddings("github:12345");
+    }
+
+    @Test
+    @DisplayName("search defers to pgvector for projects above the chunk threshold")
+    void search_defersLargeProjectsToDatabase() {
+        when(snapshotCache.get("github:large")).thenReturn(WikiChunkSnapshot.of("github:large", List.of(
+                chunk(1L, "A"), chunk(2L, "B"), chunk(3L, "C"), chunk(4L, "D")
+        ), null));
+
+        assertThat(vectorIndex.search("github:large", new float[]{1.0f, 0.0f, 0.0f}, 2)).isEmpty();
+        verify(chunkRepository, never()).findChunkEmbeddings("github:large");
+    }
+
+    @Test
+    @DisplayName("crawler completion for a project rebuilds its index on the next search")
+    void onCrawlerJobCompleted_rebuildsIndex() {
+        when(snapshotCache.get("github:12345"))
+                .thenReturn(WikiChunkSnapshot.of("github:12345", List.of(chunk(1L, "Overview")), null));
+        when(chunkRepository.findChunkEmbeddings("github:12345"))
+                .thenReturn(List.of(new ChunkEmbeddingRow(1L, new float[]{1.0f, 0.0f, 0.0f})));
+        vectorIndex.search("github:12345", new float[]{1.0f, 0.0f, 0.0f}, 1);
+
+        vectorIndex.onCrawlerJobCompleted(new CrawlerJobCompletedEvent("job-1", CacheScope.GIT_REPO, Set.of("github:12345")));
+        vectorIndex.search("github:12345", new float[]{1.0f, 0.0f, 0.0f}, 1);
+
+        verify(chunkRepository, times(2)).findChunkEmbeddings("github:12345");
+    }
+
+    @Test
+    @DisplayName("a project without embeddings is remembered and not reloaded on every search")
+    void search_cachesProjectsWithoutEmbeddings() {
+        when(snapshotCache.get("github:12345"))
+                .thenReturn(WikiChunkSnapshot.of("github:12345", List.of(chunk(1L, "Overview")), null));
+        when(chunkRepository.findChunkEmbeddings("github:12345")).thenReturn(List.of());
+
+        assertThat(vectorIndex.search("github:12345", new float[]{1.0f, 0.0f, 0.0f}, 1)).isEmpty();
+        assertThat(vectorIndex.search("github:12345", new float[]{1.0f, 0.0f, 0.0f}, 1)).isEmpty();
+
+        verify(chunkRepository, times(1)).findChunkEmbeddings("github:12345");
+    }
+
+    @Test
+    @DisplayName("a new commit builds a new index version")
+    void search_rebuildsIndexForNewCommit() {
+        when(snapshotCache.get("github:12345"))
+                .thenReturn(WikiChunkSnapshot.of("github:12345", List.of(chunk(1L, "Overview")), null))
+                .thenReturn(WikiChunkSnapshot.of("github:12345", List.of(chunk(1L, "Overview", "def")), null));
+        when(chunkRepository.findChunkEmbeddings("github:12345"))
+                .thenReturn(List.of(new ChunkEmbeddingRow(1L, new float[]{1.0f, 0.0f, 0.0f})));
+
+        vectorIndex.search("github:12345", new float[]{1.0f, 0.0f, 0.0f}, 1);
+        vectorIndex.search("github:12345", new float[]{1.0f, 0.0f, 0.0f}, 1);
+
+        verify(chunkRepository, times(2)).findChunkEmbeddings("github:12345");
+    }
+
+    private WikiSectionChunk chunk(Long id, String titleKo) {
+        return chunk(id, titleKo, "abc");
+    }
+
+    private WikiSectionChunk chunk(Long id, String titleKo, String commitSha) {
+        return WikiSectionChunk.builder()
+                .id(id)
+                .projectExternalId("github:12345")
+                .sectionId("architecture")
+                .chunkType("body")
+                .content(titleKo + " content")
+                .metadata(Map.of("titleKo", titleKo))
+                .commitSha(commitSha)
+                .build();
+    }
+}
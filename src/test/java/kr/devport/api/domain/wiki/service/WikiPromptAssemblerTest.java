@@ -0,0 +1,73 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.openai.models.chat.completions.ChatCompletionMessageParam;
+import com.openai.models.completions.CompletionUsage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WikiPromptAssemblerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WikiPromptAssembler promptAssembler = new WikiPromptAssembler(meterRegistry);
+
+    @Test
+    @DisplayName("assemble orders segments from most to least stable")
+    void assemble_ordersSegmentsByStability() {
+        List<ChatCompletionMessageParam> messages = promptAssembler.assemble(new WikiPromptAssembler.PromptLayout(
+                "policy",
+                "Project: github:repo",
+                "Repository Context: auth",
+                List.of(ChatTurn.builder().question("이전 질문").answer("이전 답변").build()),
+                "질문: 인증 구조가 뭐야?"
+        ));
+
+        assertThat(messages).hasSize(6);
+        assertThat(messages.get(0).isSystem()).isTrue();
+        assertThat(messages.get(0).toString()).contains("policy");
+        assertThat(messages.get(1).toString()).contains("Project: github:repo");
+        assertThat(messages.get(2).toString()).contains("Repository Context: auth");
+        assertThat(messages.get(3).isUser()).isTrue();
+        assertThat(messages.get(4).isAssistant()).isTrue();
+        assertThat(messages.get(5).toString()).contains("인증 구조가 뭐야?");
+    }
+
+    @Test
+    @DisplayName("recordUsage splits prompt tokens into cached and uncached")
+    void recordUsage_splitsCachedTokens() {
+        CompletionUsage usage = CompletionUsage.builder()
+                .promptTokens(2000)
+                .completionTokens(100)
+                .totalTokens(2100)
+                .promptTokensDetails(CompletionUsage.PromptTokensDetails.builder().cachedTokens(1536).build())
+                .build();
+
+        promptAssembler.recordUsage("project", usage);
+
+        assertThat(meterRegistry.counter("wiki.chat.prompt.tokens", "endpoint", "project", "cache", "cached").count()).isEqualTo(1536.0d);
+        assertThat(meterRegistry.counter("wiki.chat.prompt.tokens", "endpoint", "project", "cache", "uncached").count()).isEqualTo(464.0d);
+        assertThat(meterRegistry.summary("wiki.chat.prompt.cache.ratio", "endpoint", "project").mean()).isEqualTo(0.768d);
+    }
+
+    @Test
+    @DisplayName("recordUsage reuses the meters registered for an endpoint")
+    void recordUsage_accumulatesPerEndpoint() {
+        CompletionUsage usage = CompletionUsage.builder()
+                .promptTokens(1000)
+                .completionTokens(100)
+                .totalTokens(1100)
+                .build();
+
+        promptAssembler.recordUsage("project_stream", usage);
+        promptAssembler.recordUsage("project_stream", usage);
+
+        assertThat(meterRegistry.counter("wiki.chat.prompt.tokens", "endpoint", "project_stream", "cache", "uncached").count()).isEqualTo(2000.0d);
+        assertThat(meterRegistry.summary("wiki.chat.prompt.cache.ratio", "endpoint", "project_stream").count()).isEqualTo(2L);
+        assertThat(meterRegistry.getMeters()).hasSize(3);
+    }
+}
@@ -0,0 +1,130 @@
+package kr.devport.api.domain.wiki.service;
+
+import com.openai.client.OpenAIClient;
+import com.openai.models.embeddings.EmbeddingCreateParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiQueryEmbeddingServiceTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private OpenAIClient openAIClient;
+
+    @Mock
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> valueOperations;
+
+    private final Map<String, byte[]> redisStore = new HashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(binaryRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(valueOperations.get(anyString()))
+                .thenAnswer(invocation -> redisStore.get(invocation.<String>getArgument(0)));
+        lenient().doAnswer(invocation -> {
+            redisStore.put(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(valueOperations).set(anyString(), any(byte[].class), any(Duration.class));
+        lenient().when(openAIClient.embeddings().create(any(EmbeddingCreateParams.class)).data().getFirst().embedding())
+                .thenReturn(List.of(0.12f, 0.24f, 0.36f));
+    }
+
+    @Test
+    @DisplayName("embed serves repeated questions from L1 after normalizing case, whitespace and trailing punctuation")
+    void embed_servesNormalizedRepeatsFromLocalCache() {
+        WikiQueryEmbeddingService service = newService();
+
+        float[] first = service.embed("How is  auth wired?");
+        float[] second = service.embed("how is auth wired");
+
+        assertThat(second).containsExactly(first);
+        assertThat(lookups("l1")).isEqualTo(1.0d);
+        assertThat(lookups("miss")).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("embed sends the normalized question, the same text the cache is keyed by")
+    void embed_requestsEmbeddingForNormalizedQuestion() {
+        newService().embed("  How is  AUTH wired?? ");
+
+        ArgumentCaptor<EmbeddingCreateParams> params = ArgumentCaptor.forClass(EmbeddingCreateParams.class);
+        verify(openAIClient.embeddings()).create(params.capture());
+        assertThat(params.getValue().input().asString()).isEqualTo("how is auth wired");
+    }
+
+    @Test
+    @DisplayName("embed falls through to Redis when the local cache is cold")
+    void embed_readsBinaryPayloadFromRedis() {
+        newService().embed("How is auth wired?");
+
+        float[] fromRedis = newService().embed("How is auth wired?");
+
+        assertThat(fromRedis).containsExactly(0.12f, 0.24f, 0.36f);
+        assertThat(lookups("l2")).isEqualTo(1.0d);
+        assertThat(lookups("miss")).isEqualTo(1.0d);
+        assertThat(redisStore).singleElement()
+                .satisfies(entry -> assertThat(entry.getValue()).hasSize(5 + 3 * Float.BYTES));
+    }
+
+    @Test
+    @DisplayName("embed treats Redis failures as a cache miss")
+    void embed_failsOpenOnRedisErrors() {
+        when(binaryRedisTemplate.opsForValue()).thenThrow(new RuntimeException("redis down"));
+
+        float[] embedding = newService().embed("How is auth wired?");
+
+        assertThat(embedding).containsExactly(0.12f, 0.24f, 0.36f);
+    }
+
+    @Test
+    @DisplayName("decode rejects payloads with an unknown version or truncated body")
+    void decode_rejectsMalformedPayloads() {
+        byte[] encoded = WikiQueryEmbeddingService.encode(new float[]{1.0f, 2.0f});
+
+        assertThat(WikiQueryEmbeddingService.decode(encoded)).containsExactly(1.0f, 2.0f);
+        assertThat(WikiQueryEmbeddingService.decode(new byte[]{9, 0, 0, 0, 0})).isNull();
+        assertThat(WikiQueryEmbeddingService.decode(Arrays.copyOf(encoded, encoded.length - 1))).isNull();
+    }
+
+    private double lookups(String tier) {
+        return meterRegistry.get("wiki.embedding.cache.lookups").tag("tier", tier).counter().count();
+    }
+
+    private WikiQueryEmbeddingService newService() {
+        return new WikiQueryEmbeddingService(
+                openAIClient,
+                binaryRedisTemplate,
+                meterRegistry,
+                128,
+                Duration.ofMinutes(10),
+                Duration.ofDays(7)
+        );
+    }
+}
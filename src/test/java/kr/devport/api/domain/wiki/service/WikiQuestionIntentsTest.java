@@ -0,0 +1,46 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.enums.WikiFaqType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WikiQuestionIntentsTest {
+
+    @Test
+    @DisplayName("analyze detects FAQ categories in the former regex priority order")
+    void analyze_detectsFaqType() {
+        assertThat(faqType("이 프로젝트는 어떤 문제를 해결해?")).isEqualTo(WikiFaqType.PROBLEM_SOLVED);
+        assertThat(faqType("Why was this built?")).isEqualTo(WikiFaqType.PROBLEM_SOLVED);
+        assertThat(faqType("전체 아키텍처 설명해줘")).isEqualTo(WikiFaqType.ARCHITECTURE);
+        assertThat(faqType("How does the cache work?")).isEqualTo(WikiFaqType.ARCHITECTURE);
+        assertThat(faqType("Getting-Started 가이드 있어?")).isEqualTo(WikiFaqType.GETTING_STARTED);
+        assertThat(faqType("로컬에서 어떻게 시작해?")).isEqualTo(WikiFaqType.GETTING_STARTED);
+        assertThat(faqType("최근 변경 사항 알려줘")).isEqualTo(WikiFaqType.RECENT_CHANGES);
+        assertThat(faqType("What's new in this release?")).isEqualTo(WikiFaqType.RECENT_CHANGES);
+        assertThat(faqType("주요 기능이 뭐야?")).isEqualTo(WikiFaqType.KEY_FEATURES);
+        assertThat(faqType("JWT 토큰 만료 시간은?")).isEqualTo(WikiFaqType.NONE);
+    }
+
+    @Test
+    @DisplayName("analyze requires ordered keywords to appear in order")
+    void analyze_requiresOrderedKeywords() {
+        assertThat(WikiQuestionIntents.analyze("해결할 문제가 뭐야").faqType()).isEqualTo(WikiFaqType.PROBLEM_SOLVED);
+        assertThat(WikiQuestionIntents.analyze("work how").faqType()).isEqualTo(WikiFaqType.NONE);
+    }
+
+    @Test
+    @DisplayName("analyze flags history references and tokenizes the question once")
+    void analyze_flagsHistoryReferenceAndTokens() {
+        WikiQuestionIntents.Analysis analysis = WikiQuestionIntents.analyze("What did I ask BEFORE about JWT?");
+
+        assertThat(analysis.historyReference()).isTrue();
+        assertThat(analysis.tokens()).containsExactly("what", "did", "ask", "before", "about", "jwt");
+        assertThat(WikiQuestionIntents.analyze("JWT 필터 위치").historyReference()).isFalse();
+    }
+
+    private static WikiFaqType faqType(String question) {
+        return WikiQuestionIntents.analyze(question).faqType();
+    }
+}
@@ -0,0 +1,97 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.exception.WikiChatRateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiRateLimitEngineTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiRateLimitEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new WikiRateLimitEngine(redisTemplate, meterRegistry, true, 1000);
+    }
+
+    @Test
+    @DisplayName("the local bucket rejects a burst over the first window's limit without calling Redis")
+    void check_localBucketRejectsBurstWithoutRedis() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        for (int i = 0; i < WikiChatRateLimiter.LIMIT; i++) {
+            engine.check(WikiChatRateLimiter.POLICY, "42");
+        }
+        assertThatThrownBy(() -> engine.check(WikiChatRateLimiter.POLICY, "42"))
+                .isInstanceOf(WikiChatRateLimitExceededException.class)
+                .hasMessage("요청이 너무 많습니다. 잠시 후 다시 시도해 주세요.");
+
+        verify(redisTemplate, times(WikiChatRateLimiter.LIMIT)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertThat(meterRegistry.counter("wiki.rate_limit.decisions", "policy", "user", "outcome", "rejected_local").count())
+                .isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("local buckets are tracked per subject")
+    void check_localBucketsArePerSubject() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        engine.check(WikiAnonRateLimiter.POLICY, "203.0.113.7");
+
+        assertThatCode(() -> engine.check(WikiAnonRateLimiter.POLICY, "203.0.113.8")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> engine.check(WikiAnonRateLimiter.POLICY, "203.0.113.7"))
+                .isInstanceOf(WikiChatRateLimitExceededException.class);
+    }
+
+    @Test
+    @DisplayName("the anonymous limiter runs through the same script with its daily window")
+    void checkAndIncrement_usesSharedScript() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+        WikiAnonRateLimiter anonRateLimiter = new WikiAnonRateLimiter(
+                new WikiAnonTrafficShield(meterRegistry, false, 64, 2, 5), engine);
+
+        assertThatThrownBy(() -> anonRateLimiter.checkAndIncrement("203.0.113.7"))
+                .isInstanceOf(WikiChatRateLimitExceededException.class)
+                .hasMessageContaining("익명 사용자는 하루 1번만");
+
+        verify(redisTemplate).execute(
+                eq(WikiRateLimitEngine.GCRA_SCRIPT), eq(List.of("wiki:anon:ip:daily:203.0.113.7")), eq(1), eq(86_400_000L));
+    }
+
+    @Test
+    @DisplayName("the local bucket still limits while Redis is failing open")
+    void check_localBucketLimitsWhileRedisFailsOpen() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RuntimeException("Redis connection refused"));
+
+        assertThatCode(() -> engine.check(WikiAnonRateLimiter.POLICY, "203.0.113.7")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> engine.check(WikiAnonRateLimiter.POLICY, "203.0.113.7"))
+                .isInstanceOf(WikiChatRateLimitExceededException.class);
+        assertThat(meterRegistry.counter("wiki.rate_limit.decisions", "policy", "anonymous", "outcome", "fail_open").count())
+                .isEqualTo(1.0d);
+    }
+}
@@ -0,0 +1,72 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import kr.devport.api.domain.wiki.enums.WikiRerankMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiRerankRouterTest {
+
+    private static final List<WikiSectionChunk> CANDIDATES = List.of(
+            WikiSectionChunk.builder().sectionId("overview").chunkType("summary").content("a").build(),
+            WikiSectionChunk.builder().sectionId("architecture").chunkType("body").content("b").build()
+    );
+
+    @Mock
+    private WikiChunkReranker llmReranker;
+
+    @Mock
+    private WikiLexicalReranker lexicalReranker;
+
+    private WikiRerankRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new WikiRerankRouter(llmReranker, lexicalReranker, new SimpleMeterRegistry(), WikiRerankMode.GATED, 0.2d);
+    }
+
+    @Test
+    @DisplayName("gated mode keeps lexical scores when the best candidate wins clearly")
+    void rerank_gatedKeepsClearLexicalWinner() {
+        List<WikiReranker.ScoredChunk> local = List.of(new WikiReranker.ScoredChunk(1, 1.0d), new WikiReranker.ScoredChunk(0, 0.4d));
+        when(lexicalReranker.rerank("인증 흐름", CANDIDATES)).thenReturn(local);
+
+        assertThat(router.rerank("인증 흐름", CANDIDATES, null)).isEqualTo(local);
+        verify(llmReranker, never()).rerank(any(), anyList());
+    }
+
+    @Test
+    @DisplayName("gated mode escalates to the LLM reranker when lexical scores are ambiguous")
+    void rerank_gatedEscalatesAmbiguousScores() {
+        List<WikiReranker.ScoredChunk> llm = List.of(new WikiReranker.ScoredChunk(0, 0.9d), new WikiReranker.ScoredChunk(1, 0.3d));
+        when(lexicalReranker.rerank("구조", CANDIDATES))
+                .thenReturn(List.of(new WikiReranker.ScoredChunk(1, 1.0d), new WikiReranker.ScoredChunk(0, 0.95d)));
+        when(llmReranker.rerank("구조", CANDIDATES)).thenReturn(llm);
+
+        assertThat(router.rerank("구조", CANDIDATES, null)).isEqualTo(llm);
+    }
+
+    @Test
+    @DisplayName("local mode never calls the LLM reranker")
+    void rerank_localModeSkipsLlm() {
+        when(lexicalReranker.rerank("구조", CANDIDATES)).thenReturn(List.of());
+
+        assertThat(router.rerank("구조", CANDIDATES, WikiRerankMode.LOCAL)).isEmpty();
+        verify(llmReranker, never()).rerank(any(), anyList());
+    }
+}
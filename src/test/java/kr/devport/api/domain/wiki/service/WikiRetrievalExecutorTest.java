@@ -0,0 +1,75 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WikiRetrievalExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Pool of 2 with 1 reserved connection leaves a single database permit.
+    private final WikiRetrievalExecutor executor = new WikiRetrievalExecutor(meterRegistry, 2, 1, 4, Duration.ofMillis(100));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("submit rejects database work when the bulkhead stays saturated past the queue wait")
+    void submit_rejectsWhenBulkheadSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> holder = executor.submit(WikiRetrievalExecutor.Lane.DATABASE, () -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        started.await();
+
+        CompletableFuture<String> rejected = executor.submit(WikiRetrievalExecutor.Lane.DATABASE, () -> "second");
+
+        assertThatThrownBy(rejected::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        release.countDown();
+        assertThat(holder.join()).isEqualTo("first");
+        assertThat(meterRegistry.counter("wiki.retrieval.executor.rejected", "lane", "database").count()).isEqualTo(1.0d);
+        assertThat(meterRegistry.timer("wiki.retrieval.executor.queue", "lane", "database").count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("lanes have independent permits")
+    void submit_lanesAreIndependent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<String> database = executor.submit(WikiRetrievalExecutor.Lane.DATABASE, () -> {
+            started.countDown();
+            await(release);
+            return "db";
+        });
+        started.await();
+
+        assertThat(executor.submit(WikiRetrievalExecutor.Lane.MODEL, () -> "model").join()).isEqualTo("model");
+        release.countDown();
+        assertThat(database.join()).isEqualTo("db");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
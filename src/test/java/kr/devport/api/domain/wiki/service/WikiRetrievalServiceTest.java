@@ -1,30 +1,37 @@
 package kr.devport.api.domain.wiki.service;
 
-import com.openai.client.OpenAIClient;
-import com.openai.models.embeddings.EmbeddingCreateParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import kr.devport.api.domain.wiki.dto.internal.WikiRetrievalContext;
 import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
 import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepository;
+import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.FusedChunkRow;
 import kr.devport.api.domain.wiki.repository.WikiSectionChunkRepositoryCustom.ScoredChunkRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -32,28 +39,44 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class WikiRetrievalServiceTest {
 
+    private static final float[] QUERY_EMBEDDING = {0.12f, 0.24f, 0.36f};
+
     @Mock
     private WikiSectionChunkRepository chunkRepository;
 
     @Mock
-    private WikiChunkReranker chunkReranker;
+    private WikiRerankRouter rerankRouter;
 
-    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
-    private OpenAIClient openAIClient;
+    @Mock
+    private WikiQueryEmbeddingService embeddingService;
+
+    @Mock
+    private WikiChunkSnapshotCache snapshotCache;
+
+    @Mock
+    private WikiProjectVectorIndex vectorIndex;
+
+    @Spy
+    private WikiRetrievalExecutor retrievalExecutor =
+            new WikiRetrievalExecutor(new SimpleMeterRegistry(), 4, 1, 4, Duration.ofSeconds(1));
+
+    @Spy
+    private WikiContextPacker contextPacker =
+            new WikiContextPacker(new WikiTokenCounter(new SimpleMeterRegistry(), "o200k_base", 1_000_000L));
 
     @InjectMocks
     private WikiRetrievalService wikiRetrievalService;
 
     @BeforeEach
     void setUp() {
-        when(openAIClient.embeddings().create(any(EmbeddingCreateParams.class)).data().getFirst().embedding())
-                .thenReturn(List.of(0.12f, 0.24f, 0.36f));
+        lenient().when(embeddingService.embed(anyString()))
+                .thenReturn(QUERY_EMBEDDING);
     }
 
     @Test
     @DisplayName("retrieveContext throws when project has no wiki chunks")
     void retrieveContext_throwsWhenNoChunks() {
-        when(chunkRepository.findByProjectExternalId("github:12345")).thenReturn(List.of());
+        when(snapshotCache.get("github:12345")).thenReturn(WikiChunkSnapshot.empty("github:12345"));
 
         assertThatThrownBy(() -> wikiRetrievalService.retrieveContext("github:12345", "How does this work?"))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -69,9 +92,7 @@ class WikiRetrievalServiceTest {
         WikiSectionChunk howItWorks = chunk(4L, "how-it-works", null, "summary", "Runtime request flow", "How It Works", "src/main/java/RuntimeFlow.java");
         WikiSectionChunk api = chunk(5L, "api", null, "summary", "API entrypoints", "Public API", "src/main/java/WikiChatController.java");
 
-        when(chunkRepository.findByProjectExternalId("github:12345"))
-                .thenReturn(List.of(architectureSummary, architectureDetails, architectureCache, howItWorks, api));
-        when(chunkRepository.findSimilarChunksWithScore("github:12345", "[0.12,0.24,0.36]", 30))
+        when(chunkRepository.findSimilarChunksWithScore(eq("github:12345"), aryEq(QUERY_EMBEDDING), eq(30)))
                 .thenReturn(List.of(
                         new ScoredChunkRow(architectureSummary, 0.82d),
                         new ScoredChunkRow(architectureDetails, 0.91d),
@@ -88,7 +109,7 @@ class WikiRetrievalServiceTest {
             @SuppressWarnings("unchecked")
             List<WikiSectionChunk> input = invocation.getArgument(1);
             return IntStream.range(0, input.size())
-                    .mapToObj(index -> new WikiChunkReranker.ScoredChunk(index, switch (input.get(index).getSectionId()) {
+                    .mapToObj(index -> new WikiReranker.ScoredChunk(index, switch (input.get(index).getSectionId()) {
                         case "architecture" -> "auth".equals(input.get(index).getSubsectionId()) ? 0.97d
                                 : input.get(index).getSubsectionId() == null ? 0.80d : 0.74d;
                         case "how-it-works" -> 0.89d;
@@ -96,7 +117,7 @@ class WikiRetrievalServiceTest {
                         default -> 0.50d;
                     }))
                     .toList();
-        }).when(chunkReranker).rerank(eq("How is auth wired?"), anyList());
+        }).when(rerankRouter).rerank(eq("How is auth wired?"), anyList(), any());
 
         WikiRetrievalContext result = wikiRetrievalService.retrieveContext("github:12345", "How is auth wired?");
 
@@ -121,8 +142,8 @@ class WikiRetrievalServiceTest {
     void retrieveContext_returnsWeakGroundingContextWhenSimilarityTooLow() {
         WikiSectionChunk chunk = chunk(1L, "architecture", null, "summary", "JWT filter and refresh handling", "인증 흐름", "src/main/java/.../SecurityConfig.java");
 
-        when(chunkRepository.findByProjectExternalId("github:12345")).thenReturn(List.of(chunk));
-        when(chunkRepository.findSimilarChunksWithScore("github:12345", "[0.12,0.24,0.36]", 30))
+        when(snapshotCache.get("github:12345")).thenReturn(snapshot(chunk));
+        when(chunkRepository.findSimilarChunksWithScore(eq("github:12345"), aryEq(QUERY_EMBEDDING), eq(30)))
                 .thenReturn(List.of(new ScoredChunkRow(chunk, 0.18d)));
         when(chunkRepository.findLexicalCandidates("github:12345", "How does auth work?", 30))
                 .thenReturn(List.of());
@@ -142,8 +163,8 @@ class WikiRetrievalServiceTest {
     void retrieveContext_returnsWeakGroundingContextOnVectorSearchFailure() {
         WikiSectionChunk chunk = chunk(1L, "architecture", null, "summary", "JWT filter and refresh handling", "인증 흐름", "src/main/java/.../SecurityConfig.java");
 
-        when(chunkRepository.findByProjectExternalId("github:12345")).thenReturn(List.of(chunk));
-        when(openAIClient.embeddings().create(any(EmbeddingCreateParams.class)))
+        when(snapshotCache.get("github:12345")).thenReturn(snapshot(chunk));
+        when(embeddingService.embed(anyString()))
                 .thenThrow(new RuntimeException("embedding outage"));
 
         WikiRetrievalContext result = wikiRetrievalService.retrieveContext("github:12345", "How does auth work?");
@@ -162,9 +183,7 @@ class WikiRetrievalServiceTest {
         WikiSectionChunk auth = chunk(1L, "architecture", "auth", "body", "Authentication flow details", "Authentication Flow", "src/main/java/AuthFlow.java");
         WikiSectionChunk api = chunk(2L, "api", null, "summary", "API entrypoints", "Public API", "src/main/java/WikiChatController.java");
 
-        when(chunkRepository.findByProjectExternalId("github:12345"))
-                .thenReturn(List.of(auth, api));
-        when(chunkRepository.findSimilarChunksWithScore("github:12345", "[0.12,0.24,0.36]", 30))
+        when(chunkRepository.findSimilarChunksWithScore(eq("github:12345"), aryEq(QUERY_EMBEDDING), eq(30)))
                 .thenReturn(List.of(
                         new ScoredChunkRow(auth, 0.92d),
                         new ScoredChunkRow(api, 0.79d)
@@ -179,11 +198,109 @@ class WikiRetrievalServiceTest {
 
         assertThat(result.hasGrounding()).isTrue();
         assertThat(result.weakGrounding()).isFalse();
-        verify(chunkReranker, never()).rerank(any(), anyList());
+        verify(rerankRouter, never()).rerank(any(), anyList(), any());
         assertThat(result.chunks().getFirst().heading()).isEqualTo("Authentication Flow");
         assertThat(result.chunks().getFirst().rerankScore()).isNull();
     }
 
+    @Test
+    @DisplayName("retrieveContext uses the single-statement fused query when enabled")
+    void retrieveContext_usesFusedQueryWhenEnabled() {
+        ReflectionTestUtils.setField(wikiRetrievalService, "fusedSqlEnabled", true);
+        WikiSectionChunk auth = chunk(1L, "architecture", "auth", "body", "Authentication flow details", "Authentication Flow", "src/main/java/AuthFlow.java");
+        WikiSectionChunk api = chunk(2L, "api", null, "summary", "API entrypoints", "Public API", "src/main/java/WikiChatController.java");
+
+        when(chunkRepository.findHybridCandidatesFused(
+                eq("github:12345"), aryEq(QUERY_EMBEDDING), eq("How is auth wired?"), eq(30), eq(30), eq(60)))
+                .thenReturn(List.of(
+                        new FusedChunkRow(auth, 0.92d, 0.61d, 2.0d / 61),
+                        new FusedChunkRow(api, 0.79d, 0.20d, 2.0d / 62)
+                ));
+
+        WikiRetrievalContext result = wikiRetrievalService.retrieveContext("github:12345", "How is auth wired?");
+
+        assertThat(result.weakGrounding()).isFalse();
+        assertThat(result.chunks().getFirst().heading()).isEqualTo("Authentication Flow");
+        verify(chunkRepository, never()).findSimilarChunksWithScore(any(), any(), anyInt());
+        verify(chunkRepository, never()).findLexicalCandidates(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("retrieveContext falls back to in-memory fusion when the fused query fails")
+    void retrieveContext_fallsBackToInMemoryFusionWhenFusedQueryFails() {
+        ReflectionTestUtils.setField(wikiRetrievalService, "fusedSqlEnabled", true);
+        WikiSectionChunk auth = chunk(1L, "architecture", "auth", "body", "Authentication flow details", "Authentication Flow", "src/main/java/AuthFlow.java");
+        WikiSectionChunk api = chunk(2L, "api", null, "summary", "API entrypoints", "Public API", "src/main/java/WikiChatController.java");
+
+        when(chunkRepository.findHybridCandidatesFused(any(), any(), any(), anyInt(), anyInt(), anyInt()))
+                .thenThrow(new RuntimeException("syntax error at or near MATERIALIZED"));
+        when(chunkRepository.findSimilarChunksWithScore(eq("github:12345"), aryEq(QUERY_EMBEDDING), eq(30)))
+                .thenReturn(List.of(
+                        new ScoredChunkRow(auth, 0.92d),
+                        new ScoredChunkRow(api, 0.79d)
+                ));
+        when(chunkRepository.findLexicalCandidates("github:12345", "How is auth wired?", 30))
+                .thenReturn(List.of(new ScoredChunkRow(auth, 0.61d)));
+
+        WikiRetrievalContext result = wikiRetrievalService.retrieveContext("github:12345", "How is auth wired?");
+
+        assertThat(result.weakGrounding()).isFalse();
+        assertThat(result.chunks().getFirst().heading()).isEqualTo("Authentication Flow");
+    }
+
+    @Test
+    @DisplayName("in-memory fusion keeps only the best-ranked chunk per section key, like the fused query")
+    void retrieveContext_keepsBestRankedChunkPerCandidateKey() {
+        WikiSectionChunk auth = chunk(1L, "architecture", "auth", "body", "Authentication flow details", "Authentication Flow", "src/main/java/AuthFlow.java");
+        WikiSectionChunk authContinued = chunk(3L, "architecture", "auth", "body", "Authentication flow continued", "Authentication Flow", "src/main/java/AuthFlow.java");
+        WikiSectionChunk api = chunk(2L, "api", null, "summary", "API entrypoints", "Public API", "src/main/java/WikiChatController.java");
+
+        when(chunkRepository.findSimilarChunksWithScore(eq("github:12345"), aryEq(QUERY_EMBEDDING), eq(30)))
+                .thenReturn(List.of(
+                        new ScoredChunkRow(auth, 0.92d),
+                        new ScoredChunkRow(authContinued, 0.90d),
+                        new ScoredChunkRow(api, 0.79d)
+                ));
+        when(chunkRepository.findLexicalCandidates("github:12345", "How is auth wired?", 30))
+                .thenReturn(List.of(new ScoredChunkRow(authContinued, 0.61d)));
+
+        WikiRetrievalContext result = wikiRetrievalService.retrieveContext("github:12345", "How is auth wired?");
+
+        assertThat(result.chunks()).filteredOn(chunk -> "auth".equals(chunk.subsectionId()))
+                .singleElement()
+                .satisfies(chunk -> {
+                    assertThat(chunk.content()).isEqualTo("Authentication flow details");
+                    assertThat(chunk.similarityScore()).isEqualTo(0.92d);
+                });
+    }
+
+    @Test
+    @DisplayName("retrieveContext serves vector candidates from the in-process index for small projects")
+    void retrieveContext_usesInProcessVectorIndexWhenAvailable() {
+        ReflectionTestUtils.setField(wikiRetrievalService, "fusedSqlEnabled", true);
+        WikiSectionChunk auth = chunk(1L, "architecture", "auth", "body", "Authentication flow details", "Authentication Flow", "src/main/java/AuthFlow.java");
+        WikiSectionChunk api = chunk(2L, "api", null, "summary", "API entrypoints", "Public API", "src/main/java/WikiChatController.java");
+
+        when(vectorIndex.search(eq("github:12345"), aryEq(QUERY_EMBEDDING), eq(30)))
+                .thenReturn(Optional.of(List.of(
+                        new ScoredChunkRow(auth, 0.92d),
+                        new ScoredChunkRow(api, 0.79d)
+                )));
+        when(chunkRepository.findLexicalCandidates("github:12345", "How is auth wired?", 30))
+                .thenReturn(List.of(new ScoredChunkRow(auth, 0.61d)));
+
+        WikiRetrievalContext result = wikiRetrievalService.retrieveContext("github:12345", "How is auth wired?");
+
+        assertThat(result.weakGrounding()).isFalse();
+        assertThat(result.chunks().getFirst().heading()).isEqualTo("Authentication Flow");
+        verify(chunkRepository, never()).findHybridCandidatesFused(any(), any(), any(), anyInt(), anyInt(), anyInt());
+        verify(chunkRepository, never()).findSimilarChunksWithScore(any(), any(), anyInt());
+    }
+
+    private WikiChunkSnapshot snapshot(WikiSectionChunk... chunks) {
+        return WikiChunkSnapshot.of("github:12345", List.of(chunks), null);
+    }
+
     private WikiSectionChunk chunk(
             Long id,
             String sectionId,
@@ -0,0 +1,85 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.dto.internal.WikiChatResult;
+import kr.devport.api.domain.wiki.entity.WikiSectionChunk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WikiSemanticAnswerCacheTest {
+
+    private static final WikiChatResult ANSWER =
+            new WikiChatResult("요약하면 인증은 JWT 필터 중심이에요.", false, List.of(), List.of(), false, false);
+
+    @Mock
+    private WikiQueryEmbeddingService embeddingService;
+
+    @Mock
+    private WikiChunkSnapshotCache snapshotCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiSemanticAnswerCache answerCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        answerCache = new WikiSemanticAnswerCache(
+                embeddingService, snapshotCache, meterRegistry, true, 0.95d, 16, 100, Duration.ofHours(6));
+        lenient().when(snapshotCache.get("github:repo")).thenReturn(snapshot("abc"));
+        lenient().when(embeddingService.embed("인증 구조가 뭐야?")).thenReturn(new float[]{1.0f, 0.0f, 0.0f});
+    }
+
+    @Test
+    @DisplayName("lookup hits for a near-identical question against the same wiki commit")
+    void lookup_hitsForSimilarQuestion() {
+        when(embeddingService.embed("인증 구조 알려줘")).thenReturn(new float[]{0.99f, 0.05f, 0.0f});
+        answerCache.store("github:repo", "인증 구조가 뭐야?", ANSWER);
+
+        assertThat(answerCache.lookup("github:repo", "인증 구조 알려줘")).contains(ANSWER);
+        assertThat(meterRegistry.counter("wiki.answer.cache.lookups", "outcome", "hit").count()).isEqualTo(1.0d);
+        assertThat(meterRegistry.summary("wiki.answer.cache.similarity").count()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("lookup misses when similarity is below the threshold")
+    void lookup_missesBelowThreshold() {
+        when(embeddingService.embed("배포 파이프라인은?")).thenReturn(new float[]{0.0f, 1.0f, 0.0f});
+        answerCache.store("github:repo", "인증 구조가 뭐야?", ANSWER);
+
+        assertThat(answerCache.lookup("github:repo", "배포 파이프라인은?")).isEmpty();
+        assertThat(meterRegistry.counter("wiki.answer.cache.lookups", "outcome", "miss").count()).isEqualTo(1.0d);
+    }
+
+    @Test
+    @DisplayName("lookup misses after the wiki is regenerated at a new commit")
+    void lookup_missesAfterCommitChange() {
+        answerCache.store("github:repo", "인증 구조가 뭐야?", ANSWER);
+        when(snapshotCache.get("github:repo")).thenReturn(snapshot("def"));
+
+        assertThat(answerCache.lookup("github:repo", "인증 구조가 뭐야?")).isEmpty();
+    }
+
+    private WikiChunkSnapshot snapshot(String commitSha) {
+        WikiSectionChunk chunk = WikiSectionChunk.builder()
+                .id(1L)
+                .projectExternalId("github:repo")
+                .sectionId("architecture")
+                .chunkType("summary")
+                .content("Authentication overview")
+                .commitSha(commitSha)
+                .build();
+        return WikiChunkSnapshot.of("github:repo", List.of(chunk), null);
+    }
+}
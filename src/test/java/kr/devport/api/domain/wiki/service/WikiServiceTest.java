@@ -31,6 +31,9 @@ class WikiServiceTest {
     @Mock
     private WikiSectionChunkRepository wikiSectionChunkRepository;
 
+    @Mock
+    private WikiChunkSnapshotCache chunkSnapshotCache;
+
     @InjectMocks
     private WikiService wikiService;
 
@@ -66,8 +69,8 @@ class WikiServiceTest {
                 .build();
 
         when(projectRepository.findByExternalId("github:repo")).thenReturn(Optional.of(project));
-        when(wikiSectionChunkRepository.findByProjectExternalId("github:repo"))
-                .thenReturn(List.of(summaryChunk, bodyChunk));
+        when(chunkSnapshotCache.get("github:repo"))
+                .thenReturn(WikiChunkSnapshot.of("github:repo", List.of(summaryChunk, bodyChunk), null));
 
         WikiProjectPageResponse response = wikiService.getProjectWiki("github:repo");
 
@@ -0,0 +1,53 @@
+package kr.devport.api.domain.wiki.service;
+
+import kr.devport.api.domain.wiki.exception.WikiStreamCancelledException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WikiStreamCancellationTest {
+
+    @Test
+    @DisplayName("cancel closes the bound upstream exactly once")
+    void cancel_closesBoundUpstreamOnce() {
+        AtomicInteger closes = new AtomicInteger();
+        WikiStreamCancellation cancellation = new WikiStreamCancellation();
+        cancellation.bind(closes::incrementAndGet);
+
+        cancellation.cancel();
+        cancellation.cancel();
+
+        assertThat(closes).hasValue(1);
+        assertThat(cancellation.isCancelled()).isTrue();
+        assertThatThrownBy(cancellation::throwIfCancelled).isInstanceOf(WikiStreamCancelledException.class);
+    }
+
+    @Test
+    @DisplayName("binding after cancellation closes the upstream immediately")
+    void bind_afterCancelClosesImmediately() {
+        AtomicInteger closes = new AtomicInteger();
+        WikiStreamCancellation cancellation = new WikiStreamCancellation();
+        cancellation.cancel();
+
+        cancellation.bind(closes::incrementAndGet);
+
+        assertThat(closes).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("cancel after unbind leaves the finished upstream alone")
+    void cancel_afterUnbindDoesNotClose() {
+        AtomicInteger closes = new AtomicInteger();
+        WikiStreamCancellation cancellation = new WikiStreamCancellation();
+        cancellation.bind(closes::incrementAndGet);
+        cancellation.unbind();
+
+        cancellation.cancel();
+
+        assertThat(closes).hasValue(0);
+    }
+}
@@ -0,0 +1,27 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WikiStreamMetricsTest {
+
+    @Test
+    @DisplayName("recordCancelled estimates tokens saved from the mean completion of finished streams")
+    void recordCancelled_estimatesTokensSavedFromMeanCompletion() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        WikiTokenCounter tokenCounter = new WikiTokenCounter(meterRegistry, "o200k_base", 1_000_000L);
+        WikiStreamMetrics streamMetrics = new WikiStreamMetrics(meterRegistry, tokenCounter);
+        String answer = "인증은 SecurityConfig에서 시작해 JwtAuthenticationFilter가 토큰을 검증하는 흐름이에요.";
+        String partial = "인증은";
+
+        streamMetrics.recordCompleted("project_stream", answer, null);
+        streamMetrics.recordCancelled("project_stream", partial);
+
+        assertThat(meterRegistry.counter("wiki.chat.stream.cancelled", "endpoint", "project_stream").count()).isEqualTo(1.0d);
+        assertThat(meterRegistry.counter("wiki.chat.stream.cancelled.tokens.saved", "endpoint", "project_stream").count())
+                .isEqualTo(tokenCounter.count(answer) - tokenCounter.count(partial));
+    }
+}
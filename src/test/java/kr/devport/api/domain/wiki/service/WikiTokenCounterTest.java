@@ -0,0 +1,33 @@
+package kr.devport.api.domain.wiki.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WikiTokenCounterTest {
+
+    private final WikiTokenCounter tokenCounter = new WikiTokenCounter(new SimpleMeterRegistry(), "o200k_base", 1_000_000L);
+
+    @Test
+    @DisplayName("count matches the OpenAI encoding instead of a character estimate")
+    void count_usesBpeEncoding() {
+        assertThat(tokenCounter.count("hello world")).isEqualTo(2);
+        assertThat(tokenCounter.count("")).isZero();
+        assertThat(tokenCounter.count(null)).isZero();
+    }
+
+    @Test
+    @DisplayName("truncate keeps a token-aligned prefix within the budget")
+    void truncate_staysWithinBudget() {
+        String text = "인증은 SecurityConfig에서 JwtAuthenticationFilter를 등록하고 리프레시 토큰은 Redis에 저장해요. ".repeat(20);
+
+        String truncated = tokenCounter.truncate(text, 15);
+
+        assertThat(text).startsWith(truncated);
+        assertThat(truncated).isNotEmpty().doesNotContain("\uFFFD");
+        assertThat(tokenCounter.count(truncated)).isLessThanOrEqualTo(15);
+        assertThat(tokenCounter.truncate("짧은 문장", 100)).isEqualTo("짧은 문장");
+    }
+}
@@ -0,0 +1,104 @@
+package kr.devport.api.domain.wiki.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatSession;
+import kr.devport.api.domain.wiki.store.WikiChatSessionStore.ChatTurn;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WikiChatSessionCodecTest {
+
+    private static final String LONG_ANSWER = """
+            요약하면 인증은 **SecurityConfig**에서 필터 체인을 구성하고 `JwtAuthenticationFilter`가 토큰을 검사해요.
+
+            - 로그인 성공 시 `OAuth2SuccessHandler`가 토큰을 발급해요.
+
+            - 재발급은 `RefreshTokenService`가 담당해요.
+            """.repeat(8);
+
+    private SimpleMeterRegistry meterRegistry;
+    private WikiChatSessionCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        codec = new WikiChatSessionCodec(meterRegistry, 1024);
+    }
+
+    @Test
+    @DisplayName("a session round-trips with every field, including null project and nanosecond timestamps")
+    void encodeSession_roundTripsAllFields() {
+        Instant timestamp = Instant.parse("2026-10-18T01:02:03.123456789Z");
+        ChatSession session = ChatSession.builder()
+                .sessionId("session-1")
+                .projectExternalId(null)
+                .expiresAt(timestamp.plusSeconds(1800))
+                .turns(new ArrayList<>(List.of(
+                        turn("인증 구조가 뭐야?", "JWT를 써요.", timestamp, false),
+                        turn("어느 쪽을 볼까?", "선택할 수 있는 범위:\n- 필터\n- 토큰", timestamp, true)
+                )))
+                .build();
+
+        byte[] payload = codec.encodeSession(session);
+
+        assertThat(codec.isEncoded(payload)).isTrue();
+        assertThat(codec.decodeSession(payload)).isEqualTo(session);
+    }
+
+    @Test
+    @DisplayName("long turns are compressed and come out smaller than the JSON encoding")
+    void encodeTurn_compressesLongAnswersAndReportsSavedBytes() throws Exception {
+        ChatTurn turn = turn("인증 흐름 설명해줘", LONG_ANSWER, Instant.now(), false);
+
+        byte[] payload = codec.encodeTurn(turn);
+        byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(turn);
+
+        assertThat(payload[2] & 0x01).isEqualTo(1);
+        assertThat(payload.length).isLessThan(json.length / 2);
+        assertThat(codec.decodeTurn(payload)).isEqualTo(turn);
+        assertThat(meterRegistry.counter("wiki.session.codec.compression.saved.bytes").count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("short turns stay uncompressed")
+    void encodeTurn_leavesShortTurnsUncompressed() {
+        ChatTurn turn = turn("왜?", "필터 순서 때문이에요.", Instant.now(), false);
+
+        byte[] payload = codec.encodeTurn(turn);
+
+        assertThat(payload[2]).isZero();
+        assertThat(codec.decodeTurn(payload)).isEqualTo(turn);
+    }
+
+    @Test
+    @DisplayName("JSON payloads are not mistaken for binary ones and unknown versions are rejected")
+    void decode_rejectsJsonAndUnknownVersions() {
+        byte[] json = "{\"sessionId\":\"session-1\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] payload = codec.encodeTurn(turn("왜?", "필터 순서 때문이에요.", Instant.now(), false));
+        payload[1] = (byte) (WikiChatSessionCodec.VERSION + 1);
+
+        assertThat(codec.isEncoded(json)).isFalse();
+        assertThatThrownBy(() -> codec.decodeTurn(json)).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> codec.decodeTurn(payload)).isInstanceOf(SerializationException.class);
+    }
+
+    private static ChatTurn turn(String question, String answer, Instant timestamp, boolean wasClarification) {
+        return ChatTurn.builder()
+                .question(question)
+                .answer(answer)
+                .timestamp(timestamp)
+                .wasClarification(wasClarification)
+                .build();
+    }
+}
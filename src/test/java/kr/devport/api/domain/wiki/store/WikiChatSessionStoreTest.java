@@ -1,5 +1,7 @@
 package kr.devport.api.domain.wiki.store;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kr.devport.api.domain.wiki.enums.WikiSessionStorageMode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -8,18 +10,27 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,28 +42,50 @@ class WikiChatSessionStoreTest {
     @Mock
     private ValueOperations<String, Object> valueOperations;
 
+    @Mock
+    private RedisTemplate<String, byte[]> binaryRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, byte[]> binaryValueOperations;
+
     private WikiChatSessionStore sessionStore;
+    private final WikiChatSessionCodec codec = new WikiChatSessionCodec(new SimpleMeterRegistry(), 1024);
     private final Map<String, Object> redisStore = new HashMap<>();
+    private final Map<String, byte[]> binaryStore = new HashMap<>();
+    private final Map<String, List<byte[]>> redisLists = new HashMap<>();
+    private final Map<String, byte[]> redisStrings = new HashMap<>();
 
     @BeforeEach
     void setUp() {
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(binaryRedisTemplate.opsForValue()).thenReturn(binaryValueOperations);
 
-        doAnswer(invocation -> {
-            redisStore.put(invocation.getArgument(0), invocation.getArgument(1));
+        // JSON values written by the previous serializer; a raw read sees their JSON bytes.
+        lenient().when(valueOperations.get(anyString()))
+                .thenAnswer(invocation -> redisStore.get(invocation.getArgument(0)));
+
+        lenient().doAnswer(invocation -> {
+            binaryStore.put(invocation.getArgument(0), invocation.getArgument(1));
             return null;
-        }).when(valueOperations).set(anyString(), any(), any(Duration.class));
+        }).when(binaryValueOperations).set(anyString(), any(byte[].class), any(Duration.class));
 
-        when(valueOperations.get(anyString()))
-                .thenAnswer(invocation -> redisStore.get(invocation.getArgument(0)));
+        lenient().when(binaryValueOperations.get(anyString()))
+                .thenAnswer(invocation -> {
+                    String key = invocation.getArgument(0);
+                    if (redisStore.containsKey(key)) {
+                        return "{\"@class\":\"java.util.HashMap\"}".getBytes(StandardCharsets.UTF_8);
+                    }
+                    return binaryStore.get(key);
+                });
 
         lenient().when(redisTemplate.delete(anyString()))
-                .thenAnswer(invocation -> redisStore.remove(invocation.getArgument(0)) != null);
+                .thenAnswer(invocation -> redisStore.remove(invocation.getArgument(0)) != null
+                        | binaryStore.remove(invocation.getArgument(0)) != null);
 
         lenient().when(redisTemplate.hasKey(anyString()))
-                .thenAnswer(invocation -> redisStore.containsKey(invocation.getArgument(0)));
+                .thenAnswer(invocation -> hasValue(invocation.getArgument(0)));
 
-        sessionStore = new WikiChatSessionStore(redisTemplate);
+        sessionStore = new WikiChatSessionStore(redisTemplate, binaryRedisTemplate, codec, WikiSessionStorageMode.BLOB);
     }
 
     @Test
@@ -133,4 +166,153 @@ class WikiChatSessionStoreTest {
         assertThat(sessionStore.hasActiveSession("session-4")).isFalse();
         assertThat(sessionStore.loadTurns("session-4", "github:repo")).isEmpty();
     }
+
+    @Test
+    @DisplayName("sessions are stored in the binary format and sessions in the JSON format stay readable")
+    void saveTurn_writesBinaryAndReadsJsonSessions() {
+        redisStore.put("wiki:session:session-json", Map.of(
+                "sessionId", "session-json",
+                "projectExternalId", "github:repo",
+                "expiresAt", Instant.now().plusSeconds(600).toString(),
+                "turns", List.of(Map.of(
+                        "question", "예전 질문",
+                        "answer", "예전 답변",
+                        "timestamp", Instant.now().toString(),
+                        "wasClarification", false
+                ))
+        ));
+
+        assertThat(sessionStore.loadTurns("session-json", "github:repo"))
+                .extracting(WikiChatSessionStore.ChatTurn::getQuestion)
+                .containsExactly("예전 질문");
+
+        redisStore.remove("wiki:session:session-json");
+        sessionStore.saveTurn("session-bin", "github:repo", "새 질문", "새 답변", false);
+
+        assertThat(codec.isEncoded(binaryStore.get("wiki:session:session-bin"))).isTrue();
+        assertThat(redisStore).isEmpty();
+    }
+
+    @Test
+    @DisplayName("list storage appends turns without reading the session back and serves recent turns from one range read")
+    void listStorage_appendsWithoutReadingBackAndReadsRecentTurns() {
+        WikiChatSessionStore listStore = listStore();
+
+        listStore.saveTurn("session-5", "github:repo", "빌드 질문", "빌드 답변", false);
+        listStore.saveTurn("session-5", "github:repo", "배포 질문", "배포 답변", false);
+        listStore.saveTurn("session-5", "github:repo", "테스트 질문", "테스트 답변", true);
+        listStore.saveTurn("session-5", "github:repo", "아키텍처 질문", "아키텍처 답변", false);
+
+        List<WikiChatSessionStore.ChatTurn> turns = listStore.loadRecentTurns("session-5", "github:repo");
+
+        assertThat(turns)
+                .extracting(WikiChatSessionStore.ChatTurn::getQuestion)
+                .containsExactly("배포 질문", "테스트 질문", "아키텍처 질문");
+        assertThat(turns.get(1).isWasClarification()).isTrue();
+        verify(binaryValueOperations, never()).set(anyString(), any(byte[].class), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("list storage trims to capacity and starts over when the session moves to another project")
+    void listStorage_trimsToCapacityAndResetsOnProjectChange() {
+        WikiChatSessionStore listStore = listStore();
+        for (int index = 1; index <= 11; index++) {
+            listStore.saveTurn("session-6", "github:repo-a", "q" + index, "a" + index, false);
+        }
+
+        List<WikiChatSessionStore.ChatTurn> turns = listStore.loadTurns("session-6", "github:repo-a");
+        assertThat(turns).hasSize(10);
+        assertThat(turns.getFirst().getQuestion()).isEqualTo("q2");
+
+        listStore.saveTurn("session-6", "github:repo-b", "B 질문", "B 답변", false);
+
+        assertThat(listStore.loadTurns("session-6", "github:repo-b"))
+                .extracting(WikiChatSessionStore.ChatTurn::getQuestion)
+                .containsExactly("B 질문");
+        assertThat(listStore.loadTurns("session-6", "github:repo-a")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("list storage reads a legacy blob session and migrates it on the next turn")
+    void listStorage_readsAndMigratesLegacyBlobSession() {
+        sessionStore.saveTurn("session-7", "github:repo", "예전 질문 1", "예전 답변 1", false);
+        sessionStore.saveTurn("session-7", "github:repo", "예전 질문 2", "예전 답변 2", false);
+        WikiChatSessionStore listStore = listStore();
+
+        assertThat(listStore.loadRecentTurns("session-7", "github:repo"))
+                .extracting(WikiChatSessionStore.ChatTurn::getQuestion)
+                .containsExactly("예전 질문 1", "예전 질문 2");
+
+        listStore.saveTurn("session-7", "github:repo", "새 질문", "새 답변", false);
+
+        assertThat(binaryStore).doesNotContainKey("wiki:session:session-7");
+        assertThat(listStore.loadRecentTurns("session-7", "github:repo"))
+                .extracting(WikiChatSessionStore.ChatTurn::getQuestion)
+                .containsExactly("예전 질문 1", "예전 질문 2", "새 질문");
+        assertThat(listStore.hasActiveSession("session-7")).isTrue();
+    }
+
+    @Test
+    @DisplayName("list storage does not fetch the legacy blob for a session without one")
+    void listStorage_skipsLegacyReadForNewSession() {
+        WikiChatSessionStore listStore = listStore();
+
+        assertThat(listStore.loadRecentTurns("session-8", "github:repo")).isEmpty();
+
+        verify(binaryValueOperations, never()).get(anyString());
+    }
+
+    /**
+     * Runs the store in list mode against an in-memory stand-in for the two Lua scripts.
+     */
+    @SuppressWarnings("unchecked")
+    private WikiChatSessionStore listStore() {
+        when(binaryRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    Object[] arguments = invocation.getArguments();
+                    return runScript(invocation.getArgument(0), invocation.getArgument(1),
+                            Arrays.copyOfRange(arguments, 2, arguments.length));
+                });
+        lenient().when(redisTemplate.countExistingKeys(anyCollection()))
+                .thenAnswer(invocation -> ((Collection<String>) invocation.getArgument(0)).stream()
+                        .filter(key -> hasValue(key) || !redisLists.getOrDefault(key, List.of()).isEmpty())
+                        .count());
+        return new WikiChatSessionStore(redisTemplate, binaryRedisTemplate, codec, WikiSessionStorageMode.LIST);
+    }
+
+    private boolean hasValue(String key) {
+        return redisStore.containsKey(key) || binaryStore.containsKey(key);
+    }
+
+    private Object runScript(RedisScript<?> script, List<String> keys, Object[] args) {
+        byte[] project = (byte[]) args[0];
+        boolean projectMatches = Arrays.equals(redisStrings.get(keys.get(1)), project);
+        List<byte[]> turns = redisLists.computeIfAbsent(keys.get(0), key -> new ArrayList<>());
+        if (script == WikiChatSessionStore.APPEND_TURNS_SCRIPT) {
+            if (hasValue(keys.get(2))) {
+                return -1L;
+            }
+            if (project.length == 0 || !projectMatches) {
+                turns.clear();
+            }
+            for (int index = 3; index < args.length; index++) {
+                turns.add((byte[]) args[index]);
+            }
+            int maxTurns = Integer.parseInt(new String((byte[]) args[1], StandardCharsets.UTF_8));
+            while (turns.size() > maxTurns) {
+                turns.removeFirst();
+            }
+            redisStrings.put(keys.get(1), project);
+            return (long) turns.size();
+        }
+        List<byte[]> range = new ArrayList<>();
+        if (project.length == 0 || projectMatches) {
+            int start = Integer.parseInt(new String((byte[]) args[1], StandardCharsets.UTF_8));
+            range.addAll(turns.subList(start < 0 ? Math.max(0, turns.size() + start) : start, turns.size()));
+        }
+        if (range.isEmpty() && hasValue(keys.get(2))) {
+            return List.of(WikiChatSessionStore.LEGACY_SESSION_MARKER);
+        }
+        return range;
+    }
 }
@@ -0,0 +1,41 @@
+package kr.devport.api.domain.wiki.service;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+/**
+ * Vector API dot-product kernel. Compiled and packaged only with {@code -PvectorApi};
+ * {@link WikiVectorKernels#best()} loads it reflectively when jdk.incubator.vector is resolved.
+ */
+final class WikiSimdKernel implements WikiVectorKernels.Kernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public float dot(MemorySegment rows, long rowOffsetBytes, float[] query) {
+        int upperBound = SPECIES.loopBound(query.length);
+        FloatVector acc = FloatVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upperBound; i += SPECIES.length()) {
+            FloatVector row = FloatVector.fromMemorySegment(
+                    SPECIES, rows, rowOffsetBytes + (long) i * Float.BYTES, ByteOrder.nativeOrder());
+            FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+            acc = row.fma(q, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < query.length; i++) {
+            sum += rows.get(ValueLayout.JAVA_FLOAT_UNALIGNED, rowOffsetBytes + (long) i * Float.BYTES) * query[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String name() {
+        return "simd-" + SPECIES.vectorBitSize();
+    }
+}